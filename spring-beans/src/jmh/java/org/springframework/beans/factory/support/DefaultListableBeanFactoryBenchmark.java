@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+/**
+ * Benchmarks for {@link DefaultListableBeanFactory#getBean} on singleton and
+ * prototype bean definitions, as well as by-type lookups.
+ *
+ * @since 4.3.1
+ */
+@State(Scope.Benchmark)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@Param({"10", "1000"})
+	public int beanCount;
+
+	private DefaultListableBeanFactory beanFactory;
+
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.beanFactory = new DefaultListableBeanFactory();
+		for (int i = 0; i < this.beanCount; i++) {
+			this.beanFactory.registerBeanDefinition("filler" + i, new RootBeanDefinition(Object.class));
+		}
+
+		RootBeanDefinition dependency = new RootBeanDefinition(TestBean.class);
+		this.beanFactory.registerBeanDefinition("dependency", dependency);
+
+		RootBeanDefinition singleton = new RootBeanDefinition(TestBean.class);
+		singleton.getPropertyValues().add("name", "singleton").add("spouse", new RuntimeBeanReference("dependency"));
+		this.beanFactory.registerBeanDefinition("singleton", singleton);
+
+		RootBeanDefinition prototype = new RootBeanDefinition(TestBean.class);
+		prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		prototype.getPropertyValues().add("name", "prototype").add("spouse", new RuntimeBeanReference("dependency"));
+		this.beanFactory.registerBeanDefinition("prototype", prototype);
+
+		RootBeanDefinition constructorPrototype = new RootBeanDefinition(TestBean.class);
+		constructorPrototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		constructorPrototype.getConstructorArgumentValues().addGenericArgumentValue("constructor");
+		this.beanFactory.registerBeanDefinition("constructorPrototype", constructorPrototype);
+
+		this.beanFactory.preInstantiateSingletons();
+	}
+
+
+	@Benchmark
+	public Object singletonByName() {
+		return this.beanFactory.getBean("singleton");
+	}
+
+	@Benchmark
+	public Object prototypeByName() {
+		return this.beanFactory.getBean("prototype");
+	}
+
+	@Benchmark
+	public Object prototypeWithConstructorArgument() {
+		return this.beanFactory.getBean("constructorPrototype");
+	}
+
+	@Benchmark
+	public Object beanNamesForType() {
+		return this.beanFactory.getBeanNamesForType(TestBean.class);
+	}
+
+
+	public static class TestBean {
+
+		private String name;
+
+		private TestBean spouse;
+
+		public TestBean() {
+		}
+
+		public TestBean(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public TestBean getSpouse() {
+			return this.spouse;
+		}
+
+		public void setSpouse(TestBean spouse) {
+			this.spouse = spouse;
+		}
+	}
+
+}
@@ -929,6 +929,12 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 */
 	private PropertyTokenHolder getPropertyNameTokens(String propertyName) {
 		PropertyTokenHolder tokens = new PropertyTokenHolder();
+		if (propertyName.indexOf(PROPERTY_KEY_PREFIX_CHAR) == -1) {
+			// Plain property name without keys: nothing to parse
+			tokens.actualName = propertyName;
+			tokens.canonicalName = propertyName;
+			return tokens;
+		}
 		String actualName = null;
 		List<String> keys = new ArrayList<String>(2);
 		int searchIndex = 0;
@@ -20,6 +20,7 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -28,6 +29,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -36,6 +38,7 @@ import org.springframework.core.SpringProperties;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.StringUtils;
 
@@ -64,6 +67,12 @@ import org.springframework.util.StringUtils;
  * recreates much-requested entries every time the garbage collector removed them. In
  * such a scenario, consider the {@link #IGNORE_BEANINFO_PROPERTY_NAME} system property.
  *
+ * <p>Such non-cache-safe entries are segregated per ClassLoader and bounded in number
+ * per ClassLoader, evicting the least recently used entries beyond the limit given
+ * by the {@link #CACHE_LIMIT_PROPERTY_NAME} system property. This keeps the footprint
+ * of dynamically generated classes under control, and lets an application's classes
+ * be released along with its ClassLoader without affecting other ClassLoaders.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @since 05 May 2001
@@ -92,16 +101,32 @@ public class CachedIntrospectionResults {
 	 */
 	public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+	/**
+	 * System property that specifies the maximum number of introspection results to
+	 * keep per ClassLoader for classes which do not qualify as cache-safe:
+	 * "spring.beaninfo.cacheLimit". The default is 1024.
+	 * <p>Results for cache-safe classes and for classes from
+	 * {@linkplain #acceptClassLoader accepted ClassLoaders} are not subject to this limit.
+	 * @since 4.3.1
+	 */
+	public static final String CACHE_LIMIT_PROPERTY_NAME = "spring.beaninfo.cacheLimit";
+
+	private static final int DEFAULT_CACHE_LIMIT = 1024;
+
 
 	private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
 			SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
 
+	private static final int cacheLimit = determineCacheLimit();
+
 	/** Stores the BeanInfoFactory instances */
 	private static List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
 			BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
 
 	private static final Log logger = LogFactory.getLog(CachedIntrospectionResults.class);
 
+	private static final Object NO_GENERATED_ACCESSORS = new Object();
+
 	/**
 	 * Set of ClassLoaders that this CachedIntrospectionResults class will always
 	 * accept classes from, even if the classes do not qualify as cache-safe.
@@ -117,11 +142,18 @@ public class CachedIntrospectionResults {
 			new ConcurrentHashMap<Class<?>, CachedIntrospectionResults>(64);
 
 	/**
-	 * Map keyed by Class containing CachedIntrospectionResults, softly held.
+	 * Map keyed by ClassLoader containing bounded caches of CachedIntrospectionResults
+	 * for the classes of that ClassLoader, softly held.
 	 * This variant is being used for non-cache-safe bean classes.
 	 */
-	static final ConcurrentMap<Class<?>, CachedIntrospectionResults> softClassCache =
-			new ConcurrentReferenceHashMap<Class<?>, CachedIntrospectionResults>(64);
+	static final ConcurrentMap<ClassLoader, ClassCacheSegment> softClassCache =
+			new ConcurrentReferenceHashMap<ClassLoader, ClassCacheSegment>(16);
+
+	private static final AtomicLong introspectionCount = new AtomicLong();
+
+	private static final AtomicLong introspectionTime = new AtomicLong();
+
+	private static final AtomicLong evictionCount = new AtomicLong();
 
 
 	/**
@@ -161,14 +193,54 @@ public class CachedIntrospectionResults {
 				it.remove();
 			}
 		}
-		for (Iterator<Class<?>> it = softClassCache.keySet().iterator(); it.hasNext();) {
-			Class<?> beanClass = it.next();
-			if (isUnderneathClassLoader(beanClass.getClassLoader(), classLoader)) {
+		for (Iterator<ClassLoader> it = softClassCache.keySet().iterator(); it.hasNext();) {
+			ClassLoader segmentLoader = it.next();
+			if (isUnderneathClassLoader(segmentLoader, classLoader)) {
 				it.remove();
 			}
 		}
 	}
 
+	/**
+	 * Return the number of introspection results currently held in the cache,
+	 * including softly held results which have not been garbage-collected yet.
+	 * @since 4.3.1
+	 */
+	public static int getCacheSize() {
+		int size = strongClassCache.size();
+		for (ClassCacheSegment segment : softClassCache.values()) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Return the number of bean classes introspected so far, including
+	 * repeated introspection of classes evicted from the cache.
+	 * @since 4.3.1
+	 */
+	public static long getIntrospectionCount() {
+		return introspectionCount.get();
+	}
+
+	/**
+	 * Return the total time spent on the introspection of bean classes so far.
+	 * @return the time in nanoseconds
+	 * @since 4.3.1
+	 */
+	public static long getIntrospectionTimeNanos() {
+		return introspectionTime.get();
+	}
+
+	/**
+	 * Return the number of introspection results evicted from the cache
+	 * because of the per-ClassLoader {@link #CACHE_LIMIT_PROPERTY_NAME limit}.
+	 * @since 4.3.1
+	 */
+	public static long getEvictionCount() {
+		return evictionCount.get();
+	}
+
 	/**
 	 * Create CachedIntrospectionResults for the given bean class.
 	 * @param beanClass the bean class to analyze
@@ -181,29 +253,53 @@ public class CachedIntrospectionResults {
 		if (results != null) {
 			return results;
 		}
-		results = softClassCache.get(beanClass);
-		if (results != null) {
-			return results;
+		ClassLoader classLoader = beanClass.getClassLoader();
+		ClassCacheSegment segment = softClassCache.get(classLoader);
+		if (segment != null) {
+			results = segment.get(beanClass);
+			if (results != null) {
+				return results;
+			}
 		}
 
+		long startTime = System.nanoTime();
 		results = new CachedIntrospectionResults(beanClass);
-		ConcurrentMap<Class<?>, CachedIntrospectionResults> classCacheToUse;
+		introspectionTime.addAndGet(System.nanoTime() - startTime);
+		introspectionCount.incrementAndGet();
 
 		if (ClassUtils.isCacheSafe(beanClass, CachedIntrospectionResults.class.getClassLoader()) ||
-				isClassLoaderAccepted(beanClass.getClassLoader())) {
-			classCacheToUse = strongClassCache;
+				isClassLoaderAccepted(classLoader)) {
+			CachedIntrospectionResults existing = strongClassCache.putIfAbsent(beanClass, results);
+			return (existing != null ? existing : results);
 		}
-		else {
-			if (logger.isDebugEnabled()) {
-				logger.debug("Not strongly caching class [" + beanClass.getName() + "] because it is not cache-safe");
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Not strongly caching class [" + beanClass.getName() + "] because it is not cache-safe");
+		}
+		if (segment == null) {
+			segment = new ClassCacheSegment(cacheLimit);
+			ClassCacheSegment existingSegment = softClassCache.putIfAbsent(classLoader, segment);
+			if (existingSegment != null) {
+				segment = existingSegment;
 			}
-			classCacheToUse = softClassCache;
 		}
-
-		CachedIntrospectionResults existing = classCacheToUse.putIfAbsent(beanClass, results);
+		CachedIntrospectionResults existing = segment.putIfAbsent(beanClass, results);
 		return (existing != null ? existing : results);
 	}
 
+	private static int determineCacheLimit() {
+		String value = SpringProperties.getProperty(CACHE_LIMIT_PROPERTY_NAME);
+		if (value != null) {
+			try {
+				return Integer.parseInt(value.trim());
+			}
+			catch (NumberFormatException ex) {
+				logger.warn("Ignoring invalid value for '" + CACHE_LIMIT_PROPERTY_NAME + "': " + value);
+			}
+		}
+		return DEFAULT_CACHE_LIMIT;
+	}
+
 	/**
 	 * Check whether this CachedIntrospectionResults class is configured
 	 * to accept the given ClassLoader.
@@ -244,8 +340,8 @@ public class CachedIntrospectionResults {
 	}
 
 
-	/** The BeanInfo object for the introspected bean class */
-	private final BeanInfo beanInfo;
+	/** The introspected bean class */
+	private final Class<?> beanClass;
 
 	/** PropertyDescriptor objects keyed by property name String */
 	private final Map<String, PropertyDescriptor> propertyDescriptorCache;
@@ -253,6 +349,9 @@ public class CachedIntrospectionResults {
 	/** TypeDescriptor objects keyed by PropertyDescriptor */
 	private final ConcurrentMap<PropertyDescriptor, TypeDescriptor> typeDescriptorCache;
 
+	/** Lazily generated property accessors, or NO_GENERATED_ACCESSORS if not available */
+	private volatile Object generatedAccessors;
+
 
 	/**
 	 * Create a new CachedIntrospectionResults instance for the given class.
@@ -261,24 +360,10 @@ public class CachedIntrospectionResults {
 	 */
 	private CachedIntrospectionResults(Class<?> beanClass) throws BeansException {
 		try {
-			if (logger.isTraceEnabled()) {
-				logger.trace("Getting BeanInfo for class [" + beanClass.getName() + "]");
-			}
-
-			BeanInfo beanInfo = null;
-			for (BeanInfoFactory beanInfoFactory : beanInfoFactories) {
-				beanInfo = beanInfoFactory.getBeanInfo(beanClass);
-				if (beanInfo != null) {
-					break;
-				}
-			}
-			if (beanInfo == null) {
-				// If none of the factories supported the class, fall back to the default
-				beanInfo = (shouldIntrospectorIgnoreBeaninfoClasses ?
-						Introspector.getBeanInfo(beanClass, Introspector.IGNORE_ALL_BEANINFO) :
-						Introspector.getBeanInfo(beanClass));
-			}
-			this.beanInfo = beanInfo;
+			this.beanClass = beanClass;
+			// Only the property descriptors are being kept - the BeanInfo itself with its
+			// method descriptors (and an ExtendedBeanInfo's delegate) is being released.
+			BeanInfo beanInfo = introspect(beanClass);
 
 			if (logger.isTraceEnabled()) {
 				logger.trace("Caching PropertyDescriptors for class [" + beanClass.getName() + "]");
@@ -286,7 +371,7 @@ public class CachedIntrospectionResults {
 			this.propertyDescriptorCache = new LinkedHashMap<String, PropertyDescriptor>();
 
 			// This call is slow so we do it once.
-			PropertyDescriptor[] pds = this.beanInfo.getPropertyDescriptors();
+			PropertyDescriptor[] pds = beanInfo.getPropertyDescriptors();
 			for (PropertyDescriptor pd : pds) {
 				if (Class.class == beanClass &&
 						("classLoader".equals(pd.getName()) ||  "protectionDomain".equals(pd.getName()))) {
@@ -309,6 +394,10 @@ public class CachedIntrospectionResults {
 			while (clazz != null) {
 				Class<?>[] ifcs = clazz.getInterfaces();
 				for (Class<?> ifc : ifcs) {
+					if (!hasBeanPropertyMethods(ifc)) {
+						// No need to go through the Introspector for marker interfaces etc
+						continue;
+					}
 					BeanInfo ifcInfo = Introspector.getBeanInfo(ifc, Introspector.IGNORE_ALL_BEANINFO);
 					PropertyDescriptor[] ifcPds = ifcInfo.getPropertyDescriptors();
 					for (PropertyDescriptor pd : ifcPds) {
@@ -328,12 +417,55 @@ public class CachedIntrospectionResults {
 		}
 	}
 
+	/**
+	 * Obtain the BeanInfo for the given bean class, from the first {@link BeanInfoFactory}
+	 * supporting the class or from the JavaBeans {@link Introspector}.
+	 */
+	private static BeanInfo introspect(Class<?> beanClass) throws IntrospectionException {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Getting BeanInfo for class [" + beanClass.getName() + "]");
+		}
+		for (BeanInfoFactory beanInfoFactory : beanInfoFactories) {
+			BeanInfo beanInfo = beanInfoFactory.getBeanInfo(beanClass);
+			if (beanInfo != null) {
+				return beanInfo;
+			}
+		}
+		// If none of the factories supported the class, fall back to the default
+		return (shouldIntrospectorIgnoreBeaninfoClasses ?
+				Introspector.getBeanInfo(beanClass, Introspector.IGNORE_ALL_BEANINFO) :
+				Introspector.getBeanInfo(beanClass));
+	}
+
+	/**
+	 * Check whether the given interface declares any method which may
+	 * qualify as a bean property read or write method.
+	 */
+	private static boolean hasBeanPropertyMethods(Class<?> ifc) {
+		for (Method method : ifc.getMethods()) {
+			String name = method.getName();
+			if (name.startsWith("get") || name.startsWith("is") || name.startsWith("set")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the BeanInfo for the bean class. Not cached: obtained from
+	 * the {@link BeanInfoFactory} or {@link Introspector} again on every call.
+	 */
 	BeanInfo getBeanInfo() {
-		return this.beanInfo;
+		try {
+			return introspect(this.beanClass);
+		}
+		catch (IntrospectionException ex) {
+			throw new FatalBeanException("Failed to obtain BeanInfo for class [" + this.beanClass.getName() + "]", ex);
+		}
 	}
 
 	Class<?> getBeanClass() {
-		return this.beanInfo.getBeanDescriptor().getBeanClass();
+		return this.beanClass;
 	}
 
 	PropertyDescriptor getPropertyDescriptor(String name) {
@@ -379,4 +511,42 @@ public class CachedIntrospectionResults {
 		return this.typeDescriptorCache.get(pd);
 	}
 
+	/**
+	 * Return bytecode-generated accessors for the bean class, generating them
+	 * on first access.
+	 * @return the accessors, or {@code null} if not available for the bean class
+	 * @since 4.3.1
+	 */
+	GeneratedPropertyAccessors getGeneratedAccessors() {
+		Object accessors = this.generatedAccessors;
+		if (accessors == null) {
+			accessors = GeneratedPropertyAccessors.forClass(getBeanClass());
+			if (accessors == null) {
+				accessors = NO_GENERATED_ACCESSORS;
+			}
+			this.generatedAccessors = accessors;
+		}
+		return (accessors != NO_GENERATED_ACCESSORS ? (GeneratedPropertyAccessors) accessors : null);
+	}
+
+
+	/**
+	 * Bounded cache of CachedIntrospectionResults for the classes of a specific
+	 * ClassLoader, evicting least recently used entries beyond its limit.
+	 * Lookups do not lock; evictions are counted for monitoring purposes.
+	 * @since 4.3.1
+	 * @see #getEvictionCount()
+	 */
+	static class ClassCacheSegment extends ConcurrentLruCache<Class<?>, CachedIntrospectionResults> {
+
+		public ClassCacheSegment(int limit) {
+			super(limit);
+		}
+
+		@Override
+		protected void onEviction(Class<?> beanClass, CachedIntrospectionResults results) {
+			evictionCount.incrementAndGet();
+		}
+	}
+
 }
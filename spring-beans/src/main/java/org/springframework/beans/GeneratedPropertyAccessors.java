@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cglib.core.SpringNamingPolicy;
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Bytecode-generated accessors for the property methods of a bean class, based on a
+ * CGLIB {@link FastClass}: the generated class invokes read and write methods through
+ * direct calls, avoiding the access checks and argument handling of reflection.
+ *
+ * <p>Only available for public classes in a regular ClassLoader, and only applied to
+ * public methods. {@link BeanWrapperImpl} falls back to reflection for all other
+ * methods, and in case the generated class cannot be created at all.
+ *
+ * @since 4.3.1
+ * @see BeanWrapperImpl#setUseGeneratedAccessors
+ * @see CachedIntrospectionResults#getGeneratedAccessors()
+ */
+final class GeneratedPropertyAccessors {
+
+	/**
+	 * Marker returned from {@link #invokeReadMethod} for methods that need
+	 * to be invoked through reflection.
+	 */
+	static final Object NOT_SUPPORTED = new Object();
+
+	private static final Log logger = LogFactory.getLog(GeneratedPropertyAccessors.class);
+
+
+	private final FastClass fastClass;
+
+	/** Index of each property method in the generated class, or -1 if not supported */
+	private final Map<Method, Integer> methodIndexCache = new ConcurrentReferenceHashMap<Method, Integer>(32);
+
+
+	private GeneratedPropertyAccessors(FastClass fastClass) {
+		this.fastClass = fastClass;
+	}
+
+
+	/**
+	 * Invoke the given read method on the given target, if supported.
+	 * @param readMethod the read method of the property
+	 * @param target the bean instance to invoke the method on
+	 * @return the value returned by the read method, or {@link #NOT_SUPPORTED}
+	 * if it needs to be invoked through reflection instead
+	 * @throws InvocationTargetException if the read method threw an exception
+	 */
+	public Object invokeReadMethod(Method readMethod, Object target) throws InvocationTargetException {
+		int index = getIndex(readMethod);
+		return (index >= 0 ? this.fastClass.invoke(index, target, null) : NOT_SUPPORTED);
+	}
+
+	/**
+	 * Invoke the given write method on the given target, if supported.
+	 * <p>Values which do not match the parameter type are left to reflection,
+	 * in order to retain its error handling.
+	 * @param writeMethod the write method of the property
+	 * @param target the bean instance to invoke the method on
+	 * @param value the value to pass to the write method
+	 * @return {@code true} if the method has been invoked; {@code false}
+	 * if it needs to be invoked through reflection instead
+	 * @throws InvocationTargetException if the write method threw an exception
+	 */
+	public boolean invokeWriteMethod(Method writeMethod, Object target, Object value)
+			throws InvocationTargetException {
+
+		int index = getIndex(writeMethod);
+		if (index < 0 || !ClassUtils.isAssignableValue(writeMethod.getParameterTypes()[0], value)) {
+			return false;
+		}
+		this.fastClass.invoke(index, target, new Object[] {value});
+		return true;
+	}
+
+	private int getIndex(Method method) {
+		Integer index = this.methodIndexCache.get(method);
+		if (index == null) {
+			index = -1;
+			if (Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()) &&
+					method.getDeclaringClass().isAssignableFrom(this.fastClass.getJavaClass())) {
+				index = this.fastClass.getIndex(method.getName(), method.getParameterTypes());
+			}
+			this.methodIndexCache.put(method, index);
+		}
+		return index;
+	}
+
+
+	/**
+	 * Generate accessors for the given bean class.
+	 * @param beanClass the bean class to generate accessors for
+	 * @return the accessors, or {@code null} if not supported for the given class
+	 */
+	static GeneratedPropertyAccessors forClass(Class<?> beanClass) {
+		if (!Modifier.isPublic(beanClass.getModifiers()) || beanClass.isInterface() || beanClass.isArray() ||
+				beanClass.getClassLoader() == null || beanClass.getName().startsWith("java.")) {
+			return null;
+		}
+		try {
+			FastClass.Generator generator = new FastClass.Generator();
+			generator.setType(beanClass);
+			generator.setClassLoader(beanClass.getClassLoader());
+			generator.setNamingPolicy(SpringNamingPolicy.INSTANCE);
+			return new GeneratedPropertyAccessors(generator.create());
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not generate property accessors for [" + beanClass.getName() +
+						"] - falling back to reflection", ex);
+			}
+			return null;
+		}
+	}
+
+}
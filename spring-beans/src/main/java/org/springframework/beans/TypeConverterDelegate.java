@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import org.springframework.core.CollectionFactory;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.convert.ConversionFailedException;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.PrimitiveConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.NumberUtils;
@@ -170,6 +171,11 @@ class TypeConverterDelegate {
 			TypeDescriptor sourceTypeDesc = TypeDescriptor.forObject(newValue);
 			if (conversionService.canConvert(sourceTypeDesc, typeDescriptor)) {
 				try {
+					if (conversionService instanceof PrimitiveConversionService &&
+							isDirectPrimitiveConversion(newValue, typeDescriptor)) {
+						return (T) convertToPrimitive((PrimitiveConversionService) conversionService,
+								newValue, typeDescriptor.getType());
+					}
 					return (T) conversionService.convert(newValue, sourceTypeDesc, typeDescriptor);
 				}
 				catch (ConversionFailedException ex) {
@@ -315,6 +321,33 @@ class TypeConverterDelegate {
 		return (T) convertedValue;
 	}
 
+	/**
+	 * Determine whether the given conversion is supported by the direct conversion
+	 * methods on {@link PrimitiveConversionService}. Annotated targets need to go
+	 * through regular conversion, since they may be subject to formatting, as well
+	 * as values of the target's wrapper type, in order to retain the given instance.
+	 */
+	private static boolean isDirectPrimitiveConversion(Object value, TypeDescriptor typeDescriptor) {
+		Class<?> type = typeDescriptor.getType();
+		return ((int.class == type || long.class == type || double.class == type || boolean.class == type) &&
+				typeDescriptor.getAnnotations().length == 0 && !ClassUtils.isAssignableValue(type, value));
+	}
+
+	private static Object convertToPrimitive(PrimitiveConversionService conversionService, Object value, Class<?> type) {
+		if (int.class == type) {
+			return conversionService.convertToInt(value);
+		}
+		else if (long.class == type) {
+			return conversionService.convertToLong(value);
+		}
+		else if (double.class == type) {
+			return conversionService.convertToDouble(value);
+		}
+		else {
+			return conversionService.convertToBoolean(value);
+		}
+	}
+
 	private Object attemptToConvertStringToEnum(Class<?> requiredType, String trimmedValue, Object currentConvertedValue) {
 		Object convertedValue = currentConvertedValue;
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -132,6 +132,9 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	 */
 	private boolean allowRawInjectionDespiteWrapping = false;
 
+	/** Profiler to record bean creation steps with, if any */
+	private StartupProfiler startupProfiler;
+
 	/**
 	 * Dependency types to ignore on dependency check and autowire, as Set of
 	 * Class objects: for example, String. Default is none.
@@ -246,6 +249,26 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		this.allowRawInjectionDespiteWrapping = allowRawInjectionDespiteWrapping;
 	}
 
+	/**
+	 * Set a {@link StartupProfiler} to record the instantiation, population
+	 * and initialization of each bean as well as each BeanPostProcessor
+	 * invocation with.
+	 * <p>Default is none. Set this to {@code null} again after startup in order
+	 * to avoid the profiling overhead for subsequently created beans.
+	 * @since 4.3.1
+	 */
+	public void setStartupProfiler(StartupProfiler startupProfiler) {
+		this.startupProfiler = startupProfiler;
+	}
+
+	/**
+	 * Return the {@link StartupProfiler} to record bean creation steps with, if any.
+	 * @since 4.3.1
+	 */
+	public StartupProfiler getStartupProfiler() {
+		return this.startupProfiler;
+	}
+
 	/**
 	 * Ignore the given dependency type for autowiring:
 	 * for example, String. Default is none.
@@ -279,6 +302,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 					(AbstractAutowireCapableBeanFactory) otherFactory;
 			this.instantiationStrategy = otherAutowireFactory.instantiationStrategy;
 			this.allowCircularReferences = otherAutowireFactory.allowCircularReferences;
+			this.startupProfiler = otherAutowireFactory.startupProfiler;
 			this.ignoredDependencyTypes.addAll(otherAutowireFactory.ignoredDependencyTypes);
 			this.ignoredDependencyInterfaces.addAll(otherAutowireFactory.ignoredDependencyInterfaces);
 		}
@@ -413,7 +437,13 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 
 		Object result = existingBean;
 		for (BeanPostProcessor beanProcessor : getBeanPostProcessors()) {
-			result = beanProcessor.postProcessBeforeInitialization(result, beanName);
+			StartupStep step = startPostProcessorStep(beanProcessor, beanName);
+			try {
+				result = beanProcessor.postProcessBeforeInitialization(result, beanName);
+			}
+			finally {
+				endStep(step);
+			}
 			if (result == null) {
 				return result;
 			}
@@ -427,7 +457,13 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 
 		Object result = existingBean;
 		for (BeanPostProcessor beanProcessor : getBeanPostProcessors()) {
-			result = beanProcessor.postProcessAfterInitialization(result, beanName);
+			StartupStep step = startPostProcessorStep(beanProcessor, beanName);
+			try {
+				result = beanProcessor.postProcessAfterInitialization(result, beanName);
+			}
+			finally {
+				endStep(step);
+			}
 			if (result == null) {
 				return result;
 			}
@@ -523,7 +559,13 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		}
 		if (instanceWrapper == null) {
 			// 根据指定bean使用对应的策略创建新的实例，如：工厂方法、构造函数自动注入、简单初始化
-			instanceWrapper = createBeanInstance(beanName, mbd, args);
+			StartupStep step = startStep(StartupStep.Type.BEAN_INSTANTIATION, beanName);
+			try {
+				instanceWrapper = createBeanInstance(beanName, mbd, args);
+			}
+			finally {
+				endStep(step);
+			}
 		}
 		final Object bean = (instanceWrapper != null ? instanceWrapper.getWrappedInstance() : null);
 		Class<?> beanType = (instanceWrapper != null ? instanceWrapper.getWrappedClass() : null);
@@ -562,10 +604,22 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		Object exposedObject = bean;
 		try {
 			// 对bean进行填充，将各个属性值注入，其中，可能存在依赖于其他bean的属性，则会递归初始依赖bean。
-			populateBean(beanName, mbd, instanceWrapper);
+			StartupStep step = startStep(StartupStep.Type.BEAN_POPULATION, beanName);
+			try {
+				populateBean(beanName, mbd, instanceWrapper);
+			}
+			finally {
+				endStep(step);
+			}
 			if (exposedObject != null) {
 				// 调用初始化方法，比如init-method
-				exposedObject = initializeBean(beanName, exposedObject, mbd);
+				step = startStep(StartupStep.Type.BEAN_INITIALIZATION, beanName);
+				try {
+					exposedObject = initializeBean(beanName, exposedObject, mbd);
+				}
+				finally {
+					endStep(step);
+				}
 			}
 		}
 		catch (Throwable ex) {
@@ -963,7 +1017,13 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 			for (BeanPostProcessor bp : getBeanPostProcessors()) {
 				if (bp instanceof MergedBeanDefinitionPostProcessor) {
 					MergedBeanDefinitionPostProcessor bdp = (MergedBeanDefinitionPostProcessor) bp;
-					bdp.postProcessMergedBeanDefinition(mbd, beanType, beanName);
+					StartupStep step = startPostProcessorStep(bp, beanName);
+					try {
+						bdp.postProcessMergedBeanDefinition(mbd, beanType, beanName);
+					}
+					finally {
+						endStep(step);
+					}
 				}
 			}
 		}
@@ -1262,7 +1322,13 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 					if (bp instanceof InstantiationAwareBeanPostProcessor) {
 						InstantiationAwareBeanPostProcessor ibp = (InstantiationAwareBeanPostProcessor) bp;
 						// 对所有需要依赖检查的属性进行后处理
-						pvs = ibp.postProcessPropertyValues(pvs, filteredPds, bw.getWrappedInstance(), beanName);
+						StartupStep step = startPostProcessorStep(bp, beanName);
+						try {
+							pvs = ibp.postProcessPropertyValues(pvs, filteredPds, bw.getWrappedInstance(), beanName);
+						}
+						finally {
+							endStep(step);
+						}
 						if (pvs == null) {
 							return;
 						}
@@ -1804,6 +1870,34 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		this.factoryBeanInstanceCache.remove(beanName);
 	}
 
+	/**
+	 * Start a step of the given type for the given bean,
+	 * if a {@link StartupProfiler} has been set.
+	 * @return the running step, or {@code null} if not profiling
+	 */
+	private StartupStep startStep(StartupStep.Type type, String beanName) {
+		StartupProfiler profiler = this.startupProfiler;
+		return (profiler != null ? profiler.start(type, beanName, beanName) : null);
+	}
+
+	/**
+	 * Start a step for the invocation of the given post-processor,
+	 * if a {@link StartupProfiler} has been set.
+	 * @return the running step, or {@code null} if not profiling
+	 */
+	private StartupStep startPostProcessorStep(BeanPostProcessor postProcessor, String beanName) {
+		StartupProfiler profiler = this.startupProfiler;
+		return (profiler != null ?
+				profiler.start(StartupStep.Type.BEAN_POST_PROCESSOR, postProcessor.getClass().getName(), beanName) :
+				null);
+	}
+
+	private static void endStep(StartupStep step) {
+		if (step != null) {
+			step.end();
+		}
+	}
+
 
 	/**
 	 * Special DependencyDescriptor variant for Spring's good old autowire="byType" mode.
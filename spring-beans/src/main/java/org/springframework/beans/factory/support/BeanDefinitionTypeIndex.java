@@ -0,0 +1,408 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Incrementally maintained index of the bean definitions in a
+ * {@link DefaultListableBeanFactory}, narrowing down the bean names that
+ * need to be checked for a by-type lookup to those that may actually match.
+ *
+ * <p>For each bean definition, the types that the factory's type matching may
+ * see for it are recorded: its target type, the type predicted by
+ * post-processors, the type of its singleton instance (e.g. a proxy), or the
+ * object type and class of a FactoryBean singleton. A bean can only match a
+ * given type if any of those types is assignable to it; the remaining checks
+ * are still performed by the bean factory itself, so the index only needs
+ * to be conservative.
+ *
+ * <p>Bean definitions whose type cannot be determined without triggering class
+ * loading or bean creation (e.g. an unresolved bean class, a factory method with
+ * ambiguous return types, or a FactoryBean that has not been created yet) stay
+ * <i>pending</i>: they are reconsidered on every
+ * lookup until their type becomes known. Bean definitions whose type cannot be
+ * captured statically at all (decorated definitions, non-singleton FactoryBeans)
+ * are <i>dynamic</i> and always returned as candidates.
+ *
+ * <p>Candidates are kept as bit sets over slots in bean definition registration
+ * order, so that lookups preserve the registration order of bean names.
+ *
+ * @since 4.3.1
+ * @see DefaultListableBeanFactory#setTypeIndexEnabled
+ */
+class BeanDefinitionTypeIndex {
+
+	private static final Set<Class<?>> DYNAMIC = Collections.unmodifiableSet(new LinkedHashSet<Class<?>>());
+
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private boolean initialized = false;
+
+	/** Slots in registration order, with null for removed bean definitions */
+	private final List<Slot> slots = new ArrayList<Slot>(256);
+
+	/** Bean name --> slot index */
+	private final Map<String, Integer> slotIndexes = new HashMap<String, Integer>(256);
+
+	private int removedSlotCount;
+
+	private final BitSet pendingSlots = new BitSet();
+
+	private final BitSet dynamicSlots = new BitSet();
+
+	/** Type --> slots of the indexed bean definitions that may match the type */
+	private final Map<Class<?>, BitSet> slotsByType = new HashMap<Class<?>, BitSet>(64);
+
+
+	public BeanDefinitionTypeIndex(DefaultListableBeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+	}
+
+
+	/**
+	 * Return the names of all bean definitions that may match the given type,
+	 * in registration order.
+	 * @param type the (raw) type to match
+	 * @return the candidate bean names
+	 */
+	public List<String> getCandidateNames(Class<?> type) {
+		resolvePendingSlots();
+		synchronized (this) {
+			BitSet candidates = getSlotsForType(type);
+			candidates.or(this.dynamicSlots);
+			candidates.or(this.pendingSlots);
+			// Early singleton references might already be exposed for these...
+			for (String beanName : this.beanFactory.getSingletonsCurrentlyInCreation()) {
+				Integer index = this.slotIndexes.get(beanName);
+				if (index != null) {
+					candidates.set(index);
+				}
+			}
+			List<String> candidateNames = new ArrayList<String>(candidates.cardinality());
+			for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+				candidateNames.add(this.slots.get(i).beanName);
+			}
+			return candidateNames;
+		}
+	}
+
+	/**
+	 * Register a new bean definition, or invalidate the entry of
+	 * an existing bean definition that has been overridden.
+	 */
+	public synchronized void register(String beanName) {
+		if (!this.initialized) {
+			return;
+		}
+		Integer index = this.slotIndexes.get(beanName);
+		if (index != null) {
+			invalidateSlot(index);
+		}
+		else {
+			addSlot(beanName);
+		}
+	}
+
+	/**
+	 * Remove the entry of the given bean definition.
+	 */
+	public synchronized void remove(String beanName) {
+		if (!this.initialized) {
+			return;
+		}
+		Integer index = this.slotIndexes.remove(beanName);
+		if (index != null) {
+			clearSlot(index);
+			this.slots.set(index, null);
+			this.pendingSlots.clear(index);
+			this.removedSlotCount++;
+			if (this.removedSlotCount > 16 && this.removedSlotCount > this.slots.size() / 2) {
+				// Compact slots on next lookup
+				reset();
+			}
+		}
+	}
+
+	/**
+	 * Invalidate the entry of the given bean definition,
+	 * e.g. after its merged bean definition has been reset.
+	 */
+	public synchronized void invalidate(String beanName) {
+		if (!this.initialized) {
+			return;
+		}
+		Integer index = this.slotIndexes.get(beanName);
+		if (index != null) {
+			invalidateSlot(index);
+		}
+	}
+
+	/**
+	 * Invalidate all entries, e.g. after bean definition metadata has been
+	 * cleared or after post-processors have been added that may predict
+	 * different bean types.
+	 */
+	public synchronized void invalidateAll() {
+		reset();
+	}
+
+	/**
+	 * Record the type of a singleton instance for the given bean,
+	 * which might be different from its bean definition's type.
+	 */
+	public synchronized void registerInstanceType(String beanName, Class<?> instanceType) {
+		if (!this.initialized) {
+			return;
+		}
+		Integer index = this.slotIndexes.get(beanName);
+		if (index == null) {
+			return;
+		}
+		Slot slot = this.slots.get(index);
+		if (slot.types == null || FactoryBean.class.isAssignableFrom(instanceType)) {
+			// Pending or changed kind of bean: make sure it gets (re-)resolved
+			invalidateSlot(index);
+		}
+		else if (slot.types != DYNAMIC && !slot.types.contains(instanceType)) {
+			slot.types.add(instanceType);
+			for (Map.Entry<Class<?>, BitSet> entry : this.slotsByType.entrySet()) {
+				if (entry.getKey().isAssignableFrom(instanceType)) {
+					entry.getValue().set(index);
+				}
+			}
+		}
+	}
+
+
+	private void resolvePendingSlots() {
+		List<Slot> pending;
+		int[] generations;
+		synchronized (this) {
+			if (!this.initialized) {
+				for (String beanName : this.beanFactory.getBeanDefinitionNames()) {
+					addSlot(beanName);
+				}
+				this.initialized = true;
+			}
+			if (this.pendingSlots.isEmpty()) {
+				return;
+			}
+			pending = new ArrayList<Slot>(this.pendingSlots.cardinality());
+			generations = new int[this.pendingSlots.cardinality()];
+			for (int i = this.pendingSlots.nextSetBit(0); i >= 0; i = this.pendingSlots.nextSetBit(i + 1)) {
+				Slot slot = this.slots.get(i);
+				generations[pending.size()] = slot.generation;
+				pending.add(slot);
+			}
+		}
+
+		// Determine types outside of the lock, since this may call into post-processors
+		List<Set<Class<?>>> resolvedTypes = new ArrayList<Set<Class<?>>>(pending.size());
+		for (Slot slot : pending) {
+			resolvedTypes.add(determineTypes(slot.beanName));
+		}
+
+		synchronized (this) {
+			for (int i = 0; i < pending.size(); i++) {
+				Slot slot = pending.get(i);
+				Set<Class<?>> types = resolvedTypes.get(i);
+				Integer index = this.slotIndexes.get(slot.beanName);
+				if (types == null || index == null || this.slots.get(index) != slot ||
+						slot.generation != generations[i]) {
+					// Still pending, or modified in the meantime
+					continue;
+				}
+				this.pendingSlots.clear(index);
+				slot.types = types;
+				if (types == DYNAMIC) {
+					this.dynamicSlots.set(index);
+				}
+				else {
+					for (Map.Entry<Class<?>, BitSet> entry : this.slotsByType.entrySet()) {
+						if (matches(types, entry.getKey())) {
+							entry.getValue().set(index);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Determine the types that the bean factory's type matching
+	 * may see for the given bean.
+	 * @return the types, {@link #DYNAMIC} if they cannot be captured, or
+	 * {@code null} if they cannot be determined yet
+	 */
+	private Set<Class<?>> determineTypes(String beanName) {
+		try {
+			RootBeanDefinition mbd = this.beanFactory.getMergedLocalBeanDefinition(beanName);
+			if (mbd.isAbstract()) {
+				return new LinkedHashSet<Class<?>>(2);
+			}
+			if (mbd.getDecoratedDefinition() != null) {
+				return DYNAMIC;
+			}
+			Object beanInstance = this.beanFactory.getSingleton(beanName, false);
+			Class<?> targetType = mbd.getTargetType();
+			if (targetType == null) {
+				if (mbd.getFactoryMethodName() != null) {
+					// The declared return type of the factory method, e.g. of a @Bean method
+					targetType = this.beanFactory.getTypeForFactoryMethod(beanName, mbd);
+					if (targetType == null) {
+						if (beanInstance == null) {
+							return null;
+						}
+						targetType = beanInstance.getClass();
+					}
+				}
+				else if (mbd.hasBeanClass()) {
+					targetType = mbd.getBeanClass();
+				}
+				else {
+					return null;
+				}
+			}
+			Set<Class<?>> types = new LinkedHashSet<Class<?>>(4);
+			if (FactoryBean.class.isAssignableFrom(targetType)) {
+				if (!mbd.isSingleton()) {
+					return DYNAMIC;
+				}
+				if (!(beanInstance instanceof FactoryBean)) {
+					return null;
+				}
+				Class<?> objectType = this.beanFactory.getTypeForFactoryBean((FactoryBean<?>) beanInstance);
+				if (objectType == null) {
+					return null;
+				}
+				types.add(objectType);
+				types.add(beanInstance.getClass());
+				return types;
+			}
+			types.add(targetType);
+			Class<?> predictedType = this.beanFactory.predictBeanType(beanName, mbd);
+			if (predictedType != null) {
+				if (FactoryBean.class.isAssignableFrom(predictedType)) {
+					return DYNAMIC;
+				}
+				types.add(predictedType);
+			}
+			if (beanInstance != null) {
+				if (beanInstance instanceof FactoryBean) {
+					return null;
+				}
+				types.add(beanInstance.getClass());
+			}
+			return types;
+		}
+		catch (BeansException ex) {
+			// Let the bean factory deal with it
+			return null;
+		}
+	}
+
+	private BitSet getSlotsForType(Class<?> type) {
+		BitSet slotsForType = this.slotsByType.get(type);
+		if (slotsForType == null) {
+			slotsForType = new BitSet(this.slots.size());
+			for (int i = 0; i < this.slots.size(); i++) {
+				Slot slot = this.slots.get(i);
+				if (slot != null && slot.types != null && slot.types != DYNAMIC && matches(slot.types, type)) {
+					slotsForType.set(i);
+				}
+			}
+			if (ClassUtils.isCacheSafe(type, this.beanFactory.getBeanClassLoader())) {
+				this.slotsByType.put(type, slotsForType);
+			}
+		}
+		return (BitSet) slotsForType.clone();
+	}
+
+	private void addSlot(String beanName) {
+		int index = this.slots.size();
+		this.slots.add(new Slot(beanName));
+		this.slotIndexes.put(beanName, index);
+		this.pendingSlots.set(index);
+	}
+
+	private void invalidateSlot(int index) {
+		clearSlot(index);
+		this.pendingSlots.set(index);
+	}
+
+	private void clearSlot(int index) {
+		Slot slot = this.slots.get(index);
+		slot.types = null;
+		slot.generation++;
+		this.dynamicSlots.clear(index);
+		for (BitSet slotsForType : this.slotsByType.values()) {
+			slotsForType.clear(index);
+		}
+	}
+
+	private void reset() {
+		this.initialized = false;
+		this.slots.clear();
+		this.slotIndexes.clear();
+		this.removedSlotCount = 0;
+		this.pendingSlots.clear();
+		this.dynamicSlots.clear();
+		this.slotsByType.clear();
+	}
+
+	private static boolean matches(Set<Class<?>> types, Class<?> type) {
+		for (Class<?> candidate : types) {
+			if (type.isAssignableFrom(candidate)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Index entry for a single bean definition.
+	 */
+	private static class Slot {
+
+		final String beanName;
+
+		/** The types the bean may be seen as, DYNAMIC, or null if pending */
+		Set<Class<?>> types;
+
+		/** Incremented on every invalidation, to detect concurrent modifications */
+		int generation;
+
+		Slot(String beanName) {
+			this.beanName = beanName;
+		}
+	}
+
+}
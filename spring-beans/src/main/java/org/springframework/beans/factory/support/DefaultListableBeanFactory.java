@@ -33,6 +33,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -41,10 +42,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import javax.inject.Provider;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
@@ -63,9 +69,12 @@ import org.springframework.beans.factory.SmartFactoryBean;
 import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotationUtils;
@@ -155,6 +164,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Resolver to use for checking if a bean definition is an autowire candidate */
 	private AutowireCandidateResolver autowireCandidateResolver = new SimpleAutowireCandidateResolver();
 
+	/** Optional Executor for pre-instantiating singletons in parallel */
+	private Executor preInstantiationExecutor;
+
+	/** Index of candidate bean names by type, if enabled */
+	private volatile BeanDefinitionTypeIndex typeIndex;
+
 	/** Map from dependency type to corresponding autowired value */
 	private final Map<Class<?>, Object> resolvableDependencies = new ConcurrentHashMap<Class<?>, Object>(16);
 
@@ -311,6 +326,67 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.autowireCandidateResolver;
 	}
 
+	/**
+	 * Specify an {@link Executor} for pre-instantiating non-lazy singletons in parallel.
+	 * <p>Default is none, pre-instantiating all singletons one after the other on the
+	 * calling thread. If an Executor is specified, {@link #preInstantiateSingletons()}
+	 * determines the dependencies between the singletons from their bean definitions
+	 * (depends-on declarations, factory beans and bean references in property values
+	 * and constructor arguments) and hands each singleton to the Executor as soon as
+	 * the singletons that it depends on have been created.
+	 * <p>Dependencies that are not declared in the bean definitions, e.g. autowired
+	 * ones, are created on demand by whichever thread requests them first, with other
+	 * threads waiting for the creation to complete. {@link SmartInitializingSingleton}
+	 * callbacks are still invoked on the calling thread, in registration order,
+	 * once all singletons have been created.
+	 * <p>Note that singleton beans need to tolerate being created on a thread other
+	 * than the one that refreshes the factory, e.g. with respect to thread-bound
+	 * resources or the thread context ClassLoader.
+	 * @since 4.3.1
+	 * @see #preInstantiateSingletons()
+	 * @see #setConcurrentSingletonCreation
+	 */
+	public void setPreInstantiationExecutor(Executor preInstantiationExecutor) {
+		this.preInstantiationExecutor = preInstantiationExecutor;
+	}
+
+	/**
+	 * Return the Executor for pre-instantiating singletons in parallel, if any.
+	 * @since 4.3.1
+	 */
+	public Executor getPreInstantiationExecutor() {
+		return this.preInstantiationExecutor;
+	}
+
+	/**
+	 * Set whether to maintain an index of bean definitions by type, narrowing
+	 * down the bean definitions that need to be checked for by-type lookups
+	 * such as {@link #getBeanNamesForType(ResolvableType)} - which otherwise
+	 * check every bean definition unless the configuration has been frozen.
+	 * <p>The index is built on first use and updated incrementally on bean
+	 * definition registration and removal, on singleton registration, and on
+	 * {@link #clearMetadataCache()}. Beans whose type cannot be determined
+	 * without class loading or bean creation are checked on every lookup.
+	 * <p>Default is "false". Only turn this on if any post-processors that
+	 * predict bean types (see
+	 * {@link org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor#predictBeanType})
+	 * keep predicting the same type for a given bean definition, and all
+	 * FactoryBeans report a stable object type once created.
+	 * @since 4.3.1
+	 * @see #getBeanNamesForType(ResolvableType)
+	 */
+	public void setTypeIndexEnabled(boolean typeIndexEnabled) {
+		this.typeIndex = (typeIndexEnabled ? new BeanDefinitionTypeIndex(this) : null);
+	}
+
+	/**
+	 * Return whether an index of bean definitions by type is maintained.
+	 * @since 4.3.1
+	 */
+	public boolean isTypeIndexEnabled() {
+		return (this.typeIndex != null);
+	}
+
 
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
@@ -320,6 +396,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.autowireCandidateResolver = otherListableFactory.autowireCandidateResolver;
+			this.preInstantiationExecutor = otherListableFactory.preInstantiationExecutor;
+			setTypeIndexEnabled(otherListableFactory.isTypeIndexEnabled());
 			this.resolvableDependencies.putAll(otherListableFactory.resolvableDependencies);
 		}
 	}
@@ -432,8 +510,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<String>();
 
-		// Check all bean definitions.
-		for (String beanName : this.beanDefinitionNames) {
+		// Check all bean definitions - or just the candidates for the type, if indexed.
+		Collection<String> candidateNames = this.beanDefinitionNames;
+		BeanDefinitionTypeIndex typeIndex = this.typeIndex;
+		if (typeIndex != null && type.resolve() != null) {
+			candidateNames = typeIndex.getCandidateNames(type.resolve());
+		}
+		for (String beanName : candidateNames) {
 			// Only consider bean as eligible if the bean name
 			// is not defined as alias for some other bean.
 			if (!isAlias(beanName)) {
@@ -712,10 +795,24 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return iterator;
 	}
 
+	@Override
+	public void addBeanPostProcessor(BeanPostProcessor beanPostProcessor) {
+		super.addBeanPostProcessor(beanPostProcessor);
+		// Post-processors may predict different bean types.
+		BeanDefinitionTypeIndex typeIndex = this.typeIndex;
+		if (typeIndex != null) {
+			typeIndex.invalidateAll();
+		}
+	}
+
 	@Override
 	public void clearMetadataCache() {
 		super.clearMetadataCache();
 		clearByTypeCache();
+		BeanDefinitionTypeIndex typeIndex = this.typeIndex;
+		if (typeIndex != null) {
+			typeIndex.invalidateAll();
+		}
 	}
 
 	@Override
@@ -750,30 +847,14 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<String>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				if (isFactoryBean(beanName)) {
-					final FactoryBean<?> factory = (FactoryBean<?>) getBean(FACTORY_BEAN_PREFIX + beanName);
-					boolean isEagerInit;
-					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-						isEagerInit = AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
-							@Override
-							public Boolean run() {
-								return ((SmartFactoryBean<?>) factory).isEagerInit();
-							}
-						}, getAccessControlContext());
-					}
-					else {
-						isEagerInit = (factory instanceof SmartFactoryBean &&
-								((SmartFactoryBean<?>) factory).isEagerInit());
-					}
-					if (isEagerInit) {
-						getBean(beanName);
-					}
-				}
-				else {
-					getBean(beanName);
+		if (this.preInstantiationExecutor != null) {
+			preInstantiateSingletonsInParallel(beanNames, this.preInstantiationExecutor);
+		}
+		else {
+			for (String beanName : beanNames) {
+				RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+				if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+					preInstantiateSingleton(beanName);
 				}
 			}
 		}
@@ -799,6 +880,124 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+	/**
+	 * Pre-instantiate the given singleton, for a factory bean only creating
+	 * the factory bean's object if it asks for eager initialization.
+	 * @param beanName the name of the non-lazy singleton bean
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		if (isFactoryBean(beanName)) {
+			final FactoryBean<?> factory = (FactoryBean<?>) getBean(FACTORY_BEAN_PREFIX + beanName);
+			boolean isEagerInit;
+			if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+				isEagerInit = AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+					@Override
+					public Boolean run() {
+						return ((SmartFactoryBean<?>) factory).isEagerInit();
+					}
+				}, getAccessControlContext());
+			}
+			else {
+				isEagerInit = (factory instanceof SmartFactoryBean &&
+						((SmartFactoryBean<?>) factory).isEagerInit());
+			}
+			if (isEagerInit) {
+				getBean(beanName);
+			}
+		}
+		else {
+			getBean(beanName);
+		}
+	}
+
+	/**
+	 * Pre-instantiate the non-lazy singletons among the given beans on the given
+	 * Executor, respecting the dependencies declared in their bean definitions.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 * @param executor the Executor to create the singletons on
+	 * @see #setPreInstantiationExecutor
+	 */
+	private void preInstantiateSingletonsInParallel(List<String> beanNames, Executor executor) {
+		// Bean name --> names of the non-lazy singletons that the bean needs to wait for
+		Map<String, Set<String>> dependencies = new LinkedHashMap<String, Set<String>>();
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+				Set<String> referencedBeanNames = new HashSet<String>();
+				collectReferencedBeanNames(bd, referencedBeanNames);
+				referencedBeanNames.remove(beanName);
+				dependencies.put(beanName, referencedBeanNames);
+			}
+		}
+		for (Set<String> referencedBeanNames : dependencies.values()) {
+			referencedBeanNames.retainAll(dependencies.keySet());
+		}
+
+		boolean concurrentSingletonCreation = isConcurrentSingletonCreation();
+		setConcurrentSingletonCreation(true);
+		try {
+			new ParallelPreInstantiation(dependencies, executor).run();
+		}
+		finally {
+			setConcurrentSingletonCreation(concurrentSingletonCreation);
+		}
+	}
+
+	/**
+	 * Collect the names of the beans that the given bean definition explicitly refers to:
+	 * through depends-on, its factory bean, or bean references in its property values
+	 * and constructor arguments (including inner bean definitions and collections).
+	 * @param bd the bean definition to introspect
+	 * @param beanNames the Set to add the canonical bean names to
+	 */
+	private void collectReferencedBeanNames(BeanDefinition bd, Set<String> beanNames) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			for (String dependsOnBean : dependsOn) {
+				beanNames.add(transformedBeanName(dependsOnBean));
+			}
+		}
+		if (bd.getFactoryBeanName() != null) {
+			beanNames.add(transformedBeanName(bd.getFactoryBeanName()));
+		}
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+			collectReferencedBeanNames(pv.getValue(), beanNames);
+		}
+		ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getIndexedArgumentValues().values()) {
+			collectReferencedBeanNames(valueHolder.getValue(), beanNames);
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getGenericArgumentValues()) {
+			collectReferencedBeanNames(valueHolder.getValue(), beanNames);
+		}
+	}
+
+	private void collectReferencedBeanNames(Object value, Set<String> beanNames) {
+		if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference ref = (RuntimeBeanReference) value;
+			if (!ref.isToParent()) {
+				beanNames.add(transformedBeanName(ref.getBeanName()));
+			}
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectReferencedBeanNames(((BeanDefinitionHolder) value).getBeanDefinition(), beanNames);
+		}
+		else if (value instanceof BeanDefinition) {
+			collectReferencedBeanNames((BeanDefinition) value, beanNames);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectReferencedBeanNames(element, beanNames);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectReferencedBeanNames(entry.getKey(), beanNames);
+				collectReferencedBeanNames(entry.getValue(), beanNames);
+			}
+		}
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
@@ -894,6 +1093,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			}
 			this.frozenBeanDefinitionNames = null;
 		}
+		BeanDefinitionTypeIndex typeIndex = this.typeIndex;
+		if (typeIndex != null) {
+			typeIndex.register(beanName);
+		}
+
 		// 如果旧的Bean存在，或者对应的单利存在，卸载旧的
 		if (oldBeanDefinition != null || containsSingleton(beanName)) {
 			resetBeanDefinition(beanName);
@@ -926,6 +1130,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 		this.frozenBeanDefinitionNames = null;
 
+		BeanDefinitionTypeIndex typeIndex = this.typeIndex;
+		if (typeIndex != null) {
+			typeIndex.remove(beanName);
+		}
+
 		resetBeanDefinition(beanName);
 	}
 
@@ -939,6 +1148,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		// 从mergedBeanDefinitions删除对应的beanName
 		/*通过beanName，从mergedBeanDefinitions(针对mergeBeanDefinition的缓存)中取出合并的BeanDefinition，mergedBeanDefinition主要指两个BeanDefinition的合并，比如父子两个的合并*/
 		clearMergedBeanDefinition(beanName);
+		BeanDefinitionTypeIndex typeIndex = this.typeIndex;
+		if (typeIndex != null) {
+			typeIndex.invalidate(beanName);
+		}
 
 		// Remove corresponding bean from singleton cache, if any. Shouldn't usually
 		// be necessary, rather just meant for overriding a context's default beans
@@ -990,11 +1203,24 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		clearByTypeCache();
 	}
 
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		super.addSingleton(beanName, singletonObject);
+		BeanDefinitionTypeIndex typeIndex = this.typeIndex;
+		if (typeIndex != null && singletonObject != null) {
+			typeIndex.registerInstanceType(beanName, singletonObject.getClass());
+		}
+	}
+
 	@Override
 	public void destroySingleton(String beanName) {
 		super.destroySingleton(beanName);
 		this.manualSingletonNames.remove(beanName);
 		clearByTypeCache();
+		BeanDefinitionTypeIndex typeIndex = this.typeIndex;
+		if (typeIndex != null) {
+			typeIndex.invalidate(beanName);
+		}
 	}
 
 	@Override
@@ -1002,6 +1228,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		super.destroySingletons();
 		this.manualSingletonNames.clear();
 		clearByTypeCache();
+		BeanDefinitionTypeIndex typeIndex = this.typeIndex;
+		if (typeIndex != null) {
+			typeIndex.invalidateAll();
+		}
 	}
 
 	/**
@@ -1668,4 +1898,129 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+
+	/**
+	 * Coordinates the parallel pre-instantiation of singletons: hands each singleton
+	 * to the Executor once the singletons it depends on have been created, collecting
+	 * completions on the calling thread. Dependency cycles are broken up in
+	 * registration order, leaving their resolution to the regular circular
+	 * reference handling on the executing thread.
+	 */
+	private class ParallelPreInstantiation {
+
+		private final Map<String, Set<String>> pendingDependencies;
+
+		private final Executor executor;
+
+		private final BlockingQueue<String> completedBeanNames = new LinkedBlockingQueue<String>();
+
+		private final Map<String, Throwable> failures =
+				Collections.synchronizedMap(new LinkedHashMap<String, Throwable>());
+
+		public ParallelPreInstantiation(Map<String, Set<String>> dependencies, Executor executor) {
+			this.pendingDependencies = dependencies;
+			this.executor = executor;
+		}
+
+		public void run() {
+			int running = 0;
+			boolean interrupted = false;
+			while (running > 0 || (!this.pendingDependencies.isEmpty() && this.failures.isEmpty() && !interrupted)) {
+				if (this.failures.isEmpty() && !interrupted) {
+					running += submitReadySingletons();
+					if (running == 0) {
+						// Only circular dependencies left: release the first remaining singleton
+						this.pendingDependencies.values().iterator().next().clear();
+						continue;
+					}
+				}
+				String completedBeanName;
+				try {
+					completedBeanName = this.completedBeanNames.take();
+				}
+				catch (InterruptedException ex) {
+					// Stop submitting but wait for running singletons to complete
+					interrupted = true;
+					continue;
+				}
+				running--;
+				for (Set<String> dependencies : this.pendingDependencies.values()) {
+					dependencies.remove(completedBeanName);
+				}
+			}
+
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			synchronized (this.failures) {
+				if (!this.failures.isEmpty()) {
+					throwFailure();
+				}
+			}
+			if (interrupted) {
+				throw new BeanCreationException(
+						"Interrupted while pre-instantiating singletons in parallel: " + this.pendingDependencies.keySet());
+			}
+		}
+
+		private int submitReadySingletons() {
+			int submitted = 0;
+			for (Iterator<Map.Entry<String, Set<String>>> it = this.pendingDependencies.entrySet().iterator(); it.hasNext();) {
+				Map.Entry<String, Set<String>> entry = it.next();
+				if (entry.getValue().isEmpty()) {
+					it.remove();
+					submit(entry.getKey());
+					submitted++;
+				}
+			}
+			return submitted;
+		}
+
+		private void submit(final String beanName) {
+			Runnable task = new Runnable() {
+				@Override
+				public void run() {
+					try {
+						preInstantiateSingleton(beanName);
+					}
+					catch (Throwable ex) {
+						failures.put(beanName, ex);
+					}
+					finally {
+						completedBeanNames.add(beanName);
+					}
+				}
+			};
+			try {
+				this.executor.execute(task);
+			}
+			catch (RejectedExecutionException ex) {
+				task.run();
+			}
+		}
+
+		private void throwFailure() {
+			Iterator<Map.Entry<String, Throwable>> it = this.failures.entrySet().iterator();
+			Map.Entry<String, Throwable> first = it.next();
+			Throwable ex = first.getValue();
+			if (ex instanceof Error) {
+				throw (Error) ex;
+			}
+			BeanCreationException result;
+			if (ex instanceof BeanCreationException) {
+				result = (BeanCreationException) ex;
+			}
+			else if (ex instanceof BeansException) {
+				throw (BeansException) ex;
+			}
+			else {
+				result = new BeanCreationException(first.getKey(), "Pre-instantiation of singleton failed", ex);
+			}
+			while (it.hasNext()) {
+				result.addRelatedCause(it.next().getValue());
+			}
+			throw result;
+		}
+	}
+
 }
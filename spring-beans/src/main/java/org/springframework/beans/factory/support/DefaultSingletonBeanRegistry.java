@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,6 +35,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -78,6 +79,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	protected static final Object NULL_OBJECT = new Object();
 
+	/** Number of striped singleton creation locks, a power of two */
+	private static final int SINGLETON_CREATION_LOCK_COUNT = 64;
+
 
 	/** Logger available to subclasses */
 	protected final Log logger = LogFactory.getLog(getClass());
@@ -102,11 +106,12 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>(16));
 
-	/** List of suppressed Exceptions, available for associating related causes */
-	private Set<Exception> suppressedExceptions;
+	/** List of suppressed Exceptions per creating thread, available for associating related causes */
+	private final ThreadLocal<Set<Exception>> suppressedExceptions =
+			new NamedThreadLocal<Set<Exception>>("Suppressed exceptions of singleton creation");
 
 	/** Flag that indicates whether we're currently within destroySingletons */
-	private boolean singletonsCurrentlyInDestruction = false;
+	private volatile boolean singletonsCurrentlyInDestruction = false;
 
 	/** Disposable bean instances: bean name --> disposable instance */
 	private final Map<String, Object> disposableBeans = new LinkedHashMap<String, Object>();
@@ -120,6 +125,28 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	/** Map between depending bean names: bean name --> Set of bean names for the bean's dependencies */
 	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<String, Set<String>>(64);
 
+	/** Striped locks guarding the creation of singletons, selected by bean name */
+	private final Object[] singletonCreationLocks = new Object[SINGLETON_CREATION_LOCK_COUNT];
+
+	/** Threads currently creating singletons: bean name --> creating thread */
+	private final Map<String, Thread> singletonCreationThreads = new ConcurrentHashMap<String, Thread>(16);
+
+	/** Threads waiting for singletons in creation on other threads: waiting thread --> bean name */
+	private final Map<Thread, String> singletonCreationWaits = new HashMap<Thread, String>(16);
+
+	/** Contention metrics for singleton creation */
+	private final SingletonCreationMetrics singletonCreationMetrics = new SingletonCreationMetrics();
+
+	/** Whether singletons may be created outside of the singleton mutex */
+	private volatile boolean concurrentSingletonCreation = false;
+
+
+	public DefaultSingletonBeanRegistry() {
+		for (int i = 0; i < this.singletonCreationLocks.length; i++) {
+			this.singletonCreationLocks[i] = new Object();
+		}
+	}
+
 
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
@@ -130,6 +157,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 				throw new IllegalStateException("Could not register object [" + singletonObject +
 						"] under bean name '" + beanName + "': there is already object [" + oldObject + "] bound");
 			}
+			if (this.concurrentSingletonCreation) {
+				Thread creationThread = this.singletonCreationThreads.get(beanName);
+				if (creationThread != null && creationThread != Thread.currentThread()) {
+					throw new IllegalStateException("Could not register object [" + singletonObject +
+							"] under bean name '" + beanName + "': there is an object currently in creation " +
+							"on thread '" + creationThread.getName() + "'");
+				}
+			}
 			addSingleton(beanName, singletonObject);
 		}
 	}
@@ -189,6 +224,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			// 如果没有在单例列表中，并且在正在创建的列表中
 			// 锁定全局变量开始处理
 			synchronized (this.singletonObjects) {
+				if (this.concurrentSingletonCreation && !isSingletonCurrentlyInCreationByCurrentThread(beanName)) {
+					// Do not expose a bean that another thread is still working on:
+					// getSingleton(String, ObjectFactory) waits for it to be completed.
+					return null;
+				}
 				// 去早期引用的列表找是否存在
 				// 如果这个bean正在加载则不处理
 				singletonObject = this.earlySingletonObjects.get(beanName);
@@ -213,65 +253,227 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	/**
 	 * Return the (raw) singleton object registered under the given name,
 	 * creating and registering a new one if none registered yet.
+	 * <p>By default, the singleton is created within the singleton mutex,
+	 * serializing the creation of singletons across threads. In
+	 * {@link #setConcurrentSingletonCreation concurrent mode}, the singleton is
+	 * created outside of the singleton mutex, guarded by a creation lock for its
+	 * bean name: Threads requesting a singleton that is in creation on another
+	 * thread wait for it to be completed, while singletons with different names
+	 * can be created concurrently.
+	 * <p>A thread never waits for a singleton that is in creation on another thread
+	 * which in turn waits for a singleton in creation on the current thread: such a
+	 * circular reference across threads is resolved through an early reference,
+	 * just like it would be on a single thread.
 	 * @param beanName the name of the bean
 	 * @param singletonFactory the ObjectFactory to lazily create the singleton
 	 * with, if necessary
 	 * @return the registered singleton object
+	 * @see #getSingletonCreationMetrics()
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		// 检查beanName不能为空
 		Assert.notNull(beanName, "'beanName' must not be null");
-		// 全局加锁
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject != null) {
+			return (singletonObject != NULL_OBJECT ? singletonObject : null);
+		}
+		if (this.concurrentSingletonCreation) {
+			return createSingleton(beanName, singletonFactory);
+		}
+		// 锁定全局变量,串行创建单例
 		synchronized (this.singletonObjects) {
-			// 读取缓存数据
-			Object singletonObject = this.singletonObjects.get(beanName);
-			if (singletonObject == null) {
-				if (this.singletonsCurrentlyInDestruction) {
-					throw new BeanCreationNotAllowedException(beanName,
-							"Singleton bean creation not allowed while the singletons of this factory are in destruction " +
-							"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
-				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
-				}
-				beforeSingletonCreation(beanName);
-				boolean newSingleton = false;
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
-				if (recordSuppressedExceptions) {
-					this.suppressedExceptions = new LinkedHashSet<Exception>();
-				}
-				try {
-					// 初始化
-					singletonObject = singletonFactory.getObject();
-					newSingleton = true;
-				}
-				catch (IllegalStateException ex) {
-					// Has the singleton object implicitly appeared in the meantime ->
-					// if yes, proceed with it since the exception indicates that state.
+			return createSingleton(beanName, singletonFactory);
+		}
+	}
+
+	/**
+	 * Create and register the given singleton unless it has been registered
+	 * in the meantime, waiting for its creation on another thread if necessary.
+	 * <p>When called within the singleton mutex, no other thread can create
+	 * singletons while the mutex is held, except for threads the current thread
+	 * waits for, which the mutex is released for.
+	 */
+	private Object createSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+		Object singletonObject;
+		Thread currentThread = Thread.currentThread();
+		Object creationLock = getSingletonCreationLock(beanName);
+		// Within an extended singleton creation phase (see getSingletonMutex()), wait on
+		// the singleton mutex itself in order to release it for the creating thread.
+		Object waitMonitor = (Thread.holdsLock(this.singletonObjects) ? this.singletonObjects : creationLock);
+		long waitStart = 0;
+		boolean circularReference = false;
+		try {
+			while (true) {
+				synchronized (creationLock) {
 					singletonObject = this.singletonObjects.get(beanName);
-					if (singletonObject == null) {
-						throw ex;
+					if (singletonObject != null) {
+						return (singletonObject != NULL_OBJECT ? singletonObject : null);
 					}
-				}
-				catch (BeanCreationException ex) {
-					if (recordSuppressedExceptions) {
-						for (Exception suppressedException : this.suppressedExceptions) {
-							ex.addRelatedCause(suppressedException);
+					Thread creationThread = this.singletonCreationThreads.get(beanName);
+					if (creationThread == null || creationThread == currentThread) {
+						if (this.singletonsCurrentlyInDestruction) {
+							throw new BeanCreationNotAllowedException(beanName,
+									"Singleton bean creation not allowed while the singletons of this factory are in " +
+									"destruction (Do not request a bean from a BeanFactory in a destroy method " +
+									"implementation!)");
+						}
+						if (logger.isDebugEnabled()) {
+							logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
 						}
+						beforeSingletonCreation(beanName);
+						this.singletonCreationThreads.put(beanName, currentThread);
+						break;
+					}
+					if (!registerSingletonCreationWait(currentThread, beanName, creationThread)) {
+						circularReference = true;
+						break;
+					}
+					if (waitStart == 0) {
+						waitStart = System.nanoTime();
+					}
+					if (waitMonitor == creationLock) {
+						awaitSingletonCreation(creationLock, currentThread, beanName);
+						continue;
+					}
+				}
+				awaitSingletonCreation(waitMonitor, currentThread, beanName);
+			}
+		}
+		finally {
+			if (waitStart != 0) {
+				this.singletonCreationMetrics.recordContendedRequest(System.nanoTime() - waitStart);
+			}
+		}
+		if (circularReference) {
+			return getEarlySingletonForCircularReference(beanName);
+		}
+
+		boolean newSingleton = false;
+		boolean recordSuppressedExceptions = (this.suppressedExceptions.get() == null);
+		if (recordSuppressedExceptions) {
+			this.suppressedExceptions.set(new LinkedHashSet<Exception>());
+		}
+		try {
+			// 初始化
+			singletonObject = singletonFactory.getObject();
+			newSingleton = true;
+		}
+		catch (IllegalStateException ex) {
+			// Has the singleton object implicitly appeared in the meantime ->
+			// if yes, proceed with it since the exception indicates that state.
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				throw ex;
+			}
+		}
+		catch (BeanCreationException ex) {
+			if (recordSuppressedExceptions) {
+				for (Exception suppressedException : this.suppressedExceptions.get()) {
+					ex.addRelatedCause(suppressedException);
+				}
+			}
+			throw ex;
+		}
+		finally {
+			if (recordSuppressedExceptions) {
+				this.suppressedExceptions.remove();
+			}
+			synchronized (this.singletonObjects) {
+				try {
+					afterSingletonCreation(beanName);
+					if (newSingleton) {
+						// 加入缓存
+						addSingleton(beanName, singletonObject);
+						this.singletonCreationMetrics.recordCreation();
 					}
-					throw ex;
 				}
 				finally {
-					if (recordSuppressedExceptions) {
-						this.suppressedExceptions = null;
+					synchronized (creationLock) {
+						this.singletonCreationThreads.remove(beanName);
+						creationLock.notifyAll();
 					}
-					afterSingletonCreation(beanName);
+					this.singletonObjects.notifyAll();
+				}
+			}
+		}
+		return (singletonObject != NULL_OBJECT ? singletonObject : null);
+	}
+
+	/**
+	 * Return the striped creation lock for the given bean name.
+	 * <p>Creation locks are only held for checking and updating the creation
+	 * state of a singleton, never while actually creating it, so it does not
+	 * matter which beans share a lock.
+	 */
+	private Object getSingletonCreationLock(String beanName) {
+		int hash = beanName.hashCode();
+		hash ^= (hash >>> 16);
+		return this.singletonCreationLocks[hash & (this.singletonCreationLocks.length - 1)];
+	}
+
+	/**
+	 * Register the given thread as waiting for the given singleton in creation
+	 * on the given creation thread, unless the creation thread directly or
+	 * indirectly waits for a singleton in creation on the given thread.
+	 * @return {@code true} if the wait has been registered, or {@code false}
+	 * in case of a circular reference across the threads
+	 */
+	private boolean registerSingletonCreationWait(Thread thread, String beanName, Thread creationThread) {
+		synchronized (this.singletonCreationWaits) {
+			// Each thread waits for at most one singleton, so following the chain suffices
+			Thread chainedThread = creationThread;
+			for (int i = 0; i <= this.singletonCreationWaits.size() && chainedThread != null; i++) {
+				if (chainedThread == thread) {
+					return false;
 				}
-				if (newSingleton) {
-					// 加入缓存
-					addSingleton(beanName, singletonObject);
+				String awaitedBeanName = this.singletonCreationWaits.get(chainedThread);
+				chainedThread = (awaitedBeanName != null ? this.singletonCreationThreads.get(awaitedBeanName) : null);
+			}
+			this.singletonCreationWaits.put(thread, beanName);
+			return true;
+		}
+	}
+
+	private void awaitSingletonCreation(Object monitor, Thread thread, String beanName) {
+		try {
+			synchronized (monitor) {
+				if (this.singletonCreationThreads.containsKey(beanName)) {
+					monitor.wait();
 				}
 			}
+		}
+		catch (InterruptedException ex) {
+			thread.interrupt();
+			throw new BeanCreationException(beanName, "Interrupted while waiting for singleton creation on another thread");
+		}
+		finally {
+			synchronized (this.singletonCreationWaits) {
+				this.singletonCreationWaits.remove(thread);
+			}
+		}
+	}
+
+	/**
+	 * Obtain an early reference to the given singleton in creation on another
+	 * thread, as requested as part of a circular reference across threads.
+	 */
+	private Object getEarlySingletonForCircularReference(String beanName) {
+		synchronized (this.singletonObjects) {
+			Object singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				singletonObject = this.earlySingletonObjects.get(beanName);
+			}
+			if (singletonObject == null) {
+				ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+				if (singletonFactory == null) {
+					throw new BeanCurrentlyInCreationException(beanName, "Requested bean is currently in creation " +
+							"on another thread which in turn waits for a bean in creation on the current thread: " +
+							"Is there an unresolvable circular reference?");
+				}
+				singletonObject = singletonFactory.getObject();
+				this.earlySingletonObjects.put(beanName, singletonObject);
+				this.singletonFactories.remove(beanName);
+			}
 			return (singletonObject != NULL_OBJECT ? singletonObject : null);
 		}
 	}
@@ -282,10 +484,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @param ex the Exception to register
 	 */
 	protected void onSuppressedException(Exception ex) {
-		synchronized (this.singletonObjects) {
-			if (this.suppressedExceptions != null) {
-				this.suppressedExceptions.add(ex);
-			}
+		Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+		if (suppressedExceptions != null) {
+			suppressedExceptions.add(ex);
 		}
 	}
 
@@ -352,6 +553,62 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return this.singletonsCurrentlyInCreation.contains(beanName);
 	}
 
+	/**
+	 * Return the names of all singletons currently in creation
+	 * (within the entire factory), as a live view.
+	 */
+	Set<String> getSingletonsCurrentlyInCreation() {
+		return Collections.unmodifiableSet(this.singletonsCurrentlyInCreation);
+	}
+
+	/**
+	 * Return whether the specified singleton bean is currently in creation
+	 * on the current thread, as opposed to {@link #isSingletonCurrentlyInCreation}
+	 * which also considers creation on other threads.
+	 * @param beanName the name of the bean
+	 * @since 4.3.1
+	 */
+	protected boolean isSingletonCurrentlyInCreationByCurrentThread(String beanName) {
+		if (!isSingletonCurrentlyInCreation(beanName)) {
+			return false;
+		}
+		Thread creationThread = this.singletonCreationThreads.get(beanName);
+		return (creationThread == null || creationThread == Thread.currentThread());
+	}
+
+	/**
+	 * Specify whether singletons may be created by several threads at the same time.
+	 * <p>Default is "false": singleton creation happens within the singleton mutex,
+	 * effectively serializing the creation of singletons across threads, which
+	 * post-processors and {@code FactoryBean} implementations may rely on. Switching
+	 * this flag to "true" lets each singleton be created outside of the mutex, with
+	 * threads only waiting for each other when requesting the same singleton.
+	 * <p>This flag should only be switched while no singletons are in creation.
+	 * @since 4.3.1
+	 * @see #getSingleton(String, ObjectFactory)
+	 */
+	public void setConcurrentSingletonCreation(boolean concurrentSingletonCreation) {
+		this.concurrentSingletonCreation = concurrentSingletonCreation;
+	}
+
+	/**
+	 * Return whether singletons may be created by several threads at the same time.
+	 * @since 4.3.1
+	 */
+	public boolean isConcurrentSingletonCreation() {
+		return this.concurrentSingletonCreation;
+	}
+
+	/**
+	 * Return the contention metrics for the creation of singletons in this registry,
+	 * e.g. for exposure via JMX.
+	 * @since 4.3.1
+	 * @see SingletonCreationMetricsMBean
+	 */
+	public SingletonCreationMetrics getSingletonCreationMetrics() {
+		return this.singletonCreationMetrics;
+	}
+
 	/**
 	 * Callback before singleton creation.
 	 * <p>The default implementation register the singleton as currently in creation.
@@ -629,6 +886,10 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * any sort of extended singleton creation phase. In particular, subclasses
 	 * should <i>not</i> have their own mutexes involved in singleton creation,
 	 * to avoid the potential for deadlocks in lazy-init situations.
+	 * <p>Note that with {@link #setConcurrentSingletonCreation concurrent singleton
+	 * creation} enabled, the regular creation of a singleton does not hold this mutex:
+	 * it is guarded by a per-bean-name creation lock instead, and threads waiting for
+	 * a singleton in creation on another thread release this mutex if held.
 	 */
 	public final Object getSingletonMutex() {
 		return this.singletonObjects;
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.cglib.reflect.FastConstructor;
+import org.springframework.cglib.reflect.FastMethod;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Instantiation strategy that invokes bean constructors and factory methods
+ * through CGLIB-generated {@link org.springframework.cglib.reflect.FastClass}
+ * implementations instead of reflection, reducing the per-instance cost of
+ * creating prototype and scoped beans. Supports Method Injection like its
+ * {@link CglibSubclassingInstantiationStrategy} superclass.
+ *
+ * <p>Falls back to reflection for constructors and factory methods that
+ * cannot be invoked by generated code, i.e. non-public ones, as well as for
+ * arguments that do not match the parameter types: generated code reports
+ * such a mismatch just like an exception thrown by the constructor or
+ * factory method, while reflection rejects it with an
+ * {@link IllegalArgumentException}.
+ *
+ * @since 4.3.1
+ * @see FastClassUtils
+ * @see AbstractAutowireCapableBeanFactory#setInstantiationStrategy
+ */
+public class FastClassInstantiationStrategy extends CglibSubclassingInstantiationStrategy {
+
+	@Override
+	protected Object instantiateClass(Constructor<?> ctor, Object... args) throws BeanInstantiationException {
+		FastConstructor fastConstructor = FastClassUtils.getFastConstructor(ctor);
+		if (fastConstructor == null || !isApplicable(ctor.getParameterTypes(), args)) {
+			return super.instantiateClass(ctor, args);
+		}
+		try {
+			return fastConstructor.newInstance(args);
+		}
+		catch (InvocationTargetException ex) {
+			throw new BeanInstantiationException(ctor, "Constructor threw exception", ex.getTargetException());
+		}
+	}
+
+	@Override
+	protected Object invokeFactoryMethod(Method factoryMethod, Object factoryBean, Object... args)
+			throws IllegalAccessException, InvocationTargetException {
+
+		FastMethod fastMethod = FastClassUtils.getFastMethod(factoryMethod);
+		if (fastMethod == null || !isApplicable(factoryMethod.getParameterTypes(), args)) {
+			return super.invokeFactoryMethod(factoryMethod, factoryBean, args);
+		}
+		return fastMethod.invoke(factoryBean, args);
+	}
+
+	/**
+	 * Determine whether the given arguments can be passed to generated code
+	 * for the given parameter types as they are.
+	 */
+	private static boolean isApplicable(Class<?>[] parameterTypes, Object[] args) {
+		int argCount = (args != null ? args.length : 0);
+		if (argCount != parameterTypes.length) {
+			return false;
+		}
+		for (int i = 0; i < argCount; i++) {
+			if (!ClassUtils.isAssignableValue(parameterTypes[i], args[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
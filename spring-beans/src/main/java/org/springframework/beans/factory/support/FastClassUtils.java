@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cglib.core.SpringNamingPolicy;
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.cglib.reflect.FastConstructor;
+import org.springframework.cglib.reflect.FastMethod;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Utility methods for invoking constructors and methods through CGLIB-generated
+ * {@link FastClass} implementations instead of reflection: the generated class
+ * dispatches to the target member through a direct bytecode call, avoiding the
+ * access checks and argument handling of {@code Constructor.newInstance} and
+ * {@code Method.invoke} on every invocation.
+ *
+ * <p>Only public constructors and methods of public classes are supported, since
+ * the generated class needs to be able to call them directly. For all other members,
+ * as well as for classes that a FastClass could not be generated for (e.g. because
+ * of ClassLoader restrictions), the lookup methods return {@code null} and callers
+ * are expected to fall back to reflection.
+ *
+ * <p>Generated classes are cached per target class, keeping soft references only.
+ *
+ * @since 4.3.1
+ * @see FastClassInstantiationStrategy
+ */
+public abstract class FastClassUtils {
+
+	private static final Object NOT_AVAILABLE = new Object();
+
+	private static final Log logger = LogFactory.getLog(FastClassUtils.class);
+
+	/** Cache of generated FastClasses: target class --> FastClass (or NOT_AVAILABLE marker) */
+	private static final Map<Class<?>, Object> fastClassCache = new ConcurrentReferenceHashMap<Class<?>, Object>(64);
+
+	/** Cache of fast members: Constructor/Method --> FastConstructor/FastMethod (or NOT_AVAILABLE marker) */
+	private static final Map<Member, Object> fastMemberCache = new ConcurrentReferenceHashMap<Member, Object>(256);
+
+
+	/**
+	 * Return a {@link FastConstructor} for the given constructor, if supported.
+	 * @param ctor the constructor to invoke
+	 * @return the corresponding FastConstructor, or {@code null} if the given
+	 * constructor needs to be invoked through reflection
+	 */
+	public static FastConstructor getFastConstructor(Constructor<?> ctor) {
+		Object fastConstructor = fastMemberCache.get(ctor);
+		if (fastConstructor == null) {
+			fastConstructor = NOT_AVAILABLE;
+			FastClass fastClass = (isEligible(ctor) && !Modifier.isAbstract(ctor.getDeclaringClass().getModifiers()) ?
+					getFastClass(ctor.getDeclaringClass()) : null);
+			if (fastClass != null && fastClass.getIndex(ctor.getParameterTypes()) >= 0) {
+				fastConstructor = fastClass.getConstructor(ctor);
+			}
+			fastMemberCache.put(ctor, fastConstructor);
+		}
+		return (fastConstructor != NOT_AVAILABLE ? (FastConstructor) fastConstructor : null);
+	}
+
+	/**
+	 * Return a {@link FastMethod} for the given method, if supported.
+	 * @param method the method to invoke
+	 * @return the corresponding FastMethod, or {@code null} if the given
+	 * method needs to be invoked through reflection
+	 */
+	public static FastMethod getFastMethod(Method method) {
+		Object fastMethod = fastMemberCache.get(method);
+		if (fastMethod == null) {
+			fastMethod = NOT_AVAILABLE;
+			FastClass fastClass = (isEligible(method) ? getFastClass(method.getDeclaringClass()) : null);
+			if (fastClass != null && fastClass.getIndex(method.getName(), method.getParameterTypes()) >= 0) {
+				fastMethod = fastClass.getMethod(method);
+			}
+			fastMemberCache.put(method, fastMethod);
+		}
+		return (fastMethod != NOT_AVAILABLE ? (FastMethod) fastMethod : null);
+	}
+
+	/**
+	 * Clear the cache of generated FastClasses.
+	 */
+	public static void clearCache() {
+		fastClassCache.clear();
+		fastMemberCache.clear();
+	}
+
+
+	private static boolean isEligible(Member member) {
+		Class<?> declaringClass = member.getDeclaringClass();
+		return (Modifier.isPublic(member.getModifiers()) && Modifier.isPublic(declaringClass.getModifiers()) &&
+				declaringClass.getClassLoader() != null && !declaringClass.getName().startsWith("java."));
+	}
+
+	private static FastClass getFastClass(Class<?> clazz) {
+		Object fastClass = fastClassCache.get(clazz);
+		if (fastClass == null) {
+			try {
+				FastClass.Generator generator = new FastClass.Generator();
+				generator.setType(clazz);
+				generator.setClassLoader(clazz.getClassLoader());
+				generator.setNamingPolicy(SpringNamingPolicy.INSTANCE);
+				fastClass = generator.create();
+			}
+			catch (Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Could not generate FastClass for [" + clazz.getName() +
+							"] - falling back to reflection", ex);
+				}
+				fastClass = NOT_AVAILABLE;
+			}
+			fastClassCache.put(clazz, fastClass);
+		}
+		return (fastClass != NOT_AVAILABLE ? (FastClass) fastClass : null);
+	}
+
+}
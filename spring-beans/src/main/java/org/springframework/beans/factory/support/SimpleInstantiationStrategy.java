@@ -88,7 +88,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					}
 				}
 			}
-			return BeanUtils.instantiateClass(constructorToUse);
+			return instantiateClass(constructorToUse);
 		}
 		else {
 			// Must generate CGLIB subclass.
@@ -121,7 +121,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					}
 				});
 			}
-			return BeanUtils.instantiateClass(ctor, args);
+			return instantiateClass(ctor, args);
 		}
 		else {
 			return instantiateWithMethodInjection(bd, beanName, owner, ctor, args);
@@ -161,7 +161,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 			Method priorInvokedFactoryMethod = currentlyInvokedFactoryMethod.get();
 			try {
 				currentlyInvokedFactoryMethod.set(factoryMethod);
-				return factoryMethod.invoke(factoryBean, args);
+				return invokeFactoryMethod(factoryMethod, factoryBean, args);
 			}
 			finally {
 				if (priorInvokedFactoryMethod != null) {
@@ -192,4 +192,36 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 		}
 	}
 
+	/**
+	 * Instantiate the bean class through the given constructor.
+	 * <p>The default implementation delegates to {@link BeanUtils#instantiateClass(Constructor, Object...)}.
+	 * Subclasses may override this to use an alternative invocation mechanism.
+	 * @param ctor the constructor to use (may not have been made accessible yet)
+	 * @param args the constructor arguments to apply
+	 * @return the new instance
+	 * @throws BeanInstantiationException if the bean cannot be instantiated
+	 * @since 4.3.1
+	 */
+	protected Object instantiateClass(Constructor<?> ctor, Object... args) throws BeanInstantiationException {
+		return BeanUtils.instantiateClass(ctor, args);
+	}
+
+	/**
+	 * Invoke the given factory method on the given factory bean.
+	 * <p>The default implementation uses {@link Method#invoke}.
+	 * Subclasses may override this to use an alternative invocation mechanism.
+	 * @param factoryMethod the factory method to invoke (already made accessible)
+	 * @param factoryBean the factory bean instance, or {@code null} for a static factory method
+	 * @param args the factory method arguments to apply
+	 * @return the object returned by the factory method
+	 * @throws IllegalAccessException if the factory method is not accessible
+	 * @throws InvocationTargetException if the factory method threw an exception
+	 * @since 4.3.1
+	 */
+	protected Object invokeFactoryMethod(Method factoryMethod, Object factoryBean, Object... args)
+			throws IllegalAccessException, InvocationTargetException {
+
+		return factoryMethod.invoke(factoryBean, args);
+	}
+
 }
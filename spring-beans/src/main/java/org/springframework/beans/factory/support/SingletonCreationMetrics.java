@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contention metrics for the singleton creation in a {@link DefaultSingletonBeanRegistry}:
+ * how many singletons have been created, and how often and how long threads had to
+ * wait for a singleton that another thread was creating at the time.
+ *
+ * <p>Implements a standard MBean interface and can therefore be registered with
+ * an MBeanServer as-is, or exported through Spring's
+ * {@code org.springframework.jmx.export.MBeanExporter} like any other MBean.
+ *
+ * @since 4.3.1
+ * @see DefaultSingletonBeanRegistry#getSingletonCreationMetrics()
+ */
+public class SingletonCreationMetrics implements SingletonCreationMetricsMBean {
+
+	private final AtomicLong creationCount = new AtomicLong();
+
+	private final AtomicLong contendedRequestCount = new AtomicLong();
+
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+
+
+	/**
+	 * Record the creation of a singleton.
+	 */
+	void recordCreation() {
+		this.creationCount.incrementAndGet();
+	}
+
+	/**
+	 * Record a singleton request that had to wait for another thread.
+	 * @param waitNanos the time spent waiting, in nanoseconds
+	 */
+	void recordContendedRequest(long waitNanos) {
+		this.contendedRequestCount.incrementAndGet();
+		this.totalWaitNanos.addAndGet(waitNanos);
+		long max = this.maxWaitNanos.get();
+		while (waitNanos > max && !this.maxWaitNanos.compareAndSet(max, waitNanos)) {
+			max = this.maxWaitNanos.get();
+		}
+	}
+
+
+	@Override
+	public long getCreationCount() {
+		return this.creationCount.get();
+	}
+
+	@Override
+	public long getContendedRequestCount() {
+		return this.contendedRequestCount.get();
+	}
+
+	@Override
+	public long getTotalWaitTime() {
+		return TimeUnit.NANOSECONDS.toMillis(this.totalWaitNanos.get());
+	}
+
+	@Override
+	public long getMaxWaitTime() {
+		return TimeUnit.NANOSECONDS.toMillis(this.maxWaitNanos.get());
+	}
+
+	@Override
+	public void reset() {
+		this.creationCount.set(0);
+		this.contendedRequestCount.set(0);
+		this.totalWaitNanos.set(0);
+		this.maxWaitNanos.set(0);
+	}
+
+
+	@Override
+	public String toString() {
+		return "SingletonCreationMetrics: created=" + getCreationCount() + ", contended=" +
+				getContendedRequestCount() + ", totalWaitTime=" + getTotalWaitTime() + "ms, maxWaitTime=" +
+				getMaxWaitTime() + "ms";
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+/**
+ * MBean interface for the {@link SingletonCreationMetrics} of a
+ * {@link DefaultSingletonBeanRegistry}.
+ *
+ * @since 4.3.1
+ */
+public interface SingletonCreationMetricsMBean {
+
+	/**
+	 * Return the number of singletons created so far.
+	 */
+	long getCreationCount();
+
+	/**
+	 * Return the number of singleton requests that had to wait for
+	 * another thread creating the same singleton.
+	 */
+	long getContendedRequestCount();
+
+	/**
+	 * Return the total time that singleton requests spent waiting
+	 * for other threads, in milliseconds.
+	 */
+	long getTotalWaitTime();
+
+	/**
+	 * Return the longest time that a single singleton request spent
+	 * waiting for another thread, in milliseconds.
+	 */
+	long getMaxWaitTime();
+
+	/**
+	 * Reset all metrics to zero.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.util.Assert;
+
+/**
+ * Records the time spent in the individual steps of creating beans and
+ * refreshing an application context: the instantiation, population and
+ * initialization of each bean, each BeanPostProcessor invocation, and
+ * each phase of {@code AbstractApplicationContext.refresh()}.
+ *
+ * <p>To be set on an {@link AbstractAutowireCapableBeanFactory} or an
+ * {@code AbstractApplicationContext} before creating any beans. Recorded
+ * steps are aggregated into a {@link StartupReport} and handed to any
+ * registered {@link StartupStepListener StartupStepListeners}.
+ *
+ * <p>Step nesting is tracked per thread, so a profiler may be shared by
+ * bean factories creating beans on several threads concurrently. Note that
+ * timings for prototype and scoped beans keep accumulating as long as the
+ * profiler is registered; consider {@link #reset() resetting} it or removing
+ * it from the bean factory once startup has completed.
+ *
+ * @since 4.3.1
+ * @see AbstractAutowireCapableBeanFactory#setStartupProfiler
+ * @see StartupStep
+ */
+public class StartupProfiler {
+
+	private static final int INSTANTIATION = 0;
+
+	private static final int POPULATION = 1;
+
+	private static final int INITIALIZATION = 2;
+
+	private static final int POST_PROCESSOR = 3;
+
+	private static final Log logger = LogFactory.getLog(StartupProfiler.class);
+
+
+	private final ThreadLocal<StartupStep> currentStep =
+			new NamedThreadLocal<StartupStep>("Current startup step");
+
+	private final List<StartupStepListener> listeners = new CopyOnWriteArrayList<StartupStepListener>();
+
+	/** Bean name --> self nanos per bean step type */
+	private final Map<String, long[]> beanTimings = new LinkedHashMap<String, long[]>(256);
+
+	/** Post-processor name --> invocation count and self nanos */
+	private final Map<String, long[]> postProcessorTimings = new LinkedHashMap<String, long[]>(16);
+
+	/** Refresh step name --> total nanos */
+	private final Map<String, Long> refreshStepTimings = new LinkedHashMap<String, Long>(16);
+
+
+	/**
+	 * Add a listener to be notified of every step ended from now on.
+	 */
+	public void addListener(StartupStepListener listener) {
+		Assert.notNull(listener, "StartupStepListener must not be null");
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * Remove the given listener.
+	 */
+	public void removeListener(StartupStepListener listener) {
+		this.listeners.remove(listener);
+	}
+
+	/**
+	 * Start a new step on the current thread, nested in the step
+	 * currently running on this thread (if any).
+	 * <p>The returned step needs to be {@link StartupStep#end() ended}
+	 * on the same thread, typically in a finally block.
+	 * @param type the type of step
+	 * @param name the name of the step (see {@link StartupStep#getName()})
+	 * @param beanName the name of the bean that the step applies to, if any
+	 * @return the running step
+	 */
+	public StartupStep start(StartupStep.Type type, String name, String beanName) {
+		Assert.notNull(type, "Type must not be null");
+		Assert.notNull(name, "Name must not be null");
+		StartupStep step = new StartupStep(this, this.currentStep.get(), type, name, beanName);
+		this.currentStep.set(step);
+		return step;
+	}
+
+	/**
+	 * Return an aggregated report of all steps ended so far.
+	 */
+	public synchronized StartupReport getReport() {
+		List<StartupReport.BeanTiming> beans = new ArrayList<StartupReport.BeanTiming>(this.beanTimings.size());
+		for (Map.Entry<String, long[]> entry : this.beanTimings.entrySet()) {
+			long[] nanos = entry.getValue();
+			beans.add(new StartupReport.BeanTiming(entry.getKey(),
+					nanos[INSTANTIATION], nanos[POPULATION], nanos[INITIALIZATION], nanos[POST_PROCESSOR]));
+		}
+		List<StartupReport.PostProcessorTiming> postProcessors =
+				new ArrayList<StartupReport.PostProcessorTiming>(this.postProcessorTimings.size());
+		for (Map.Entry<String, long[]> entry : this.postProcessorTimings.entrySet()) {
+			long[] timing = entry.getValue();
+			postProcessors.add(new StartupReport.PostProcessorTiming(entry.getKey(), timing[0], timing[1]));
+		}
+		return new StartupReport(beans, postProcessors, new LinkedHashMap<String, Long>(this.refreshStepTimings));
+	}
+
+	/**
+	 * Discard all timings aggregated so far.
+	 */
+	public synchronized void reset() {
+		this.beanTimings.clear();
+		this.postProcessorTimings.clear();
+		this.refreshStepTimings.clear();
+	}
+
+
+	/**
+	 * Callback from {@link StartupStep#end()}.
+	 */
+	void stepEnded(StartupStep step) {
+		if (step.getParent() != null) {
+			this.currentStep.set(step.getParent());
+		}
+		else {
+			this.currentStep.remove();
+		}
+		record(step);
+		for (StartupStepListener listener : this.listeners) {
+			try {
+				listener.stepEnded(step);
+			}
+			catch (RuntimeException ex) {
+				logger.warn("StartupStepListener [" + listener + "] failed to process " + step, ex);
+			}
+		}
+	}
+
+	private synchronized void record(StartupStep step) {
+		switch (step.getType()) {
+			case REFRESH:
+				Long total = this.refreshStepTimings.get(step.getName());
+				this.refreshStepTimings.put(step.getName(),
+						(total != null ? total + step.getDurationNanos() : step.getDurationNanos()));
+				break;
+			case BEAN_INSTANTIATION:
+				addBeanTiming(step.getBeanName(), INSTANTIATION, step.getSelfDurationNanos());
+				break;
+			case BEAN_POPULATION:
+				addBeanTiming(step.getBeanName(), POPULATION, step.getSelfDurationNanos());
+				break;
+			case BEAN_INITIALIZATION:
+				addBeanTiming(step.getBeanName(), INITIALIZATION, step.getSelfDurationNanos());
+				break;
+			case BEAN_POST_PROCESSOR:
+				long[] timing = this.postProcessorTimings.get(step.getName());
+				if (timing == null) {
+					timing = new long[2];
+					this.postProcessorTimings.put(step.getName(), timing);
+				}
+				timing[0]++;
+				timing[1] += step.getSelfDurationNanos();
+				if (step.getBeanName() != null) {
+					addBeanTiming(step.getBeanName(), POST_PROCESSOR, step.getSelfDurationNanos());
+				}
+				break;
+		}
+	}
+
+	private void addBeanTiming(String beanName, int index, long nanos) {
+		long[] timing = this.beanTimings.get(beanName);
+		if (timing == null) {
+			timing = new long[4];
+			this.beanTimings.put(beanName, timing);
+		}
+		timing[index] += nanos;
+	}
+
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.text.NumberFormat;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of the timings aggregated by a {@link StartupProfiler}.
+ *
+ * <p>Bean and post-processor timings are based on the self duration of the
+ * recorded steps, i.e. they exclude the creation of other beans triggered
+ * along the way, so that the cost of each bean is only counted once.
+ * Refresh step timings are total durations, in refresh order.
+ *
+ * <p>All times are in nanoseconds.
+ *
+ * @since 4.3.1
+ * @see StartupProfiler#getReport()
+ */
+public class StartupReport {
+
+	private final List<BeanTiming> beanTimings;
+
+	private final List<PostProcessorTiming> postProcessorTimings;
+
+	private final Map<String, Long> refreshStepTimings;
+
+
+	StartupReport(List<BeanTiming> beanTimings, List<PostProcessorTiming> postProcessorTimings,
+			Map<String, Long> refreshStepTimings) {
+
+		Collections.sort(beanTimings, new Comparator<BeanTiming>() {
+			@Override
+			public int compare(BeanTiming o1, BeanTiming o2) {
+				return compareNanos(o2.getTotalNanos(), o1.getTotalNanos());
+			}
+		});
+		Collections.sort(postProcessorTimings, new Comparator<PostProcessorTiming>() {
+			@Override
+			public int compare(PostProcessorTiming o1, PostProcessorTiming o2) {
+				return compareNanos(o2.getTotalNanos(), o1.getTotalNanos());
+			}
+		});
+		this.beanTimings = Collections.unmodifiableList(beanTimings);
+		this.postProcessorTimings = Collections.unmodifiableList(postProcessorTimings);
+		this.refreshStepTimings = Collections.unmodifiableMap(refreshStepTimings);
+	}
+
+
+	/**
+	 * Return the timings of all profiled beans, most expensive first.
+	 */
+	public List<BeanTiming> getBeanTimings() {
+		return this.beanTimings;
+	}
+
+	/**
+	 * Return the timing of the given bean.
+	 * @param beanName the name of the bean
+	 * @return the timing, or {@code null} if the bean has not been profiled
+	 */
+	public BeanTiming getBeanTiming(String beanName) {
+		for (BeanTiming timing : this.beanTimings) {
+			if (timing.getBeanName().equals(beanName)) {
+				return timing;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return the timings of all invoked BeanPostProcessors, most expensive first.
+	 */
+	public List<PostProcessorTiming> getPostProcessorTimings() {
+		return this.postProcessorTimings;
+	}
+
+	/**
+	 * Return the total duration of each refresh step, in refresh order.
+	 */
+	public Map<String, Long> getRefreshStepTimings() {
+		return this.refreshStepTimings;
+	}
+
+	/**
+	 * Return a table describing the recorded timings, with the given
+	 * maximum number of bean entries (the most expensive ones).
+	 * @param maxBeans the maximum number of beans to list
+	 */
+	public String prettyPrint(int maxBeans) {
+		NumberFormat nf = NumberFormat.getNumberInstance();
+		nf.setMinimumFractionDigits(3);
+		nf.setMaximumFractionDigits(3);
+		StringBuilder sb = new StringBuilder();
+		if (!this.refreshStepTimings.isEmpty()) {
+			sb.append("Refresh steps (ms)\n");
+			sb.append("-----------------------------------------\n");
+			for (Map.Entry<String, Long> entry : this.refreshStepTimings.entrySet()) {
+				sb.append(padLeft(nf.format(toMillis(entry.getValue())), 12)).append("  ").append(entry.getKey()).append('\n');
+			}
+		}
+		sb.append("Beans (ms)     total   instantiate     populate   initialize  post-process\n");
+		sb.append("--------------------------------------------------------------------------\n");
+		int count = 0;
+		for (BeanTiming timing : this.beanTimings) {
+			if (count++ == maxBeans) {
+				sb.append("... ").append(this.beanTimings.size() - maxBeans).append(" more\n");
+				break;
+			}
+			sb.append(padLeft(nf.format(toMillis(timing.getTotalNanos())), 19));
+			sb.append(padLeft(nf.format(toMillis(timing.getInstantiationNanos())), 14));
+			sb.append(padLeft(nf.format(toMillis(timing.getPopulationNanos())), 13));
+			sb.append(padLeft(nf.format(toMillis(timing.getInitializationNanos())), 13));
+			sb.append(padLeft(nf.format(toMillis(timing.getPostProcessorNanos())), 14));
+			sb.append("  ").append(timing.getBeanName()).append('\n');
+		}
+		if (!this.postProcessorTimings.isEmpty()) {
+			sb.append("BeanPostProcessors (ms)   invocations\n");
+			sb.append("-----------------------------------------\n");
+			for (PostProcessorTiming timing : this.postProcessorTimings) {
+				sb.append(padLeft(nf.format(toMillis(timing.getTotalNanos())), 12));
+				sb.append(padLeft(String.valueOf(timing.getInvocationCount()), 14));
+				sb.append("  ").append(timing.getName()).append('\n');
+			}
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		long total = 0;
+		for (BeanTiming timing : this.beanTimings) {
+			total += timing.getTotalNanos();
+		}
+		return "StartupReport: " + this.beanTimings.size() + " beans created in " + toMillis(total) +
+				" ms, " + this.postProcessorTimings.size() + " BeanPostProcessors, " +
+				this.refreshStepTimings.size() + " refresh steps";
+	}
+
+
+	private static int compareNanos(long n1, long n2) {
+		return (n1 < n2 ? -1 : (n1 == n2 ? 0 : 1));
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1000000.0;
+	}
+
+	private static String padLeft(String value, int width) {
+		StringBuilder sb = new StringBuilder(width);
+		for (int i = value.length(); i < width; i++) {
+			sb.append(' ');
+		}
+		return sb.append(value).toString();
+	}
+
+
+	/**
+	 * Aggregated timing of a single bean.
+	 */
+	public static class BeanTiming {
+
+		private final String beanName;
+
+		private final long instantiationNanos;
+
+		private final long populationNanos;
+
+		private final long initializationNanos;
+
+		private final long postProcessorNanos;
+
+		BeanTiming(String beanName, long instantiationNanos, long populationNanos,
+				long initializationNanos, long postProcessorNanos) {
+
+			this.beanName = beanName;
+			this.instantiationNanos = instantiationNanos;
+			this.populationNanos = populationNanos;
+			this.initializationNanos = initializationNanos;
+			this.postProcessorNanos = postProcessorNanos;
+		}
+
+		public String getBeanName() {
+			return this.beanName;
+		}
+
+		/**
+		 * Return the time spent instantiating the bean.
+		 */
+		public long getInstantiationNanos() {
+			return this.instantiationNanos;
+		}
+
+		/**
+		 * Return the time spent populating the bean,
+		 * apart from BeanPostProcessor invocations.
+		 */
+		public long getPopulationNanos() {
+			return this.populationNanos;
+		}
+
+		/**
+		 * Return the time spent initializing the bean,
+		 * apart from BeanPostProcessor invocations.
+		 */
+		public long getInitializationNanos() {
+			return this.initializationNanos;
+		}
+
+		/**
+		 * Return the time spent in BeanPostProcessors for the bean.
+		 */
+		public long getPostProcessorNanos() {
+			return this.postProcessorNanos;
+		}
+
+		/**
+		 * Return the overall time spent creating the bean.
+		 */
+		public long getTotalNanos() {
+			return (this.instantiationNanos + this.populationNanos + this.initializationNanos +
+					this.postProcessorNanos);
+		}
+
+		@Override
+		public String toString() {
+			return "BeanTiming '" + this.beanName + "': " + getTotalNanos() + " ns";
+		}
+	}
+
+
+	/**
+	 * Aggregated timing of a single BeanPostProcessor class across all beans.
+	 */
+	public static class PostProcessorTiming {
+
+		private final String name;
+
+		private final long invocationCount;
+
+		private final long totalNanos;
+
+		PostProcessorTiming(String name, long invocationCount, long totalNanos) {
+			this.name = name;
+			this.invocationCount = invocationCount;
+			this.totalNanos = totalNanos;
+		}
+
+		/**
+		 * Return the class name of the BeanPostProcessor.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		public long getInvocationCount() {
+			return this.invocationCount;
+		}
+
+		public long getTotalNanos() {
+			return this.totalNanos;
+		}
+
+		@Override
+		public String toString() {
+			return "PostProcessorTiming '" + this.name + "': " + this.invocationCount + " invocations, " +
+					this.totalNanos + " ns";
+		}
+	}
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+/**
+ * A single timed step recorded by a {@link StartupProfiler}: for example the
+ * instantiation of a bean, the invocation of a BeanPostProcessor for a bean,
+ * or a phase of an application context refresh.
+ *
+ * <p>Steps started while another step is running on the same thread are
+ * considered nested in that step: the {@link #getSelfDurationNanos() self duration}
+ * of a step excludes the time spent in its nested steps, e.g. the creation
+ * of dependencies triggered by the population of a bean.
+ *
+ * <p>A step is started by {@link StartupProfiler#start} and needs to be
+ * {@link #end() ended} on the same thread, typically in a finally block.
+ *
+ * @since 4.3.1
+ * @see StartupProfiler
+ * @see StartupStepListener
+ */
+public final class StartupStep {
+
+	/**
+	 * The kinds of steps recorded by a {@link StartupProfiler}.
+	 */
+	public enum Type {
+
+		/** A phase of an application context refresh */
+		REFRESH,
+
+		/** The instantiation of a bean, through a constructor or factory method */
+		BEAN_INSTANTIATION,
+
+		/** The population of a bean's properties, including autowiring */
+		BEAN_POPULATION,
+
+		/** The initialization of a bean, including init methods and post-processing */
+		BEAN_INITIALIZATION,
+
+		/** The invocation of a BeanPostProcessor for a bean */
+		BEAN_POST_PROCESSOR
+	}
+
+
+	private final StartupProfiler profiler;
+
+	private final StartupStep parent;
+
+	private final Type type;
+
+	private final String name;
+
+	private final String beanName;
+
+	private final String threadName;
+
+	private final long startTime;
+
+	private long duration = -1;
+
+	private long childDuration;
+
+
+	StartupStep(StartupProfiler profiler, StartupStep parent, Type type, String name, String beanName) {
+		this.profiler = profiler;
+		this.parent = parent;
+		this.type = type;
+		this.name = name;
+		this.beanName = beanName;
+		this.threadName = Thread.currentThread().getName();
+		this.startTime = System.nanoTime();
+	}
+
+
+	/**
+	 * Return the type of this step.
+	 */
+	public Type getType() {
+		return this.type;
+	}
+
+	/**
+	 * Return the name of this step: the bean name for bean steps, the
+	 * post-processor class name for post-processor steps, and the name
+	 * of the refresh phase for refresh steps.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Return the name of the bean that this step applies to,
+	 * or {@code null} for steps not related to a specific bean.
+	 */
+	public String getBeanName() {
+		return this.beanName;
+	}
+
+	/**
+	 * Return the name of the thread that executed this step.
+	 */
+	public String getThreadName() {
+		return this.threadName;
+	}
+
+	/**
+	 * Return the step that this step is nested in, if any.
+	 */
+	public StartupStep getParent() {
+		return this.parent;
+	}
+
+	/**
+	 * Return whether this step has been ended already.
+	 */
+	public boolean isEnded() {
+		return (this.duration >= 0);
+	}
+
+	/**
+	 * Return the total duration of this step in nanoseconds,
+	 * including all nested steps.
+	 * @throws IllegalStateException if the step has not been ended yet
+	 */
+	public long getDurationNanos() {
+		if (this.duration < 0) {
+			throw new IllegalStateException("StartupStep '" + this.name + "' has not been ended yet");
+		}
+		return this.duration;
+	}
+
+	/**
+	 * Return the duration of this step in nanoseconds,
+	 * excluding the time spent in nested steps.
+	 * @throws IllegalStateException if the step has not been ended yet
+	 */
+	public long getSelfDurationNanos() {
+		return Math.max(getDurationNanos() - this.childDuration, 0);
+	}
+
+	/**
+	 * End this step, recording it with the profiler and notifying its listeners.
+	 * <p>Calling this method more than once has no effect.
+	 */
+	public void end() {
+		if (this.duration >= 0) {
+			return;
+		}
+		this.duration = System.nanoTime() - this.startTime;
+		if (this.parent != null) {
+			this.parent.childDuration += this.duration;
+		}
+		this.profiler.stepEnded(this);
+	}
+
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("StartupStep ").append(this.type).append(" '").append(this.name).append("'");
+		if (this.beanName != null && !this.beanName.equals(this.name)) {
+			sb.append(" for bean '").append(this.beanName).append("'");
+		}
+		if (isEnded()) {
+			sb.append(": ").append(this.duration).append(" ns");
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+/**
+ * Callback interface for components interested in the steps
+ * recorded by a {@link StartupProfiler}, e.g. for exporting
+ * them to a tracing or metrics system.
+ *
+ * @since 4.3.1
+ * @see StartupProfiler#addListener
+ */
+public interface StartupStepListener {
+
+	/**
+	 * Notification that the given step has ended.
+	 * <p>Called on the thread that executed the step, right after the
+	 * step has ended - so implementations should return quickly.
+	 * @param step the ended step
+	 */
+	void stepEnded(StartupStep step);
+
+}
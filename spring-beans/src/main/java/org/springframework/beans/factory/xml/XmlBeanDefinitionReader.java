@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,15 @@ package org.springframework.beans.factory.xml;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.w3c.dom.Document;
@@ -135,6 +142,8 @@ public class XmlBeanDefinitionReader extends AbstractBeanDefinitionReader {
 
 	private final XmlValidationModeDetector validationModeDetector = new XmlValidationModeDetector();
 
+	private Executor taskExecutor;
+
 	private final ThreadLocal<Set<EncodedResource>> resourcesCurrentlyBeingLoaded =
 			new NamedThreadLocal<Set<EncodedResource>>("XML bean definition resources currently being loaded");
 
@@ -308,6 +317,66 @@ public class XmlBeanDefinitionReader extends AbstractBeanDefinitionReader {
 		this.documentReaderClass = documentReaderClass;
 	}
 
+	/**
+	 * Set an {@link Executor} for parsing XML documents in parallel when bean
+	 * definitions get loaded from several resources at once, e.g. through
+	 * {@link #loadBeanDefinitions(Resource...)} or a location pattern.
+	 * <p>The documents are read and parsed into DOM trees on the given executor,
+	 * whereas their bean definitions are registered on the calling thread, one
+	 * document after the other in the order of the given resources. The resulting
+	 * registry content is therefore the same as with sequential loading.
+	 * <p>Default is none, loading all resources sequentially on the calling thread.
+	 * Note that the configured {@link DocumentLoader}, {@link EntityResolver} and
+	 * {@link ErrorHandler} need to be thread-safe for parallel use, which the
+	 * defaults are.
+	 * @since 4.3.1
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+
+	/**
+	 * Load bean definitions from the specified XML files.
+	 * <p>Parses the documents in parallel if a {@link #setTaskExecutor task executor}
+	 * has been specified, registering their bean definitions in the given order.
+	 * @param resources the resource descriptors for the XML files
+	 * @return the number of bean definitions found
+	 * @throws BeanDefinitionStoreException in case of loading or parsing errors
+	 */
+	@Override
+	public int loadBeanDefinitions(Resource... resources) throws BeanDefinitionStoreException {
+		if (this.taskExecutor == null || resources == null || resources.length < 2) {
+			return super.loadBeanDefinitions(resources);
+		}
+
+		// Initialize the lazily created EntityResolver before concurrent access
+		getEntityResolver();
+		List<FutureTask<Document>> documents = new ArrayList<FutureTask<Document>>(resources.length);
+		for (final Resource resource : resources) {
+			FutureTask<Document> document = new FutureTask<Document>(new Callable<Document>() {
+				@Override
+				public Document call() throws Exception {
+					return loadDocument(resource);
+				}
+			});
+			this.taskExecutor.execute(document);
+			documents.add(document);
+		}
+
+		int counter = 0;
+		try {
+			for (int i = 0; i < resources.length; i++) {
+				counter += loadBeanDefinitions(new EncodedResource(resources[i]), documents.get(i));
+			}
+		}
+		finally {
+			for (FutureTask<Document> document : documents) {
+				document.cancel(true);
+			}
+		}
+		return counter;
+	}
 
 	/**
 	 * Load bean definitions from the specified XML file.
@@ -330,6 +399,16 @@ public class XmlBeanDefinitionReader extends AbstractBeanDefinitionReader {
 	 * @throws BeanDefinitionStoreException in case of loading or parsing errors
 	 */
 	public int loadBeanDefinitions(EncodedResource encodedResource) throws BeanDefinitionStoreException {
+		return loadBeanDefinitions(encodedResource, null);
+	}
+
+	/**
+	 * Load bean definitions from the specified XML file, either parsing it
+	 * right away or using the given document parsed in the background.
+	 */
+	private int loadBeanDefinitions(EncodedResource encodedResource, Future<Document> document)
+			throws BeanDefinitionStoreException {
+
 		Assert.notNull(encodedResource, "EncodedResource must not be null");
 		if (logger.isInfoEnabled()) {
 			logger.info("Loading XML bean definitions from " + encodedResource.getResource());
@@ -345,6 +424,28 @@ public class XmlBeanDefinitionReader extends AbstractBeanDefinitionReader {
 			throw new BeanDefinitionStoreException(
 					"Detected cyclic loading of " + encodedResource + " - check your import definitions!");
 		}
+		if (document != null) {
+			try {
+				return registerBeanDefinitions(document.get(), encodedResource.getResource());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new BeanDefinitionStoreException(encodedResource.getResource().getDescription(),
+						"Interrupted while parsing XML document from " + encodedResource.getResource(), ex);
+			}
+			catch (ExecutionException ex) {
+				throw translateException(ex.getCause(), encodedResource.getResource());
+			}
+			catch (Throwable ex) {
+				throw translateException(ex, encodedResource.getResource());
+			}
+			finally {
+				currentResources.remove(encodedResource);
+				if (currentResources.isEmpty()) {
+					this.resourcesCurrentlyBeingLoaded.remove();
+				}
+			}
+		}
 		try {
 			// 获取资源的输入流
 			InputStream inputStream = encodedResource.getResource().getInputStream();
@@ -415,27 +516,52 @@ public class XmlBeanDefinitionReader extends AbstractBeanDefinitionReader {
 			Document doc = doLoadDocument(inputSource, resource);
 			return registerBeanDefinitions(doc, resource);
 		}
-		catch (BeanDefinitionStoreException ex) {
-			throw ex;
+		catch (Throwable ex) {
+			throw translateException(ex, resource);
 		}
-		catch (SAXParseException ex) {
-			throw new XmlBeanDefinitionStoreException(resource.getDescription(),
-					"Line " + ex.getLineNumber() + " in XML document from " + resource + " is invalid", ex);
+	}
+
+	/**
+	 * Load the document for the given resource, typically on a background
+	 * thread, without checking for cyclic loading or registering anything.
+	 */
+	private Document loadDocument(Resource resource) throws Exception {
+		InputStream inputStream = resource.getInputStream();
+		try {
+			return doLoadDocument(new InputSource(inputStream), resource);
 		}
-		catch (SAXException ex) {
-			throw new XmlBeanDefinitionStoreException(resource.getDescription(),
-					"XML document from " + resource + " is invalid", ex);
+		finally {
+			inputStream.close();
 		}
-		catch (ParserConfigurationException ex) {
-			throw new BeanDefinitionStoreException(resource.getDescription(),
+	}
+
+	/**
+	 * Translate the given exception, thrown while loading or registering
+	 * the given resource, into a {@code BeanDefinitionStoreException}.
+	 */
+	private BeanDefinitionStoreException translateException(Throwable ex, Resource resource) {
+		if (ex instanceof BeanDefinitionStoreException) {
+			return (BeanDefinitionStoreException) ex;
+		}
+		else if (ex instanceof SAXParseException) {
+			return new XmlBeanDefinitionStoreException(resource.getDescription(), "Line " +
+					((SAXParseException) ex).getLineNumber() + " in XML document from " + resource + " is invalid",
+					(SAXParseException) ex);
+		}
+		else if (ex instanceof SAXException) {
+			return new XmlBeanDefinitionStoreException(resource.getDescription(),
+					"XML document from " + resource + " is invalid", (SAXException) ex);
+		}
+		else if (ex instanceof ParserConfigurationException) {
+			return new BeanDefinitionStoreException(resource.getDescription(),
 					"Parser configuration exception parsing XML from " + resource, ex);
 		}
-		catch (IOException ex) {
-			throw new BeanDefinitionStoreException(resource.getDescription(),
+		else if (ex instanceof IOException) {
+			return new BeanDefinitionStoreException(resource.getDescription(),
 					"IOException parsing XML document from " + resource, ex);
 		}
-		catch (Throwable ex) {
-			throw new BeanDefinitionStoreException(resource.getDescription(),
+		else {
+			return new BeanDefinitionStoreException(resource.getDescription(),
 					"Unexpected exception parsing XML document from " + resource, ex);
 		}
 	}
@@ -508,7 +634,10 @@ public class XmlBeanDefinitionReader extends AbstractBeanDefinitionReader {
 		}
 
 		try {
-			return this.validationModeDetector.detectValidationMode(inputStream);
+			// The detector keeps parsing state: guard against concurrent document loading
+			synchronized (this.validationModeDetector) {
+				return this.validationModeDetector.detectValidationMode(inputStream);
+			}
 		}
 		catch (IOException ex) {
 			throw new BeanDefinitionStoreException("Unable to determine validation mode for [" +
@@ -64,6 +64,38 @@ public class CachedIntrospectionResultsTests {
 		assertFalse(CachedIntrospectionResults.strongClassCache.containsKey(ArrayList.class));
 	}
 
+	@Test
+	public void nonCacheSafeClassesSegregatedByClassLoader() throws Exception {
+		ClassLoader child = new OverridingClassLoader(getClass().getClassLoader());
+		Class<?> tbClass = child.loadClass("org.springframework.tests.sample.beans.TestBean");
+		long introspectionCount = CachedIntrospectionResults.getIntrospectionCount();
+		CachedIntrospectionResults results = CachedIntrospectionResults.forClass(tbClass);
+		assertSame(results, CachedIntrospectionResults.forClass(tbClass));
+		assertEquals(introspectionCount + 1, CachedIntrospectionResults.getIntrospectionCount());
+		assertFalse(CachedIntrospectionResults.strongClassCache.containsKey(tbClass));
+		assertTrue(CachedIntrospectionResults.softClassCache.get(child).contains(tbClass));
+		assertTrue(CachedIntrospectionResults.getCacheSize() > 0);
+
+		CachedIntrospectionResults.clearClassLoader(child);
+		assertNull(CachedIntrospectionResults.softClassCache.get(child));
+	}
+
+	@Test
+	public void classCacheSegmentEvictsLeastRecentlyUsed() {
+		CachedIntrospectionResults.ClassCacheSegment segment = new CachedIntrospectionResults.ClassCacheSegment(2);
+		CachedIntrospectionResults tbResults = CachedIntrospectionResults.forClass(TestBean.class);
+		CachedIntrospectionResults listResults = CachedIntrospectionResults.forClass(ArrayList.class);
+		long evictionCount = CachedIntrospectionResults.getEvictionCount();
+		assertNull(segment.putIfAbsent(TestBean.class, tbResults));
+		assertNull(segment.putIfAbsent(ArrayList.class, listResults));
+		assertSame(tbResults, segment.get(TestBean.class));
+		segment.putIfAbsent(Object.class, CachedIntrospectionResults.forClass(Object.class));
+		assertEquals(2, segment.size());
+		assertTrue(segment.contains(TestBean.class));
+		assertFalse(segment.contains(ArrayList.class));
+		assertEquals(evictionCount + 1, CachedIntrospectionResults.getEvictionCount());
+	}
+
 	@Test
 	public void shouldUseExtendedBeanInfoWhenApplicable() throws NoSuchMethodException, SecurityException {
 		// given a class with a non-void returning setter method
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import org.junit.Test;
+
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the {@link BeanWrapperTests} with
+ * {@linkplain BeanWrapperImpl#setUseGeneratedAccessors generated accessors}.
+ *
+ * @since 4.3.1
+ */
+public class GeneratedAccessorsBeanWrapperTests extends BeanWrapperTests {
+
+	@Override
+	protected BeanWrapperImpl createAccessor(Object target) {
+		BeanWrapperImpl accessor = new BeanWrapperImpl(target);
+		accessor.setUseGeneratedAccessors(true);
+		return accessor;
+	}
+
+
+	@Test
+	public void generatedAccessorsForPublicClass() {
+		assertNotNull(CachedIntrospectionResults.forClass(TestBean.class).getGeneratedAccessors());
+		assertNull(CachedIntrospectionResults.forClass(NonPublicBean.class).getGeneratedAccessors());
+	}
+
+	@Test
+	public void nestedPropertiesThroughGeneratedAccessors() {
+		TestBean target = new TestBean();
+		target.setSpouse(new TestBean());
+		BeanWrapperImpl accessor = createAccessor(target);
+		accessor.setPropertyValue("spouse.name", "Kerry");
+		accessor.setPropertyValue("spouse.age", "35");
+		assertEquals("Kerry", accessor.getPropertyValue("spouse.name"));
+		assertEquals(35, accessor.getPropertyValue("spouse.age"));
+		assertEquals(35, target.getSpouse().getAge());
+	}
+
+	@Test
+	public void nonPublicClassFallsBackToReflection() {
+		NonPublicBean target = new NonPublicBean();
+		BeanWrapperImpl accessor = createAccessor(target);
+		accessor.setPropertyValue("name", "tom");
+		assertEquals("tom", accessor.getPropertyValue("name"));
+	}
+
+	@Test(expected = MethodInvocationException.class)
+	public void nullForPrimitivePropertyFallsBackToReflection() {
+		BeanWrapperImpl accessor = createAccessor(new TestBean());
+		accessor.setPropertyValue(new PropertyValue("age", null) {
+			{
+				setConvertedValue(null);
+			}
+		});
+	}
+
+
+	static class NonPublicBean {
+
+		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+}
@@ -26,7 +26,9 @@ import java.security.Principal;
 import java.security.PrivilegedAction;
 import java.text.NumberFormat;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -35,6 +37,11 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Priority;
 import javax.security.auth.Subject;
 
@@ -2191,6 +2198,197 @@ public class DefaultListableBeanFactoryTests {
 		assertTrue(factory.initialized);
 	}
 
+	@Test
+	public void testTypeIndex() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setTypeIndexEnabled(true);
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("ntb", new RootBeanDefinition(NestedTestBean.class));
+		lbf.registerBeanDefinition("factory", new RootBeanDefinition(DummyFactory.class));
+		RootBeanDefinition abstractBd = new RootBeanDefinition(TestBean.class);
+		abstractBd.setAbstract(true);
+		lbf.registerBeanDefinition("abstract", abstractBd);
+
+		assertEquals(Arrays.asList("tb1", "factory"), Arrays.asList(lbf.getBeanNamesForType(ITestBean.class)));
+		assertEquals(Arrays.asList("ntb"), Arrays.asList(lbf.getBeanNamesForType(NestedTestBean.class)));
+		assertEquals(Arrays.asList("&factory"), Arrays.asList(lbf.getBeanNamesForType(DummyFactory.class)));
+		assertEquals(0, lbf.getBeanNamesForType(Runnable.class).length);
+
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(DerivedTestBean.class));
+		assertEquals(Arrays.asList("tb1", "factory", "tb2"), Arrays.asList(lbf.getBeanNamesForType(ITestBean.class)));
+		assertEquals(Arrays.asList("tb2"),
+				Arrays.asList(lbf.getBeanNamesForType(ResolvableType.forClass(DerivedTestBean.class))));
+
+		lbf.removeBeanDefinition("tb1");
+		lbf.registerBeanDefinition("ntb", new RootBeanDefinition(TestBean.class));
+		assertEquals(Arrays.asList("ntb", "factory", "tb2"), Arrays.asList(lbf.getBeanNamesForType(ITestBean.class)));
+		assertEquals(0, lbf.getBeanNamesForType(NestedTestBean.class).length);
+
+		// A singleton instance might expose further types than its bean definition
+		lbf.registerSingleton("tb2", new RunnableTestBean());
+		assertEquals(Arrays.asList("tb2"), Arrays.asList(lbf.getBeanNamesForType(Runnable.class)));
+		assertEquals(0, lbf.getBeanNamesForType(DerivedTestBean.class).length);
+
+		lbf.clearMetadataCache();
+		assertEquals(Arrays.asList("ntb", "factory", "tb2"), Arrays.asList(lbf.getBeanNamesForType(ITestBean.class)));
+		assertEquals(Arrays.asList("tb2"), Arrays.asList(lbf.getBeanNamesForType(Runnable.class)));
+	}
+
+	@Test
+	public void testTypeIndexWithFactoryMethod() {
+		final AtomicInteger resolutions = new AtomicInteger();
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory() {
+			@Override
+			protected Class<?> predictBeanType(String beanName, RootBeanDefinition mbd, Class<?>... typesToMatch) {
+				resolutions.incrementAndGet();
+				return super.predictBeanType(beanName, mbd, typesToMatch);
+			}
+		};
+		lbf.setTypeIndexEnabled(true);
+		RootBeanDefinition rbd = new RootBeanDefinition(TestBeanFactory.class);
+		rbd.setFactoryMethodName("createTestBean");
+		lbf.registerBeanDefinition("x1", rbd);
+
+		assertEquals(Arrays.asList("x1"), Arrays.asList(lbf.getBeanNamesForType(ITestBean.class, true, false)));
+		int resolutionsForMatch = resolutions.get();
+		assertTrue(resolutionsForMatch > 0);
+
+		// Resolved once: not a candidate for unrelated types anymore
+		assertEquals(0, lbf.getBeanNamesForType(Runnable.class, true, false).length);
+		assertEquals(0, lbf.getBeanNamesForType(NestedTestBean.class, true, false).length);
+		assertEquals(0, lbf.getBeanNamesForType(DummyFactory.class, true, false).length);
+		assertEquals(resolutionsForMatch, resolutions.get());
+		assertFalse(lbf.containsSingleton("x1"));
+	}
+
+	@Test(timeout = 10000)
+	public void testParallelPreInstantiation() {
+		List<String> log = Collections.synchronizedList(new ArrayList<String>());
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("first", createRecordingBeanDefinition("first", log, barrier));
+		lbf.registerBeanDefinition("second", createRecordingBeanDefinition("second", log, barrier));
+		RootBeanDefinition dependent = createRecordingBeanDefinition("dependent", log, null);
+		dependent.setDependsOn("first");
+		lbf.registerBeanDefinition("dependent", dependent);
+		RootBeanDefinition referencing = createRecordingBeanDefinition("referencing", log, null);
+		referencing.getPropertyValues().add("collaborator", new RuntimeBeanReference("second"));
+		lbf.registerBeanDefinition("referencing", referencing);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		// "first" and "second" have met at the barrier, i.e. they have been created concurrently
+		assertEquals(0, barrier.getNumberWaiting());
+		assertEquals(8, log.size());
+		assertTrue(log.indexOf("dependent") > log.indexOf("first"));
+		assertTrue(log.indexOf("referencing") > log.indexOf("second"));
+		assertSame(lbf.getBean("second"), lbf.getBean("referencing", RecordingBean.class).getCollaborator());
+		assertEquals(Arrays.asList("afterSingletonsInstantiated:first", "afterSingletonsInstantiated:second",
+				"afterSingletonsInstantiated:dependent", "afterSingletonsInstantiated:referencing"), log.subList(4, 8));
+	}
+
+	@Test(timeout = 10000)
+	public void testParallelPreInstantiationWithCircularReferenceAcrossThreads() {
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		RootBeanDefinition bd1 = new RootBeanDefinition(CircularBean.class);
+		bd1.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+		bd1.getPropertyValues().add("name", "bean1");
+		bd1.getPropertyValues().add("otherName", "bean2");
+		lbf.registerBeanDefinition("bean1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(CircularBean.class);
+		bd2.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+		bd2.getPropertyValues().add("name", "bean2");
+		bd2.getPropertyValues().add("otherName", "bean1");
+		lbf.registerBeanDefinition("bean2", bd2);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		CircularBean bean1 = lbf.getBean("bean1", CircularBean.class);
+		CircularBean bean2 = lbf.getBean("bean2", CircularBean.class);
+		assertSame(bean2, bean1.getOther());
+		assertSame(bean1, bean2.getOther());
+	}
+
+	@Test(timeout = 10000)
+	public void testParallelPreInstantiationWithCircularReferences() {
+		List<String> log = Collections.synchronizedList(new ArrayList<String>());
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		RootBeanDefinition bd1 = createRecordingBeanDefinition("bean1", log, null);
+		bd1.getPropertyValues().add("collaborator", new RuntimeBeanReference("bean2"));
+		lbf.registerBeanDefinition("bean1", bd1);
+		RootBeanDefinition bd2 = createRecordingBeanDefinition("bean2", log, null);
+		bd2.getPropertyValues().add("collaborator", new RuntimeBeanReference("bean1"));
+		lbf.registerBeanDefinition("bean2", bd2);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		RecordingBean bean1 = lbf.getBean("bean1", RecordingBean.class);
+		RecordingBean bean2 = lbf.getBean("bean2", RecordingBean.class);
+		assertSame(bean2, bean1.getCollaborator());
+		assertSame(bean1, bean2.getCollaborator());
+	}
+
+	@Test(timeout = 10000)
+	public void testParallelPreInstantiationWithFailure() throws Exception {
+		List<String> log = Collections.synchronizedList(new ArrayList<String>());
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("bean", createRecordingBeanDefinition("bean", log, null));
+		RootBeanDefinition failing = new RootBeanDefinition(TestBean.class);
+		failing.getPropertyValues().add("age", "not a number");
+		lbf.registerBeanDefinition("failing", failing);
+		RootBeanDefinition dependent = createRecordingBeanDefinition("dependent", log, null);
+		dependent.setDependsOn("failing");
+		lbf.registerBeanDefinition("dependent", dependent);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			lbf.preInstantiateSingletons();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertEquals("failing", ex.getBeanName());
+		}
+		finally {
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+		}
+		assertFalse(log.contains("dependent"));
+		assertFalse(lbf.containsSingleton("dependent"));
+	}
+
+	private static RootBeanDefinition createRecordingBeanDefinition(
+			String name, List<String> log, CyclicBarrier barrier) {
+
+		RootBeanDefinition bd = new RootBeanDefinition(RecordingBean.class);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, name);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(1, log);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(2, barrier, CyclicBarrier.class.getName());
+		return bd;
+	}
+
 	@Test
 	public void testPrototypeFactoryBeanNotEagerlyCalledInCaseOfBeanClassName() {
 		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
@@ -2802,6 +3000,14 @@ public class DefaultListableBeanFactoryTests {
 	}
 
 
+	public static class RunnableTestBean extends TestBean implements Runnable {
+
+		@Override
+		public void run() {
+		}
+	}
+
+
 	static class A { }
 
 	static class B { }
@@ -3249,6 +3455,75 @@ public class DefaultListableBeanFactoryTests {
 	}
 
 
+	public static class RecordingBean implements SmartInitializingSingleton {
+
+		private final String name;
+
+		private final List<String> log;
+
+		private Object collaborator;
+
+		public RecordingBean(String name, List<String> log, CyclicBarrier barrier) throws Exception {
+			this.name = name;
+			this.log = log;
+			if (barrier != null) {
+				barrier.await(5, TimeUnit.SECONDS);
+			}
+			log.add(name);
+		}
+
+		public void setCollaborator(Object collaborator) {
+			this.collaborator = collaborator;
+		}
+
+		public Object getCollaborator() {
+			return this.collaborator;
+		}
+
+		@Override
+		public void afterSingletonsInstantiated() {
+			this.log.add("afterSingletonsInstantiated:" + this.name);
+		}
+	}
+
+
+	public static class CircularBean implements BeanFactoryAware {
+
+		private String name;
+
+		private String otherName;
+
+		private CircularBean other;
+
+		public CircularBean(CyclicBarrier barrier) throws Exception {
+			barrier.await(5, TimeUnit.SECONDS);
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public void setOtherName(String otherName) {
+			this.otherName = otherName;
+		}
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) {
+			// Not visible in the bean definition: looks up the other bean during initialization
+			this.other = beanFactory.getBean(this.otherName, CircularBean.class);
+		}
+
+		public CircularBean getOther() {
+			return this.other;
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+	}
+
+
 	@Priority(5)
 	private static class HighPriorityTestBean extends TestBean {
 	}
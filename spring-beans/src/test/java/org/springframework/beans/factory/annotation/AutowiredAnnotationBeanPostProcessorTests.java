@@ -149,6 +149,39 @@ public class AutowiredAnnotationBeanPostProcessorTests {
 		assertEquals("nestedTestBean", depBeans[1]);
 	}
 
+	@Test
+	public void testExtendedResourceInjectionWithCompiledInjection() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerResolvableDependency(BeanFactory.class, bf);
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(bf);
+		bpp.setCompiledInjection(true);
+		bf.addBeanPostProcessor(bpp);
+		RootBeanDefinition bd = new RootBeanDefinition(TypedExtendedResourceInjectionBean.class);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", bd);
+		bf.registerBeanDefinition("mapBean", new RootBeanDefinition(MapMethodInjectionBean.class));
+		TestBean tb = new TestBean();
+		bf.registerSingleton("testBean", tb);
+		NestedTestBean ntb = new NestedTestBean();
+		bf.registerSingleton("nestedTestBean", ntb);
+
+		for (int i = 0; i < 2; i++) {
+			TypedExtendedResourceInjectionBean bean = (TypedExtendedResourceInjectionBean) bf.getBean("annotatedBean");
+			assertSame(tb, bean.getTestBean());
+			assertSame(tb, bean.getTestBean2());
+			assertSame(tb, bean.getTestBean3());
+			assertSame(tb, bean.getTestBean4());
+			assertSame(ntb, bean.getNestedTestBean());
+			assertSame(bf, bean.getBeanFactory());
+		}
+
+		MapMethodInjectionBean mapBean = (MapMethodInjectionBean) bf.getBean("mapBean");
+		assertSame(tb, mapBean.getTestBean());
+		assertEquals(1, mapBean.getTestBeanMap().size());
+		assertSame(tb, mapBean.getTestBeanMap().get("testBean"));
+	}
+
 	@Test
 	public void testExtendedResourceInjectionWithOverriding() {
 		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,15 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.Test;
 
 import org.springframework.beans.BeansException;
@@ -101,4 +110,173 @@ public class DefaultSingletonBeanRegistryTests {
 		assertTrue(beanRegistry.isDependent("c", "c"));
 	}
 
+	@Test
+	public void testSingletonRegisteredDuringCreation() {
+		final DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		final TestBean tb = new TestBean();
+		Object singleton = beanRegistry.getSingleton("tb", new ObjectFactory<Object>() {
+			@Override
+			public Object getObject() throws BeansException {
+				beanRegistry.registerSingleton("tb", tb);
+				throw new IllegalStateException("Singleton registered in the meantime");
+			}
+		});
+		assertSame(tb, singleton);
+		assertSame(tb, beanRegistry.getSingleton("tb"));
+	}
+
+	@Test(timeout = 10000)
+	public void testSerializedCreationOfDifferentSingletonsByDefault() throws Exception {
+		final DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		assertFalse(beanRegistry.isConcurrentSingletonCreation());
+		final CountDownLatch creationStarted = new CountDownLatch(1);
+		final CountDownLatch creationReleased = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> tb1 = executor.submit(new Callable<Object>() {
+				@Override
+				public Object call() {
+					return beanRegistry.getSingleton("tb1", new ObjectFactory<Object>() {
+						@Override
+						public Object getObject() throws BeansException {
+							creationStarted.countDown();
+							try {
+								creationReleased.await();
+							}
+							catch (InterruptedException ex) {
+								throw new IllegalStateException(ex);
+							}
+							return new TestBean();
+						}
+					});
+				}
+			});
+			assertTrue(creationStarted.await(5, TimeUnit.SECONDS));
+			final AtomicReference<Object> tb2 = new AtomicReference<Object>();
+			final AtomicReference<Object> tb1SeenByTb2 = new AtomicReference<Object>();
+			Thread secondThread = new Thread() {
+				@Override
+				public void run() {
+					tb2.set(beanRegistry.getSingleton("tb2", new ObjectFactory<Object>() {
+						@Override
+						public Object getObject() throws BeansException {
+							tb1SeenByTb2.set(beanRegistry.getSingleton("tb1"));
+							return new TestBean();
+						}
+					}));
+				}
+			};
+			secondThread.start();
+			// The second creation waits for the singleton mutex held by the first one
+			while (secondThread.getState() != Thread.State.BLOCKED) {
+				Thread.sleep(10);
+			}
+			creationReleased.countDown();
+			secondThread.join();
+			assertSame(tb1.get(), beanRegistry.getSingleton("tb1"));
+			assertSame(tb2.get(), beanRegistry.getSingleton("tb2"));
+			assertSame(tb1.get(), tb1SeenByTb2.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertEquals(2, beanRegistry.getSingletonCreationMetrics().getCreationCount());
+	}
+
+	@Test(timeout = 10000)
+	public void testConcurrentCreationOfDifferentSingletons() throws Exception {
+		final DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		final CyclicBarrier barrier = new CyclicBarrier(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> tb1 = executor.submit(createSingletonTask(beanRegistry, "tb1", barrier));
+			Future<Object> tb2 = executor.submit(createSingletonTask(beanRegistry, "tb2", barrier));
+			// Both factories have met at the barrier, i.e. they have been called concurrently
+			assertSame(tb1.get(), beanRegistry.getSingleton("tb1"));
+			assertSame(tb2.get(), beanRegistry.getSingleton("tb2"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertEquals(2, beanRegistry.getSingletonCreationMetrics().getCreationCount());
+		assertEquals(0, beanRegistry.getSingletonCreationMetrics().getContendedRequestCount());
+	}
+
+	@Test(timeout = 10000)
+	public void testConcurrentRequestsForSameSingleton() throws Exception {
+		final DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		final CountDownLatch creationStarted = new CountDownLatch(1);
+		final CountDownLatch creationReleased = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> first = executor.submit(new Callable<Object>() {
+				@Override
+				public Object call() {
+					return beanRegistry.getSingleton("tb", new ObjectFactory<Object>() {
+						@Override
+						public Object getObject() throws BeansException {
+							creationStarted.countDown();
+							try {
+								creationReleased.await();
+							}
+							catch (InterruptedException ex) {
+								throw new IllegalStateException(ex);
+							}
+							return new TestBean();
+						}
+					});
+				}
+			});
+			assertTrue(creationStarted.await(5, TimeUnit.SECONDS));
+			final AtomicReference<Object> second = new AtomicReference<Object>();
+			Thread secondThread = new Thread() {
+				@Override
+				public void run() {
+					second.set(beanRegistry.getSingleton("tb", new ObjectFactory<Object>() {
+						@Override
+						public Object getObject() throws BeansException {
+							throw new IllegalStateException("Should not create the singleton twice");
+						}
+					}));
+				}
+			};
+			secondThread.start();
+			while (secondThread.getState() != Thread.State.WAITING) {
+				Thread.sleep(10);
+			}
+			creationReleased.countDown();
+			secondThread.join();
+			assertSame(first.get(), second.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, beanRegistry.getSingletonCreationMetrics().getCreationCount());
+		assertEquals(1, beanRegistry.getSingletonCreationMetrics().getContendedRequestCount());
+	}
+
+	private static Callable<Object> createSingletonTask(
+			final DefaultSingletonBeanRegistry beanRegistry, final String beanName, final CyclicBarrier barrier) {
+
+		return new Callable<Object>() {
+			@Override
+			public Object call() {
+				return beanRegistry.getSingleton(beanName, new ObjectFactory<Object>() {
+					@Override
+					public Object getObject() throws BeansException {
+						try {
+							barrier.await(5, TimeUnit.SECONDS);
+						}
+						catch (Exception ex) {
+							throw new IllegalStateException(ex);
+						}
+						return new TestBean();
+					}
+				});
+			}
+		};
+	}
+
 }
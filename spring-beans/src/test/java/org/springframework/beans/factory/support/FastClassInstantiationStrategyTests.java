@@ -0,0 +1,219 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FastClassInstantiationStrategy} and {@link FastClassUtils}.
+ */
+public class FastClassInstantiationStrategyTests {
+
+	private DefaultListableBeanFactory beanFactory;
+
+
+	@Before
+	public void setup() {
+		this.beanFactory = new DefaultListableBeanFactory();
+		this.beanFactory.setInstantiationStrategy(new FastClassInstantiationStrategy());
+	}
+
+
+	@Test
+	public void fastMembersForPublicClass() throws Exception {
+		Constructor<?> ctor = TestBean.class.getConstructor(String.class, int.class);
+		assertNotNull(FastClassUtils.getFastConstructor(ctor));
+		assertSame(FastClassUtils.getFastConstructor(ctor), FastClassUtils.getFastConstructor(ctor));
+		Method method = ConstructorBean.class.getMethod("create", String.class);
+		assertNotNull(FastClassUtils.getFastMethod(method));
+	}
+
+	@Test
+	public void noFastMembersForNonPublicClass() throws Exception {
+		Constructor<?> ctor = NonPublicBean.class.getDeclaredConstructor();
+		assertNull(FastClassUtils.getFastConstructor(ctor));
+		Method method = NonPublicBean.class.getDeclaredMethod("create");
+		assertNull(FastClassUtils.getFastMethod(method));
+	}
+
+	@Test
+	public void instantiateWithDefaultConstructor() {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("name", "juergen");
+		this.beanFactory.registerBeanDefinition("bean", bd);
+		assertEquals("juergen", this.beanFactory.getBean("bean", TestBean.class).getName());
+	}
+
+	@Test
+	public void instantiateWithConstructorArguments() {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "juergen");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(1, "42");
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("bean", bd);
+		TestBean bean = this.beanFactory.getBean("bean", TestBean.class);
+		assertEquals("juergen", bean.getName());
+		assertEquals(42, bean.getAge());
+		assertNotSame(bean, this.beanFactory.getBean("bean"));
+	}
+
+	@Test
+	public void instantiateWithStaticFactoryMethod() {
+		RootBeanDefinition bd = new RootBeanDefinition(ConstructorBean.class);
+		bd.setFactoryMethodName("create");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "value");
+		this.beanFactory.registerBeanDefinition("bean", bd);
+		assertEquals("value", this.beanFactory.getBean("bean", ConstructorBean.class).getValue());
+	}
+
+	@Test
+	public void instantiateWithInstanceFactoryMethod() {
+		this.beanFactory.registerBeanDefinition("factory", new RootBeanDefinition(ConstructorBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition();
+		bd.setFactoryBeanName("factory");
+		bd.setFactoryMethodName("createTestBean");
+		this.beanFactory.registerBeanDefinition("bean", bd);
+		assertEquals("default", this.beanFactory.getBean("bean", TestBean.class).getName());
+	}
+
+	@Test
+	public void instantiateNonPublicClass() {
+		this.beanFactory.registerBeanDefinition("bean", new RootBeanDefinition(NonPublicBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(NonPublicBean.class);
+		bd.setFactoryMethodName("create");
+		this.beanFactory.registerBeanDefinition("factoryBean", bd);
+		assertNotNull(this.beanFactory.getBean("bean", NonPublicBean.class));
+		assertNotNull(this.beanFactory.getBean("factoryBean", NonPublicBean.class));
+	}
+
+	@Test
+	public void constructorException() {
+		RootBeanDefinition bd = new RootBeanDefinition(ConstructorBean.class);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, 5);
+		this.beanFactory.registerBeanDefinition("bean", bd);
+		try {
+			this.beanFactory.getBean("bean");
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getMostSpecificCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void factoryMethodException() {
+		RootBeanDefinition bd = new RootBeanDefinition(ConstructorBean.class);
+		bd.setFactoryMethodName("create");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "fail");
+		this.beanFactory.registerBeanDefinition("bean", bd);
+		try {
+			this.beanFactory.getBean("bean");
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getMostSpecificCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void constructorArgumentMismatch() throws Exception {
+		Constructor<?> ctor = ConstructorBean.class.getConstructor(String.class);
+		try {
+			new FastClassInstantiationStrategy().instantiateClass(ctor, 5);
+			fail("Should have thrown BeanInstantiationException");
+		}
+		catch (BeanInstantiationException ex) {
+			assertTrue(ex.getMessage().contains("Illegal arguments for constructor"));
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void factoryMethodArgumentMismatch() throws Exception {
+		Method method = ConstructorBean.class.getMethod("create", String.class);
+		new FastClassInstantiationStrategy().invokeFactoryMethod(method, null, 5);
+	}
+
+	@Test
+	public void constructorClassCastException() throws Exception {
+		Constructor<?> ctor = ConstructorBean.class.getConstructor(Object.class);
+		try {
+			new FastClassInstantiationStrategy().instantiateClass(ctor, 5);
+			fail("Should have thrown BeanInstantiationException");
+		}
+		catch (BeanInstantiationException ex) {
+			assertTrue(ex.getMessage().contains("Constructor threw exception"));
+			assertTrue(ex.getCause() instanceof ClassCastException);
+		}
+	}
+
+
+	public static class ConstructorBean {
+
+		private final String value;
+
+		public ConstructorBean() {
+			this("default");
+		}
+
+		public ConstructorBean(String value) {
+			this.value = value;
+		}
+
+		public ConstructorBean(int value) {
+			throw new IllegalStateException("int constructor");
+		}
+
+		public ConstructorBean(Object value) {
+			this((String) value);
+		}
+
+		public String getValue() {
+			return this.value;
+		}
+
+		public TestBean createTestBean() {
+			return new TestBean(this.value);
+		}
+
+		public static ConstructorBean create(String value) {
+			if ("fail".equals(value)) {
+				throw new IllegalStateException("factory method");
+			}
+			return new ConstructorBean(value);
+		}
+	}
+
+
+	static class NonPublicBean {
+
+		static NonPublicBean create() {
+			return new NonPublicBean();
+		}
+	}
+
+}
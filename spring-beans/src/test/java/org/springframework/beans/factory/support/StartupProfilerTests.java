@@ -0,0 +1,159 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link StartupProfiler} in combination with a bean factory.
+ */
+public class StartupProfilerTests {
+
+	private final StartupProfiler profiler = new StartupProfiler();
+
+	private final List<StartupStep> steps = new ArrayList<StartupStep>();
+
+	private DefaultListableBeanFactory beanFactory;
+
+
+	@Before
+	public void setup() {
+		this.profiler.addListener(new StartupStepListener() {
+			@Override
+			public void stepEnded(StartupStep step) {
+				steps.add(step);
+			}
+		});
+		this.beanFactory = new DefaultListableBeanFactory();
+		this.beanFactory.setStartupProfiler(this.profiler);
+	}
+
+
+	@Test
+	public void beanSteps() {
+		this.beanFactory.addBeanPostProcessor(new SleepingBeanPostProcessor());
+		RootBeanDefinition spouse = new RootBeanDefinition(TestBean.class);
+		spouse.getPropertyValues().add("name", "spouse");
+		this.beanFactory.registerBeanDefinition("spouse", spouse);
+		RootBeanDefinition bean = new RootBeanDefinition(TestBean.class);
+		bean.getPropertyValues().add("spouse", new RuntimeBeanReference("spouse"));
+		this.beanFactory.registerBeanDefinition("bean", bean);
+
+		this.beanFactory.getBean("bean");
+
+		assertEquals(10, this.steps.size());
+		StartupStep beanPopulation = null;
+		for (StartupStep step : this.steps) {
+			assertTrue(step.isEnded());
+			assertTrue(step.getSelfDurationNanos() <= step.getDurationNanos());
+			if (step.getType() == StartupStep.Type.BEAN_POPULATION && "bean".equals(step.getBeanName())) {
+				beanPopulation = step;
+			}
+		}
+		assertNotNull(beanPopulation);
+
+		// The creation of "spouse" is nested in the population of "bean"
+		StartupStep spouseInitialization = null;
+		for (StartupStep step : this.steps) {
+			if (step.getType() == StartupStep.Type.BEAN_INITIALIZATION && "spouse".equals(step.getBeanName())) {
+				spouseInitialization = step;
+			}
+		}
+		assertNotNull(spouseInitialization);
+		assertSame(beanPopulation, spouseInitialization.getParent());
+		assertTrue(beanPopulation.getDurationNanos() - beanPopulation.getSelfDurationNanos() >=
+				spouseInitialization.getDurationNanos());
+
+		StartupReport report = this.profiler.getReport();
+		assertEquals(2, report.getBeanTimings().size());
+		assertEquals(1, report.getPostProcessorTimings().size());
+		StartupReport.PostProcessorTiming postProcessorTiming = report.getPostProcessorTimings().get(0);
+		assertEquals(SleepingBeanPostProcessor.class.getName(), postProcessorTiming.getName());
+		assertEquals(4, postProcessorTiming.getInvocationCount());
+		assertTrue(postProcessorTiming.getTotalNanos() >= 4 * 1000000);
+		StartupReport.BeanTiming beanTiming = report.getBeanTiming("bean");
+		assertTrue(beanTiming.getPostProcessorNanos() >= 2 * 1000000);
+		assertTrue(beanTiming.getTotalNanos() >= beanTiming.getPostProcessorNanos());
+		assertTrue(report.prettyPrint(10).contains(SleepingBeanPostProcessor.class.getName()));
+		assertTrue(report.getRefreshStepTimings().isEmpty());
+	}
+
+	@Test
+	public void nestedStepsAndReset() {
+		StartupStep outer = this.profiler.start(StartupStep.Type.REFRESH, "outer", null);
+		StartupStep inner = this.profiler.start(StartupStep.Type.BEAN_INSTANTIATION, "bean", "bean");
+		assertSame(outer, inner.getParent());
+		inner.end();
+		inner.end();
+		StartupStep next = this.profiler.start(StartupStep.Type.BEAN_INITIALIZATION, "bean", "bean");
+		assertSame(outer, next.getParent());
+		next.end();
+		outer.end();
+		assertNull(this.profiler.start(StartupStep.Type.REFRESH, "next", null).getParent());
+
+		assertEquals(3, this.steps.size());
+		StartupReport report = this.profiler.getReport();
+		assertEquals(Long.valueOf(outer.getDurationNanos()), report.getRefreshStepTimings().get("outer"));
+		assertEquals(inner.getDurationNanos() + next.getDurationNanos(),
+				report.getBeanTiming("bean").getTotalNanos());
+
+		this.profiler.reset();
+		assertTrue(this.profiler.getReport().getBeanTimings().isEmpty());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void durationOfRunningStep() {
+		this.profiler.start(StartupStep.Type.REFRESH, "running", null).getDurationNanos();
+	}
+
+
+	private static class SleepingBeanPostProcessor implements BeanPostProcessor {
+
+		@Override
+		public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+			sleep();
+			return bean;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+			sleep();
+			return bean;
+		}
+
+		private void sleep() {
+			try {
+				Thread.sleep(1);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+}
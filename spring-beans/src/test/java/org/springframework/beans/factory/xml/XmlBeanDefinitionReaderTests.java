@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.beans.factory.xml;
 
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 
@@ -118,6 +120,57 @@ public class XmlBeanDefinitionReaderTests {
 		testBeanDefinitions(registry);
 	}
 
+	@Test
+	public void withTaskExecutor() {
+		Resource[] resources = new Resource[] {new ClassPathResource("test.xml", getClass()),
+				new ClassPathResource("collections.xml", getClass()),
+				new ClassPathResource("factory-methods.xml", getClass())};
+		SimpleBeanDefinitionRegistry expected = new SimpleBeanDefinitionRegistry();
+		int expectedCount = new XmlBeanDefinitionReader(expected).loadBeanDefinitions(resources);
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			SimpleBeanDefinitionRegistry registry = new SimpleBeanDefinitionRegistry();
+			XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(registry);
+			reader.setTaskExecutor(executor);
+			assertEquals(expectedCount, reader.loadBeanDefinitions(resources));
+			assertArrayEquals(expected.getBeanDefinitionNames(), registry.getBeanDefinitionNames());
+			assertTrue(registry.isAlias("youralias"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void withTaskExecutorAndWildcardImport() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			SimpleBeanDefinitionRegistry registry = new SimpleBeanDefinitionRegistry();
+			XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(registry);
+			reader.setTaskExecutor(executor);
+			reader.loadBeanDefinitions(new ClassPathResource("importPattern.xml", getClass()));
+			testBeanDefinitions(registry);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(expected = XmlBeanDefinitionStoreException.class)
+	public void withTaskExecutorAndInvalidDocument() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(new SimpleBeanDefinitionRegistry());
+			reader.setTaskExecutor(executor);
+			reader.loadBeanDefinitions(new ClassPathResource("test.xml", getClass()),
+					new ClassPathResource("invalidPerSchema.xml", getClass()));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	private void testBeanDefinitions(BeanDefinitionRegistry registry) {
 		assertEquals(24, registry.getBeanDefinitionCount());
 		assertEquals(24, registry.getBeanDefinitionNames().length);
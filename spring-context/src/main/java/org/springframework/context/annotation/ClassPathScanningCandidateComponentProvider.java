@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package org.springframework.context.annotation;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -31,6 +33,8 @@ import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
+import org.springframework.context.index.CandidateComponentsIndex;
+import org.springframework.context.index.CandidateComponentsIndexLoader;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
 import org.springframework.core.env.StandardEnvironment;
@@ -48,8 +52,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Controller;
 import org.springframework.stereotype.Repository;
 import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.PathMatcher;
 
 /**
  * A component provider that scans the classpath from a base package. It then
@@ -59,6 +65,14 @@ import org.springframework.util.ClassUtils;
  * {@link org.springframework.core.type.classreading.MetadataReader MetadataReader}
  * facility, backed by an ASM {@link org.springframework.asm.ClassReader ClassReader}.
  *
+ * <p>Classpath roots that contain a
+ * {@value org.springframework.context.index.CandidateComponentsIndexLoader#COMPONENTS_RESOURCE_LOCATION}
+ * index are not scanned if all include filters are plain {@link AnnotationTypeFilter
+ * annotation type filters}: only the classes that the index records with one of the
+ * filtered annotations are read then, without listing the scanned packages. Roots
+ * without an index, or with an index that does not cover the current package
+ * directories (since classes have been added or removed), are scanned as usual.
+ *
  * @author Mark Fisher
  * @author Juergen Hoeller
  * @author Ramnivas Laddad
@@ -72,6 +86,8 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+	private static final PathMatcher pathMatcher = new AntPathMatcher();
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private Environment environment;
@@ -265,9 +281,11 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	public Set<BeanDefinition> findCandidateComponents(String basePackage) {
 		Set<BeanDefinition> candidates = new LinkedHashSet<BeanDefinition>();
 		try {
-			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
-					resolveBasePackage(basePackage) + "/" + this.resourcePattern;
-			Resource[] resources = this.resourcePatternResolver.getResources(packageSearchPath);
+			String packageSearchPath = resolveBasePackage(basePackage) + "/" + this.resourcePattern;
+			Resource[] resources = (indexSupportsIncludeFilters() ?
+					getCandidateResourcesFromIndex(packageSearchPath) :
+					this.resourcePatternResolver.getResources(
+							ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + packageSearchPath));
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
 			for (Resource resource : resources) {
@@ -317,6 +335,112 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return candidates;
 	}
 
+	/**
+	 * Determine whether the candidate components index can be used with the
+	 * configured include filters, i.e. whether each of them is a plain
+	 * {@link AnnotationTypeFilter} that only checks the candidate class itself.
+	 */
+	private boolean indexSupportsIncludeFilters() {
+		if (CandidateComponentsIndexLoader.isIndexIgnored() || this.includeFilters.isEmpty()) {
+			return false;
+		}
+		for (TypeFilter includeFilter : this.includeFilters) {
+			if (includeFilter.getClass() != AnnotationTypeFilter.class) {
+				return false;
+			}
+			AnnotationTypeFilter annotationTypeFilter = (AnnotationTypeFilter) includeFilter;
+			if (annotationTypeFilter.isConsiderInherited() || annotationTypeFilter.isConsiderInterfaces()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Collect the candidate class resources for the given package search path,
+	 * consulting the index of each classpath root where available and falling
+	 * back to scanning the root otherwise.
+	 */
+	private Resource[] getCandidateResourcesFromIndex(String packageSearchPath) throws IOException {
+		String rootDirPath = determineRootDir(packageSearchPath);
+		if (rootDirPath.length() == 0) {
+			// Without a root package, jar files cannot be reliably found on the classpath anyway
+			return this.resourcePatternResolver.getResources(
+					ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + packageSearchPath);
+		}
+		String subPattern = packageSearchPath.substring(rootDirPath.length());
+		Set<String> stereotypes = new LinkedHashSet<String>();
+		for (TypeFilter includeFilter : this.includeFilters) {
+			stereotypes.add(((AnnotationTypeFilter) includeFilter).getAnnotationType().getName());
+		}
+
+		Set<Resource> result = new LinkedHashSet<Resource>();
+		Resource[] rootDirResources = this.resourcePatternResolver.getResources(
+				ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + rootDirPath);
+		for (Resource rootDirResource : rootDirResources) {
+			String rootDirUrl = rootDirResource.getURL().toString();
+			Resource[] indexedResources = null;
+			if (rootDirUrl.endsWith(rootDirPath)) {
+				Resource root = this.resourcePatternResolver.getResource(
+						rootDirUrl.substring(0, rootDirUrl.length() - rootDirPath.length()));
+				CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(root);
+				if (index != null) {
+					if (index.isUpToDate(rootDirPath)) {
+						indexedResources = getIndexedResources(index, packageSearchPath, stereotypes);
+					}
+					else if (logger.isDebugEnabled()) {
+						logger.debug("Ignoring stale " + index + ": classes below [" + rootDirPath +
+								"] have been added or removed since the index was written");
+					}
+				}
+			}
+			result.addAll(Arrays.asList(indexedResources != null ? indexedResources :
+					this.resourcePatternResolver.getResources(rootDirUrl + subPattern)));
+		}
+		return result.toArray(new Resource[result.size()]);
+	}
+
+	/**
+	 * Resolve the indexed classes that carry one of the given stereotypes and
+	 * match the given package search path.
+	 * @return the class resources, or {@code null} if the index is stale
+	 */
+	private Resource[] getIndexedResources(CandidateComponentsIndex index, String packageSearchPath,
+			Set<String> stereotypes) throws IOException {
+
+		List<Resource> resources = new ArrayList<Resource>();
+		for (String type : index.getCandidateTypes(stereotypes)) {
+			String path = ClassUtils.convertClassNameToResourcePath(type) + ClassUtils.CLASS_FILE_SUFFIX;
+			if (pathMatcher.match(packageSearchPath, path)) {
+				Resource resource = index.getRoot().createRelative(path);
+				if (!resource.exists()) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Ignoring stale " + index + ": class [" + type +
+								"] has been removed since the index was written");
+					}
+					return null;
+				}
+				resources.add(resource);
+			}
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Using " + index + " for [" + packageSearchPath + "]: " + resources.size() + " candidates");
+		}
+		return resources.toArray(new Resource[resources.size()]);
+	}
+
+	/**
+	 * Determine the root directory for the given package search path:
+	 * the part of the path up to the last separator before the first wildcard.
+	 */
+	private static String determineRootDir(String packageSearchPath) {
+		int rootDirEnd = packageSearchPath.length();
+		while (rootDirEnd > 0 && pathMatcher.isPattern(packageSearchPath.substring(0, rootDirEnd))) {
+			rootDirEnd = packageSearchPath.lastIndexOf('/', rootDirEnd - 2) + 1;
+		}
+		return packageSearchPath.substring(0, rootDirEnd);
+	}
+
 
 	/**
 	 * Resolve the specified base package into a pattern specification for
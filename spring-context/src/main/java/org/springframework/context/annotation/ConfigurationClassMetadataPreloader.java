@@ -0,0 +1,191 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.StandardAnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Reads the ASM class metadata that {@link ConfigurationClassPostProcessor}
+ * and {@link ConfigurationClassParser} are going to need on a given
+ * {@link Executor}, populating a caching {@link MetadataReaderFactory}
+ * ahead of the actual, sequential configuration class processing.
+ *
+ * <p>Starts with the classes of all bean definitions that need to be checked
+ * for configuration class candidacy, then follows imports, superclasses and
+ * member classes of configuration candidates, one level per round.
+ * Failures are ignored here: they will be encountered and reported
+ * by the regular processing.
+ *
+ * @since 4.3.1
+ * @see ConfigurationClassPostProcessor#setTaskExecutor
+ */
+class ConfigurationClassMetadataPreloader {
+
+	private static final String IMPORT_ANNOTATION = Import.class.getName();
+
+	private static final Log logger = LogFactory.getLog(ConfigurationClassMetadataPreloader.class);
+
+
+	private final MetadataReaderFactory metadataReaderFactory;
+
+	private final Executor executor;
+
+	private final Set<String> visitedClassNames =
+			Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+
+	public ConfigurationClassMetadataPreloader(MetadataReaderFactory metadataReaderFactory, Executor executor) {
+		this.metadataReaderFactory = metadataReaderFactory;
+		this.executor = executor;
+	}
+
+
+	/**
+	 * Read the metadata for the bean definitions in the given registry as well
+	 * as the classes that their configuration class processing will refer to.
+	 * @param registry the registry to preload the metadata for
+	 * @return the number of classes read
+	 */
+	public int preload(BeanDefinitionRegistry registry) {
+		// Class name -> whether the class is going to be processed as a configuration class anyway
+		Map<String, Boolean> classNames = new LinkedHashMap<String, Boolean>();
+		for (String beanName : registry.getBeanDefinitionNames()) {
+			BeanDefinition beanDef = registry.getBeanDefinition(beanName);
+			String className = beanDef.getBeanClassName();
+			if (className == null) {
+				continue;
+			}
+			if (beanDef instanceof AnnotatedBeanDefinition &&
+					className.equals(((AnnotatedBeanDefinition) beanDef).getMetadata().getClassName())) {
+				AnnotationMetadata metadata = ((AnnotatedBeanDefinition) beanDef).getMetadata();
+				if (!(metadata instanceof StandardAnnotationMetadata)) {
+					collectReferencedClassNames(metadata, false, classNames);
+				}
+			}
+			else if (!(beanDef instanceof AbstractBeanDefinition && ((AbstractBeanDefinition) beanDef).hasBeanClass())) {
+				classNames.put(className, Boolean.FALSE);
+			}
+		}
+
+		int count = 0;
+		while (!classNames.isEmpty()) {
+			count += classNames.size();
+			classNames = preloadRound(classNames);
+		}
+		return count;
+	}
+
+	private Map<String, Boolean> preloadRound(Map<String, Boolean> classNames) {
+		final Map<String, Boolean> referencedClassNames =
+				Collections.synchronizedMap(new LinkedHashMap<String, Boolean>());
+		List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>(classNames.size());
+		for (Map.Entry<String, Boolean> entry : classNames.entrySet()) {
+			final String className = entry.getKey();
+			final boolean configurationClass = entry.getValue();
+			if (!this.visitedClassNames.add(className)) {
+				continue;
+			}
+			FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						MetadataReader metadataReader = metadataReaderFactory.getMetadataReader(className);
+						collectReferencedClassNames(
+								metadataReader.getAnnotationMetadata(), configurationClass, referencedClassNames);
+					}
+					catch (Throwable ex) {
+						if (logger.isDebugEnabled()) {
+							logger.debug("Could not preload class metadata for [" + className + "]", ex);
+						}
+					}
+				}
+			}, null);
+			this.executor.execute(task);
+			tasks.add(task);
+		}
+		for (FutureTask<Void> task : tasks) {
+			try {
+				task.get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return Collections.emptyMap();
+			}
+			catch (ExecutionException ex) {
+				// Not expected since the task handles all exceptions itself
+				throw new IllegalStateException("Unexpected failure while preloading class metadata", ex.getCause());
+			}
+		}
+		synchronized (referencedClassNames) {
+			referencedClassNames.keySet().removeAll(this.visitedClassNames);
+			return new LinkedHashMap<String, Boolean>(referencedClassNames);
+		}
+	}
+
+	private void collectReferencedClassNames(AnnotationMetadata metadata, boolean configurationClass,
+			Map<String, Boolean> referencedClassNames) {
+
+		if (!configurationClass && !ConfigurationClassUtils.isFullConfigurationCandidate(metadata) &&
+				!ConfigurationClassUtils.isLiteConfigurationCandidate(metadata)) {
+			return;
+		}
+		MultiValueMap<String, Object> importAttributes = metadata.getAllAnnotationAttributes(IMPORT_ANNOTATION, true);
+		if (importAttributes != null) {
+			List<Object> values = importAttributes.get("value");
+			if (values != null) {
+				for (Object value : values) {
+					for (String importedClassName : (String[]) value) {
+						referencedClassNames.put(importedClassName, Boolean.TRUE);
+					}
+				}
+			}
+		}
+		if (metadata.hasSuperClass() && !metadata.getSuperClassName().startsWith("java")) {
+			referencedClassNames.put(metadata.getSuperClassName(), Boolean.TRUE);
+		}
+		synchronized (referencedClassNames) {
+			for (String memberClassName : metadata.getMemberClassNames()) {
+				if (!referencedClassNames.containsKey(memberClassName)) {
+					referencedClassNames.put(memberClassName, Boolean.FALSE);
+				}
+			}
+		}
+	}
+
+}
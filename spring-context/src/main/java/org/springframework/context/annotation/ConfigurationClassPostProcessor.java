@@ -27,6 +27,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -117,6 +118,8 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 	private boolean setMetadataReaderFactoryCalled = false;
 
+	private Executor taskExecutor;
+
 	private final Set<Integer> registriesPostProcessed = new HashSet<Integer>();
 
 	private final Set<Integer> factoriesPostProcessed = new HashSet<Integer>();
@@ -195,6 +198,24 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		this.importBeanNameGenerator = beanNameGenerator;
 	}
 
+	/**
+	 * Set an {@link Executor} for reading class metadata in parallel before
+	 * processing the configuration classes, e.g. a thread pool or, on Java 7+,
+	 * a {@code ForkJoinPool}.
+	 * <p>The ASM-based metadata of all bean classes that need to be checked for
+	 * configuration class candidacy, and of the classes imported by or inherited
+	 * from configuration candidates, is then read on the given executor up front.
+	 * The configuration classes themselves are still parsed and registered on the
+	 * calling thread in the usual order, so the resulting bean definitions are the
+	 * same as with sequential processing.
+	 * <p>Only takes effect with a {@link CachingMetadataReaderFactory}, which is the
+	 * default. Default is none, reading all class metadata on demand.
+	 * @since 4.3.1
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
 	@Override
 	public void setEnvironment(Environment environment) {
 		Assert.notNull(environment, "Environment must not be null");
@@ -268,6 +289,28 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	 * {@link Configuration} classes.
 	 */
 	public void processConfigBeanDefinitions(BeanDefinitionRegistry registry) {
+		int originalCacheLimit = -1;
+		if (this.taskExecutor != null && this.metadataReaderFactory instanceof CachingMetadataReaderFactory) {
+			// Keep all preloaded metadata until the end of processing, where the cache gets cleared anyway
+			CachingMetadataReaderFactory cachingFactory = (CachingMetadataReaderFactory) this.metadataReaderFactory;
+			originalCacheLimit = cachingFactory.getCacheLimit();
+			cachingFactory.setCacheLimit(Integer.MAX_VALUE);
+			int count = new ConfigurationClassMetadataPreloader(cachingFactory, this.taskExecutor).preload(registry);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Preloaded class metadata for " + count + " classes");
+			}
+		}
+		try {
+			doProcessConfigBeanDefinitions(registry);
+		}
+		finally {
+			if (originalCacheLimit >= 0) {
+				((CachingMetadataReaderFactory) this.metadataReaderFactory).setCacheLimit(originalCacheLimit);
+			}
+		}
+	}
+
+	private void doProcessConfigBeanDefinitions(BeanDefinitionRegistry registry) {
 		List<BeanDefinitionHolder> configCandidates = new ArrayList<BeanDefinitionHolder>();
 		String[] candidateNames = registry.getBeanDefinitionNames();
 
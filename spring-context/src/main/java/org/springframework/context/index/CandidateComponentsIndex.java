@@ -0,0 +1,170 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Provide access to the candidates that are defined in a
+ * {@value CandidateComponentsIndexLoader#COMPONENTS_RESOURCE_LOCATION} index file
+ * of a single classpath root (a jar file or a classes directory).
+ *
+ * <p>Each entry of the index maps the fully qualified name of a type to the
+ * comma-separated list of stereotypes it is annotated with, i.e. the names of
+ * the annotations declared on the type as well as their meta-annotations.
+ * Entries whose key ends with a "/" instead record a package directory of the
+ * classpath root with its last-modified timestamp at the time the index was
+ * written, which allows for detecting added or removed classes.
+ *
+ * @since 4.3.1
+ * @see CandidateComponentsIndexLoader
+ * @see CandidateComponentsIndexWriter
+ */
+public class CandidateComponentsIndex {
+
+	private final Resource root;
+
+	private final long lastModified;
+
+	private final MultiValueMap<String, String> index;
+
+	private final SortedMap<String, Long> directories;
+
+
+	/**
+	 * Create a new {@code CandidateComponentsIndex} for the given index content.
+	 * @param root the classpath root that the index belongs to
+	 * @param lastModified the last-modified timestamp of the index file
+	 * @param content the index entries (type name to stereotype names,
+	 * directory path to last-modified timestamp)
+	 */
+	public CandidateComponentsIndex(Resource root, long lastModified, Properties content) {
+		this.root = root;
+		this.lastModified = lastModified;
+		this.index = new LinkedMultiValueMap<String, String>();
+		this.directories = new TreeMap<String, Long>();
+		parseIndex(content);
+	}
+
+
+	/**
+	 * Return the classpath root that this index belongs to.
+	 */
+	public Resource getRoot() {
+		return this.root;
+	}
+
+	/**
+	 * Return the last-modified timestamp of the index file.
+	 */
+	public long getLastModified() {
+		return this.lastModified;
+	}
+
+	/**
+	 * Return the names of all types that carry the given stereotype.
+	 * @param stereotype the fully qualified name of the stereotype annotation
+	 * @return the candidate type names (never {@code null})
+	 */
+	public Set<String> getCandidateTypes(String stereotype) {
+		Collection<String> candidates = this.index.get(stereotype);
+		return (candidates != null ? new LinkedHashSet<String>(candidates) : Collections.<String>emptySet());
+	}
+
+	/**
+	 * Return the names of all types that carry at least one of the given stereotypes.
+	 * @param stereotypes the fully qualified names of the stereotype annotations
+	 * @return the candidate type names, sorted by name (never {@code null})
+	 */
+	public Set<String> getCandidateTypes(Collection<String> stereotypes) {
+		Set<String> candidates = new TreeSet<String>();
+		for (String stereotype : stereotypes) {
+			Collection<String> types = this.index.get(stereotype);
+			if (types != null) {
+				candidates.addAll(types);
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Determine whether the package directories below the given path are unchanged
+	 * since the index was written, i.e. whether no class has been added to or removed
+	 * from them. Only the timestamps of the recorded directories are checked, without
+	 * listing their contents; modifications of existing class files are not detected.
+	 * <p>An index in a jar file is always considered up to date, since it is packaged
+	 * together with the classes that it has been written for.
+	 * @param rootDirPath the directory path of the scanned packages (ending with "/")
+	 * @return {@code true} if the index covers the classes below the given path
+	 * @throws IOException if the root of this index cannot be resolved
+	 */
+	public boolean isUpToDate(String rootDirPath) throws IOException {
+		if (ResourceUtils.isJarURL(this.root.getURL())) {
+			return true;
+		}
+		if (!this.directories.containsKey(rootDirPath)) {
+			// Package not present when the index was written
+			return false;
+		}
+		Map<String, Long> recorded = this.directories.subMap(rootDirPath, rootDirPath + Character.MAX_VALUE);
+		for (Map.Entry<String, Long> entry : recorded.entrySet()) {
+			Resource directory = this.root.createRelative(entry.getKey());
+			if (!directory.exists() || directory.lastModified() != entry.getValue()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private void parseIndex(Properties content) {
+		// Sorted by type name for a deterministic candidate order
+		Set<String> keys = new TreeSet<String>(content.stringPropertyNames());
+		for (String key : keys) {
+			String value = content.getProperty(key);
+			if (key.endsWith("/")) {
+				this.directories.put(key, Long.valueOf(value.trim()));
+			}
+			else {
+				for (String stereotype : StringUtils.commaDelimitedListToStringArray(value)) {
+					this.index.add(stereotype.trim(), key);
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "CandidateComponentsIndex for " + this.root;
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Candidate components index loading mechanism for internal use within the framework.
+ *
+ * <p>Indexes are looked up per classpath root: a jar file or classes directory
+ * may contain a {@value #COMPONENTS_RESOURCE_LOCATION} file, typically generated
+ * at build time through {@link CandidateComponentsIndexWriter}. Loaded indexes
+ * are cached per root and reloaded once the index file has been modified.
+ *
+ * @since 4.3.1
+ * @see CandidateComponentsIndex
+ */
+public abstract class CandidateComponentsIndexLoader {
+
+	/**
+	 * The location to look for components index files, relative to a classpath root.
+	 */
+	public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring.components";
+
+	/**
+	 * System property that instructs Spring to ignore the index, i.e.
+	 * to always scan the classpath for candidate components.
+	 * <p>The default is "false", allowing for regular use of the index. Switching
+	 * this flag to {@code true} makes component scanning behave as if no index
+	 * was present at all, e.g. when indexes packaged with some libraries cannot
+	 * be trusted to match their classes.
+	 */
+	public static final String IGNORE_INDEX = "spring.index.ignore";
+
+
+	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag(IGNORE_INDEX);
+
+	private static final Log logger = LogFactory.getLog(CandidateComponentsIndexLoader.class);
+
+	private static final ConcurrentMap<String, CandidateComponentsIndex> cache =
+			new ConcurrentReferenceHashMap<String, CandidateComponentsIndex>();
+
+
+	/**
+	 * Return whether the use of candidate components indexes has been
+	 * switched off through the {@value #IGNORE_INDEX} property.
+	 */
+	public static boolean isIndexIgnored() {
+		return shouldIgnoreIndex;
+	}
+
+	/**
+	 * Load the candidate components index of the given classpath root, if any.
+	 * @param root the classpath root, i.e. a jar file root or a classes directory
+	 * @return the index, or {@code null} if the root does not provide an index
+	 * (or if the index has been switched off)
+	 * @throws IOException if the index file exists but could not be read
+	 */
+	public static CandidateComponentsIndex loadIndex(Resource root) throws IOException {
+		if (shouldIgnoreIndex) {
+			return null;
+		}
+		Resource indexResource = root.createRelative(COMPONENTS_RESOURCE_LOCATION);
+		if (!indexResource.exists()) {
+			return null;
+		}
+		String cacheKey = root.getURL().toString();
+		long lastModified = indexResource.lastModified();
+		CandidateComponentsIndex index = cache.get(cacheKey);
+		if (index == null || index.getLastModified() != lastModified) {
+			Properties content = PropertiesLoaderUtils.loadProperties(indexResource);
+			index = new CandidateComponentsIndex(root, lastModified, content);
+			cache.put(cacheKey, index);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + content.size() + " candidate components index entries from " +
+						indexResource);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Clear the cache of loaded indexes.
+	 */
+	public static void clearCache() {
+		cache.clear();
+	}
+
+}
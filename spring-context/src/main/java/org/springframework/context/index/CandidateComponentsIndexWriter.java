@@ -0,0 +1,191 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Generates the {@value CandidateComponentsIndexLoader#COMPONENTS_RESOURCE_LOCATION}
+ * index for a directory of compiled classes, to be run as a build step after
+ * compilation (before packaging) with the application's classpath available.
+ *
+ * <p>Every class that is annotated is recorded together with its stereotypes:
+ * the annotations declared on the class as well as their meta-annotations.
+ * Component scanning then only needs to read the recorded classes instead of
+ * every class below the base packages. Each package directory is recorded with
+ * its last-modified timestamp as well, so that classes which are added or removed
+ * afterwards invalidate the index without the packages having to be listed.
+ *
+ * <p>Meant to be invoked from build tooling via {@link #writeIndex}.
+ *
+ * @since 4.3.1
+ * @see CandidateComponentsIndexLoader
+ */
+public class CandidateComponentsIndexWriter {
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+
+	private static final String PACKAGE_INFO_CLASS_NAME = "package-info";
+
+	private static final String JAVA_LANG_ANNOTATION_PACKAGE = "java.lang.annotation.";
+
+	private static final String INDEX_DIRECTORY_NAME = "META-INF";
+
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private final MetadataReaderFactory metadataReaderFactory;
+
+
+	/**
+	 * Create a new {@code CandidateComponentsIndexWriter} for the default ClassLoader,
+	 * which needs to be able to load the annotation types used in the classes.
+	 */
+	public CandidateComponentsIndexWriter() {
+		this(ClassUtils.getDefaultClassLoader());
+	}
+
+	/**
+	 * Create a new {@code CandidateComponentsIndexWriter} for the given ClassLoader,
+	 * which needs to be able to load the annotation types used in the classes.
+	 * @param classLoader the ClassLoader to use
+	 */
+	public CandidateComponentsIndexWriter(ClassLoader classLoader) {
+		this.metadataReaderFactory = new SimpleMetadataReaderFactory(classLoader);
+	}
+
+
+	/**
+	 * Write the index for all classes below the given classes directory into
+	 * its {@value CandidateComponentsIndexLoader#COMPONENTS_RESOURCE_LOCATION} file,
+	 * replacing any existing index.
+	 * @param classesDirectory the root directory of the compiled classes
+	 * @return the number of types recorded in the index
+	 * @throws IOException in case of I/O errors
+	 */
+	public int writeIndex(File classesDirectory) throws IOException {
+		Assert.isTrue(classesDirectory.isDirectory(), "Classes directory [" + classesDirectory + "] does not exist");
+		Map<String, Set<String>> entries = new TreeMap<String, Set<String>>();
+		Map<String, Long> directories = new TreeMap<String, Long>();
+		collectEntries(classesDirectory, "", entries, directories);
+
+		File indexFile = new File(classesDirectory, CandidateComponentsIndexLoader.COMPONENTS_RESOURCE_LOCATION);
+		File indexDirectory = indexFile.getParentFile();
+		if (!indexDirectory.isDirectory() && !indexDirectory.mkdirs()) {
+			throw new IOException("Could not create directory [" + indexDirectory + "]");
+		}
+		// Written by hand rather than through Properties.store: no timestamp
+		// comment, and entries sorted for reproducible builds.
+		Writer writer = new OutputStreamWriter(new FileOutputStream(indexFile), "ISO-8859-1");
+		try {
+			for (Map.Entry<String, Set<String>> entry : entries.entrySet()) {
+				writer.write(entry.getKey());
+				writer.write('=');
+				writer.write(StringUtils.collectionToCommaDelimitedString(entry.getValue()));
+				writer.write('\n');
+			}
+			for (Map.Entry<String, Long> entry : directories.entrySet()) {
+				writer.write(entry.getKey());
+				writer.write('=');
+				writer.write(entry.getValue().toString());
+				writer.write('\n');
+			}
+		}
+		finally {
+			writer.close();
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Indexed " + entries.size() + " types in [" + indexFile + "]");
+		}
+		return entries.size();
+	}
+
+	private void collectEntries(File directory, String path, Map<String, Set<String>> entries,
+			Map<String, Long> directories) throws IOException {
+
+		File[] files = directory.listFiles();
+		if (files == null) {
+			throw new IOException("Could not list contents of directory [" + directory + "]");
+		}
+		Arrays.sort(files);
+		for (File file : files) {
+			if (file.isDirectory()) {
+				if (path.length() == 0 && file.getName().equals(INDEX_DIRECTORY_NAME)) {
+					// Not a package, and modified by writing the index itself
+					continue;
+				}
+				String directoryPath = path + file.getName() + "/";
+				directories.put(directoryPath, file.lastModified());
+				collectEntries(file, directoryPath, entries, directories);
+			}
+			else if (file.getName().endsWith(CLASS_FILE_SUFFIX) &&
+					!file.getName().startsWith(PACKAGE_INFO_CLASS_NAME)) {
+				MetadataReader metadataReader =
+						this.metadataReaderFactory.getMetadataReader(new FileSystemResource(file));
+				Set<String> stereotypes = getStereotypes(metadataReader.getAnnotationMetadata());
+				if (!stereotypes.isEmpty()) {
+					entries.put(metadataReader.getClassMetadata().getClassName(), stereotypes);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Determine the stereotypes to record for the given class.
+	 * <p>The default implementation returns all annotation types declared on the
+	 * class along with their meta-annotation types, except for the standard
+	 * {@code java.lang.annotation} meta-annotations.
+	 * @param metadata the metadata of the class
+	 * @return the stereotype names (empty if the class should not be indexed)
+	 */
+	protected Set<String> getStereotypes(AnnotationMetadata metadata) {
+		Set<String> stereotypes = new TreeSet<String>();
+		for (String annotationType : metadata.getAnnotationTypes()) {
+			stereotypes.add(annotationType);
+			stereotypes.addAll(metadata.getMetaAnnotationTypes(annotationType));
+		}
+		for (Iterator<String> it = stereotypes.iterator(); it.hasNext();) {
+			if (it.next().startsWith(JAVA_LANG_ANNOTATION_PACKAGE)) {
+				it.remove();
+			}
+		}
+		return stereotypes;
+	}
+
+}
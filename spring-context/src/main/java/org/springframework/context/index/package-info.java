@@ -0,0 +1,5 @@
+/**
+ * Support for the build-time index of candidate components,
+ * consulted by classpath scanning instead of reading every class.
+ */
+package org.springframework.context.index;
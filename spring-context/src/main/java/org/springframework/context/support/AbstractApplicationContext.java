@@ -39,6 +39,9 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractAutowireCapableBeanFactory;
+import org.springframework.beans.factory.support.StartupProfiler;
+import org.springframework.beans.factory.support.StartupStep;
 import org.springframework.beans.support.ResourceEditorRegistrar;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -208,6 +211,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	/** ApplicationEvents published early */
 	private Set<ApplicationEvent> earlyApplicationEvents;
 
+	/** Profiler to record refresh steps and bean creation with, if any */
+	private StartupProfiler startupProfiler;
+
 
 	/**
 	 * Create a new AbstractApplicationContext with no parent.
@@ -476,6 +482,27 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		return this.beanFactoryPostProcessors;
 	}
 
+	/**
+	 * Set a {@link StartupProfiler} to record each step of {@link #refresh()}
+	 * with. It will also be set on the internal bean factory (if supported)
+	 * to record the creation of each bean.
+	 * <p>Default is none. Needs to be set before refreshing this context.
+	 * @since 4.3.1
+	 * @see StartupProfiler#getReport()
+	 * @see AbstractAutowireCapableBeanFactory#setStartupProfiler
+	 */
+	public void setStartupProfiler(StartupProfiler startupProfiler) {
+		this.startupProfiler = startupProfiler;
+	}
+
+	/**
+	 * Return the {@link StartupProfiler} to record refresh steps with, if any.
+	 * @since 4.3.1
+	 */
+	public StartupProfiler getStartupProfiler() {
+		return this.startupProfiler;
+	}
+
 	@Override
 	public void addApplicationListener(ApplicationListener<?> listener) {
 		Assert.notNull(listener, "ApplicationListener must not be null");
@@ -506,68 +533,105 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Override
 	public void refresh() throws BeansException, IllegalStateException {
 		synchronized (this.startupShutdownMonitor) {
-			// Prepare this context for refreshing.
-			prepareRefresh();
+			StartupStep refreshStep = null;
+			try {
+				// Prepare this context for refreshing.
+				refreshStep = nextRefreshStep(null, "prepareRefresh");
+				prepareRefresh();
 
-			// Tell the subclass to refresh the internal bean factory.
-			ConfigurableListableBeanFactory beanFactory = obtainFreshBeanFactory();
+				// Tell the subclass to refresh the internal bean factory.
+				refreshStep = nextRefreshStep(refreshStep, "obtainFreshBeanFactory");
+				ConfigurableListableBeanFactory beanFactory = obtainFreshBeanFactory();
 
-			// Prepare the bean factory for use in this context.
-			prepareBeanFactory(beanFactory);
+				// Prepare the bean factory for use in this context.
+				refreshStep = nextRefreshStep(refreshStep, "prepareBeanFactory");
+				prepareBeanFactory(beanFactory);
 
-			try {
-				// Allows post-processing of the bean factory in context subclasses.
-				postProcessBeanFactory(beanFactory);
+				try {
+					// Allows post-processing of the bean factory in context subclasses.
+					refreshStep = nextRefreshStep(refreshStep, "postProcessBeanFactory");
+					postProcessBeanFactory(beanFactory);
 
-				// Invoke factory processors registered as beans in the context.
-				invokeBeanFactoryPostProcessors(beanFactory);
+					// Invoke factory processors registered as beans in the context.
+					refreshStep = nextRefreshStep(refreshStep, "invokeBeanFactoryPostProcessors");
+					invokeBeanFactoryPostProcessors(beanFactory);
 
-				// Register bean processors that intercept bean creation.
-				registerBeanPostProcessors(beanFactory);
+					// Register bean processors that intercept bean creation.
+					refreshStep = nextRefreshStep(refreshStep, "registerBeanPostProcessors");
+					registerBeanPostProcessors(beanFactory);
 
-				// Initialize message source for this context.
-				initMessageSource();
+					// Initialize message source for this context.
+					refreshStep = nextRefreshStep(refreshStep, "initMessageSource");
+					initMessageSource();
 
-				// Initialize event multicaster for this context.
-				initApplicationEventMulticaster();
+					// Initialize event multicaster for this context.
+					refreshStep = nextRefreshStep(refreshStep, "initApplicationEventMulticaster");
+					initApplicationEventMulticaster();
 
-				// Initialize other special beans in specific context subclasses.
-				onRefresh();
+					// Initialize other special beans in specific context subclasses.
+					refreshStep = nextRefreshStep(refreshStep, "onRefresh");
+					onRefresh();
 
-				// Check for listener beans and register them.
-				registerListeners();
+					// Check for listener beans and register them.
+					refreshStep = nextRefreshStep(refreshStep, "registerListeners");
+					registerListeners();
 
-				// Instantiate all remaining (non-lazy-init) singletons.
-				finishBeanFactoryInitialization(beanFactory);
+					// Instantiate all remaining (non-lazy-init) singletons.
+					refreshStep = nextRefreshStep(refreshStep, "finishBeanFactoryInitialization");
+					finishBeanFactoryInitialization(beanFactory);
 
-				// Last step: publish corresponding event.
-				finishRefresh();
-			}
-
-			catch (BeansException ex) {
-				if (logger.isWarnEnabled()) {
-					logger.warn("Exception encountered during context initialization - " +
-							"cancelling refresh attempt: " + ex);
+					// Last step: publish corresponding event.
+					refreshStep = nextRefreshStep(refreshStep, "finishRefresh");
+					finishRefresh();
 				}
 
-				// Destroy already created singletons to avoid dangling resources.
-				destroyBeans();
+				catch (BeansException ex) {
+					if (logger.isWarnEnabled()) {
+						logger.warn("Exception encountered during context initialization - " +
+								"cancelling refresh attempt: " + ex);
+					}
+
+					// Destroy already created singletons to avoid dangling resources.
+					destroyBeans();
 
-				// Reset 'active' flag.
-				cancelRefresh(ex);
+					// Reset 'active' flag.
+					cancelRefresh(ex);
 
-				// Propagate exception to caller.
-				throw ex;
+					// Propagate exception to caller.
+					throw ex;
+				}
+
+				finally {
+					// Reset common introspection caches in Spring's core, since we
+					// might not ever need metadata for singleton beans anymore...
+					resetCommonCaches();
+				}
 			}
 
 			finally {
-				// Reset common introspection caches in Spring's core, since we
-				// might not ever need metadata for singleton beans anymore...
-				resetCommonCaches();
+				// End the current refresh step even if preparing the bean factory failed,
+				// releasing the profiler's step for this thread.
+				nextRefreshStep(refreshStep, null);
 			}
 		}
 	}
 
+	/**
+	 * End the given refresh step and start the next one,
+	 * if a {@link StartupProfiler} has been set.
+	 * @param previousStep the step to end (may be {@code null})
+	 * @param nextStepName the name of the step to start (may be {@code null})
+	 * @return the running step, or {@code null} if none
+	 */
+	private StartupStep nextRefreshStep(StartupStep previousStep, String nextStepName) {
+		if (previousStep != null) {
+			previousStep.end();
+		}
+		StartupProfiler profiler = this.startupProfiler;
+		return (profiler != null && nextStepName != null ?
+				profiler.start(StartupStep.Type.REFRESH, nextStepName, null) : null);
+	}
+
 	/**
 	 * Prepare this context for refreshing, setting its startup date and
 	 * active flag as well as performing any initialization of property sources.
@@ -625,6 +689,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	protected void prepareBeanFactory(ConfigurableListableBeanFactory beanFactory) {
 		// Tell the internal bean factory to use the context's class loader etc.
 		beanFactory.setBeanClassLoader(getClassLoader());
+		if (this.startupProfiler != null && beanFactory instanceof AbstractAutowireCapableBeanFactory) {
+			((AbstractAutowireCapableBeanFactory) beanFactory).setStartupProfiler(this.startupProfiler);
+		}
 		beanFactory.setBeanExpressionResolver(new StandardBeanExpressionResolver(beanFactory.getBeanClassLoader()));
 		beanFactory.addPropertyEditorRegistrar(new ResourceEditorRegistrar(this, getEnvironment()));
 
@@ -20,6 +20,8 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.annotation.PostConstruct;
 
 import org.junit.Before;
@@ -114,6 +116,35 @@ public class ConfigurationClassPostProcessorTests {
 		beanFactory.getBean("bar");
 	}
 
+	@Test
+	public void configurationClassesWithTaskExecutor() {
+		DefaultListableBeanFactory expected = new DefaultListableBeanFactory();
+		registerConfigurationClassesByName(expected);
+		new ConfigurationClassPostProcessor().postProcessBeanFactory(expected);
+
+		registerConfigurationClassesByName(beanFactory);
+		ConfigurationClassPostProcessor pp = new ConfigurationClassPostProcessor();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			pp.setTaskExecutor(executor);
+			pp.postProcessBeanFactory(beanFactory);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertArrayEquals(expected.getBeanDefinitionNames(), beanFactory.getBeanDefinitionNames());
+		Foo foo = beanFactory.getBean("foo", Foo.class);
+		Bar bar = beanFactory.getBean("bar", Bar.class);
+		assertSame(foo, bar.foo);
+		assertNotNull(beanFactory.getBean("testBean", TestBean.class));
+	}
+
+	private void registerConfigurationClassesByName(DefaultListableBeanFactory beanFactory) {
+		beanFactory.registerBeanDefinition("importingConfig", new RootBeanDefinition(ImportingConfig.class.getName()));
+		beanFactory.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class.getName()));
+		beanFactory.registerBeanDefinition("unknown", new RootBeanDefinition("com.example.Unknown"));
+	}
+
 	/**
 	 * Tests whether a bean definition without a specified bean class is handled
 	 * correctly.
@@ -672,6 +703,11 @@ public class ConfigurationClassPostProcessorTests {
 		}
 	}
 
+	@Configuration
+	@Import(SingletonBeanConfig.class)
+	static class ImportingConfig {
+	}
+
 	@Configuration
 	static class UnloadedConfig {
 
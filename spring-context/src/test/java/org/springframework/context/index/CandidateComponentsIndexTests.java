@@ -0,0 +1,253 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import example.scannable.FooDao;
+import example.scannable.FooServiceImpl;
+import example.scannable.NamedComponent;
+import example.scannable.StubFooDao;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileCopyUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CandidateComponentsIndexWriter} and the use of the resulting
+ * index by {@link ClassPathScanningCandidateComponentProvider}.
+ */
+public class CandidateComponentsIndexTests {
+
+	private static final String TEST_BASE_PACKAGE = "example.scannable";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File classesDirectory;
+
+	private File indexFile;
+
+
+	@Before
+	public void copyClasses() throws IOException {
+		this.classesDirectory = this.temporaryFolder.newFolder("classes");
+		this.indexFile = new File(this.classesDirectory, CandidateComponentsIndexLoader.COMPONENTS_RESOURCE_LOCATION);
+		File packageDirectory = new File(this.classesDirectory, "example/scannable");
+		assertTrue(packageDirectory.mkdirs());
+		Resource[] classes = new PathMatchingResourcePatternResolver().getResources("classpath:example/scannable/*.class");
+		assertTrue(classes.length > 0);
+		for (Resource resource : classes) {
+			FileCopyUtils.copy(resource.getInputStream(),
+					new FileOutputStream(new File(packageDirectory, resource.getFilename())));
+		}
+	}
+
+	@After
+	public void clearCache() {
+		CandidateComponentsIndexLoader.clearCache();
+	}
+
+
+	@Test
+	public void writeIndex() throws IOException {
+		int count = new CandidateComponentsIndexWriter().writeIndex(this.classesDirectory);
+		Properties index = PropertiesLoaderUtils.loadProperties(new FileSystemResource(this.indexFile));
+		assertEquals(count + 2, index.size());
+		assertEquals(String.valueOf(new File(this.classesDirectory, "example").lastModified()),
+				index.getProperty("example/"));
+		assertEquals(String.valueOf(new File(this.classesDirectory, "example/scannable").lastModified()),
+				index.getProperty("example/scannable/"));
+		assertNull(index.getProperty("META-INF/"));
+		String stereotypes = index.getProperty(FooServiceImpl.class.getName());
+		assertNotNull(stereotypes);
+		assertTrue(stereotypes.contains(Service.class.getName()));
+		assertTrue(stereotypes.contains(Component.class.getName()));
+		assertFalse(stereotypes.contains("java.lang.annotation"));
+		assertNull(index.getProperty(FooDao.class.getName()));
+	}
+
+	@Test
+	public void scanWithoutIndex() {
+		assertEquals(6, findCandidateComponents(true).size());
+	}
+
+	@Test
+	public void scanWithIndex() throws IOException {
+		new CandidateComponentsIndexWriter().writeIndex(this.classesDirectory);
+		assertEquals(6, findCandidateComponents(true).size());
+	}
+
+	@Test
+	public void scanOnlyReadsIndexedClasses() throws IOException {
+		// An up-to-date index is trusted: classes it does not list are not read
+		writeIndexWithoutNamedComponent();
+		Set<BeanDefinition> candidates = findCandidateComponents(true);
+		assertEquals(5, candidates.size());
+		assertFalse(containsBeanClass(candidates, NamedComponent.class));
+		assertTrue(containsBeanClass(candidates, FooServiceImpl.class));
+	}
+
+	@Test
+	public void scanIgnoresIndexForUnsupportedFilters() throws IOException {
+		writeIndexWithoutNamedComponent();
+		ClassPathScanningCandidateComponentProvider provider = createProvider(false);
+		provider.addIncludeFilter(new AssignableTypeFilter(FooDao.class));
+		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
+		assertEquals(1, candidates.size());
+		assertTrue(containsBeanClass(candidates, StubFooDao.class));
+	}
+
+	@Test
+	public void scanWithIndexDoesNotListPackages() throws IOException {
+		new CandidateComponentsIndexWriter().writeIndex(this.classesDirectory);
+		final List<String> locationPatterns = new ArrayList<String>();
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new PathMatchingResourcePatternResolver(
+				new ClassesDirectoryClassLoader(this.classesDirectory)) {
+			@Override
+			public Resource[] getResources(String locationPattern) throws IOException {
+				locationPatterns.add(locationPattern);
+				return super.getResources(locationPattern);
+			}
+		});
+		assertEquals(6, provider.findCandidateComponents(TEST_BASE_PACKAGE).size());
+		assertEquals(1, locationPatterns.size());
+		assertEquals("classpath*:example/scannable/", locationPatterns.get(0));
+	}
+
+	@Test
+	public void scanFallsBackWhenClassIsAdded() throws IOException {
+		File classFile = new File(this.classesDirectory, "example/scannable/NamedComponent.class");
+		byte[] content = FileCopyUtils.copyToByteArray(classFile);
+		assertTrue(classFile.delete());
+		new CandidateComponentsIndexWriter().writeIndex(this.classesDirectory);
+		assertEquals(5, findCandidateComponents(true).size());
+
+		FileCopyUtils.copy(content, classFile);
+		// Make the change of the package directory visible regardless of timestamp granularity
+		File packageDirectory = classFile.getParentFile();
+		assertTrue(packageDirectory.setLastModified(packageDirectory.lastModified() + 10000));
+		Set<BeanDefinition> candidates = findCandidateComponents(true);
+		assertEquals(6, candidates.size());
+		assertTrue(containsBeanClass(candidates, NamedComponent.class));
+	}
+
+	@Test
+	public void scanFallsBackWhenIndexedClassIsRemoved() throws IOException {
+		writeIndexWithoutNamedComponent();
+		assertTrue(new File(this.classesDirectory, "example/scannable/StubFooDao.class").delete());
+		Set<BeanDefinition> candidates = findCandidateComponents(true);
+		assertEquals(5, candidates.size());
+		assertTrue(containsBeanClass(candidates, NamedComponent.class));
+		assertFalse(containsBeanClass(candidates, StubFooDao.class));
+	}
+
+	@Test
+	public void scanWithWildcardPackage() throws IOException {
+		new CandidateComponentsIndexWriter().writeIndex(this.classesDirectory);
+		assertEquals(6, createProvider(true).findCandidateComponents("example.scanna*").size());
+	}
+
+
+	private void writeIndexWithoutNamedComponent() throws IOException {
+		new CandidateComponentsIndexWriter().writeIndex(this.classesDirectory);
+		Properties index = PropertiesLoaderUtils.loadProperties(new FileSystemResource(this.indexFile));
+		assertNotNull(index.remove(NamedComponent.class.getName()));
+		StringBuilder content = new StringBuilder();
+		for (String type : index.stringPropertyNames()) {
+			content.append(type).append('=').append(index.getProperty(type)).append('\n');
+		}
+		FileCopyUtils.copy(content.toString().getBytes("ISO-8859-1"), this.indexFile);
+	}
+
+	private Set<BeanDefinition> findCandidateComponents(boolean useDefaultFilters) {
+		return createProvider(useDefaultFilters).findCandidateComponents(TEST_BASE_PACKAGE);
+	}
+
+	private ClassPathScanningCandidateComponentProvider createProvider(boolean useDefaultFilters) {
+		ClassPathScanningCandidateComponentProvider provider =
+				new ClassPathScanningCandidateComponentProvider(useDefaultFilters);
+		provider.setResourceLoader(new DefaultResourceLoader(new ClassesDirectoryClassLoader(this.classesDirectory)));
+		return provider;
+	}
+
+	private boolean containsBeanClass(Set<BeanDefinition> candidates, Class<?> beanClass) {
+		for (BeanDefinition candidate : candidates) {
+			if (beanClass.getName().equals(candidate.getBeanClassName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Exposes the copied classes directory as the only classpath root
+	 * for resource lookups, while loading classes as usual.
+	 */
+	private static class ClassesDirectoryClassLoader extends URLClassLoader {
+
+		public ClassesDirectoryClassLoader(File classesDirectory) {
+			super(new URL[] {toUrl(classesDirectory)}, CandidateComponentsIndexTests.class.getClassLoader());
+		}
+
+		@Override
+		public URL getResource(String name) {
+			return findResource(name);
+		}
+
+		@Override
+		public Enumeration<URL> getResources(String name) throws IOException {
+			return findResources(name);
+		}
+
+		private static URL toUrl(File directory) {
+			try {
+				return directory.toURI().toURL();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+	}
+
+}
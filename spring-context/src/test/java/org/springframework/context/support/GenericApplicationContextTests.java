@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,9 @@ import org.junit.Test;
 import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.beans.factory.support.StartupProfiler;
+import org.springframework.beans.factory.support.StartupReport;
+import org.springframework.beans.factory.support.StartupStep;
 
 import static org.junit.Assert.*;
 
@@ -85,4 +88,40 @@ public class GenericApplicationContextTests {
 		}
 	}
 
+	@Test
+	public void startupProfiler() {
+		StartupProfiler profiler = new StartupProfiler();
+		GenericApplicationContext ac = new GenericApplicationContext();
+		ac.setStartupProfiler(profiler);
+		ac.registerBeanDefinition("testBean", new RootBeanDefinition(String.class));
+		ac.refresh();
+
+		StartupReport report = profiler.getReport();
+		assertEquals(12, report.getRefreshStepTimings().size());
+		assertTrue(report.getRefreshStepTimings().containsKey("finishBeanFactoryInitialization"));
+		assertNotNull(report.getBeanTiming("testBean"));
+		assertFalse(report.getPostProcessorTimings().isEmpty());
+		ac.close();
+	}
+
+	@Test
+	public void startupProfilerWithFailedRefresh() {
+		StartupProfiler profiler = new StartupProfiler();
+		GenericApplicationContext ac = new GenericApplicationContext();
+		ac.setStartupProfiler(profiler);
+		ac.refresh();
+		try {
+			ac.refresh();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected: GenericApplicationContext does not support multiple refresh attempts
+		}
+
+		StartupStep step = profiler.start(StartupStep.Type.REFRESH, "test", null);
+		assertNull(step.getParent());
+		step.end();
+		ac.close();
+	}
+
 }
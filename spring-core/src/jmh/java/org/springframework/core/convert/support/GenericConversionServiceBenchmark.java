@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.core.convert.TypeDescriptor;
+
+/**
+ * Benchmarks for {@link GenericConversionService#convert} as driven by
+ * data binding and row mapping, using the {@link DefaultConversionService}.
+ *
+ * @since 4.3.1
+ */
+@State(Scope.Benchmark)
+public class GenericConversionServiceBenchmark {
+
+	private DefaultConversionService conversionService;
+
+	private TypeDescriptor stringListType;
+
+	private TypeDescriptor integerListType;
+
+	private List<String> stringList;
+
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.conversionService = new DefaultConversionService();
+		this.stringListType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(String.class));
+		this.integerListType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(Integer.class));
+		this.stringList = Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8", "9", "10");
+	}
+
+
+	@Benchmark
+	public Integer stringToInteger() {
+		return this.conversionService.convert("12345", Integer.class);
+	}
+
+	@Benchmark
+	public int stringToPrimitiveInt() {
+		return this.conversionService.convert("12345", int.class);
+	}
+
+	@Benchmark
+	public Integer longToInteger() {
+		return this.conversionService.convert(12345L, Integer.class);
+	}
+
+	@Benchmark
+	public Boolean stringToBoolean() {
+		return this.conversionService.convert("true", Boolean.class);
+	}
+
+	@Benchmark
+	public String integerToString() {
+		return this.conversionService.convert(12345, String.class);
+	}
+
+	@Benchmark
+	public Object stringListToIntegerList() {
+		return this.conversionService.convert(this.stringList, this.stringListType, this.integerListType);
+	}
+
+	@Benchmark
+	public void canConvert(Blackhole bh) {
+		bh.consume(this.conversionService.canConvert(String.class, Long.class));
+		bh.consume(this.conversionService.canConvert(Integer.class, String.class));
+		bh.consume(this.conversionService.canConvert(String.class, List.class));
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link AntPathMatcher}, matching a typical set of handler
+ * mapping patterns against request paths.
+ *
+ * @since 4.3.1
+ */
+@State(Scope.Benchmark)
+public class AntPathMatcherBenchmark {
+
+	private static final String[] PATTERNS = {
+			"/", "/login", "/logout", "/static/**", "/resources/**/*.css", "/resources/**/*.js",
+			"/api/users", "/api/users/{id}", "/api/users/{id}/orders", "/api/users/{id}/orders/{orderId}",
+			"/api/products/{category}/{id:\\d+}", "/api/search*", "/admin/**", "/admin/users/{id}/edit",
+			"/docs/{version}/**/*.html", "/files/{name}.{extension}"};
+
+	private static final String[] PATHS = {
+			"/", "/login", "/static/js/app.js", "/resources/css/themes/dark/main.css",
+			"/api/users/42", "/api/users/42/orders/1337", "/api/products/books/123", "/api/searchResults",
+			"/admin/users/42/edit", "/docs/4.3/reference/html/index.html", "/files/report.pdf", "/unmapped/path"};
+
+	@Param({"true", "false"})
+	public boolean cachePatterns;
+
+	private AntPathMatcher pathMatcher;
+
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.pathMatcher = new AntPathMatcher();
+		this.pathMatcher.setCachePatterns(this.cachePatterns);
+	}
+
+
+	@Benchmark
+	public void match(Blackhole bh) {
+		for (String path : PATHS) {
+			for (String pattern : PATTERNS) {
+				bh.consume(this.pathMatcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void extractUriTemplateVariables(Blackhole bh) {
+		for (String path : PATHS) {
+			for (String pattern : PATTERNS) {
+				if (this.pathMatcher.match(pattern, path)) {
+					Map<String, String> variables = this.pathMatcher.extractUriTemplateVariables(pattern, path);
+					bh.consume(variables);
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void sortMatchingPatterns(Blackhole bh) {
+		String path = "/api/users/42/orders/1337";
+		List<String> matches = new ArrayList<String>();
+		for (String pattern : PATTERNS) {
+			if (this.pathMatcher.match(pattern, path)) {
+				matches.add(pattern);
+			}
+		}
+		matches.add("/**");
+		Collections.sort(matches, this.pathMatcher.getPatternComparator(path));
+		bh.consume(matches);
+	}
+
+}
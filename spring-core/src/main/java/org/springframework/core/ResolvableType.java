@@ -101,6 +101,12 @@ public class ResolvableType implements Serializable {
 	private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
 			new ConcurrentReferenceHashMap<ResolvableType, ResolvableType>(256);
 
+	private static final ConcurrentReferenceHashMap<Class<?>, ResolvableType> classCache =
+			new ConcurrentReferenceHashMap<Class<?>, ResolvableType>(256);
+
+	private static final ConcurrentReferenceHashMap<AssignabilityKey, Boolean> assignabilityCache =
+			new ConcurrentReferenceHashMap<AssignabilityKey, Boolean>(256);
+
 
 	/**
 	 * The underlying Java type being managed (only ever {@code null} for {@link #NONE}).
@@ -250,7 +256,7 @@ public class ResolvableType implements Serializable {
 	 * @see #isAssignableFrom(ResolvableType)
 	 */
 	public boolean isAssignableFrom(Class<?> other) {
-		return isAssignableFrom(forClass(other), null);
+		return isAssignableFrom(forClass(other));
 	}
 
 	/**
@@ -265,7 +271,19 @@ public class ResolvableType implements Serializable {
 	 * {@code ResolvableType}; {@code false} otherwise
 	 */
 	public boolean isAssignableFrom(ResolvableType other) {
-		return isAssignableFrom(other, null);
+		Assert.notNull(other, "ResolvableType must not be null");
+		if (this == NONE || other == NONE) {
+			return false;
+		}
+
+		// Assignability between equal types never changes - reuse any previous result
+		AssignabilityKey key = new AssignabilityKey(this, other);
+		Boolean assignable = assignabilityCache.get(key);
+		if (assignable == null) {
+			assignable = isAssignableFrom(other, null);
+			assignabilityCache.put(key, assignable);
+		}
+		return assignable;
 	}
 
 	private boolean isAssignableFrom(ResolvableType other, Map<Type, Type> matchedBefore) {
@@ -943,7 +961,18 @@ public class ResolvableType implements Serializable {
 	 * @see #forClassWithGenerics(Class, Class...)
 	 */
 	public static ResolvableType forClass(Class<?> sourceClass) {
-		return new ResolvableType(sourceClass);
+		// Canonical instance per class, retaining its lazily resolved
+		// supertype, interfaces and generics for subsequent lookups
+		Class<?> clazz = (sourceClass != null ? sourceClass : Object.class);
+		ResolvableType resolvableType = classCache.get(clazz);
+		if (resolvableType == null) {
+			resolvableType = new ResolvableType(clazz);
+			ResolvableType existing = classCache.putIfAbsent(clazz, resolvableType);
+			if (existing != null) {
+				resolvableType = existing;
+			}
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1333,8 +1362,12 @@ public class ResolvableType implements Serializable {
 	 * @return a {@link ResolvableType} for the specified {@link Type} and {@link VariableResolver}
 	 */
 	static ResolvableType forType(Type type, TypeProvider typeProvider, VariableResolver variableResolver) {
+		boolean provided = false;
 		if (type == null && typeProvider != null) {
-			type = SerializableTypeWrapper.forTypeProvider(typeProvider);
+			// Look up the plain provided type first, only creating a serializable
+			// wrapper for it when building a new ResolvableType below...
+			type = typeProvider.getType();
+			provided = true;
 		}
 		if (type == null) {
 			return NONE;
@@ -1343,6 +1376,9 @@ public class ResolvableType implements Serializable {
 		// For simple Class references, build the wrapper right away -
 		// no expensive resolution necessary, so not worth caching...
 		if (type instanceof Class) {
+			if (typeProvider == null && variableResolver == null) {
+				return forClass((Class<?>) type);
+			}
 			return new ResolvableType(type, typeProvider, variableResolver, (ResolvableType) null);
 		}
 
@@ -1353,6 +1389,9 @@ public class ResolvableType implements Serializable {
 		ResolvableType key = new ResolvableType(type, typeProvider, variableResolver);
 		ResolvableType resolvableType = cache.get(key);
 		if (resolvableType == null) {
+			if (provided) {
+				type = SerializableTypeWrapper.forTypeProvider(typeProvider);
+			}
 			resolvableType = new ResolvableType(type, typeProvider, variableResolver, key.hash);
 			cache.put(resolvableType, resolvableType);
 		}
@@ -1360,11 +1399,14 @@ public class ResolvableType implements Serializable {
 	}
 
 	/**
-	 * Clear the internal {@code ResolvableType} cache.
+	 * Clear the internal {@code ResolvableType} caches, including the canonical
+	 * instances per {@link Class} and the memoized assignability results.
 	 * @since 4.2
 	 */
 	public static void clearCache() {
 		cache.clear();
+		classCache.clear();
+		assignabilityCache.clear();
 	}
 
 
@@ -1478,6 +1520,43 @@ public class ResolvableType implements Serializable {
 	}
 
 
+	/**
+	 * Cache key for the result of an assignability check between two types.
+	 */
+	private static final class AssignabilityKey {
+
+		private final ResolvableType target;
+
+		private final ResolvableType source;
+
+		private final int hash;
+
+		public AssignabilityKey(ResolvableType target, ResolvableType source) {
+			this.target = target;
+			this.source = source;
+			this.hash = target.hashCode() * 31 + source.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof AssignabilityKey)) {
+				return false;
+			}
+			AssignabilityKey otherKey = (AssignabilityKey) other;
+			return (this.hash == otherKey.hash && this.target.equals(otherKey.target) &&
+					this.source.equals(otherKey.source));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+	}
+
+
 	/**
 	 * Internal helper to handle bounds from {@link WildcardType}s.
 	 */
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Base class for the annotation implementation classes that Spring generates
+ * for <em>synthesized</em> annotations, as an alternative to a dynamic proxy
+ * backed by a {@link SynthesizedAnnotationInvocationHandler}.
+ *
+ * <p>Generated subclasses implement each attribute method as a read of a
+ * final field. This base class takes care of {@link #annotationType()},
+ * {@link #equals}, {@link #hashCode} and {@link #toString} according to the
+ * contract of {@link Annotation}, based on the resolved attribute values
+ * in {@linkplain AnnotationUtils#getAttributeMethods attribute method} order.
+ *
+ * <p>Only public for access from generated classes; not intended to be
+ * used or extended by application code.
+ *
+ * @since 4.3.1
+ * @see AnnotationUtils#synthesizeAnnotation(Annotation, java.lang.reflect.AnnotatedElement)
+ */
+public abstract class AbstractSynthesizedAnnotation implements Annotation, SynthesizedAnnotation {
+
+	private final Class<? extends Annotation> annotationType;
+
+	private final Object[] attributeValues;
+
+
+	/**
+	 * Create a new {@code AbstractSynthesizedAnnotation}.
+	 * @param annotationType the type of the synthesized annotation
+	 * @param attributeValues the resolved attribute values, in attribute method order
+	 */
+	protected AbstractSynthesizedAnnotation(Class<? extends Annotation> annotationType, Object[] attributeValues) {
+		this.annotationType = annotationType;
+		this.attributeValues = attributeValues;
+	}
+
+
+	@Override
+	public final Class<? extends Annotation> annotationType() {
+		return this.annotationType;
+	}
+
+	/**
+	 * See {@link Annotation#equals(Object)} for a definition of the required algorithm.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!this.annotationType.isInstance(other)) {
+			return false;
+		}
+
+		Object[] otherValues = (other instanceof AbstractSynthesizedAnnotation ?
+				((AbstractSynthesizedAnnotation) other).attributeValues : null);
+		List<Method> attributeMethods = AnnotationUtils.getAttributeMethods(this.annotationType);
+		for (int i = 0; i < this.attributeValues.length; i++) {
+			Object otherValue = (otherValues != null ? otherValues[i] :
+					ReflectionUtils.invokeMethod(attributeMethods.get(i), other));
+			if (!ObjectUtils.nullSafeEquals(this.attributeValues[i], otherValue)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * See {@link Annotation#hashCode()} for a definition of the required algorithm.
+	 */
+	@Override
+	public int hashCode() {
+		List<Method> attributeMethods = AnnotationUtils.getAttributeMethods(this.annotationType);
+		int result = 0;
+		for (int i = 0; i < this.attributeValues.length; i++) {
+			Object value = this.attributeValues[i];
+			int hashCode = (value.getClass().isArray() ?
+					SynthesizedAnnotationInvocationHandler.hashCodeForArray(value) : value.hashCode());
+			result += (127 * attributeMethods.get(i).getName().hashCode()) ^ hashCode;
+		}
+		return result;
+	}
+
+	/**
+	 * See {@link Annotation#toString()} for guidelines on the recommended format.
+	 */
+	@Override
+	public String toString() {
+		List<Method> attributeMethods = AnnotationUtils.getAttributeMethods(this.annotationType);
+		StringBuilder sb = new StringBuilder("@").append(this.annotationType.getName()).append("(");
+		for (int i = 0; i < this.attributeValues.length; i++) {
+			Object value = this.attributeValues[i];
+			sb.append(i > 0 ? ", " : "");
+			sb.append(attributeMethods.get(i).getName());
+			sb.append('=');
+			sb.append(value instanceof Object[] ?
+					"[" + StringUtils.arrayToDelimitedString((Object[]) value, ", ") + "]" : String.valueOf(value));
+		}
+		return sb.append(")").toString();
+	}
+
+}
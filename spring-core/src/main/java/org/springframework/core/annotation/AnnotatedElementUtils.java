@@ -18,9 +18,12 @@ package org.springframework.core.annotation;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -29,8 +32,10 @@ import java.util.Set;
 
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * General utility methods for finding annotations, meta-annotations, and
@@ -105,6 +110,14 @@ public class AnnotatedElementUtils {
 
 	private static final Processor<Boolean> alwaysTrueAnnotationProcessor = new AlwaysTrueBooleanAnnotationProcessor();
 
+	/**
+	 * Cache marker for a merged annotation lookup without result.
+	 */
+	private static final Object NOT_FOUND = new Object();
+
+	private static final Map<MergedAnnotationCacheKey, Object> mergedAnnotationCache =
+			new ConcurrentReferenceHashMap<MergedAnnotationCacheKey, Object>(256);
+
 
 	/**
 	 * Build an adapted {@link AnnotatedElement} for the given annotations,
@@ -334,10 +347,7 @@ public class AnnotatedElementUtils {
 			AnnotatedElement element, Class<? extends Annotation> annotationType) {
 
 		Assert.notNull(annotationType, "annotationType must not be null");
-		AnnotationAttributes attributes = searchWithGetSemantics(element, annotationType, null,
-				new MergedAnnotationAttributesProcessor());
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
-		return attributes;
+		return getCachedMergedAnnotationAttributes(element, annotationType, null, false, false, false);
 	}
 
 	/**
@@ -392,10 +402,8 @@ public class AnnotatedElementUtils {
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
 		Assert.hasLength(annotationName, "annotationName must not be null or empty");
-		AnnotationAttributes attributes = searchWithGetSemantics(element, null, annotationName,
-				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-		return attributes;
+		return getCachedMergedAnnotationAttributes(element, null, annotationName, false,
+				classValuesAsString, nestedAnnotationsAsMap);
 	}
 
 	/**
@@ -418,7 +426,10 @@ public class AnnotatedElementUtils {
 	 */
 	public static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		Assert.notNull(annotationType, "annotationType must not be null");
+		return getCachedMergedAnnotation(element, annotationType, false);
+	}
 
+	private static <A extends Annotation> A doGetMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		// Shortcut: directly present on the element, with no merging needed?
 		if (!(element instanceof Class)) {
 			// Do not use this shortcut against a Class: Inherited annotations
@@ -430,7 +441,8 @@ public class AnnotatedElementUtils {
 		}
 
 		// Exhaustive retrieval of merged annotation attributes...
-		AnnotationAttributes attributes = getMergedAnnotationAttributes(element, annotationType);
+		AnnotationAttributes attributes = searchMergedAnnotationAttributes(element, annotationType, null, false,
+				false, false);
 		return AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element);
 	}
 
@@ -653,10 +665,8 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
-		AnnotationAttributes attributes = searchWithFindSemantics(element, annotationType, null,
-				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-		return attributes;
+		return getCachedMergedAnnotationAttributes(element, annotationType, null, true,
+				classValuesAsString, nestedAnnotationsAsMap);
 	}
 
 	/**
@@ -689,10 +699,8 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
-		AnnotationAttributes attributes = searchWithFindSemantics(element, null, annotationName,
-				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-		return attributes;
+		return getCachedMergedAnnotationAttributes(element, null, annotationName, true,
+				classValuesAsString, nestedAnnotationsAsMap);
 	}
 
 	/**
@@ -715,7 +723,10 @@ public class AnnotatedElementUtils {
 	 */
 	public static <A extends Annotation> A findMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		Assert.notNull(annotationType, "annotationType must not be null");
+		return getCachedMergedAnnotation(element, annotationType, true);
+	}
 
+	private static <A extends Annotation> A doFindMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		// Shortcut: directly present on the element, with no merging needed?
 		if (!(element instanceof Class)) {
 			// Do not use this shortcut against a Class: Inherited annotations
@@ -727,7 +738,8 @@ public class AnnotatedElementUtils {
 		}
 
 		// Exhaustive retrieval of merged annotation attributes...
-		AnnotationAttributes attributes = findMergedAnnotationAttributes(element, annotationType, false, false);
+		AnnotationAttributes attributes = searchMergedAnnotationAttributes(element, annotationType, null, true,
+				false, false);
 		return AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element);
 	}
 
@@ -864,6 +876,143 @@ public class AnnotatedElementUtils {
 		return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
 	}
 
+	/**
+	 * Eagerly compute the merged annotations of the given types for the given class
+	 * and all of its methods, with both <em>get</em> and <em>find</em> semantics, so
+	 * that subsequent lookups through this class are served from its cache.
+	 * <p>Intended for frameworks which know the relevant components and annotation
+	 * types upfront, e.g. from a list of classes generated at build time, in order to
+	 * move the introspection cost to startup time rather than to the first request.
+	 * Note that cached entries may still get discarded when running low on memory.
+	 * @param clazz the class to introspect
+	 * @param annotationTypes the annotation types to look up
+	 * @since 4.3.1
+	 * @see #clearCache()
+	 */
+	public static void precomputeMergedAnnotations(Class<?> clazz,
+			Collection<Class<? extends Annotation>> annotationTypes) {
+
+		Assert.notNull(clazz, "Class must not be null");
+		Assert.notNull(annotationTypes, "Annotation types must not be null");
+		List<AnnotatedElement> elements = new ArrayList<AnnotatedElement>();
+		elements.add(clazz);
+		elements.addAll(Arrays.asList(ReflectionUtils.getUniqueDeclaredMethods(clazz)));
+		for (AnnotatedElement element : elements) {
+			for (Class<? extends Annotation> annotationType : annotationTypes) {
+				getMergedAnnotation(element, annotationType);
+				findMergedAnnotation(element, annotationType);
+				getMergedAnnotationAttributes(element, annotationType);
+				findMergedAnnotationAttributes(element, annotationType, false, false);
+			}
+		}
+	}
+
+	/**
+	 * Clear the cache of merged annotations and merged annotation attributes,
+	 * e.g. when the class loader they have been computed for gets discarded.
+	 * <p>The cache holds its entries through soft references, so there is no
+	 * need to call this method for limiting memory consumption.
+	 * @since 4.3.1
+	 */
+	public static void clearCache() {
+		mergedAnnotationCache.clear();
+	}
+
+	/**
+	 * Determine whether merged annotation lookups for the given element may be
+	 * cached: true for classes, methods, fields and constructors, as opposed to
+	 * ad-hoc elements such as the ones built by {@link #forAnnotations}.
+	 */
+	private static boolean isCacheable(AnnotatedElement element) {
+		return (element instanceof Class || element instanceof Member);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <A extends Annotation> A getCachedMergedAnnotation(AnnotatedElement element,
+			Class<A> annotationType, boolean findSemantics) {
+
+		if (!isCacheable(element)) {
+			return (findSemantics ? doFindMergedAnnotation(element, annotationType) :
+					doGetMergedAnnotation(element, annotationType));
+		}
+		MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(element, annotationType,
+				MergedAnnotationCacheKey.SYNTHESIZE | (findSemantics ? MergedAnnotationCacheKey.FIND_SEMANTICS : 0));
+		Object cached = mergedAnnotationCache.get(cacheKey);
+		if (cached == null) {
+			A annotation = (findSemantics ? doFindMergedAnnotation(element, annotationType) :
+					doGetMergedAnnotation(element, annotationType));
+			cached = (annotation != null ? annotation : NOT_FOUND);
+			mergedAnnotationCache.put(cacheKey, cached);
+		}
+		// Synthesized annotations are immutable: safe to share
+		return (cached != NOT_FOUND ? (A) cached : null);
+	}
+
+	private static AnnotationAttributes getCachedMergedAnnotationAttributes(AnnotatedElement element,
+			Class<? extends Annotation> annotationType, String annotationName, boolean findSemantics,
+			boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+
+		if (!isCacheable(element)) {
+			return searchMergedAnnotationAttributes(element, annotationType, annotationName, findSemantics,
+					classValuesAsString, nestedAnnotationsAsMap);
+		}
+		int mode = (findSemantics ? MergedAnnotationCacheKey.FIND_SEMANTICS : 0) |
+				(classValuesAsString ? MergedAnnotationCacheKey.CLASS_VALUES_AS_STRING : 0) |
+				(nestedAnnotationsAsMap ? MergedAnnotationCacheKey.NESTED_ANNOTATIONS_AS_MAP : 0);
+		MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(
+				element, (annotationType != null ? annotationType : annotationName), mode);
+		Object cached = mergedAnnotationCache.get(cacheKey);
+		if (cached == null) {
+			AnnotationAttributes attributes = searchMergedAnnotationAttributes(element, annotationType,
+					annotationName, findSemantics, classValuesAsString, nestedAnnotationsAsMap);
+			mergedAnnotationCache.put(cacheKey, (attributes != null ? copyAttributes(attributes) : NOT_FOUND));
+			return attributes;
+		}
+		// AnnotationAttributes are mutable: hand out a copy of the cached instance
+		return (cached != NOT_FOUND ? copyAttributes((AnnotationAttributes) cached) : null);
+	}
+
+	private static AnnotationAttributes searchMergedAnnotationAttributes(AnnotatedElement element,
+			Class<? extends Annotation> annotationType, String annotationName, boolean findSemantics,
+			boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+
+		MergedAnnotationAttributesProcessor processor =
+				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap);
+		AnnotationAttributes attributes = (findSemantics ?
+				searchWithFindSemantics(element, annotationType, annotationName, processor) :
+				searchWithGetSemantics(element, annotationType, annotationName, processor));
+		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
+		return attributes;
+	}
+
+	/**
+	 * Copy the given attributes, including nested attributes and array values.
+	 */
+	private static AnnotationAttributes copyAttributes(AnnotationAttributes attributes) {
+		AnnotationAttributes copy = new AnnotationAttributes(attributes);
+		for (Map.Entry<String, Object> entry : copy.entrySet()) {
+			Object value = entry.getValue();
+			if (value instanceof AnnotationAttributes) {
+				entry.setValue(copyAttributes((AnnotationAttributes) value));
+			}
+			else if (value instanceof AnnotationAttributes[]) {
+				AnnotationAttributes[] nested = (AnnotationAttributes[]) value;
+				AnnotationAttributes[] nestedCopy = new AnnotationAttributes[nested.length];
+				for (int i = 0; i < nested.length; i++) {
+					nestedCopy[i] = copyAttributes(nested[i]);
+				}
+				entry.setValue(nestedCopy);
+			}
+			else if (value != null && value.getClass().isArray()) {
+				int length = Array.getLength(value);
+				Object arrayCopy = Array.newInstance(value.getClass().getComponentType(), length);
+				System.arraycopy(value, 0, arrayCopy, 0, length);
+				entry.setValue(arrayCopy);
+			}
+		}
+		return copy;
+	}
+
 	/**
 	 * Search for annotations of the specified {@code annotationName} or
 	 * {@code annotationType} on the specified {@code element}, following
@@ -1638,4 +1787,55 @@ public class AnnotatedElementUtils {
 		}
 	}
 
+
+	/**
+	 * Cache key for the merged annotation cache.
+	 */
+	private static final class MergedAnnotationCacheKey {
+
+		static final int FIND_SEMANTICS = 1;
+
+		static final int SYNTHESIZE = 2;
+
+		static final int CLASS_VALUES_AS_STRING = 4;
+
+		static final int NESTED_ANNOTATIONS_AS_MAP = 8;
+
+		private final AnnotatedElement element;
+
+		/** The annotation type or the fully qualified annotation type name */
+		private final Object annotation;
+
+		private final int mode;
+
+		public MergedAnnotationCacheKey(AnnotatedElement element, Object annotation, int mode) {
+			this.element = element;
+			this.annotation = annotation;
+			this.mode = mode;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MergedAnnotationCacheKey)) {
+				return false;
+			}
+			MergedAnnotationCacheKey otherKey = (MergedAnnotationCacheKey) other;
+			return (this.element.equals(otherKey.element) && this.annotation.equals(otherKey.annotation) &&
+					this.mode == otherKey.mode);
+		}
+
+		@Override
+		public int hashCode() {
+			return ((this.element.hashCode() * 29 + this.annotation.hashCode()) * 29 + this.mode);
+		}
+
+		@Override
+		public String toString() {
+			return "@" + this.annotation + " on " + this.element + " [mode " + this.mode + "]";
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -100,6 +100,20 @@ public class AnnotationAttributes extends LinkedHashMap<String, Object> {
 		this.displayName = "unknown";
 	}
 
+	/**
+	 * Create a new {@link AnnotationAttributes} instance, wrapping the
+	 * provided map and all its <em>key-value</em> pairs, as well as
+	 * retaining its annotation type.
+	 * @param other original source of annotation attribute <em>key-value</em>
+	 * pairs
+	 * @since 4.3.1
+	 */
+	AnnotationAttributes(AnnotationAttributes other) {
+		super(other);
+		this.annotationType = other.annotationType;
+		this.displayName = other.displayName;
+	}
+
 
 	/**
 	 * Get the type of annotation represented by this
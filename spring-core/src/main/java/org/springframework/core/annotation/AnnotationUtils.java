@@ -1348,6 +1348,9 @@ public abstract class AnnotationUtils {
 	 * by wrapping it in a dynamic proxy that transparently enforces
 	 * <em>attribute alias</em> semantics for annotation attributes that are
 	 * annotated with {@link AliasFor @AliasFor}.
+	 * <p>As of 4.3.1, the synthesized annotation is an instance of a generated
+	 * implementation class with the resolved attribute values held in fields,
+	 * where possible; a dynamic proxy is only used as a fallback.
 	 * @param annotation the annotation to synthesize
 	 * @param annotatedElement the element that is annotated with the supplied
 	 * annotation; may be {@code null} if unknown
@@ -1376,6 +1379,10 @@ public abstract class AnnotationUtils {
 
 		DefaultAnnotationAttributeExtractor attributeExtractor =
 				new DefaultAnnotationAttributeExtractor(annotation, annotatedElement);
+		A synthesizedAnnotation = SynthesizedAnnotationClassGenerator.synthesize(attributeExtractor);
+		if (synthesizedAnnotation != null) {
+			return synthesizedAnnotation;
+		}
 		InvocationHandler handler = new SynthesizedAnnotationInvocationHandler(attributeExtractor);
 
 		// Can always expose Spring's SynthesizedAnnotation marker since we explicitly check for a
@@ -1398,6 +1405,9 @@ public abstract class AnnotationUtils {
 	 * <p>Note that {@link AnnotationAttributes} is a specialized type of
 	 * {@link Map} that is an ideal candidate for this method's
 	 * {@code attributes} argument.
+	 * <p>As of 4.3.1, the synthesized annotation is an instance of a generated
+	 * implementation class where possible, analogous to
+	 * {@link #synthesizeAnnotation(Annotation, AnnotatedElement)}.
 	 * @param attributes the map of annotation attributes to synthesize
 	 * @param annotationType the type of annotation to synthesize
 	 * @param annotatedElement the element that is annotated with the annotation
@@ -1425,6 +1435,10 @@ public abstract class AnnotationUtils {
 
 		MapAnnotationAttributeExtractor attributeExtractor =
 				new MapAnnotationAttributeExtractor(attributes, annotationType, annotatedElement);
+		A synthesizedAnnotation = SynthesizedAnnotationClassGenerator.synthesize(attributeExtractor);
+		if (synthesizedAnnotation != null) {
+			return synthesizedAnnotation;
+		}
 		InvocationHandler handler = new SynthesizedAnnotationInvocationHandler(attributeExtractor);
 		Class<?>[] exposedInterfaces = (canExposeSynthesizedMarker(annotationType) ?
 				new Class<?>[] {annotationType, SynthesizedAnnotation.class} : new Class<?>[] {annotationType});
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Generates concrete implementation classes for <em>synthesized</em>
+ * annotations, extending {@link AbstractSynthesizedAnnotation} and exposing
+ * each attribute as a typed final field, and instantiates them from the
+ * values resolved by an {@link AnnotationAttributeExtractor}.
+ *
+ * <p>In contrast to a {@link SynthesizedAnnotationInvocationHandler} based
+ * proxy, attribute values are resolved eagerly on synthesis, and attribute
+ * access does not involve any lookup: only array values need to be cloned
+ * (unless empty), as mandated by the contract of annotation attribute methods.
+ *
+ * <p>Generation is not possible for annotation types that are not public
+ * or that have non-public attribute types, or if {@code spring-core} is not
+ * visible from the ClassLoader of the annotation type. Callers are expected
+ * to fall back to a dynamic proxy in such cases, as well as in case of
+ * attribute values that cannot be resolved, so that the corresponding
+ * exception is raised on attribute access as usual.
+ *
+ * @since 4.3.1
+ * @see AnnotationUtils#synthesizeAnnotation(Annotation, java.lang.reflect.AnnotatedElement)
+ */
+final class SynthesizedAnnotationClassGenerator implements Opcodes {
+
+	private static final String CLASS_NAME_SUFFIX = "$$SynthesizedAnnotation";
+
+	private static final String SUPER_CLASS_NAME = Type.getInternalName(AbstractSynthesizedAnnotation.class);
+
+	private static final String CONSTRUCTOR_DESCRIPTOR = "(Ljava/lang/Class;[Ljava/lang/Object;)V";
+
+	private static final Object NOT_GENERATABLE = new Object();
+
+	private static final Log logger = LogFactory.getLog(SynthesizedAnnotationClassGenerator.class);
+
+	/** Annotation type --> Constructor of the generated class, or NOT_GENERATABLE */
+	private static final Map<Class<? extends Annotation>, Object> constructorCache =
+			new ConcurrentReferenceHashMap<Class<? extends Annotation>, Object>(256);
+
+	/** ClassLoader of the annotation type --> ClassLoader for the generated classes */
+	private static final Map<ClassLoader, ChildClassLoader> classLoaderCache =
+			new ConcurrentReferenceHashMap<ClassLoader, ChildClassLoader>(16);
+
+
+	private SynthesizedAnnotationClassGenerator() {
+	}
+
+
+	/**
+	 * Synthesize an annotation from the attribute values resolved by the
+	 * supplied {@link AnnotationAttributeExtractor}, as an instance of the
+	 * implementation class generated for its annotation type.
+	 * @param attributeExtractor the extractor to resolve attribute values from
+	 * @return the synthesized annotation, or {@code null} if no implementation
+	 * class can be generated for the annotation type or if any attribute value
+	 * cannot be resolved
+	 */
+	@SuppressWarnings("unchecked")
+	static <A extends Annotation> A synthesize(AnnotationAttributeExtractor<?> attributeExtractor) {
+		Class<? extends Annotation> annotationType = attributeExtractor.getAnnotationType();
+		Constructor<?> constructor = getConstructor(annotationType);
+		if (constructor == null) {
+			return null;
+		}
+
+		List<Method> attributeMethods = AnnotationUtils.getAttributeMethods(annotationType);
+		Object[] attributeValues = new Object[attributeMethods.size()];
+		try {
+			for (int i = 0; i < attributeValues.length; i++) {
+				Object value = attributeExtractor.getAttributeValue(attributeMethods.get(i));
+				if (value == null) {
+					return null;
+				}
+				// Synthesize nested annotations as well.
+				if (value instanceof Annotation) {
+					value = AnnotationUtils.synthesizeAnnotation(
+							(Annotation) value, attributeExtractor.getAnnotatedElement());
+				}
+				else if (value instanceof Annotation[]) {
+					value = AnnotationUtils.synthesizeAnnotationArray(
+							(Annotation[]) value, attributeExtractor.getAnnotatedElement());
+				}
+				attributeValues[i] = value;
+			}
+			return (A) constructor.newInstance(annotationType, attributeValues);
+		}
+		catch (Throwable ex) {
+			// Leave it up to the attribute access on a proxy to report the problem.
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to resolve attribute values of synthesized annotation of type [" +
+						annotationType.getName() + "] from attribute source [" +
+						attributeExtractor.getSource() + "]: " + ex);
+			}
+			return null;
+		}
+	}
+
+	private static Constructor<?> getConstructor(Class<? extends Annotation> annotationType) {
+		Object constructor = constructorCache.get(annotationType);
+		if (constructor == null) {
+			constructor = NOT_GENERATABLE;
+			if (isGeneratable(annotationType)) {
+				try {
+					constructor = generateClass(annotationType).getConstructor(Class.class, Object[].class);
+				}
+				catch (Throwable ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to generate implementation class for synthesized annotation type [" +
+								annotationType.getName() + "]", ex);
+					}
+				}
+			}
+			constructorCache.put(annotationType, constructor);
+		}
+		return (constructor != NOT_GENERATABLE ? (Constructor<?>) constructor : null);
+	}
+
+	private static boolean isGeneratable(Class<? extends Annotation> annotationType) {
+		ClassLoader classLoader = annotationType.getClassLoader();
+		if (classLoader == null || !isPublic(annotationType)) {
+			return false;
+		}
+		try {
+			if (Class.forName(AbstractSynthesizedAnnotation.class.getName(), false, classLoader) !=
+					AbstractSynthesizedAnnotation.class) {
+				return false;
+			}
+		}
+		catch (ClassNotFoundException ex) {
+			return false;
+		}
+		for (Method attributeMethod : AnnotationUtils.getAttributeMethods(annotationType)) {
+			Class<?> type = attributeMethod.getReturnType();
+			while (type.isArray()) {
+				type = type.getComponentType();
+			}
+			if (!type.isPrimitive() && !isPublic(type)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isPublic(Class<?> clazz) {
+		while (clazz != null) {
+			if (!Modifier.isPublic(clazz.getModifiers())) {
+				return false;
+			}
+			clazz = clazz.getEnclosingClass();
+		}
+		return true;
+	}
+
+	private static synchronized Class<?> generateClass(Class<? extends Annotation> annotationType) {
+		ClassLoader parent = annotationType.getClassLoader();
+		ChildClassLoader classLoader = classLoaderCache.get(parent);
+		if (classLoader == null) {
+			classLoader = new ChildClassLoader(parent);
+			classLoaderCache.put(parent, classLoader);
+		}
+		String className = annotationType.getName() + CLASS_NAME_SUFFIX;
+		Class<?> clazz = classLoader.findGeneratedClass(className);
+		if (clazz == null) {
+			byte[] bytes = generateBytecode(annotationType, className.replace('.', '/'));
+			clazz = classLoader.defineClass(className, bytes);
+		}
+		return clazz;
+	}
+
+	private static byte[] generateBytecode(Class<? extends Annotation> annotationType, String internalName) {
+		List<Method> attributeMethods = AnnotationUtils.getAttributeMethods(annotationType);
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+		cw.visit(V1_6, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, internalName, null, SUPER_CLASS_NAME,
+				new String[] {Type.getInternalName(annotationType)});
+
+		for (Method attributeMethod : attributeMethods) {
+			cw.visitField(ACC_PRIVATE | ACC_FINAL, attributeMethod.getName(),
+					Type.getDescriptor(attributeMethod.getReturnType()), null, null).visitEnd();
+		}
+
+		// Constructor: pass the attribute values on to the superclass and unpack them into typed fields
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitMethodInsn(INVOKESPECIAL, SUPER_CLASS_NAME, "<init>", CONSTRUCTOR_DESCRIPTOR, false);
+		for (int i = 0; i < attributeMethods.size(); i++) {
+			Class<?> type = attributeMethods.get(i).getReturnType();
+			mv.visitVarInsn(ALOAD, 0);
+			mv.visitVarInsn(ALOAD, 2);
+			mv.visitLdcInsn(i);
+			mv.visitInsn(AALOAD);
+			if (type.isPrimitive()) {
+				String wrapperName = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(type));
+				mv.visitTypeInsn(CHECKCAST, wrapperName);
+				mv.visitMethodInsn(INVOKEVIRTUAL, wrapperName, type.getName() + "Value",
+						"()" + Type.getDescriptor(type), false);
+			}
+			else {
+				mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+			}
+			mv.visitFieldInsn(PUTFIELD, internalName, attributeMethods.get(i).getName(), Type.getDescriptor(type));
+		}
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// Attribute methods: plain field reads, cloning non-empty arrays
+		for (Method attributeMethod : attributeMethods) {
+			Class<?> type = attributeMethod.getReturnType();
+			String descriptor = Type.getDescriptor(type);
+			mv = cw.visitMethod(ACC_PUBLIC, attributeMethod.getName(), "()" + descriptor, null, null);
+			mv.visitCode();
+			mv.visitVarInsn(ALOAD, 0);
+			mv.visitFieldInsn(GETFIELD, internalName, attributeMethod.getName(), descriptor);
+			if (type.isArray()) {
+				Label returnLabel = new Label();
+				mv.visitInsn(DUP);
+				mv.visitInsn(ARRAYLENGTH);
+				mv.visitJumpInsn(IFEQ, returnLabel);
+				mv.visitMethodInsn(INVOKEVIRTUAL, descriptor, "clone", "()Ljava/lang/Object;", false);
+				mv.visitTypeInsn(CHECKCAST, descriptor);
+				mv.visitLabel(returnLabel);
+			}
+			mv.visitInsn(Type.getType(type).getOpcode(IRETURN));
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+		}
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+
+	/**
+	 * ClassLoader for the generated classes, as a child of the
+	 * ClassLoader of the annotation types that they implement.
+	 */
+	private static class ChildClassLoader extends URLClassLoader {
+
+		private static final URL[] NO_URLS = new URL[0];
+
+		public ChildClassLoader(ClassLoader parent) {
+			super(NO_URLS, parent);
+		}
+
+		public Class<?> findGeneratedClass(String name) {
+			return findLoadedClass(name);
+		}
+
+		public Class<?> defineClass(String name, byte[] bytes) {
+			return super.defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+}
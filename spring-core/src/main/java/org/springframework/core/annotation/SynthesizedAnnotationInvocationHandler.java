@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -203,7 +203,7 @@ class SynthesizedAnnotationInvocationHandler implements InvocationHandler {
 	 * {@link Annotation#hashCode()}.
 	 * @param array the array to compute the hash code for
 	 */
-	private int hashCodeForArray(Object array) {
+	static int hashCodeForArray(Object array) {
 		if (array instanceof boolean[]) {
 			return Arrays.hashCode((boolean[]) array);
 		}
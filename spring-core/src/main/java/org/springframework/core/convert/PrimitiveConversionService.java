@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert;
+
+/**
+ * Extension of the {@link ConversionService} interface for converting objects
+ * to the most common primitive types directly, without boxing the result.
+ *
+ * <p>Each operation is equivalent to a {@link #convert(Object, TypeDescriptor, TypeDescriptor)}
+ * call with {@link TypeDescriptor#forObject(Object) the source type} and the plain
+ * descriptor for the primitive target type, i.e. any converter registered for the
+ * corresponding type pair applies. Implementations are expected to take a shortcut
+ * for simple sources though, e.g. parsing a decimal {@code String} straight into
+ * an {@code int} rather than going through the general converter infrastructure.
+ *
+ * <p>Mainly intended for data binding and expression evaluation, where such
+ * conversions occur for a large number of values.
+ *
+ * @since 4.3.1
+ * @see org.springframework.core.convert.support.GenericConversionService
+ */
+public interface PrimitiveConversionService extends ConversionService {
+
+	/**
+	 * Convert the given {@code source} to an {@code int}.
+	 * @param source the source object to convert (may be {@code null})
+	 * @return the converted value
+	 * @throws ConversionException if the source could not be converted,
+	 * in particular if it is {@code null}
+	 */
+	int convertToInt(Object source);
+
+	/**
+	 * Convert the given {@code source} to a {@code long}.
+	 * @param source the source object to convert (may be {@code null})
+	 * @return the converted value
+	 * @throws ConversionException if the source could not be converted,
+	 * in particular if it is {@code null}
+	 */
+	long convertToLong(Object source);
+
+	/**
+	 * Convert the given {@code source} to a {@code double}.
+	 * @param source the source object to convert (may be {@code null})
+	 * @return the converted value
+	 * @throws ConversionException if the source could not be converted,
+	 * in particular if it is {@code null}
+	 */
+	double convertToDouble(Object source);
+
+	/**
+	 * Convert the given {@code source} to a {@code boolean}.
+	 * @param source the source object to convert (may be {@code null})
+	 * @return the converted value
+	 * @throws ConversionException if the source could not be converted,
+	 * in particular if it is {@code null}
+	 */
+	boolean convertToBoolean(Object source);
+
+}
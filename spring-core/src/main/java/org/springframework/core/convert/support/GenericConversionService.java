@@ -17,6 +17,8 @@
 package org.springframework.core.convert.support;
 
 import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -26,12 +28,15 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.ConversionException;
 import org.springframework.core.convert.ConversionFailedException;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.ConverterNotFoundException;
+import org.springframework.core.convert.PrimitiveConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.converter.ConditionalConverter;
 import org.springframework.core.convert.converter.ConditionalGenericConverter;
@@ -51,6 +56,18 @@ import org.springframework.util.StringUtils;
  * Indirectly implements {@link ConverterRegistry} as registration API through the
  * {@link ConfigurableConversionService} interface.
  *
+ * <p>Converters resolved for a source/target type pair are cached. Lookups for
+ * plain types - that is, neither annotated nor array, collection or map types -
+ * are served from a dispatch table keyed by source and target class, without
+ * any allocation on a cache hit. Once all converters have been registered, the
+ * service may be {@link #freeze() frozen}, precomputing the dispatch table for
+ * all registered type pairs and rejecting any further registration changes.
+ *
+ * <p>As a {@link PrimitiveConversionService}, this service converts decimal
+ * {@code String} values and numbers to {@code int}, {@code long} and {@code double}
+ * as well as the standard boolean values to {@code boolean} without any
+ * allocation, as long as the default converters apply to the type pair.
+ *
  * @author Keith Donald
  * @author Juergen Hoeller
  * @author Chris Beams
@@ -58,7 +75,7 @@ import org.springframework.util.StringUtils;
  * @author David Haraburda
  * @since 3.0
  */
-public class GenericConversionService implements ConfigurableConversionService {
+public class GenericConversionService implements ConfigurableConversionService, PrimitiveConversionService {
 
 	/**
 	 * General NO-OP converter used when conversion is not required.
@@ -71,6 +88,14 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 */
 	private static final GenericConverter NO_MATCH = new NoOpConverter("NO_MATCH");
 
+	private static final TypeDescriptor INT_TYPE = TypeDescriptor.valueOf(int.class);
+
+	private static final TypeDescriptor LONG_TYPE = TypeDescriptor.valueOf(long.class);
+
+	private static final TypeDescriptor DOUBLE_TYPE = TypeDescriptor.valueOf(double.class);
+
+	private static final TypeDescriptor BOOLEAN_TYPE = TypeDescriptor.valueOf(boolean.class);
+
 
 	/** Java 8's java.util.Optional.empty() */
 	// 查看下面的static初始化块
@@ -95,6 +120,18 @@ public class GenericConversionService implements ConfigurableConversionService {
 	private final Map<ConverterCacheKey, GenericConverter> converterCache =
 			new ConcurrentReferenceHashMap<ConverterCacheKey, GenericConverter>(64);
 
+	/** Source class --> target class --> converter, for plain type descriptors */
+	private final ConcurrentMap<Class<?>, Map<Class<?>, GenericConverter>> dispatchTable =
+			new ConcurrentReferenceHashMap<Class<?>, Map<Class<?>, GenericConverter>>(64);
+
+	private volatile boolean frozen = false;
+
+	private volatile boolean statisticsEnabled = false;
+
+	private final AtomicLong cacheHitCount = new AtomicLong();
+
+	private final AtomicLong cacheMissCount = new AtomicLong();
+
 
 	// ConverterRegistry implementation
 
@@ -114,6 +151,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	@Override
 	public void addConverter(GenericConverter converter) {
+		assertNotFrozen();
 		this.converters.add(converter);
 		invalidateCache();
 	}
@@ -129,11 +167,95 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	@Override
 	public void removeConvertible(Class<?> sourceType, Class<?> targetType) {
+		assertNotFrozen();
 		this.converters.remove(sourceType, targetType);
 		invalidateCache();
 	}
 
 
+	// Dispatch table and statistics
+
+	/**
+	 * Freeze the converter registrations of this service, precomputing the
+	 * converters for all registered source/target type pairs.
+	 * <p>Any subsequent attempt to add or remove a converter will fail with an
+	 * {@link IllegalStateException}. Converters for type pairs that have not been
+	 * precomputed (e.g. for subtypes of the registered types) are still resolved
+	 * on first use and retained from then on.
+	 * @since 4.3.1
+	 * @see #isFrozen()
+	 */
+	public void freeze() {
+		this.frozen = true;
+		for (ConvertiblePair convertiblePair : this.converters.getConvertiblePairs()) {
+			TypeDescriptor sourceType = TypeDescriptor.valueOf(convertiblePair.getSourceType());
+			TypeDescriptor targetType = TypeDescriptor.valueOf(convertiblePair.getTargetType());
+			if (isPlainType(sourceType) && isPlainType(targetType)) {
+				cacheConverter(sourceType, targetType, null, resolveConverter(sourceType, targetType));
+			}
+		}
+	}
+
+	/**
+	 * Return whether the converter registrations of this service have been frozen.
+	 * @since 4.3.1
+	 * @see #freeze()
+	 */
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	/**
+	 * Set whether to count the converter lookups served from the cache and
+	 * the ones requiring a search through the registered converters.
+	 * <p>Default is "false". Switch this to "true" to monitor the effectiveness
+	 * of the converter cache, at the expense of some contention on the counters.
+	 * @since 4.3.1
+	 * @see #getCacheHitCount()
+	 * @see #getCacheMissCount()
+	 */
+	public void setStatisticsEnabled(boolean statisticsEnabled) {
+		this.statisticsEnabled = statisticsEnabled;
+	}
+
+	/**
+	 * Return whether converter lookups are counted.
+	 * @since 4.3.1
+	 */
+	public boolean isStatisticsEnabled() {
+		return this.statisticsEnabled;
+	}
+
+	/**
+	 * Return the number of converter lookups served from the cache
+	 * since statistics have been enabled.
+	 * @since 4.3.1
+	 * @see #setStatisticsEnabled
+	 */
+	public long getCacheHitCount() {
+		return this.cacheHitCount.get();
+	}
+
+	/**
+	 * Return the number of converter lookups that required a search through
+	 * the registered converters since statistics have been enabled.
+	 * @since 4.3.1
+	 * @see #setStatisticsEnabled
+	 */
+	public long getCacheMissCount() {
+		return this.cacheMissCount.get();
+	}
+
+	/**
+	 * Reset the cache hit and miss counts to zero.
+	 * @since 4.3.1
+	 */
+	public void resetStatistics() {
+		this.cacheHitCount.set(0);
+		this.cacheMissCount.set(0);
+	}
+
+
 	// ConversionService implementation
 
 	@Override
@@ -231,6 +353,87 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	// PrimitiveConversionService implementation
+
+	@Override
+	public int convertToInt(Object source) {
+		if (source != null && isDefaultNumberConverter(getConverter(TypeDescriptor.forObject(source), INT_TYPE))) {
+			if (source instanceof String) {
+				String text = (String) source;
+				if (isDecimalInteger(text, 9)) {
+					return Integer.parseInt(text);
+				}
+			}
+			else if (source instanceof Number && !(source instanceof BigInteger || source instanceof BigDecimal)) {
+				long value = ((Number) source).longValue();
+				if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+					return ((Number) source).intValue();
+				}
+			}
+		}
+		// Not a simple case: regular conversion, raising the common exceptions
+		return (Integer) convert(source, TypeDescriptor.forObject(source), INT_TYPE);
+	}
+
+	@Override
+	public long convertToLong(Object source) {
+		if (source != null && isDefaultNumberConverter(getConverter(TypeDescriptor.forObject(source), LONG_TYPE))) {
+			if (source instanceof String) {
+				String text = (String) source;
+				if (isDecimalInteger(text, 18)) {
+					return Long.parseLong(text);
+				}
+			}
+			else if (source instanceof Number && !(source instanceof BigInteger || source instanceof BigDecimal)) {
+				return ((Number) source).longValue();
+			}
+		}
+		return (Long) convert(source, TypeDescriptor.forObject(source), LONG_TYPE);
+	}
+
+	@Override
+	public double convertToDouble(Object source) {
+		if (source != null && isDefaultNumberConverter(getConverter(TypeDescriptor.forObject(source), DOUBLE_TYPE))) {
+			if (source instanceof String) {
+				String text = (String) source;
+				int length = text.length();
+				if (length > 0 && text.charAt(0) > ' ' && text.charAt(length - 1) > ' ') {
+					try {
+						return Double.parseDouble(text);
+					}
+					catch (NumberFormatException ex) {
+						// e.g. embedded whitespace - let regular conversion handle it
+					}
+				}
+			}
+			else if (source instanceof Number) {
+				return ((Number) source).doubleValue();
+			}
+		}
+		return (Double) convert(source, TypeDescriptor.forObject(source), DOUBLE_TYPE);
+	}
+
+	@Override
+	public boolean convertToBoolean(Object source) {
+		if (source != null) {
+			GenericConverter converter = getConverter(TypeDescriptor.forObject(source), BOOLEAN_TYPE);
+			if (converter == NO_OP_CONVERTER && source instanceof Boolean) {
+				return (Boolean) source;
+			}
+			if (source instanceof String && converter instanceof ConverterAdapter) {
+				Converter<?, ?> adaptedConverter = ((ConverterAdapter) converter).converter;
+				if (adaptedConverter instanceof StringToBooleanConverter) {
+					Boolean value = StringToBooleanConverter.convertNormalized((String) source);
+					if (value != null) {
+						return value;
+					}
+				}
+			}
+		}
+		return (Boolean) convert(source, TypeDescriptor.forObject(source), BOOLEAN_TYPE);
+	}
+
+
 	// Protected template methods
 
 	/**
@@ -254,7 +457,8 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	/**
 	 * Hook method to lookup the converter for a given sourceType/targetType pair.
-	 * First queries this ConversionService's converter cache.
+	 * First queries this ConversionService's converter cache, which does not
+	 * require any allocation for plain types (see {@link #freeze()}).
 	 * On a cache miss, then performs an exhaustive search for a matching converter.
 	 * If no converter matches, returns the default converter.
 	 * @param sourceType the source type to convert from
@@ -266,28 +470,33 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 * 找到两种类型对应的转换器
 	 */
 	protected GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
-		// 组合生成一个新的对象，获取HashCode，缓存转换器。
-		ConverterCacheKey key = new ConverterCacheKey(sourceType, targetType);
-		GenericConverter converter = this.converterCache.get(key);
+		ConverterCacheKey key = null;
+		GenericConverter converter;
+		if (isPlainType(sourceType) && isPlainType(targetType)) {
+			// Equal plain type descriptors only differ in their ResolvableType: look up by class
+			Map<Class<?>, GenericConverter> convertersForSource = this.dispatchTable.get(sourceType.getType());
+			converter = (convertersForSource != null ? convertersForSource.get(targetType.getType()) : null);
+		}
+		else {
+			// 组合生成一个新的对象，获取HashCode，缓存转换器。
+			key = new ConverterCacheKey(sourceType, targetType);
+			converter = this.converterCache.get(key);
+		}
 		if (converter != null) {
+			if (this.statisticsEnabled) {
+				this.cacheHitCount.incrementAndGet();
+			}
 			// NO_MATCH是转换器的默认实现，只返回源类型，不做处理。
 			return (converter != NO_MATCH ? converter : null);
 		}
-		// 缓存中没有找到，继续
-		converter = this.converters.find(sourceType, targetType);
-		if (converter == null) {
-			converter = getDefaultConverter(sourceType, targetType);
-		}
-
-		// 如果convert找到了，加入缓存
-		if (converter != null) {
-			this.converterCache.put(key, converter);
-			return converter;
+		if (this.statisticsEnabled) {
+			this.cacheMissCount.incrementAndGet();
 		}
-
-		// 没有找到，放入一个不做处理的转换器，主要是防止再来找一次
-		this.converterCache.put(key, NO_MATCH);
-		return null;
+		// 缓存中没有找到，继续
+		converter = resolveConverter(sourceType, targetType);
+		// 如果convert找到了，加入缓存；没有找到，放入一个不做处理的转换器，主要是防止再来找一次
+		cacheConverter(sourceType, targetType, key, converter);
+		return converter;
 	}
 
 	/**
@@ -319,8 +528,87 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return generics;
 	}
 
+	private GenericConverter resolveConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		GenericConverter converter = this.converters.find(sourceType, targetType);
+		if (converter == null) {
+			converter = getDefaultConverter(sourceType, targetType);
+		}
+		return converter;
+	}
+
+	private void cacheConverter(TypeDescriptor sourceType, TypeDescriptor targetType,
+			ConverterCacheKey key, GenericConverter converter) {
+
+		GenericConverter entry = (converter != null ? converter : NO_MATCH);
+		if (key != null) {
+			this.converterCache.put(key, entry);
+			return;
+		}
+		Map<Class<?>, GenericConverter> convertersForSource = this.dispatchTable.get(sourceType.getType());
+		if (convertersForSource == null) {
+			convertersForSource = new ConcurrentReferenceHashMap<Class<?>, GenericConverter>(16, 1);
+			Map<Class<?>, GenericConverter> existing =
+					this.dispatchTable.putIfAbsent(sourceType.getType(), convertersForSource);
+			if (existing != null) {
+				convertersForSource = existing;
+			}
+		}
+		convertersForSource.put(targetType.getType(), entry);
+	}
+
+	/**
+	 * Determine whether the given type descriptor is equal to any other descriptor
+	 * for the same type, i.e. whether it is neither annotated nor an array,
+	 * collection or map type (which would be compared by element type as well).
+	 */
+	private static boolean isPlainType(TypeDescriptor typeDescriptor) {
+		return (typeDescriptor.getAnnotations().length == 0 && !typeDescriptor.isArray() &&
+				!typeDescriptor.isCollection() && !typeDescriptor.isMap());
+	}
+
+	/**
+	 * Determine whether the given converter is one of the default number converters,
+	 * i.e. whether the direct conversion of simple numbers gives the same result.
+	 */
+	private static boolean isDefaultNumberConverter(GenericConverter converter) {
+		if (converter == NO_OP_CONVERTER) {
+			return true;
+		}
+		if (converter instanceof ConverterFactoryAdapter) {
+			ConverterFactory<?, ?> converterFactory = ((ConverterFactoryAdapter) converter).converterFactory;
+			return (converterFactory instanceof StringToNumberConverterFactory ||
+					converterFactory instanceof NumberToNumberConverterFactory);
+		}
+		return false;
+	}
+
+	/**
+	 * Determine whether the given text is a decimal integer with at most the given
+	 * number of digits, which {@link org.springframework.util.NumberUtils#parseNumber}
+	 * would parse the same way as {@link Long#parseLong} without risk of overflow.
+	 */
+	private static boolean isDecimalInteger(String text, int maxDigits) {
+		int length = text.length();
+		int start = (length > 0 && text.charAt(0) == '-' ? 1 : 0);
+		if (length == start || length - start > maxDigits) {
+			return false;
+		}
+		for (int i = start; i < length; i++) {
+			char ch = text.charAt(i);
+			if (ch < '0' || ch > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void assertNotFrozen() {
+		Assert.state(!this.frozen, "Cannot change converter registrations of a frozen GenericConversionService");
+	}
+
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.dispatchTable.clear();
 	}
 
 	private Object handleConverterNotFound(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
@@ -552,6 +840,10 @@ public class GenericConversionService implements ConfigurableConversionService {
 			this.converters.remove(new ConvertiblePair(sourceType, targetType));
 		}
 
+		public Set<ConvertiblePair> getConvertiblePairs() {
+			return new LinkedHashSet<ConvertiblePair>(this.converters.keySet());
+		}
+
 		/**
 		 * Find a {@link GenericConverter} given a source and target type.
 		 * <p>This method will attempt to match all possible converters by working
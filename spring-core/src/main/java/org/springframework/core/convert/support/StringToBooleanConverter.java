@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -64,4 +64,20 @@ final class StringToBooleanConverter implements Converter<String, Boolean> {
 		}
 	}
 
+	/**
+	 * Convert the given value if it is one of the supported values in trimmed
+	 * lower-case form already, without any intermediate String.
+	 * @return the boolean value, or {@code null} if the value requires
+	 * regular conversion through {@link #convert}
+	 */
+	static Boolean convertNormalized(String value) {
+		if (trueValues.contains(value)) {
+			return Boolean.TRUE;
+		}
+		else if (falseValues.contains(value)) {
+			return Boolean.FALSE;
+		}
+		return null;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -205,7 +205,18 @@ public abstract class AbstractPropertyResolver implements ConfigurablePropertyRe
 	private PropertyPlaceholderHelper createPlaceholderHelper(boolean ignoreUnresolvablePlaceholders) {
 		// 一个是前缀，另一个是后缀，最后一个是property，key-value的分隔符
 		return new PropertyPlaceholderHelper(this.placeholderPrefix, this.placeholderSuffix,
-				this.valueSeparator, ignoreUnresolvablePlaceholders);
+				this.valueSeparator, ignoreUnresolvablePlaceholders, isCachePlaceholderStructure());
+	}
+
+	/**
+	 * Return whether the placeholder structure of resolved strings should be
+	 * cached, avoiding repeated parsing of the same property values.
+	 * <p>The default is {@code false}.
+	 * @since 4.3.1
+	 * @see PropertyPlaceholderHelper#PropertyPlaceholderHelper(String, String, String, boolean, boolean)
+	 */
+	protected boolean isCachePlaceholderStructure() {
+		return false;
 	}
 
 	/**
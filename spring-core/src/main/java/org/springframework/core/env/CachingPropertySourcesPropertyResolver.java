@@ -0,0 +1,183 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.env;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link PropertySourcesPropertyResolver} variant that maintains a merged index of
+ * the property names in its map-based property sources, so that each lookup only
+ * consults the sources which may actually contain the requested key, instead of
+ * probing every source in turn. Parsed placeholder structures are cached as well.
+ *
+ * <p>The index gets rebuilt whenever property sources are added, removed or replaced
+ * in an underlying {@link MutablePropertySources} instance. However, the <em>contents</em>
+ * of {@linkplain #isIndexable indexed} property sources are assumed to remain stable:
+ * if entries get added to such a source at runtime, call {@link #clearCache()}
+ * afterwards. The same applies to any other {@link PropertySources} implementation
+ * being modified. Non-indexed property sources, e.g. system properties and
+ * environment variables by default, are always searched, in their regular order.
+ *
+ * <p>Lookup results are identical to those of the standard resolver, including
+ * the precedence of property sources.
+ *
+ * @since 4.3.1
+ * @see #isIndexable
+ * @see #clearCache()
+ */
+public class CachingPropertySourcesPropertyResolver extends PropertySourcesPropertyResolver {
+
+	private final PropertySources propertySources;
+
+	private volatile PropertySourceIndex index;
+
+
+	/**
+	 * Create a new caching resolver against the given property sources.
+	 * @param propertySources the set of {@link PropertySource} objects to use
+	 */
+	public CachingPropertySourcesPropertyResolver(PropertySources propertySources) {
+		super(propertySources);
+		this.propertySources = propertySources;
+	}
+
+
+	/**
+	 * Determine whether the names of the given property source may be indexed.
+	 * <p>The default implementation accepts {@link MapPropertySource MapPropertySources},
+	 * except for {@link SystemEnvironmentPropertySource} which resolves keys in various
+	 * formats, and the live {@link StandardEnvironment#SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME
+	 * system properties}.
+	 * @param propertySource the property source to check
+	 * @return {@code true} if the property names of the given source are stable and
+	 * exactly match the keys it resolves; {@code false} if the source needs to be
+	 * searched for every key
+	 */
+	protected boolean isIndexable(PropertySource<?> propertySource) {
+		return (propertySource instanceof MapPropertySource &&
+				!(propertySource instanceof SystemEnvironmentPropertySource) &&
+				!StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME.equals(propertySource.getName()));
+	}
+
+	/**
+	 * Clear the property name index, forcing it to be rebuilt on next access.
+	 * <p>To be called when the contents of indexed property sources have changed.
+	 */
+	public void clearCache() {
+		this.index = null;
+	}
+
+	@Override
+	protected Iterable<PropertySource<?>> getPropertySources(String key) {
+		if (this.propertySources == null) {
+			return null;
+		}
+		return getIndex().getCandidates(key);
+	}
+
+	@Override
+	protected boolean isCachePlaceholderStructure() {
+		return true;
+	}
+
+	private PropertySourceIndex getIndex() {
+		int modificationCount = (this.propertySources instanceof MutablePropertySources ?
+				((MutablePropertySources) this.propertySources).getModificationCount() : 0);
+		PropertySourceIndex index = this.index;
+		if (index == null || index.modificationCount != modificationCount) {
+			index = buildIndex(modificationCount);
+			this.index = index;
+		}
+		return index;
+	}
+
+	private PropertySourceIndex buildIndex(int modificationCount) {
+		List<PropertySource<?>> sources = new ArrayList<PropertySource<?>>();
+		BitSet nonIndexed = new BitSet();
+		Map<String, BitSet> positionsByKey = new HashMap<String, BitSet>();
+		for (PropertySource<?> propertySource : this.propertySources) {
+			int position = sources.size();
+			sources.add(propertySource);
+			if (isIndexable(propertySource)) {
+				for (String name : ((EnumerablePropertySource<?>) propertySource).getPropertyNames()) {
+					BitSet positions = positionsByKey.get(name);
+					if (positions == null) {
+						positions = new BitSet();
+						positionsByKey.put(name, positions);
+					}
+					positions.set(position);
+				}
+			}
+			else {
+				nonIndexed.set(position);
+			}
+		}
+		Map<String, List<PropertySource<?>>> candidatesByKey =
+				new HashMap<String, List<PropertySource<?>>>(positionsByKey.size() * 4 / 3 + 1);
+		for (Map.Entry<String, BitSet> entry : positionsByKey.entrySet()) {
+			BitSet positions = entry.getValue();
+			positions.or(nonIndexed);
+			candidatesByKey.put(entry.getKey(), select(sources, positions));
+		}
+		return new PropertySourceIndex(modificationCount, select(sources, nonIndexed), candidatesByKey);
+	}
+
+	private static List<PropertySource<?>> select(List<PropertySource<?>> sources, BitSet positions) {
+		if (positions.isEmpty()) {
+			return Collections.emptyList();
+		}
+		PropertySource<?>[] selected = new PropertySource<?>[positions.cardinality()];
+		int i = 0;
+		for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+			selected[i++] = sources.get(position);
+		}
+		return Arrays.asList(selected);
+	}
+
+
+	/**
+	 * Immutable snapshot of the property sources to search per key.
+	 */
+	private static class PropertySourceIndex {
+
+		final int modificationCount;
+
+		private final List<PropertySource<?>> nonIndexedSources;
+
+		private final Map<String, List<PropertySource<?>>> candidatesByKey;
+
+		public PropertySourceIndex(int modificationCount, List<PropertySource<?>> nonIndexedSources,
+				Map<String, List<PropertySource<?>>> candidatesByKey) {
+
+			this.modificationCount = modificationCount;
+			this.nonIndexedSources = nonIndexedSources;
+			this.candidatesByKey = candidatesByKey;
+		}
+
+		public List<PropertySource<?>> getCandidates(String key) {
+			List<PropertySource<?>> candidates = this.candidatesByKey.get(key);
+			return (candidates != null ? candidates : this.nonIndexedSources);
+		}
+	}
+
+}
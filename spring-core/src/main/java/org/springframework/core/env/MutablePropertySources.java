@@ -19,6 +19,7 @@ package org.springframework.core.env;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -55,6 +56,11 @@ public class MutablePropertySources implements PropertySources {
 	 */
 	private final List<PropertySource<?>> propertySourceList = new CopyOnWriteArrayList<PropertySource<?>>();
 
+	/**
+	 * Incremented on every structural change, for resolvers caching per-key lookups
+	 */
+	private final AtomicInteger modificationCount = new AtomicInteger();
+
 
 	/**
 	 * Create a new {@link MutablePropertySources} object.
@@ -109,6 +115,7 @@ public class MutablePropertySources implements PropertySources {
 		}
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(0, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -121,6 +128,7 @@ public class MutablePropertySources implements PropertySources {
 		}
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -171,7 +179,12 @@ public class MutablePropertySources implements PropertySources {
 			logger.debug(String.format("Removing [%s] PropertySource", name));
 		}
 		int index = this.propertySourceList.indexOf(PropertySource.named(name));
-		return (index != -1 ? this.propertySourceList.remove(index) : null);
+		if (index == -1) {
+			return null;
+		}
+		PropertySource<?> removed = this.propertySourceList.remove(index);
+		this.modificationCount.incrementAndGet();
+		return removed;
 	}
 
 	/**
@@ -188,6 +201,7 @@ public class MutablePropertySources implements PropertySources {
 		}
 		int index = assertPresentAndGetIndex(name);
 		this.propertySourceList.set(index, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -197,6 +211,16 @@ public class MutablePropertySources implements PropertySources {
 		return this.propertySourceList.size();
 	}
 
+	/**
+	 * Return a counter that changes whenever property sources are added,
+	 * removed or replaced, allowing callers to detect stale derived state.
+	 * @since 4.3.1
+	 * @see CachingPropertySourcesPropertyResolver
+	 */
+	int getModificationCount() {
+		return this.modificationCount.get();
+	}
+
 	@Override
 	public String toString() {
 		String[] names = new String[this.size()];
@@ -222,7 +246,9 @@ public class MutablePropertySources implements PropertySources {
 	 * Remove the given property source if it is present.
 	 */
 	protected void removeIfPresent(PropertySource<?> propertySource) {
-		this.propertySourceList.remove(propertySource);
+		if (this.propertySourceList.remove(propertySource)) {
+			this.modificationCount.incrementAndGet();
+		}
 	}
 
 	/**
@@ -231,6 +257,7 @@ public class MutablePropertySources implements PropertySources {
 	private void addAtIndex(int index, PropertySource<?> propertySource) {
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(index, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -45,8 +45,9 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
 	@Override
 	public boolean containsProperty(String key) {
-		if (this.propertySources != null) {
-			for (PropertySource<?> propertySource : this.propertySources) {
+		Iterable<PropertySource<?>> propertySources = getPropertySources(key);
+		if (propertySources != null) {
+			for (PropertySource<?> propertySource : propertySources) {
 				if (propertySource.containsProperty(key)) {
 					return true;
 				}
@@ -78,8 +79,9 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		if (logger.isTraceEnabled()) {
 			logger.trace(String.format("getProperty(\"%s\", %s)", key, targetValueType.getSimpleName()));
 		}
-		if (this.propertySources != null) {
-			for (PropertySource<?> propertySource : this.propertySources) {
+		Iterable<PropertySource<?>> propertySources = getPropertySources(key);
+		if (propertySources != null) {
+			for (PropertySource<?> propertySource : propertySources) {
 				if (debugEnabled) {
 					logger.debug(String.format("Searching for key '%s' in [%s]", key, propertySource.getName()));
 				}
@@ -117,8 +119,9 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		if (logger.isTraceEnabled()) {
 			logger.trace(String.format("getPropertyAsClass(\"%s\", %s)", key, targetValueType.getSimpleName()));
 		}
-		if (this.propertySources != null) {
-			for (PropertySource<?> propertySource : this.propertySources) {
+		Iterable<PropertySource<?>> propertySources = getPropertySources(key);
+		if (propertySources != null) {
+			for (PropertySource<?> propertySource : propertySources) {
 				if (debugEnabled) {
 					logger.debug(String.format("Searching for key '%s' in [%s]", key, propertySource.getName()));
 				}
@@ -158,6 +161,19 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 
+	/**
+	 * Return the property sources to search for the given key, in order of precedence.
+	 * <p>The default implementation returns all property sources, or {@code null} if
+	 * this resolver has been created without any. Subclasses may narrow the search
+	 * down to the sources that are known to be able to contain the given key.
+	 * @param key the property name to resolve
+	 * @since 4.3.1
+	 */
+	protected Iterable<PropertySource<?>> getPropertySources(String key) {
+		return this.propertySources;
+	}
+
+
 	@SuppressWarnings("serial")
 	private static class ClassConversionException extends ConversionException {
 
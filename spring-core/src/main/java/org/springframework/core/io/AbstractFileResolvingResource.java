@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,12 +17,14 @@
 package org.springframework.core.io;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.channels.ReadableByteChannel;
 
 import org.springframework.util.ResourceUtils;
 
@@ -52,6 +54,20 @@ public abstract class AbstractFileResolvingResource extends AbstractResource {
 		return ResourceUtils.getFile(url, getDescription());
 	}
 
+	/**
+	 * This implementation opens a FileChannel for the underlying file, provided
+	 * that the resource refers to a file in the file system. Other resources,
+	 * e.g. jar entries, are read through their {@link #getInputStream() InputStream}.
+	 * @see java.io.FileInputStream#getChannel()
+	 */
+	@Override
+	public ReadableByteChannel readableChannel() throws IOException {
+		if (ResourceUtils.isFileURL(getURL())) {
+			return new FileInputStream(getFile()).getChannel();
+		}
+		return super.readableChannel();
+	}
+
 	/**
 	 * This implementation determines the underlying File
 	 * (or jar file, in case of a resource in a jar/zip).
@@ -23,10 +23,16 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 import org.springframework.core.NestedIOException;
 import org.springframework.util.Assert;
 import org.springframework.util.ResourceUtils;
+import org.springframework.util.StreamUtils;
 
 /**
  * Convenience base class for {@link Resource} implementations,
@@ -36,10 +42,14 @@ import org.springframework.util.ResourceUtils;
  * be opened; "isOpen" will always return false; "getURL" and "getFile"
  * throw an exception; and "toString" will return the description.
  *
+ * <p>As of 4.3.1, implements the {@link ChannelResource} extension,
+ * based on the {@code InputStream} unless a subclass exposes a
+ * {@link FileChannel} through {@link #readableChannel()}.
+ *
  * @author Juergen Hoeller
  * @since 28.12.2003
  */
-public abstract class AbstractResource implements Resource {
+public abstract class AbstractResource implements ChannelResource {
 
 	/**
 	 * This implementation checks whether a File can be opened,
@@ -147,6 +157,72 @@ public abstract class AbstractResource implements Resource {
 		}
 	}
 
+	/**
+	 * This implementation returns a channel adapter for the
+	 * {@link #getInputStream() InputStream} of the underlying resource.
+	 * Subclasses backed by a file are expected to return a
+	 * {@link FileChannel} instead.
+	 * @see Channels#newChannel(InputStream)
+	 */
+	@Override
+	public ReadableByteChannel readableChannel() throws IOException {
+		InputStream is = getInputStream();
+		Assert.state(is != null, "Resource InputStream must not be null");
+		return Channels.newChannel(is);
+	}
+
+	/**
+	 * This implementation copies the given region from the
+	 * {@link #readableChannel() readable channel} of the underlying resource,
+	 * through {@link FileChannel#transferTo} in case of a {@code FileChannel}.
+	 * @see StreamUtils#copyRange(ReadableByteChannel, WritableByteChannel, long, long)
+	 */
+	@Override
+	public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+		Assert.isTrue(position >= 0, "Position must not be negative");
+		Assert.notNull(target, "Target channel must not be null");
+		if (count <= 0) {
+			return 0;
+		}
+		ReadableByteChannel channel = readableChannel();
+		try {
+			return StreamUtils.copyRange(channel, target, position, position + count - 1);
+		}
+		finally {
+			try {
+				channel.close();
+			}
+			catch (IOException ex) {
+			}
+		}
+	}
+
+	/**
+	 * This implementation maps the content of the underlying resource into
+	 * memory in case of a {@link FileChannel}, reading the entire content
+	 * into a heap buffer otherwise.
+	 * @see #readableChannel()
+	 * @see FileChannel#map
+	 */
+	@Override
+	public ByteBuffer getByteBuffer() throws IOException {
+		ReadableByteChannel channel = readableChannel();
+		try {
+			if (channel instanceof FileChannel) {
+				FileChannel fileChannel = (FileChannel) channel;
+				return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+			}
+			return ByteBuffer.wrap(StreamUtils.copyToByteArray(Channels.newInputStream(channel))).asReadOnlyBuffer();
+		}
+		finally {
+			try {
+				channel.close();
+			}
+			catch (IOException ex) {
+			}
+		}
+	}
+
 	/**
 	 * This implementation checks the timestamp of the underlying File,
 	 * if available.
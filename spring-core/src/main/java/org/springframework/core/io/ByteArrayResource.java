@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,8 +19,12 @@ package org.springframework.core.io;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 
+import org.springframework.util.Assert;
+
 /**
  * {@link Resource} implementation for a given byte array.
  * <p>Creates a {@link ByteArrayInputStream} for the given byte array.
@@ -99,6 +103,33 @@ public class ByteArrayResource extends AbstractResource {
 		return new ByteArrayInputStream(this.byteArray);
 	}
 
+	/**
+	 * This implementation writes the given region of the underlying
+	 * byte array to the given channel.
+	 */
+	@Override
+	public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+		Assert.isTrue(position >= 0, "Position must not be negative");
+		Assert.notNull(target, "Target channel must not be null");
+		if (count <= 0 || position >= this.byteArray.length) {
+			return 0;
+		}
+		int length = (int) Math.min(count, this.byteArray.length - position);
+		ByteBuffer buffer = ByteBuffer.wrap(this.byteArray, (int) position, length);
+		while (buffer.hasRemaining()) {
+			target.write(buffer);
+		}
+		return length;
+	}
+
+	/**
+	 * This implementation returns a read-only view of the underlying byte array.
+	 */
+	@Override
+	public ByteBuffer getByteBuffer() {
+		return ByteBuffer.wrap(this.byteArray).asReadOnlyBuffer();
+	}
+
 	/**
 	 * This implementation returns a description that includes the passed-in
 	 * {@code description}, if any.
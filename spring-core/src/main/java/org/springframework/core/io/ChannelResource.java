@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Extended interface for a resource whose content can be accessed through
+ * NIO channels and buffers, avoiding intermediate heap copies where the
+ * underlying resource allows for it: e.g. through
+ * {@link java.nio.channels.FileChannel#transferTo} and memory-mapped
+ * buffers for resources in the file system.
+ *
+ * <p>Implemented by {@link AbstractResource}, with stream-based fallbacks
+ * for resources that are not backed by a file.
+ *
+ * @since 4.3.1
+ * @see java.nio.channels.FileChannel
+ * @see org.springframework.util.StreamUtils#copyRange(ReadableByteChannel, WritableByteChannel, long, long)
+ */
+public interface ChannelResource extends Resource {
+
+	/**
+	 * Return a {@link ReadableByteChannel} for the content of the underlying resource.
+	 * <p>It is expected that each call creates a <i>fresh</i> channel, which
+	 * the caller is responsible for closing. For resources in the file system,
+	 * this will typically be a {@link java.nio.channels.FileChannel}.
+	 * @throws java.io.FileNotFoundException if the underlying resource doesn't exist
+	 * @throws IOException if the content channel could not be opened
+	 * @see #getInputStream()
+	 */
+	ReadableByteChannel readableChannel() throws IOException;
+
+	/**
+	 * Transfer a region of the content of the underlying resource to the
+	 * given channel, e.g. through {@link java.nio.channels.FileChannel#transferTo}.
+	 * <p>If the specified region exceeds the length of the content, this
+	 * transfers up to the end of the content. The given channel is left open.
+	 * @param position the position within the content to start transferring from
+	 * @param count the maximum number of bytes to transfer
+	 * @param target the channel to transfer to
+	 * @return the number of bytes actually transferred
+	 * @throws IOException in case of I/O errors
+	 */
+	long transferTo(long position, long count, WritableByteChannel target) throws IOException;
+
+	/**
+	 * Return a read-only {@link ByteBuffer} holding the content of the
+	 * underlying resource: a memory-mapped view for resources in the file
+	 * system, or a heap buffer with a copy of the content otherwise.
+	 * <p>Note that a memory-mapped view reflects changes to the underlying
+	 * file, and that the content needs to fit into a single buffer
+	 * (i.e. it is limited to {@code Integer.MAX_VALUE} bytes).
+	 * @throws IOException if the content could not be read
+	 */
+	ByteBuffer getByteBuffer() throws IOException;
+
+}
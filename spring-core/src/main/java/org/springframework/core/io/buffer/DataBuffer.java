@@ -0,0 +1,218 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Basic abstraction over byte buffers, obtained from a {@link DataBufferFactory}.
+ *
+ * <p>{@code DataBuffer}s have separate {@linkplain #readPosition() read} and
+ * {@linkplain #writePosition() write} positions, as opposed to {@code ByteBuffer}'s
+ * single {@linkplain ByteBuffer#position() position}. As such, the {@code DataBuffer}
+ * does not require a {@linkplain ByteBuffer#flip() flip} to read after writing. In general,
+ * the following invariant holds for the read and write positions, and the capacity:
+ *
+ * <blockquote>
+ * <tt>0</tt> <tt>&lt;=</tt>
+ * <i>readPosition</i> <tt>&lt;=</tt>
+ * <i>writePosition</i> <tt>&lt;=</tt>
+ * <i>capacity</i>
+ * </blockquote>
+ *
+ * <p>The {@linkplain #capacity() capacity} of a {@code DataBuffer} is expanded on demand,
+ * similar to {@code StringBuilder}.
+ *
+ * <p>Buffers obtained from a pooling factory implement {@link PooledDataBuffer} and
+ * need to be {@linkplain DataBufferUtils#release released} when no longer needed.
+ *
+ * @since 4.3.1
+ * @see DataBufferFactory
+ * @see PooledDataBuffer
+ */
+public interface DataBuffer {
+
+	/**
+	 * Return the {@link DataBufferFactory} that created this buffer.
+	 */
+	DataBufferFactory factory();
+
+	/**
+	 * Return the number of bytes that can be read from this data buffer.
+	 */
+	int readableByteCount();
+
+	/**
+	 * Return the number of bytes that can be written to this data buffer
+	 * without expanding it.
+	 */
+	int writableByteCount();
+
+	/**
+	 * Return the number of bytes that this buffer can contain without expanding it.
+	 */
+	int capacity();
+
+	/**
+	 * Return the position from which this buffer will read.
+	 */
+	int readPosition();
+
+	/**
+	 * Set the position from which this buffer will read.
+	 * @param readPosition the new read position
+	 * @return this buffer
+	 * @throws IndexOutOfBoundsException if {@code readPosition} is smaller than 0
+	 * or greater than {@link #writePosition()}
+	 */
+	DataBuffer readPosition(int readPosition);
+
+	/**
+	 * Return the position to which this buffer will write.
+	 */
+	int writePosition();
+
+	/**
+	 * Set the position to which this buffer will write.
+	 * @param writePosition the new write position
+	 * @return this buffer
+	 * @throws IndexOutOfBoundsException if {@code writePosition} is smaller than
+	 * {@link #readPosition()} or greater than {@link #capacity()}
+	 */
+	DataBuffer writePosition(int writePosition);
+
+	/**
+	 * Return the byte at the given index, independent of the read position.
+	 * @param index the index of the byte to return
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	byte getByte(int index);
+
+	/**
+	 * Read a single byte from the current read position of this data buffer.
+	 * @throws IndexOutOfBoundsException if there are no readable bytes left
+	 */
+	byte read();
+
+	/**
+	 * Read this buffer's data into the specified destination,
+	 * starting at the current read position of this buffer.
+	 * @param destination the array into which the bytes are to be written
+	 * @return this buffer
+	 */
+	DataBuffer read(byte[] destination);
+
+	/**
+	 * Read {@code length} bytes of this buffer into the specified destination,
+	 * starting at the current read position of this buffer.
+	 * @param destination the array into which the bytes are to be written
+	 * @param offset the index within {@code destination} of the first byte to be written
+	 * @param length the number of bytes to be written in {@code destination}
+	 * @return this buffer
+	 */
+	DataBuffer read(byte[] destination, int offset, int length);
+
+	/**
+	 * Write a single byte into this buffer at the current writing position.
+	 * @param b the byte to be written
+	 * @return this buffer
+	 */
+	DataBuffer write(byte b);
+
+	/**
+	 * Write the given source into this buffer, starting at the current writing position
+	 * of this buffer.
+	 * @param source the bytes to be written into this buffer
+	 * @return this buffer
+	 */
+	DataBuffer write(byte[] source);
+
+	/**
+	 * Write {@code length} bytes of the given source into this buffer, starting
+	 * at the current writing position of this buffer.
+	 * @param source the bytes to be written into this buffer
+	 * @param offset the index within {@code source} to start writing from
+	 * @param length the number of bytes to be written from {@code source}
+	 * @return this buffer
+	 */
+	DataBuffer write(byte[] source, int offset, int length);
+
+	/**
+	 * Write one or more {@code DataBuffer}s to this buffer, starting at the current
+	 * writing position. The read positions of the given buffers are left unchanged.
+	 * @param buffers the byte buffers to write into this buffer
+	 * @return this buffer
+	 */
+	DataBuffer write(DataBuffer... buffers);
+
+	/**
+	 * Write the remaining content of one or more {@link ByteBuffer}s to this buffer,
+	 * starting at the current writing position.
+	 * @param buffers the byte buffers to write into this buffer
+	 * @return this buffer
+	 */
+	DataBuffer write(ByteBuffer... buffers);
+
+	/**
+	 * Create a new {@code DataBuffer} whose contents is a shared subsequence of this
+	 * data buffer's content. Data between this data buffer and the returned buffer is
+	 * shared; though changes in the returned buffer's position will not be reflected
+	 * in the reading nor writing position of this data buffer.
+	 * <p>Note that a slice does not hold a reference of its own on a
+	 * {@link PooledDataBuffer}: it must not be used after the original
+	 * buffer has been released.
+	 * @param index the index at which to start the slice
+	 * @param length the length of the slice
+	 * @return the specified slice of this data buffer
+	 */
+	DataBuffer slice(int index, int length);
+
+	/**
+	 * Expose this buffer's readable bytes as a {@link ByteBuffer}. Data between this
+	 * {@code DataBuffer} and the returned {@code ByteBuffer} is shared; though
+	 * changes in the returned buffer's {@linkplain ByteBuffer#position() position}
+	 * will not be reflected in the reading nor writing position of this data buffer.
+	 * @return this data buffer as a byte buffer
+	 */
+	ByteBuffer asByteBuffer();
+
+	/**
+	 * Expose a subsequence of this buffer's bytes as a {@link ByteBuffer}, sharing
+	 * the data as with {@link #asByteBuffer()}.
+	 * @param index the index at which to start the byte buffer
+	 * @param length the length of the returned byte buffer
+	 * @return this data buffer as a byte buffer
+	 */
+	ByteBuffer asByteBuffer(int index, int length);
+
+	/**
+	 * Expose this buffer's data as an {@link InputStream}. Both data and read position
+	 * are shared between the returned stream and this data buffer.
+	 * @return this data buffer as an input stream
+	 */
+	InputStream asInputStream();
+
+	/**
+	 * Expose this buffer's data as an {@link OutputStream}. Both data and write position
+	 * are shared between the returned stream and this data buffer.
+	 * @return this data buffer as an output stream
+	 */
+	OutputStream asOutputStream();
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+/**
+ * Utility class for working with {@link DataBuffer DataBuffers}: reading
+ * streams and channels into buffers, writing buffers to streams and channels,
+ * and releasing {@linkplain PooledDataBuffer pooled} buffers.
+ *
+ * <p>Mainly for use within the framework.
+ *
+ * @since 4.3.1
+ */
+public abstract class DataBufferUtils {
+
+	/**
+	 * Read the given {@code InputStream} into a list of {@code DataBuffer}s of
+	 * the given size, until the end of the stream. The stream is left open.
+	 * <p>The caller is responsible for {@linkplain #release releasing} the
+	 * returned buffers.
+	 * @param inputStream the input stream to read from
+	 * @param dataBufferFactory the factory to create data buffers with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return the buffers read from the stream, or an empty list for an empty stream
+	 * @throws IOException in case of I/O errors
+	 */
+	public static List<DataBuffer> read(InputStream inputStream, DataBufferFactory dataBufferFactory,
+			int bufferSize) throws IOException {
+
+		Assert.notNull(inputStream, "InputStream must not be null");
+		return read(Channels.newChannel(inputStream), dataBufferFactory, bufferSize);
+	}
+
+	/**
+	 * Read the given blocking {@code ReadableByteChannel} into a list of {@code DataBuffer}s
+	 * of the given size, until the end of the channel. The channel is left open.
+	 * <p>The caller is responsible for {@linkplain #release releasing} the
+	 * returned buffers.
+	 * @param channel the channel to read from
+	 * @param dataBufferFactory the factory to create data buffers with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return the buffers read from the channel, or an empty list for an empty channel
+	 * @throws IOException in case of I/O errors
+	 */
+	public static List<DataBuffer> read(ReadableByteChannel channel, DataBufferFactory dataBufferFactory,
+			int bufferSize) throws IOException {
+
+		Assert.notNull(channel, "ReadableByteChannel must not be null");
+		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be larger than 0");
+		List<DataBuffer> result = new ArrayList<DataBuffer>();
+		boolean completed = false;
+		try {
+			for (;;) {
+				DataBuffer dataBuffer = dataBufferFactory.allocateBuffer(bufferSize);
+				result.add(dataBuffer);
+				ByteBuffer byteBuffer = dataBuffer.asByteBuffer(0, bufferSize);
+				int read = channel.read(byteBuffer);
+				while (read >= 0 && byteBuffer.hasRemaining()) {
+					read = channel.read(byteBuffer);
+				}
+				dataBuffer.writePosition(byteBuffer.position());
+				if (read < 0) {
+					if (dataBuffer.readableByteCount() == 0) {
+						result.remove(result.size() - 1);
+						release(dataBuffer);
+					}
+					completed = true;
+					return result;
+				}
+			}
+		}
+		finally {
+			if (!completed) {
+				for (DataBuffer dataBuffer : result) {
+					release(dataBuffer);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Write the readable content of the given {@code DataBuffer} to the given
+	 * {@code OutputStream}. The read position of the buffer is left unchanged,
+	 * and the stream is left open.
+	 * @param dataBuffer the buffer to write
+	 * @param outputStream the stream to write to
+	 * @throws IOException in case of I/O errors
+	 */
+	public static void write(DataBuffer dataBuffer, OutputStream outputStream) throws IOException {
+		Assert.notNull(dataBuffer, "DataBuffer must not be null");
+		Assert.notNull(outputStream, "OutputStream must not be null");
+		ByteBuffer byteBuffer = dataBuffer.asByteBuffer();
+		if (byteBuffer.hasArray()) {
+			outputStream.write(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(),
+					byteBuffer.remaining());
+		}
+		else {
+			byte[] chunk = new byte[Math.min(byteBuffer.remaining(), 8192)];
+			while (byteBuffer.hasRemaining()) {
+				int length = Math.min(byteBuffer.remaining(), chunk.length);
+				byteBuffer.get(chunk, 0, length);
+				outputStream.write(chunk, 0, length);
+			}
+		}
+	}
+
+	/**
+	 * Write the readable content of the given {@code DataBuffer} to the given
+	 * {@code WritableByteChannel}. The read position of the buffer is left
+	 * unchanged, and the channel is left open.
+	 * @param dataBuffer the buffer to write
+	 * @param channel the channel to write to
+	 * @throws IOException in case of I/O errors
+	 */
+	public static void write(DataBuffer dataBuffer, WritableByteChannel channel) throws IOException {
+		Assert.notNull(dataBuffer, "DataBuffer must not be null");
+		Assert.notNull(channel, "WritableByteChannel must not be null");
+		ByteBuffer byteBuffer = dataBuffer.asByteBuffer();
+		while (byteBuffer.hasRemaining()) {
+			channel.write(byteBuffer);
+		}
+	}
+
+	/**
+	 * Retain the given data buffer, if it is a {@link PooledDataBuffer}.
+	 * @param dataBuffer the data buffer to retain
+	 * @return the retained buffer
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends DataBuffer> T retain(T dataBuffer) {
+		if (dataBuffer instanceof PooledDataBuffer) {
+			return (T) ((PooledDataBuffer) dataBuffer).retain();
+		}
+		return dataBuffer;
+	}
+
+	/**
+	 * Release the given data buffer, if it is a {@link PooledDataBuffer}.
+	 * @param dataBuffer the data buffer to release
+	 * @return {@code true} if the buffer was released; {@code false} otherwise
+	 */
+	public static boolean release(DataBuffer dataBuffer) {
+		if (dataBuffer instanceof PooledDataBuffer) {
+			return ((PooledDataBuffer) dataBuffer).release();
+		}
+		return false;
+	}
+
+}
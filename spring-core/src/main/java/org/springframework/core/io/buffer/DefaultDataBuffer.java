@@ -0,0 +1,389 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Default implementation of the {@link DataBuffer} interface that uses a
+ * {@link ByteBuffer} internally, with separate read and write positions.
+ * Can be constructed using the {@link DefaultDataBufferFactory}.
+ *
+ * <p>Not thread-safe: a buffer is expected to be written and read by one
+ * thread at a time, as with {@code ByteBuffer} itself.
+ *
+ * @since 4.3.1
+ * @see DefaultDataBufferFactory
+ */
+public class DefaultDataBuffer implements DataBuffer {
+
+	private static final int MIN_EXPANDED_CAPACITY = 64;
+
+
+	private final DataBufferFactory dataBufferFactory;
+
+	private final boolean expandable;
+
+	private ByteBuffer byteBuffer;
+
+	private int capacity;
+
+	private int readPosition;
+
+	private int writePosition;
+
+
+	/**
+	 * Create a new {@code DefaultDataBuffer} for the given {@code ByteBuffer},
+	 * from its current position up to its limit.
+	 * @param dataBufferFactory the factory that created this buffer
+	 * @param byteBuffer the underlying byte buffer
+	 * @param filled whether the remaining content of the given byte buffer is
+	 * readable, or whether the given byte buffer is to be written to instead
+	 */
+	DefaultDataBuffer(DataBufferFactory dataBufferFactory, ByteBuffer byteBuffer, boolean filled) {
+		this(dataBufferFactory, byteBuffer, filled, true);
+	}
+
+	private DefaultDataBuffer(DataBufferFactory dataBufferFactory, ByteBuffer byteBuffer,
+			boolean filled, boolean expandable) {
+
+		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
+		Assert.notNull(byteBuffer, "ByteBuffer must not be null");
+		this.dataBufferFactory = dataBufferFactory;
+		this.expandable = expandable;
+		this.byteBuffer = byteBuffer.slice();
+		this.capacity = this.byteBuffer.remaining();
+		this.writePosition = (filled ? this.capacity : 0);
+	}
+
+
+	/**
+	 * Directly exposes the native {@code ByteBuffer} that this buffer is based on.
+	 * <p>Note that the native buffer is replaced when this buffer is expanded.
+	 * @return the wrapped byte buffer
+	 */
+	public ByteBuffer getNativeBuffer() {
+		return this.byteBuffer;
+	}
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public int writableByteCount() {
+		return this.capacity - this.writePosition;
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public DefaultDataBuffer readPosition(int readPosition) {
+		assertIndex(readPosition >= 0, "'readPosition' %d must be >= 0", readPosition);
+		assertIndex(readPosition <= this.writePosition, "'readPosition' %d must be <= %d",
+				readPosition, this.writePosition);
+		this.readPosition = readPosition;
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	@Override
+	public DefaultDataBuffer writePosition(int writePosition) {
+		assertIndex(writePosition >= this.readPosition, "'writePosition' %d must be >= %d",
+				writePosition, this.readPosition);
+		assertIndex(writePosition <= this.capacity, "'writePosition' %d must be <= %d",
+				writePosition, this.capacity);
+		this.writePosition = writePosition;
+		return this;
+	}
+
+	@Override
+	public byte getByte(int index) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(index < this.writePosition, "index %d must be < %d", index, this.writePosition);
+		return this.byteBuffer.get(index);
+	}
+
+	@Override
+	public byte read() {
+		assertIndex(this.readPosition < this.writePosition, "readPosition %d must be < %d",
+				this.readPosition, this.writePosition);
+		byte b = this.byteBuffer.get(this.readPosition);
+		this.readPosition++;
+		return b;
+	}
+
+	@Override
+	public DefaultDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "Byte array must not be null");
+		return read(destination, 0, destination.length);
+	}
+
+	@Override
+	public DefaultDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "Byte array must not be null");
+		assertIndex(length <= readableByteCount(), "length %d must be <= %d", length, readableByteCount());
+		ByteBuffer tmp = this.byteBuffer.duplicate();
+		tmp.limit(this.readPosition + length);
+		tmp.position(this.readPosition);
+		tmp.get(destination, offset, length);
+		this.readPosition += length;
+		return this;
+	}
+
+	@Override
+	public DefaultDataBuffer write(byte b) {
+		ensureCapacity(1);
+		this.byteBuffer.put(this.writePosition, b);
+		this.writePosition++;
+		return this;
+	}
+
+	@Override
+	public DefaultDataBuffer write(byte[] source) {
+		Assert.notNull(source, "Byte array must not be null");
+		return write(source, 0, source.length);
+	}
+
+	@Override
+	public DefaultDataBuffer write(byte[] source, int offset, int length) {
+		Assert.notNull(source, "Byte array must not be null");
+		ensureCapacity(length);
+		ByteBuffer tmp = this.byteBuffer.duplicate();
+		tmp.limit(this.writePosition + length);
+		tmp.position(this.writePosition);
+		tmp.put(source, offset, length);
+		this.writePosition += length;
+		return this;
+	}
+
+	@Override
+	public DefaultDataBuffer write(DataBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			ByteBuffer[] byteBuffers = new ByteBuffer[buffers.length];
+			for (int i = 0; i < buffers.length; i++) {
+				byteBuffers[i] = buffers[i].asByteBuffer();
+			}
+			write(byteBuffers);
+		}
+		return this;
+	}
+
+	@Override
+	public DefaultDataBuffer write(ByteBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			int capacityNeeded = 0;
+			for (ByteBuffer buffer : buffers) {
+				capacityNeeded += buffer.remaining();
+			}
+			ensureCapacity(capacityNeeded);
+			ByteBuffer tmp = this.byteBuffer.duplicate();
+			tmp.limit(this.writePosition + capacityNeeded);
+			tmp.position(this.writePosition);
+			for (ByteBuffer buffer : buffers) {
+				tmp.put(buffer.duplicate());
+			}
+			this.writePosition += capacityNeeded;
+		}
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The returned slice cannot be expanded beyond its initial capacity.
+	 */
+	@Override
+	public DefaultDataBuffer slice(int index, int length) {
+		checkIndex(index, length);
+		ByteBuffer tmp = this.byteBuffer.duplicate();
+		tmp.limit(index + length);
+		tmp.position(index);
+		return new DefaultDataBuffer(this.dataBufferFactory, tmp, true, false);
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return asByteBuffer(this.readPosition, readableByteCount());
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		checkIndex(index, length);
+		ByteBuffer tmp = this.byteBuffer.duplicate();
+		tmp.limit(index + length);
+		tmp.position(index);
+		return tmp.slice();
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new DefaultDataBufferInputStream();
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return new DefaultDataBufferOutputStream();
+	}
+
+
+	/**
+	 * Allocate a new native buffer for expanding this buffer.
+	 * @param capacity the capacity of the new native buffer
+	 * @param direct whether to allocate a direct buffer
+	 */
+	ByteBuffer allocateByteBuffer(int capacity, boolean direct) {
+		return (direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	/**
+	 * Callback for a native buffer that has been replaced on expansion,
+	 * for subclasses that manage native buffers in a pool.
+	 * @param byteBuffer the replaced native buffer
+	 */
+	void releaseByteBuffer(ByteBuffer byteBuffer) {
+	}
+
+	private void ensureCapacity(int length) {
+		if (length > writableByteCount()) {
+			Assert.state(this.expandable, "Cannot expand a DataBuffer slice");
+			setCapacity(calculateCapacity(this.writePosition + length));
+		}
+	}
+
+	private int calculateCapacity(int neededCapacity) {
+		Assert.isTrue(neededCapacity >= 0, "Capacity must not exceed Integer.MAX_VALUE");
+		int newCapacity = Math.max(this.capacity, MIN_EXPANDED_CAPACITY);
+		while (newCapacity < neededCapacity) {
+			newCapacity = (newCapacity > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : newCapacity << 1);
+		}
+		return newCapacity;
+	}
+
+	private void setCapacity(int newCapacity) {
+		ByteBuffer oldBuffer = this.byteBuffer;
+		ByteBuffer newBuffer = allocateByteBuffer(newCapacity, oldBuffer.isDirect());
+		ByteBuffer tmp = oldBuffer.duplicate();
+		tmp.limit(this.writePosition);
+		tmp.position(0);
+		newBuffer.put(tmp);
+		newBuffer.clear();
+		this.byteBuffer = newBuffer;
+		this.capacity = newBuffer.remaining();
+		releaseByteBuffer(oldBuffer);
+	}
+
+	private void checkIndex(int index, int length) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(length >= 0, "length %d must be >= 0", length);
+		assertIndex(index <= this.capacity - length, "index %d and length %d must not exceed capacity %d",
+				index, length, this.capacity);
+	}
+
+	private void assertIndex(boolean expression, String format, Object... args) {
+		if (!expression) {
+			throw new IndexOutOfBoundsException(String.format(format, args));
+		}
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof DefaultDataBuffer)) {
+			return false;
+		}
+		return asByteBuffer().equals(((DefaultDataBuffer) other).asByteBuffer());
+	}
+
+	@Override
+	public int hashCode() {
+		return asByteBuffer().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s (r: %d, w: %d, c: %d)", getClass().getSimpleName(),
+				this.readPosition, this.writePosition, this.capacity);
+	}
+
+
+	private class DefaultDataBufferInputStream extends InputStream {
+
+		@Override
+		public int available() {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return (available() > 0 ? DefaultDataBuffer.this.read() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) throws IOException {
+			int available = available();
+			if (len > 0 && available == 0) {
+				return -1;
+			}
+			len = Math.min(available, len);
+			DefaultDataBuffer.this.read(bytes, off, len);
+			return len;
+		}
+	}
+
+
+	private class DefaultDataBufferOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			DefaultDataBuffer.this.write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) throws IOException {
+			DefaultDataBuffer.this.write(bytes, off, len);
+		}
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+/**
+ * Extension of {@link DataBuffer} that allows for buffers that share a memory
+ * pool. Introduces methods for reference counting: a buffer starts out with
+ * a reference count of 1 and returns its memory to the pool once the count
+ * drops to 0.
+ *
+ * @since 4.3.1
+ * @see PooledDataBufferFactory
+ */
+public interface PooledDataBuffer extends DataBuffer {
+
+	/**
+	 * Return {@code true} if this buffer is allocated, i.e. if it has
+	 * not been released yet.
+	 */
+	boolean isAllocated();
+
+	/**
+	 * Increase the reference count for this buffer by one.
+	 * @return this buffer
+	 * @throws IllegalStateException if the buffer has already been released
+	 */
+	PooledDataBuffer retain();
+
+	/**
+	 * Decrease the reference count for this buffer by one, and return
+	 * its memory to the pool once the count reaches zero.
+	 * @return {@code true} if the buffer was released; {@code false} otherwise
+	 * @throws IllegalStateException if the buffer has already been released
+	 */
+	boolean release();
+
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataBufferFactory} that recycles the memory of its buffers, reducing
+ * allocation and garbage collection pressure for short-lived I/O buffers, in
+ * particular for direct buffers which are expensive to allocate.
+ *
+ * <p>Buffers are handed out as {@link PooledDataBuffer} instances with a reference
+ * count of 1. Once {@linkplain PooledDataBuffer#release() released}, the underlying
+ * memory is returned to a pool of buffers of the same size, for reuse by subsequent
+ * allocations. Pooled sizes are powers of two between {@link #MIN_POOLED_CAPACITY}
+ * and the configured maximum; larger buffers are allocated on demand and left to the
+ * garbage collector. Each size class retains up to a configurable number of idle
+ * buffers, with any further buffers being dropped on release.
+ *
+ * <p>This factory is thread-safe; the buffers it creates are not, as with
+ * {@link DefaultDataBuffer}. A buffer must not be accessed after it has been
+ * released, since its memory may already be in use by another buffer.
+ *
+ * @since 4.3.1
+ * @see DataBufferUtils#release(DataBuffer)
+ */
+public class PooledDataBufferFactory implements DataBufferFactory {
+
+	/**
+	 * The smallest pooled buffer size, also used as default initial capacity.
+	 */
+	public static final int MIN_POOLED_CAPACITY = 256;
+
+	/**
+	 * The default largest pooled buffer size: 64 KB.
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The default number of idle buffers retained per pooled size.
+	 */
+	public static final int DEFAULT_MAX_POOLED_BUFFERS_PER_SIZE = 64;
+
+
+	private final boolean preferDirect;
+
+	private final int maxPooledCapacity;
+
+	private final int maxPooledBuffersPerSize;
+
+	private final BufferPool[] pools;
+
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} for heap buffers with default settings.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with default pool sizes.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_MAX_POOLED_BUFFERS_PER_SIZE);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param maxPooledCapacity the largest buffer size to pool (rounded up to a
+	 * power of two); larger buffers are not recycled
+	 * @param maxPooledBuffersPerSize the maximum number of idle buffers to retain
+	 * per pooled size
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int maxPooledCapacity, int maxPooledBuffersPerSize) {
+		Assert.isTrue(maxPooledCapacity >= MIN_POOLED_CAPACITY,
+				"'maxPooledCapacity' must not be smaller than " + MIN_POOLED_CAPACITY);
+		Assert.isTrue(maxPooledCapacity <= (1 << 30), "'maxPooledCapacity' must not be larger than 1 GB");
+		Assert.isTrue(maxPooledBuffersPerSize >= 0, "'maxPooledBuffersPerSize' must not be negative");
+		this.preferDirect = preferDirect;
+		this.maxPooledCapacity = roundToPowerOfTwo(maxPooledCapacity);
+		this.maxPooledBuffersPerSize = maxPooledBuffersPerSize;
+		this.pools = new BufferPool[poolIndex(this.maxPooledCapacity) + 1];
+		for (int i = 0; i < this.pools.length; i++) {
+			this.pools[i] = new BufferPool();
+		}
+	}
+
+
+	/**
+	 * Return whether this factory hands out direct buffers.
+	 */
+	public boolean isPreferDirect() {
+		return this.preferDirect;
+	}
+
+	/**
+	 * Return the largest buffer size that this factory recycles.
+	 */
+	public int getMaxPooledCapacity() {
+		return this.maxPooledCapacity;
+	}
+
+	/**
+	 * Return the number of idle buffers currently held in the pool, across all sizes.
+	 */
+	public int getPooledBufferCount() {
+		int count = 0;
+		for (BufferPool pool : this.pools) {
+			count += pool.size.get();
+		}
+		return count;
+	}
+
+	/**
+	 * Drop all idle buffers currently held in the pool.
+	 */
+	public void clear() {
+		for (BufferPool pool : this.pools) {
+			while (pool.buffers.poll() != null) {
+				pool.size.decrementAndGet();
+			}
+		}
+	}
+
+
+	@Override
+	public PooledDataBuffer allocateBuffer() {
+		return allocateBuffer(MIN_POOLED_CAPACITY);
+	}
+
+	@Override
+	public PooledDataBuffer allocateBuffer(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "'initialCapacity' must not be negative");
+		return new PooledByteBufferDataBuffer(this, acquire(initialCapacity, this.preferDirect));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Wrapped buffers are not pooled, since their memory is owned by the caller.
+	 */
+	@Override
+	public DefaultDataBuffer wrap(ByteBuffer byteBuffer) {
+		Assert.notNull(byteBuffer, "ByteBuffer must not be null");
+		return new DefaultDataBuffer(this, byteBuffer, true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Wrapped buffers are not pooled, since their memory is owned by the caller.
+	 */
+	@Override
+	public DefaultDataBuffer wrap(byte[] bytes) {
+		Assert.notNull(bytes, "Byte array must not be null");
+		return new DefaultDataBuffer(this, ByteBuffer.wrap(bytes), true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation copies the given buffers into a single pooled buffer.
+	 */
+	@Override
+	public PooledDataBuffer join(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
+		int capacity = 0;
+		for (DataBuffer dataBuffer : dataBuffers) {
+			capacity += dataBuffer.readableByteCount();
+		}
+		PooledDataBuffer result = allocateBuffer(capacity);
+		for (DataBuffer dataBuffer : dataBuffers) {
+			result.write(dataBuffer);
+			DataBufferUtils.release(dataBuffer);
+		}
+		return result;
+	}
+
+
+	/**
+	 * Obtain a cleared native buffer of at least the given capacity,
+	 * from the pool if possible.
+	 */
+	ByteBuffer acquire(int capacity, boolean direct) {
+		if (capacity <= this.maxPooledCapacity && direct == this.preferDirect) {
+			int pooledCapacity = Math.max(roundToPowerOfTwo(capacity), MIN_POOLED_CAPACITY);
+			BufferPool pool = this.pools[poolIndex(pooledCapacity)];
+			ByteBuffer byteBuffer = pool.buffers.poll();
+			if (byteBuffer != null) {
+				pool.size.decrementAndGet();
+				byteBuffer.clear();
+				return byteBuffer;
+			}
+			capacity = pooledCapacity;
+		}
+		return (direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	/**
+	 * Return the given native buffer to the pool, if it fits one of the pooled
+	 * sizes and the pool for that size has not reached its limit yet.
+	 */
+	void recycle(ByteBuffer byteBuffer) {
+		int capacity = byteBuffer.capacity();
+		if (capacity < MIN_POOLED_CAPACITY || capacity > this.maxPooledCapacity ||
+				Integer.bitCount(capacity) != 1 || byteBuffer.isDirect() != this.preferDirect ||
+				byteBuffer.isReadOnly()) {
+			return;
+		}
+		BufferPool pool = this.pools[poolIndex(capacity)];
+		if (pool.size.incrementAndGet() <= this.maxPooledBuffersPerSize) {
+			byteBuffer.clear();
+			pool.buffers.offer(byteBuffer);
+		}
+		else {
+			pool.size.decrementAndGet();
+		}
+	}
+
+	private static int poolIndex(int pooledCapacity) {
+		return Integer.numberOfTrailingZeros(pooledCapacity) -
+				Integer.numberOfTrailingZeros(MIN_POOLED_CAPACITY);
+	}
+
+	private static int roundToPowerOfTwo(int capacity) {
+		int highestOneBit = Integer.highestOneBit(capacity);
+		return (highestOneBit == capacity ? capacity : highestOneBit << 1);
+	}
+
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + this.maxPooledCapacity + ")";
+	}
+
+
+	/**
+	 * Idle native buffers of a single size, with a separately tracked count
+	 * since {@link ConcurrentLinkedQueue#size()} is not a constant-time operation.
+	 */
+	private static class BufferPool {
+
+		final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+
+		final AtomicInteger size = new AtomicInteger();
+	}
+
+
+	/**
+	 * {@link DefaultDataBuffer} variant that returns its native buffer to the
+	 * owning factory once its reference count drops to 0, as well as whenever
+	 * it gets replaced by a larger one on expansion.
+	 */
+	private static class PooledByteBufferDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledDataBufferFactory pooledFactory;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		public PooledByteBufferDataBuffer(PooledDataBufferFactory pooledFactory, ByteBuffer byteBuffer) {
+			super(pooledFactory, byteBuffer, false);
+			this.pooledFactory = pooledFactory;
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return (this.refCount.get() > 0);
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			for (;;) {
+				int count = this.refCount.get();
+				Assert.state(count > 0, "DataBuffer has already been released");
+				if (this.refCount.compareAndSet(count, count + 1)) {
+					return this;
+				}
+			}
+		}
+
+		@Override
+		public boolean release() {
+			for (;;) {
+				int count = this.refCount.get();
+				Assert.state(count > 0, "DataBuffer has already been released");
+				if (this.refCount.compareAndSet(count, count - 1)) {
+					if (count == 1) {
+						this.pooledFactory.recycle(getNativeBuffer());
+						return true;
+					}
+					return false;
+				}
+			}
+		}
+
+		@Override
+		ByteBuffer allocateByteBuffer(int capacity, boolean direct) {
+			return this.pooledFactory.acquire(capacity, direct);
+		}
+
+		@Override
+		void releaseByteBuffer(ByteBuffer byteBuffer) {
+			this.pooledFactory.recycle(byteBuffer);
+		}
+
+		@Override
+		public String toString() {
+			return super.toString() + " [refCount=" + this.refCount.get() + "]";
+		}
+	}
+
+}
@@ -0,0 +1,5 @@
+/**
+ * Generic abstraction for working with byte buffer implementations,
+ * including pooled buffers with reference counting.
+ */
+package org.springframework.core.io.buffer;
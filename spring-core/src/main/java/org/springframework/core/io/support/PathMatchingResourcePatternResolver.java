@@ -18,6 +18,7 @@ package org.springframework.core.io.support;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.JarURLConnection;
@@ -26,11 +27,19 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipException;
@@ -47,6 +56,7 @@ import org.springframework.core.io.VfsResource;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.ResourceUtils;
@@ -166,6 +176,17 @@ import org.springframework.util.StringUtils;
  * Ant-style pattern in such a case, which will search <i>all</i> class path
  * locations that contain the root package.
  *
+ * <p><b>Caching and concurrency:</b>
+ *
+ * <p>As of 4.3.1, the entry names found underneath a jar root are indexed once
+ * and kept for the lifetime of the resolver (see {@link #setCacheJarEntries}),
+ * so that repeated lookups against the same jar - e.g. multiple "classpath*:"
+ * patterns during application startup - do not enumerate all of its entries
+ * again. Jar entries as well as file system directories are pruned as early as
+ * possible, skipping entire directories that cannot contain a match for the
+ * given pattern. File system directory traversal may also be performed in
+ * parallel through a specified {@link #setDirectoryTraversalExecutor Executor}.
+ *
  * @author Juergen Hoeller
  * @author Colin Sampaleanu
  * @author Marius Bogoevici
@@ -201,6 +222,13 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private boolean cacheJarEntries = true;
+
+	private Executor directoryTraversalExecutor;
+
+	/** Cache of sorted entry paths underneath a jar root, keyed by root URL */
+	private final Map<String, String[]> jarEntryCache = new ConcurrentReferenceHashMap<String, String[]>(64);
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -263,6 +291,62 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Set whether to keep an index of the entries underneath each jar root
+	 * that has been searched, for reuse by subsequent lookups against the
+	 * same jar root. Default is "true".
+	 * <p>Switch this flag to "false" if jar files on the class path may get
+	 * replaced during the lifetime of this resolver.
+	 * @since 4.3.1
+	 * @see #clearCache()
+	 */
+	public void setCacheJarEntries(boolean cacheJarEntries) {
+		this.cacheJarEntries = cacheJarEntries;
+		if (!cacheJarEntries) {
+			this.jarEntryCache.clear();
+		}
+	}
+
+	/**
+	 * Return whether this resolver keeps an index of jar entries.
+	 * @since 4.3.1
+	 */
+	public boolean isCacheJarEntries() {
+		return this.cacheJarEntries;
+	}
+
+	/**
+	 * Specify an {@link Executor} for traversing file system directories in
+	 * parallel: the immediate subdirectories of each root directory will then
+	 * be searched as separate tasks, with the results being merged in the
+	 * same order as for a sequential search.
+	 * <p>Default is none, searching all directories on the calling thread.
+	 * Note that the given executor must not run the submitted tasks on a
+	 * bounded pool that the calling thread itself belongs to.
+	 * @since 4.3.1
+	 * @see #retrieveMatchingFiles
+	 */
+	public void setDirectoryTraversalExecutor(Executor directoryTraversalExecutor) {
+		this.directoryTraversalExecutor = directoryTraversalExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} for traversing file system directories, if any.
+	 * @since 4.3.1
+	 */
+	public Executor getDirectoryTraversalExecutor() {
+		return this.directoryTraversalExecutor;
+	}
+
+	/**
+	 * Clear the index of jar entries that this resolver has built so far.
+	 * @since 4.3.1
+	 * @see #setCacheJarEntries
+	 */
+	public void clearCache() {
+		this.jarEntryCache.clear();
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -561,6 +645,31 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 			return result;
 		}
 
+		String cacheKey = (this.cacheJarEntries ? rootDirURL.toExternalForm() : null);
+		String[] entryPaths = (cacheKey != null ? this.jarEntryCache.get(cacheKey) : null);
+		if (entryPaths == null) {
+			entryPaths = retrieveJarEntryPaths(rootDirURL);
+			if (entryPaths == null) {
+				return Collections.emptySet();
+			}
+			if (cacheKey != null) {
+				this.jarEntryCache.put(cacheKey, entryPaths);
+			}
+		}
+		result = new LinkedHashSet<Resource>(8);
+		doFindMatchingJarEntries(rootDirResource, subPattern, entryPaths, 0, entryPaths.length, "", result);
+		return result;
+	}
+
+	/**
+	 * Retrieve the paths of all entries underneath the given jar root,
+	 * relative to the root and in sorted order.
+	 * @param rootDirURL the pre-resolved root directory URL
+	 * @return the sorted relative entry paths, or {@code null} if the
+	 * given URL does not point to a valid jar file
+	 * @throws IOException in case of I/O errors
+	 */
+	private String[] retrieveJarEntryPaths(URL rootDirURL) throws IOException {
 		URLConnection con = rootDirURL.openConnection();
 		JarFile jarFile;
 		String jarFileUrl;
@@ -601,7 +710,7 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				if (logger.isDebugEnabled()) {
 					logger.debug("Skipping invalid jar classpath entry [" + urlFile + "]");
 				}
-				return Collections.emptySet();
+				return null;
 			}
 		}
 
@@ -614,17 +723,16 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				// The Sun JRE does not return a slash here, but BEA JRockit does.
 				rootEntryPath = rootEntryPath + "/";
 			}
-			result = new LinkedHashSet<Resource>(8);
+			List<String> entryPaths = new ArrayList<String>();
 			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
 				JarEntry entry = entries.nextElement();
 				String entryPath = entry.getName();
 				if (entryPath.startsWith(rootEntryPath)) {
-					String relativePath = entryPath.substring(rootEntryPath.length());
-					if (getPathMatcher().match(subPattern, relativePath)) {
-						result.add(rootDirResource.createRelative(relativePath));
-					}
+					entryPaths.add(entryPath.substring(rootEntryPath.length()));
 				}
 			}
+			String[] result = StringUtils.toStringArray(entryPaths);
+			Arrays.sort(result);
 			return result;
 		}
 		finally {
@@ -634,6 +742,42 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	/**
+	 * Match the given range of sorted jar entry paths within the specified
+	 * directory against the given pattern, skipping entire subdirectories
+	 * whose path cannot be the start of a match.
+	 */
+	private void doFindMatchingJarEntries(Resource rootDirResource, String subPattern, String[] entryPaths,
+			int from, int to, String dirPath, Set<Resource> result) throws IOException {
+
+		int index = from;
+		while (index < to) {
+			String entryPath = entryPaths[index];
+			int separatorIndex = entryPath.indexOf('/', dirPath.length());
+			if (separatorIndex == -1 || separatorIndex == entryPath.length() - 1) {
+				// A file or directory entry right within the current directory
+				if (getPathMatcher().match(subPattern, entryPath)) {
+					result.add(rootDirResource.createRelative(entryPath));
+				}
+				index++;
+			}
+			else {
+				// Entries within a subdirectory: contiguous in sorted order,
+				// ending before the first path after the subdirectory prefix.
+				String subDirPath = entryPath.substring(0, separatorIndex + 1);
+				String upperBound = entryPath.substring(0, separatorIndex) + (char) ('/' + 1);
+				int end = Arrays.binarySearch(entryPaths, index, to, upperBound);
+				if (end < 0) {
+					end = -end - 1;
+				}
+				if (getPathMatcher().matchStart(subPattern, subDirPath)) {
+					doFindMatchingJarEntries(rootDirResource, subPattern, entryPaths, index, end, subDirPath, result);
+				}
+				index = end;
+			}
+		}
+	}
+
 	/**
 	 * Find all resources in jar files that match the given location pattern
 	 * via the Ant-style PathMatcher.
@@ -755,10 +899,93 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 		fullPattern = fullPattern + StringUtils.replace(pattern, File.separator, "/");
 		Set<File> result = new LinkedHashSet<File>(8);
-		doRetrieveMatchingFiles(fullPattern, rootDir, result);
+		if (this.directoryTraversalExecutor != null) {
+			doRetrieveMatchingFilesInParallel(fullPattern, rootDir, result);
+		}
+		else {
+			doRetrieveMatchingFiles(fullPattern, rootDir, result);
+		}
 		return result;
 	}
 
+	/**
+	 * Retrieve files that match the given pattern, searching each immediate
+	 * subdirectory of the given root directory as a separate task on the
+	 * {@link #setDirectoryTraversalExecutor directory traversal Executor}.
+	 * The result is the same as for {@link #doRetrieveMatchingFiles}.
+	 */
+	@SuppressWarnings("unchecked")
+	private void doRetrieveMatchingFilesInParallel(final String fullPattern, File rootDir, Set<File> result)
+			throws IOException {
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Searching directory [" + rootDir.getAbsolutePath() +
+					"] in parallel for files matching pattern [" + fullPattern + "]");
+		}
+		File[] dirContents = rootDir.listFiles();
+		if (dirContents == null) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Could not retrieve contents of directory [" + rootDir.getAbsolutePath() + "]");
+			}
+			return;
+		}
+		Arrays.sort(dirContents);
+		// Either File matches or Future results for subdirectories, in sequential search order
+		List<Object> parts = new ArrayList<Object>(dirContents.length);
+		for (final File content : dirContents) {
+			String currPath = StringUtils.replace(content.getAbsolutePath(), File.separator, "/");
+			if (content.isDirectory() && getPathMatcher().matchStart(fullPattern, currPath + "/")) {
+				if (!content.canRead()) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Skipping subdirectory [" + rootDir.getAbsolutePath() +
+								"] because the application is not allowed to read the directory");
+					}
+				}
+				else {
+					FutureTask<Set<File>> task = new FutureTask<Set<File>>(new Callable<Set<File>>() {
+						@Override
+						public Set<File> call() throws IOException {
+							Set<File> subResult = new LinkedHashSet<File>(8);
+							doRetrieveMatchingFiles(fullPattern, content, subResult);
+							return subResult;
+						}
+					});
+					this.directoryTraversalExecutor.execute(task);
+					parts.add(task);
+				}
+			}
+			if (getPathMatcher().match(fullPattern, currPath)) {
+				parts.add(content);
+			}
+		}
+		for (Object part : parts) {
+			if (part instanceof Future) {
+				result.addAll(getTraversalResult((Future<Set<File>>) part));
+			}
+			else {
+				result.add((File) part);
+			}
+		}
+	}
+
+	private Set<File> getTraversalResult(Future<Set<File>> future) throws IOException {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for directory traversal");
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			ReflectionUtils.rethrowRuntimeException(cause);
+			return null;
+		}
+	}
+
 	/**
 	 * Recursively retrieve files that match the given pattern,
 	 * adding them to the given result list.
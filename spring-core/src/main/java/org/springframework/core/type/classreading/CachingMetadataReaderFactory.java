@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,10 @@
 package org.springframework.core.type.classreading;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
-import java.util.Map;
 
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Caching implementation of the {@link MetadataReaderFactory} interface,
@@ -40,14 +39,8 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 
 	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
 
-	@SuppressWarnings("serial")
-	private final Map<Resource, MetadataReader> metadataReaderCache =
-			new LinkedHashMap<Resource, MetadataReader>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<Resource, MetadataReader> eldest) {
-					return size() > getCacheLimit();
-				}
-			};
+	private final ConcurrentLruCache<Resource, MetadataReader> metadataReaderCache =
+			new ConcurrentLruCache<Resource, MetadataReader>(DEFAULT_CACHE_LIMIT);
 
 
 	/**
@@ -81,6 +74,7 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	 */
 	public void setCacheLimit(int cacheLimit) {
 		this.cacheLimit = cacheLimit;
+		this.metadataReaderCache.setCapacity(Math.max(cacheLimit, 0));
 	}
 
 	/**
@@ -94,25 +88,53 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
 		if (getCacheLimit() <= 0) {
-			return super.getMetadataReader(resource);
+			return createMetadataReader(resource);
 		}
-		synchronized (this.metadataReaderCache) {
-			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
-				this.metadataReaderCache.put(resource, metadataReader);
+		MetadataReader metadataReader = this.metadataReaderCache.get(resource);
+		if (metadataReader == null) {
+			metadataReader = createMetadataReader(resource);
+			MetadataReader existing = this.metadataReaderCache.putIfAbsent(resource, metadataReader);
+			if (existing != null) {
+				metadataReader = existing;
 			}
-			return metadataReader;
 		}
+		return metadataReader;
+	}
+
+	/**
+	 * Create a new MetadataReader for the given resource, for a request
+	 * that could not be served from the in-memory cache.
+	 * <p>The default implementation parses the class file via ASM.
+	 * @param resource the resource (pointing to a ".class" file)
+	 * @return a holder for the ClassReader instance (never {@code null})
+	 * @throws IOException in case of I/O failure
+	 * @since 4.3.1
+	 */
+	protected MetadataReader createMetadataReader(Resource resource) throws IOException {
+		return super.getMetadataReader(resource);
 	}
 
 	/**
 	 * Clear the entire MetadataReader cache, removing all cached class metadata.
 	 */
 	public void clearCache() {
-		synchronized (this.metadataReaderCache) {
-			this.metadataReaderCache.clear();
-		}
+		this.metadataReaderCache.clear();
+	}
+
+	/**
+	 * Return the number of MetadataReader lookups served from the cache.
+	 * @since 4.3.1
+	 */
+	public long getCacheHitCount() {
+		return this.metadataReaderCache.getHitCount();
+	}
+
+	/**
+	 * Return the number of MetadataReader lookups that required parsing a class file.
+	 * @since 4.3.1
+	 */
+	public long getCacheMissCount() {
+		return this.metadataReaderCache.getMissCount();
 	}
 
 }
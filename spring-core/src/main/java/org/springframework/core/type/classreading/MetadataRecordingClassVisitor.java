@@ -0,0 +1,614 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.SpringAsmInfo;
+import org.springframework.asm.Type;
+
+/**
+ * ASM class visitor that passes all events on to a delegate visitor, while
+ * recording those events which are relevant to class and annotation metadata:
+ * the class header, enclosing and inner classes, as well as class-level and
+ * method-level annotations. Method bodies and debug information are left out.
+ *
+ * <p>The recorded events can later be {@linkplain #replay replayed} against a
+ * fresh visitor, yielding the same metadata as a full parse of the class file.
+ *
+ * @since 4.3.1
+ * @see PersistentCachingMetadataReaderFactory
+ */
+final class MetadataRecordingClassVisitor extends ClassVisitor {
+
+	private static final byte END = 0;
+
+	private static final byte CLASS_HEADER = 1;
+
+	private static final byte OUTER_CLASS = 2;
+
+	private static final byte INNER_CLASS = 3;
+
+	private static final byte ANNOTATION = 4;
+
+	private static final byte METHOD = 5;
+
+	private static final byte VALUE = 10;
+
+	private static final byte ENUM_VALUE = 11;
+
+	private static final byte NESTED_ANNOTATION = 12;
+
+	private static final byte ARRAY = 13;
+
+
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+
+	private final DataOutputStream out = new DataOutputStream(this.buffer);
+
+	private boolean recordable = true;
+
+
+	public MetadataRecordingClassVisitor(ClassVisitor delegate) {
+		super(SpringAsmInfo.ASM_VERSION, delegate);
+	}
+
+
+	/**
+	 * Return the recorded events, or {@code null} if the class contained
+	 * annotation values which cannot be recorded.
+	 */
+	public byte[] getRecordedEvents() {
+		return (this.recordable ? this.buffer.toByteArray() : null);
+	}
+
+
+	@Override
+	public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+		super.visit(version, access, name, signature, superName, interfaces);
+		try {
+			this.out.writeByte(CLASS_HEADER);
+			this.out.writeInt(version);
+			this.out.writeInt(access);
+			this.out.writeUTF(name);
+			writeNullableString(superName);
+			this.out.writeInt(interfaces != null ? interfaces.length : 0);
+			if (interfaces != null) {
+				for (String ifc : interfaces) {
+					this.out.writeUTF(ifc);
+				}
+			}
+		}
+		catch (IOException ex) {
+			this.recordable = false;
+		}
+	}
+
+	@Override
+	public void visitOuterClass(String owner, String name, String desc) {
+		super.visitOuterClass(owner, name, desc);
+		try {
+			this.out.writeByte(OUTER_CLASS);
+			this.out.writeUTF(owner);
+			writeNullableString(name);
+			writeNullableString(desc);
+		}
+		catch (IOException ex) {
+			this.recordable = false;
+		}
+	}
+
+	@Override
+	public void visitInnerClass(String name, String outerName, String innerName, int access) {
+		super.visitInnerClass(name, outerName, innerName, access);
+		try {
+			this.out.writeByte(INNER_CLASS);
+			this.out.writeUTF(name);
+			writeNullableString(outerName);
+			writeNullableString(innerName);
+			this.out.writeInt(access);
+		}
+		catch (IOException ex) {
+			this.recordable = false;
+		}
+	}
+
+	@Override
+	public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+		AnnotationVisitor delegate = super.visitAnnotation(desc, visible);
+		try {
+			this.out.writeByte(ANNOTATION);
+			this.out.writeUTF(desc);
+			this.out.writeBoolean(visible);
+		}
+		catch (IOException ex) {
+			this.recordable = false;
+		}
+		return new RecordingAnnotationVisitor(delegate);
+	}
+
+	@Override
+	public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+		MethodVisitor delegate = super.visitMethod(access, name, desc, signature, exceptions);
+		return new RecordingMethodVisitor(delegate, access, name, desc);
+	}
+
+	@Override
+	public void visitEnd() {
+		super.visitEnd();
+		try {
+			this.out.writeByte(END);
+			this.out.flush();
+		}
+		catch (IOException ex) {
+			this.recordable = false;
+		}
+	}
+
+	private void writeNullableString(String value) throws IOException {
+		this.out.writeBoolean(value != null);
+		if (value != null) {
+			this.out.writeUTF(value);
+		}
+	}
+
+	private void writeValue(Object value) throws IOException {
+		if (value instanceof String) {
+			this.out.writeByte('s');
+			this.out.writeUTF((String) value);
+		}
+		else if (value instanceof Type) {
+			this.out.writeByte('T');
+			this.out.writeUTF(((Type) value).getDescriptor());
+		}
+		else if (value instanceof Integer) {
+			this.out.writeByte('I');
+			this.out.writeInt((Integer) value);
+		}
+		else if (value instanceof Boolean) {
+			this.out.writeByte('Z');
+			this.out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Long) {
+			this.out.writeByte('J');
+			this.out.writeLong((Long) value);
+		}
+		else if (value instanceof Byte) {
+			this.out.writeByte('B');
+			this.out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			this.out.writeByte('C');
+			this.out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			this.out.writeByte('S');
+			this.out.writeShort((Short) value);
+		}
+		else if (value instanceof Float) {
+			this.out.writeByte('F');
+			this.out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			this.out.writeByte('D');
+			this.out.writeDouble((Double) value);
+		}
+		else if (value != null && value.getClass().isArray() && value.getClass().getComponentType().isPrimitive()) {
+			writePrimitiveArray(value);
+		}
+		else {
+			throw new IOException("Unsupported annotation value: " + value);
+		}
+	}
+
+	private void writePrimitiveArray(Object value) throws IOException {
+		this.out.writeByte('[');
+		if (value instanceof int[]) {
+			int[] array = (int[]) value;
+			this.out.writeByte('I');
+			this.out.writeInt(array.length);
+			for (int element : array) {
+				this.out.writeInt(element);
+			}
+		}
+		else if (value instanceof boolean[]) {
+			boolean[] array = (boolean[]) value;
+			this.out.writeByte('Z');
+			this.out.writeInt(array.length);
+			for (boolean element : array) {
+				this.out.writeBoolean(element);
+			}
+		}
+		else if (value instanceof long[]) {
+			long[] array = (long[]) value;
+			this.out.writeByte('J');
+			this.out.writeInt(array.length);
+			for (long element : array) {
+				this.out.writeLong(element);
+			}
+		}
+		else if (value instanceof byte[]) {
+			byte[] array = (byte[]) value;
+			this.out.writeByte('B');
+			this.out.writeInt(array.length);
+			this.out.write(array);
+		}
+		else if (value instanceof char[]) {
+			char[] array = (char[]) value;
+			this.out.writeByte('C');
+			this.out.writeInt(array.length);
+			for (char element : array) {
+				this.out.writeChar(element);
+			}
+		}
+		else if (value instanceof short[]) {
+			short[] array = (short[]) value;
+			this.out.writeByte('S');
+			this.out.writeInt(array.length);
+			for (short element : array) {
+				this.out.writeShort(element);
+			}
+		}
+		else if (value instanceof float[]) {
+			float[] array = (float[]) value;
+			this.out.writeByte('F');
+			this.out.writeInt(array.length);
+			for (float element : array) {
+				this.out.writeFloat(element);
+			}
+		}
+		else {
+			double[] array = (double[]) value;
+			this.out.writeByte('D');
+			this.out.writeInt(array.length);
+			for (double element : array) {
+				this.out.writeDouble(element);
+			}
+		}
+	}
+
+
+	/**
+	 * Replay the given recorded events against the given class visitor.
+	 * @param in the recorded events, as returned by {@link #getRecordedEvents()}
+	 * @param visitor the visitor to pass the events to
+	 * @throws IOException if the recorded events cannot be read
+	 */
+	public static void replay(DataInput in, ClassVisitor visitor) throws IOException {
+		for (;;) {
+			byte tag = in.readByte();
+			switch (tag) {
+				case END:
+					visitor.visitEnd();
+					return;
+				case CLASS_HEADER:
+					int version = in.readInt();
+					int access = in.readInt();
+					String name = in.readUTF();
+					String superName = readNullableString(in);
+					String[] interfaces = new String[readLength(in)];
+					for (int i = 0; i < interfaces.length; i++) {
+						interfaces[i] = in.readUTF();
+					}
+					visitor.visit(version, access, name, null, superName, interfaces);
+					break;
+				case OUTER_CLASS:
+					visitor.visitOuterClass(in.readUTF(), readNullableString(in), readNullableString(in));
+					break;
+				case INNER_CLASS:
+					visitor.visitInnerClass(in.readUTF(), readNullableString(in), readNullableString(in), in.readInt());
+					break;
+				case ANNOTATION:
+					replayAnnotation(in, visitor.visitAnnotation(in.readUTF(), in.readBoolean()));
+					break;
+				case METHOD:
+					replayMethod(in, visitor.visitMethod(in.readInt(), in.readUTF(), in.readUTF(), null, null));
+					break;
+				default:
+					throw new IOException("Unexpected class metadata event: " + tag);
+			}
+		}
+	}
+
+	private static void replayMethod(DataInput in, MethodVisitor visitor) throws IOException {
+		for (;;) {
+			byte tag = in.readByte();
+			if (tag == END) {
+				if (visitor != null) {
+					visitor.visitEnd();
+				}
+				return;
+			}
+			if (tag != ANNOTATION) {
+				throw new IOException("Unexpected method metadata event: " + tag);
+			}
+			String desc = in.readUTF();
+			boolean visible = in.readBoolean();
+			replayAnnotation(in, visitor != null ? visitor.visitAnnotation(desc, visible) : null);
+		}
+	}
+
+	private static void replayAnnotation(DataInput in, AnnotationVisitor visitor) throws IOException {
+		for (;;) {
+			byte tag = in.readByte();
+			switch (tag) {
+				case END:
+					if (visitor != null) {
+						visitor.visitEnd();
+					}
+					return;
+				case VALUE:
+					String name = readNullableString(in);
+					Object value = readValue(in);
+					if (visitor != null) {
+						visitor.visit(name, value);
+					}
+					break;
+				case ENUM_VALUE:
+					name = readNullableString(in);
+					String desc = in.readUTF();
+					String enumValue = in.readUTF();
+					if (visitor != null) {
+						visitor.visitEnum(name, desc, enumValue);
+					}
+					break;
+				case NESTED_ANNOTATION:
+					name = readNullableString(in);
+					desc = in.readUTF();
+					replayAnnotation(in, visitor != null ? visitor.visitAnnotation(name, desc) : null);
+					break;
+				case ARRAY:
+					name = readNullableString(in);
+					replayAnnotation(in, visitor != null ? visitor.visitArray(name) : null);
+					break;
+				default:
+					throw new IOException("Unexpected annotation metadata event: " + tag);
+			}
+		}
+	}
+
+	/**
+	 * Read the number of elements of an array, rejecting a corrupt value
+	 * before it gets used for allocating the array.
+	 */
+	private static int readLength(DataInput in) throws IOException {
+		int length = in.readInt();
+		// Every element takes at least one byte of the remaining input
+		if (length < 0 || (in instanceof InputStream && length > ((InputStream) in).available())) {
+			throw new IOException("Invalid array length in class metadata: " + length);
+		}
+		return length;
+	}
+
+	private static String readNullableString(DataInput in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	private static Object readValue(DataInput in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+			case 's': return in.readUTF();
+			case 'T': return Type.getType(in.readUTF());
+			case 'I': return in.readInt();
+			case 'Z': return in.readBoolean();
+			case 'J': return in.readLong();
+			case 'B': return in.readByte();
+			case 'C': return in.readChar();
+			case 'S': return in.readShort();
+			case 'F': return in.readFloat();
+			case 'D': return in.readDouble();
+			case '[': return readPrimitiveArray(in);
+			default: throw new IOException("Unexpected annotation value type: " + type);
+		}
+	}
+
+	private static Object readPrimitiveArray(DataInput in) throws IOException {
+		byte componentType = in.readByte();
+		int length = readLength(in);
+		switch (componentType) {
+			case 'I':
+				int[] ints = new int[length];
+				for (int i = 0; i < length; i++) {
+					ints[i] = in.readInt();
+				}
+				return ints;
+			case 'Z':
+				boolean[] booleans = new boolean[length];
+				for (int i = 0; i < length; i++) {
+					booleans[i] = in.readBoolean();
+				}
+				return booleans;
+			case 'J':
+				long[] longs = new long[length];
+				for (int i = 0; i < length; i++) {
+					longs[i] = in.readLong();
+				}
+				return longs;
+			case 'B':
+				byte[] bytes = new byte[length];
+				in.readFully(bytes);
+				return bytes;
+			case 'C':
+				char[] chars = new char[length];
+				for (int i = 0; i < length; i++) {
+					chars[i] = in.readChar();
+				}
+				return chars;
+			case 'S':
+				short[] shorts = new short[length];
+				for (int i = 0; i < length; i++) {
+					shorts[i] = in.readShort();
+				}
+				return shorts;
+			case 'F':
+				float[] floats = new float[length];
+				for (int i = 0; i < length; i++) {
+					floats[i] = in.readFloat();
+				}
+				return floats;
+			case 'D':
+				double[] doubles = new double[length];
+				for (int i = 0; i < length; i++) {
+					doubles[i] = in.readDouble();
+				}
+				return doubles;
+			default:
+				throw new IOException("Unexpected annotation array component type: " + componentType);
+		}
+	}
+
+
+	/**
+	 * Records the annotations of a method, writing the method header lazily
+	 * since methods without annotations do not contribute any metadata.
+	 */
+	private class RecordingMethodVisitor extends MethodVisitor {
+
+		private final int access;
+
+		private final String name;
+
+		private final String desc;
+
+		private boolean headerWritten;
+
+		public RecordingMethodVisitor(MethodVisitor delegate, int access, String name, String desc) {
+			super(SpringAsmInfo.ASM_VERSION, delegate);
+			this.access = access;
+			this.name = name;
+			this.desc = desc;
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+			AnnotationVisitor delegate = super.visitAnnotation(desc, visible);
+			try {
+				if (!this.headerWritten) {
+					out.writeByte(METHOD);
+					out.writeInt(this.access);
+					out.writeUTF(this.name);
+					out.writeUTF(this.desc);
+					this.headerWritten = true;
+				}
+				out.writeByte(ANNOTATION);
+				out.writeUTF(desc);
+				out.writeBoolean(visible);
+			}
+			catch (IOException ex) {
+				recordable = false;
+			}
+			return new RecordingAnnotationVisitor(delegate);
+		}
+
+		@Override
+		public void visitEnd() {
+			super.visitEnd();
+			if (this.headerWritten) {
+				try {
+					out.writeByte(END);
+				}
+				catch (IOException ex) {
+					recordable = false;
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Records annotation values, including nested annotations and arrays.
+	 */
+	private class RecordingAnnotationVisitor extends AnnotationVisitor {
+
+		public RecordingAnnotationVisitor(AnnotationVisitor delegate) {
+			super(SpringAsmInfo.ASM_VERSION, delegate);
+		}
+
+		@Override
+		public void visit(String name, Object value) {
+			super.visit(name, value);
+			try {
+				out.writeByte(VALUE);
+				writeNullableString(name);
+				writeValue(value);
+			}
+			catch (IOException ex) {
+				recordable = false;
+			}
+		}
+
+		@Override
+		public void visitEnum(String name, String desc, String value) {
+			super.visitEnum(name, desc, value);
+			try {
+				out.writeByte(ENUM_VALUE);
+				writeNullableString(name);
+				out.writeUTF(desc);
+				out.writeUTF(value);
+			}
+			catch (IOException ex) {
+				recordable = false;
+			}
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String name, String desc) {
+			AnnotationVisitor delegate = super.visitAnnotation(name, desc);
+			try {
+				out.writeByte(NESTED_ANNOTATION);
+				writeNullableString(name);
+				out.writeUTF(desc);
+			}
+			catch (IOException ex) {
+				recordable = false;
+			}
+			return new RecordingAnnotationVisitor(delegate);
+		}
+
+		@Override
+		public AnnotationVisitor visitArray(String name) {
+			AnnotationVisitor delegate = super.visitArray(name);
+			try {
+				out.writeByte(ARRAY);
+				writeNullableString(name);
+			}
+			catch (IOException ex) {
+				recordable = false;
+			}
+			return new RecordingAnnotationVisitor(delegate);
+		}
+
+		@Override
+		public void visitEnd() {
+			super.visitEnd();
+			try {
+				out.writeByte(END);
+			}
+			catch (IOException ex) {
+				recordable = false;
+			}
+		}
+	}
+
+}
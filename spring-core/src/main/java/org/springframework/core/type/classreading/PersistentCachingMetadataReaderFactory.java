@@ -0,0 +1,364 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.Assert;
+
+/**
+ * Extension of {@link CachingMetadataReaderFactory} which keeps the class metadata
+ * in a file as well, allowing it to be reused across restarts of the application.
+ *
+ * <p>For every class file parsed via ASM, the events relevant to class and annotation
+ * metadata are recorded in a compact binary format, keyed by the URL of the class file
+ * resource along with its last-modified timestamp. On {@link #writeCache()}, all entries
+ * used since this factory has been created are written to the cache file. A subsequently
+ * created factory reads that file in one go and replays the recorded events for unchanged
+ * class files, skipping the reading and parsing of the class files themselves. Class
+ * files with a different timestamp, as well as resources without a resolvable URL or
+ * timestamp, are parsed via ASM as usual.
+ *
+ * <p>The resulting metadata is equivalent to a regular parse, including the resolution
+ * of annotation defaults and meta-annotations against the current class loader. An
+ * unreadable or outdated cache file is simply ignored and overwritten on the next
+ * {@code writeCache()} call.
+ *
+ * @since 4.3.1
+ * @see #writeCache()
+ */
+public class PersistentCachingMetadataReaderFactory extends CachingMetadataReaderFactory {
+
+	private static final int FILE_MAGIC = 0x534d4443;
+
+	private static final int FILE_FORMAT_VERSION = 1;
+
+	private static final Log logger = LogFactory.getLog(PersistentCachingMetadataReaderFactory.class);
+
+
+	private final File cacheFile;
+
+	private final Map<String, CacheEntry> loadedEntries;
+
+	private final Map<String, CacheEntry> usedEntries = new ConcurrentHashMap<String, CacheEntry>(256);
+
+	private final AtomicLong persistentHitCount = new AtomicLong();
+
+	private final AtomicLong persistentMissCount = new AtomicLong();
+
+
+	/**
+	 * Create a new PersistentCachingMetadataReaderFactory for the default class loader.
+	 * @param cacheFile the file to load cached metadata from and to write it to
+	 */
+	public PersistentCachingMetadataReaderFactory(File cacheFile) {
+		super();
+		this.cacheFile = cacheFile;
+		this.loadedEntries = loadCacheFile(cacheFile);
+	}
+
+	/**
+	 * Create a new PersistentCachingMetadataReaderFactory for the given resource loader.
+	 * @param resourceLoader the Spring ResourceLoader to use
+	 * (also determines the ClassLoader to use)
+	 * @param cacheFile the file to load cached metadata from and to write it to
+	 */
+	public PersistentCachingMetadataReaderFactory(ResourceLoader resourceLoader, File cacheFile) {
+		super(resourceLoader);
+		this.cacheFile = cacheFile;
+		this.loadedEntries = loadCacheFile(cacheFile);
+	}
+
+	/**
+	 * Create a new PersistentCachingMetadataReaderFactory for the given class loader.
+	 * @param classLoader the ClassLoader to use
+	 * @param cacheFile the file to load cached metadata from and to write it to
+	 */
+	public PersistentCachingMetadataReaderFactory(ClassLoader classLoader, File cacheFile) {
+		super(classLoader);
+		this.cacheFile = cacheFile;
+		this.loadedEntries = loadCacheFile(cacheFile);
+	}
+
+
+	/**
+	 * Return the file that this factory loads cached metadata from and writes it to.
+	 */
+	public File getCacheFile() {
+		return this.cacheFile;
+	}
+
+	/**
+	 * Return the number of class files whose metadata has been restored from the cache file.
+	 */
+	public long getPersistentCacheHitCount() {
+		return this.persistentHitCount.get();
+	}
+
+	/**
+	 * Return the number of class files which had to be parsed since they were not
+	 * present in the cache file, or had been modified since.
+	 */
+	public long getPersistentCacheMissCount() {
+		return this.persistentMissCount.get();
+	}
+
+
+	@Override
+	protected MetadataReader createMetadataReader(Resource resource) throws IOException {
+		String key;
+		long lastModified;
+		try {
+			key = resource.getURL().toExternalForm();
+			lastModified = resource.lastModified();
+		}
+		catch (IOException ex) {
+			return super.createMetadataReader(resource);
+		}
+
+		ClassLoader classLoader = getResourceLoader().getClassLoader();
+		CacheEntry entry = this.loadedEntries.get(key);
+		if (entry != null && entry.lastModified == lastModified) {
+			AnnotationMetadataReadingVisitor visitor = new AnnotationMetadataReadingVisitor(classLoader);
+			try {
+				MetadataRecordingClassVisitor.replay(
+						new DataInputStream(new ByteBufferInputStream(entry.events.duplicate())), visitor);
+				this.usedEntries.put(key, entry);
+				this.persistentHitCount.incrementAndGet();
+				return new SimpleMetadataReader(resource, visitor);
+			}
+			catch (IOException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Ignoring corrupt cached metadata for " + resource, ex);
+				}
+			}
+			catch (RuntimeException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Ignoring corrupt cached metadata for " + resource, ex);
+				}
+			}
+		}
+
+		this.persistentMissCount.incrementAndGet();
+		AnnotationMetadataReadingVisitor visitor = new AnnotationMetadataReadingVisitor(classLoader);
+		MetadataRecordingClassVisitor recorder = new MetadataRecordingClassVisitor(visitor);
+		SimpleMetadataReader.getClassReader(resource).accept(recorder, ClassReader.SKIP_DEBUG);
+		byte[] events = recorder.getRecordedEvents();
+		if (events != null) {
+			this.usedEntries.put(key, new CacheEntry(lastModified, ByteBuffer.wrap(events)));
+		}
+		return new SimpleMetadataReader(resource, visitor);
+	}
+
+	/**
+	 * Write the metadata of all class files read since the creation of this
+	 * factory to the cache file, replacing its previous content.
+	 * <p>Typically called once the application has been fully started, e.g.
+	 * after the refresh of an application context.
+	 * @throws IOException if the cache file could not be written
+	 */
+	public void writeCache() throws IOException {
+		File parentDir = this.cacheFile.getAbsoluteFile().getParentFile();
+		if (parentDir != null && !parentDir.isDirectory() && !parentDir.mkdirs()) {
+			throw new IOException("Could not create directory for metadata cache file: " + parentDir);
+		}
+		File tempFile = new File(this.cacheFile.getPath() + ".tmp");
+		Map<String, CacheEntry> entries = new HashMap<String, CacheEntry>(this.usedEntries);
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+		try {
+			out.writeInt(FILE_MAGIC);
+			out.writeInt(FILE_FORMAT_VERSION);
+			out.writeInt(entries.size());
+			for (Map.Entry<String, CacheEntry> entry : entries.entrySet()) {
+				ByteBuffer events = entry.getValue().events.duplicate();
+				out.writeUTF(entry.getKey());
+				out.writeLong(entry.getValue().lastModified);
+				out.writeInt(events.remaining());
+				byte[] chunk = new byte[events.remaining()];
+				events.get(chunk);
+				out.write(chunk);
+			}
+		}
+		finally {
+			out.close();
+		}
+		if (!tempFile.renameTo(this.cacheFile)) {
+			// Target file may not be replaceable in place on some platforms
+			if (!this.cacheFile.delete() || !tempFile.renameTo(this.cacheFile)) {
+				tempFile.delete();
+				throw new IOException("Could not replace metadata cache file: " + this.cacheFile);
+			}
+		}
+	}
+
+	/**
+	 * Discard the in-memory cache as well as all cache entries loaded from
+	 * or recorded for the cache file, without touching the file itself.
+	 */
+	@Override
+	public void clearCache() {
+		super.clearCache();
+		this.usedEntries.clear();
+		this.loadedEntries.clear();
+	}
+
+
+	/**
+	 * Read the given cache file into a single buffer and index its entries by resource URL.
+	 * <p>The file is deliberately not memory-mapped: a mapping can only be released through
+	 * garbage collection, and a mapped file cannot be replaced on some platforms (Windows),
+	 * which would break {@link #writeCache()} for the same file.
+	 * @return the entries, or an empty map if the file is absent or unreadable
+	 */
+	private static Map<String, CacheEntry> loadCacheFile(File cacheFile) {
+		Assert.notNull(cacheFile, "Cache file must not be null");
+		Map<String, CacheEntry> entries = new ConcurrentHashMap<String, CacheEntry>(256);
+		if (!cacheFile.isFile()) {
+			return entries;
+		}
+		try {
+			ByteBuffer content;
+			RandomAccessFile file = new RandomAccessFile(cacheFile, "r");
+			try {
+				FileChannel channel = file.getChannel();
+				long size = channel.size();
+				if (size > Integer.MAX_VALUE) {
+					throw new IOException("Metadata cache file too large: " + size + " bytes");
+				}
+				content = ByteBuffer.allocate((int) size);
+				while (content.hasRemaining() && channel.read(content) != -1) {
+				}
+				content.flip();
+			}
+			finally {
+				file.close();
+			}
+			DataInputStream in = new DataInputStream(new ByteBufferInputStream(content.duplicate()));
+			if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_FORMAT_VERSION) {
+				logger.info("Ignoring metadata cache file in unsupported format: " + cacheFile);
+				return entries;
+			}
+			int count = in.readInt();
+			int position = 12;
+			for (int i = 0; i < count; i++) {
+				ByteBuffer header = content.duplicate();
+				header.position(position);
+				in = new DataInputStream(new ByteBufferInputStream(header));
+				String key = in.readUTF();
+				long lastModified = in.readLong();
+				int length = in.readInt();
+				ByteBuffer events = header.slice();
+				if (length < 0 || length > events.remaining()) {
+					throw new IOException("Truncated entry for " + key);
+				}
+				events.limit(length);
+				entries.put(key, new CacheEntry(lastModified, events));
+				position = header.position() + length;
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded metadata for " + count + " class files from " + cacheFile);
+			}
+			return entries;
+		}
+		catch (IOException ex) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Ignoring unreadable metadata cache file " + cacheFile + ": " + ex);
+			}
+			entries.clear();
+			return entries;
+		}
+		catch (RuntimeException ex) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Ignoring corrupt metadata cache file " + cacheFile + ": " + ex);
+			}
+			entries.clear();
+			return entries;
+		}
+	}
+
+
+	/**
+	 * Recorded metadata events for a class file with a given timestamp.
+	 */
+	private static class CacheEntry {
+
+		final long lastModified;
+
+		final ByteBuffer events;
+
+		public CacheEntry(long lastModified, ByteBuffer events) {
+			this.lastModified = lastModified;
+			this.events = events;
+		}
+	}
+
+
+	/**
+	 * {@code InputStream} reading the remaining content of a {@code ByteBuffer}.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		public ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return (this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			len = Math.min(len, this.buffer.remaining());
+			this.buffer.get(bytes, off, len);
+			return len;
+		}
+
+		@Override
+		public int available() {
+			return this.buffer.remaining();
+		}
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.util;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -366,6 +367,34 @@ public class AntPathMatcher implements PathMatcher {
 		return false;
 	}
 
+	/**
+	 * Precompile the given patterns into an {@link AntPathPatternSet} that matches
+	 * a path against all of them in a single pass, following this matcher's
+	 * current path separator, case sensitivity and token trimming settings.
+	 * <p>This is preferable over repeated {@link #match} calls for a fixed set of
+	 * patterns such as handler mappings or resource locations, and independent of
+	 * this matcher's pattern cache (see {@link #setCachePatterns}).
+	 * @param patterns the patterns to compile
+	 * @return the compiled pattern set
+	 * @since 4.3.1
+	 */
+	public AntPathPatternSet compilePatterns(Collection<String> patterns) {
+		return new AntPathPatternSet(patterns, this.pathSeparator, this.caseSensitive, this.trimTokens);
+	}
+
+	/**
+	 * Determine whether the given pattern set has been compiled with this matcher's
+	 * current path separator, case sensitivity and token trimming settings, i.e.
+	 * whether it still matches like this matcher after a change of its settings.
+	 * @param patternSet a pattern set compiled via {@link #compilePatterns}
+	 * @return {@code true} if the pattern set follows the current settings,
+	 * {@code false} if it needs to be compiled again
+	 * @since 4.3.1
+	 */
+	public boolean isCompiledWithCurrentSettings(AntPathPatternSet patternSet) {
+		return patternSet.hasSettings(this.pathSeparator, this.caseSensitive, this.trimTokens);
+	}
+
 	/**
 	 * Tokenize the given path pattern into parts, based on this matcher's settings.
 	 * <p>Performs caching based on {@link #setCachePatterns}, delegating to
@@ -676,7 +705,18 @@ public class AntPathMatcher implements PathMatcher {
 		 * @return {@code true} if the string matches against the pattern, or {@code false} otherwise.
 		 */
 		public boolean matchStrings(String str, Map<String, String> uriTemplateVariables) {
+			return matchRegion(str, 0, str.length(), uriTemplateVariables);
+		}
+
+		/**
+		 * Match the given region of a string against the pattern,
+		 * without extracting the region as a separate string.
+		 * @since 4.3.1
+		 * @see #matchStrings
+		 */
+		boolean matchRegion(String str, int start, int end, Map<String, String> uriTemplateVariables) {
 			Matcher matcher = this.pattern.matcher(str);
+			matcher.region(start, end);
 			if (matcher.matches()) {
 				if (uriTemplateVariables != null) {
 					// SPR-8455
@@ -0,0 +1,668 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of Ant-style path patterns, precompiled into a segment trie so that
+ * a path can be matched against all of them in a single pass.
+ *
+ * <p>Instances are obtained from {@link AntPathMatcher#compilePatterns} and
+ * follow the matching rules of the originating {@link AntPathMatcher}, including
+ * its path separator, case sensitivity and token trimming settings. In contrast
+ * to {@link AntPathMatcher#match}, patterns are tokenized once at construction
+ * time, common pattern prefixes are only evaluated once per path, and path segments
+ * are matched in place: literal segments are looked up by hash and "*"/"?" segments
+ * are matched without any allocation, while segments with URI template variables
+ * are matched by a regular expression applied to their region of the path.
+ *
+ * <p>Instances are immutable and therefore thread-safe.
+ *
+ * @since 4.3.1
+ * @see AntPathMatcher#compilePatterns(Collection)
+ */
+public class AntPathPatternSet {
+
+	private static final String DOUBLE_WILDCARD = "**";
+
+
+	private final String pathSeparator;
+
+	private final boolean caseSensitive;
+
+	private final boolean trimTokens;
+
+	private final String[] patterns;
+
+	private final boolean[] doubleWildcardPatterns;
+
+	private final boolean[] separatorTerminatedPatterns;
+
+	private final Node absoluteRoot = new Node();
+
+	private final Node relativeRoot = new Node();
+
+
+	AntPathPatternSet(Collection<String> patterns, String pathSeparator, boolean caseSensitive, boolean trimTokens) {
+		Assert.notNull(patterns, "Patterns must not be null");
+		this.pathSeparator = pathSeparator;
+		this.caseSensitive = caseSensitive;
+		this.trimTokens = trimTokens;
+		this.patterns = patterns.toArray(new String[patterns.size()]);
+		this.doubleWildcardPatterns = new boolean[this.patterns.length];
+		this.separatorTerminatedPatterns = new boolean[this.patterns.length];
+		for (int i = 0; i < this.patterns.length; i++) {
+			String pattern = this.patterns[i];
+			Assert.notNull(pattern, "Patterns must not contain null elements");
+			Node node = (pattern.startsWith(pathSeparator) ? this.absoluteRoot : this.relativeRoot);
+			String[] segments = StringUtils.tokenizeToStringArray(pattern, pathSeparator, trimTokens, true);
+			for (String segment : segments) {
+				if (DOUBLE_WILDCARD.equals(segment)) {
+					node = node.getOrCreateDoubleWildcardChild();
+					this.doubleWildcardPatterns[i] = true;
+				}
+				else if (segment.indexOf('*') != -1 || segment.indexOf('?') != -1 || segment.indexOf('{') != -1) {
+					node = node.getOrCreateWildcardChild(segment, caseSensitive);
+				}
+				else {
+					node = node.getOrCreateLiteralChild(segment, caseSensitive);
+				}
+			}
+			this.separatorTerminatedPatterns[i] = pattern.endsWith(pathSeparator);
+			node.addTerminal(i);
+		}
+	}
+
+
+	/**
+	 * Return the patterns in this set, in registration order.
+	 */
+	public List<String> getPatterns() {
+		return Collections.unmodifiableList(Arrays.asList(this.patterns));
+	}
+
+	/**
+	 * Return whether this set contains no patterns at all.
+	 */
+	public boolean isEmpty() {
+		return (this.patterns.length == 0);
+	}
+
+	/**
+	 * Determine whether this set has been compiled with the given settings.
+	 * @see AntPathMatcher#isCompiledWithCurrentSettings
+	 */
+	boolean hasSettings(String pathSeparator, boolean caseSensitive, boolean trimTokens) {
+		return (this.pathSeparator.equals(pathSeparator) && this.caseSensitive == caseSensitive &&
+				this.trimTokens == trimTokens);
+	}
+
+	/**
+	 * Determine whether any of the patterns in this set matches the given path.
+	 * @param path the path to match
+	 * @return {@code true} if at least one pattern matches
+	 */
+	public boolean matchesAny(String path) {
+		return (!getMatchingPatterns(path).isEmpty());
+	}
+
+	/**
+	 * Return all patterns in this set that match the given path,
+	 * in registration order.
+	 * @param path the path to match
+	 * @return the matching patterns (never {@code null})
+	 */
+	public List<String> getMatchingPatterns(String path) {
+		MatchContext context = matchInternal(path, false);
+		if (context.matchCount == 0) {
+			return Collections.emptyList();
+		}
+		List<String> result = new ArrayList<String>(context.matchCount);
+		for (int i = 0; i < this.patterns.length; i++) {
+			if (context.matched[i]) {
+				result.add(this.patterns[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Match the given path against all patterns in this set, extracting the
+	 * URI template variables for each matching pattern along the way.
+	 * @param path the path to match
+	 * @return a {@link PatternMatch} for each matching pattern, in registration
+	 * order (never {@code null})
+	 */
+	public List<PatternMatch> match(String path) {
+		MatchContext context = matchInternal(path, true);
+		if (context.matchCount == 0) {
+			return Collections.emptyList();
+		}
+		List<PatternMatch> result = new ArrayList<PatternMatch>(context.matchCount);
+		for (int i = 0; i < this.patterns.length; i++) {
+			if (context.matched[i]) {
+				result.add(new PatternMatch(this.patterns[i], context.variables.get(i)));
+			}
+		}
+		return result;
+	}
+
+	private MatchContext matchInternal(String path, boolean extractVariables) {
+		MatchContext context = new MatchContext(path, extractVariables);
+		Node root = (path.startsWith(this.pathSeparator) ? this.absoluteRoot : this.relativeRoot);
+		if (!root.isEmpty()) {
+			context.tokenize(this.pathSeparator, this.trimTokens);
+			match(root, 0, false, context);
+		}
+		return context;
+	}
+
+	private void match(Node node, int segmentIndex, boolean afterDoubleWildcard, MatchContext context) {
+		if (segmentIndex == context.segmentCount) {
+			matchExhaustedPath(node, afterDoubleWildcard, context);
+			return;
+		}
+
+		int start = context.segmentStarts[segmentIndex];
+		int end = context.segmentEnds[segmentIndex];
+
+		Node literalChild = node.getLiteralChild(context.path, start, end, this.caseSensitive);
+		if (literalChild != null) {
+			match(literalChild, segmentIndex + 1, afterDoubleWildcard, context);
+		}
+
+		for (int i = 0; i < node.wildcardChildCount; i++) {
+			Node wildcardChild = node.wildcardChildren[i];
+			if (wildcardChild.segmentMatcher.matches(context.path, start, end)) {
+				context.pushCapture(wildcardChild.segmentMatcher, start, end);
+				match(wildcardChild, segmentIndex + 1, afterDoubleWildcard, context);
+				context.popCapture();
+			}
+		}
+
+		if (node.doubleWildcardChild != null) {
+			// "**" matches zero or more segments
+			for (int next = segmentIndex; next <= context.segmentCount; next++) {
+				match(node.doubleWildcardChild, next, true, context);
+			}
+		}
+	}
+
+	private void matchExhaustedPath(Node node, boolean afterDoubleWildcard, MatchContext context) {
+		boolean pathEndsWithSeparator = context.path.endsWith(this.pathSeparator);
+		for (int i = 0; i < node.terminalCount; i++) {
+			int patternIndex = node.terminals[i];
+			// Without any "**" involved, a trailing separator has to be present on both sides or on neither
+			if (afterDoubleWildcard || this.doubleWildcardPatterns[patternIndex] ||
+					this.separatorTerminatedPatterns[patternIndex] == pathEndsWithSeparator) {
+				context.addMatch(patternIndex);
+			}
+		}
+		if (!afterDoubleWildcard && pathEndsWithSeparator) {
+			// A pattern ending with a single "*" also matches a path ending with a separator
+			Node starChild = node.getWildcardChild("*");
+			if (starChild != null) {
+				for (int i = 0; i < starChild.terminalCount; i++) {
+					int patternIndex = starChild.terminals[i];
+					if (!this.doubleWildcardPatterns[patternIndex]) {
+						context.addMatch(patternIndex);
+					}
+				}
+			}
+		}
+		if (node.doubleWildcardChild != null) {
+			matchExhaustedPath(node.doubleWildcardChild, true, context);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " " + Arrays.toString(this.patterns);
+	}
+
+
+	/**
+	 * A pattern that matched a path, along with the URI template variables
+	 * extracted from the path.
+	 */
+	public static class PatternMatch {
+
+		private final String pattern;
+
+		private final Map<String, String> uriTemplateVariables;
+
+		PatternMatch(String pattern, Map<String, String> uriTemplateVariables) {
+			this.pattern = pattern;
+			this.uriTemplateVariables = (uriTemplateVariables != null ?
+					Collections.unmodifiableMap(uriTemplateVariables) : Collections.<String, String>emptyMap());
+		}
+
+		/**
+		 * Return the matching pattern.
+		 */
+		public String getPattern() {
+			return this.pattern;
+		}
+
+		/**
+		 * Return the URI template variables extracted from the path
+		 * (never {@code null}, possibly empty).
+		 */
+		public Map<String, String> getUriTemplateVariables() {
+			return this.uriTemplateVariables;
+		}
+
+		@Override
+		public String toString() {
+			return this.pattern + " " + this.uriTemplateVariables;
+		}
+	}
+
+
+	/**
+	 * A node in the pattern trie, representing a position after a
+	 * number of pattern segments.
+	 */
+	private static class Node {
+
+		private final SegmentMatcher segmentMatcher;
+
+		private String[] literalKeys;
+
+		private Node[] literalChildren;
+
+		private int literalChildCount;
+
+		private Node[] wildcardChildren = new Node[0];
+
+		private int wildcardChildCount;
+
+		private Node doubleWildcardChild;
+
+		private int[] terminals = new int[0];
+
+		private int terminalCount;
+
+		Node() {
+			this.segmentMatcher = null;
+		}
+
+		Node(SegmentMatcher segmentMatcher) {
+			this.segmentMatcher = segmentMatcher;
+		}
+
+		boolean isEmpty() {
+			return (this.literalChildCount == 0 && this.wildcardChildCount == 0 &&
+					this.doubleWildcardChild == null && this.terminalCount == 0);
+		}
+
+		Node getOrCreateDoubleWildcardChild() {
+			if (this.doubleWildcardChild == null) {
+				this.doubleWildcardChild = new Node();
+			}
+			return this.doubleWildcardChild;
+		}
+
+		Node getOrCreateWildcardChild(String segment, boolean caseSensitive) {
+			Node child = getWildcardChild(segment);
+			if (child == null) {
+				SegmentMatcher matcher = (segment.indexOf('{') != -1 ?
+						new TemplateSegmentMatcher(segment, caseSensitive) :
+						new GlobSegmentMatcher(segment, caseSensitive));
+				child = new Node(matcher);
+				if (this.wildcardChildCount == this.wildcardChildren.length) {
+					this.wildcardChildren = Arrays.copyOf(this.wildcardChildren, this.wildcardChildCount * 2 + 1);
+				}
+				this.wildcardChildren[this.wildcardChildCount++] = child;
+			}
+			return child;
+		}
+
+		Node getWildcardChild(String segment) {
+			for (int i = 0; i < this.wildcardChildCount; i++) {
+				if (this.wildcardChildren[i].segmentMatcher.getSegment().equals(segment)) {
+					return this.wildcardChildren[i];
+				}
+			}
+			return null;
+		}
+
+		Node getOrCreateLiteralChild(String segment, boolean caseSensitive) {
+			Node child = getLiteralChild(segment, 0, segment.length(), caseSensitive);
+			if (child == null) {
+				if (this.literalKeys == null) {
+					this.literalKeys = new String[8];
+					this.literalChildren = new Node[8];
+				}
+				else if ((this.literalChildCount + 1) * 2 > this.literalKeys.length) {
+					String[] keys = this.literalKeys;
+					Node[] children = this.literalChildren;
+					this.literalKeys = new String[keys.length * 2];
+					this.literalChildren = new Node[keys.length * 2];
+					for (int i = 0; i < keys.length; i++) {
+						if (keys[i] != null) {
+							insertLiteral(keys[i], children[i], caseSensitive);
+						}
+					}
+				}
+				child = new Node();
+				insertLiteral(segment, child, caseSensitive);
+				this.literalChildCount++;
+			}
+			return child;
+		}
+
+		private void insertLiteral(String segment, Node child, boolean caseSensitive) {
+			int mask = this.literalKeys.length - 1;
+			int index = hash(segment, 0, segment.length(), caseSensitive) & mask;
+			while (this.literalKeys[index] != null) {
+				index = (index + 1) & mask;
+			}
+			this.literalKeys[index] = segment;
+			this.literalChildren[index] = child;
+		}
+
+		Node getLiteralChild(String path, int start, int end, boolean caseSensitive) {
+			if (this.literalKeys == null) {
+				return null;
+			}
+			int length = end - start;
+			int mask = this.literalKeys.length - 1;
+			int index = hash(path, start, end, caseSensitive) & mask;
+			String key;
+			while ((key = this.literalKeys[index]) != null) {
+				if (key.length() == length && regionMatches(key, path, start, length, caseSensitive)) {
+					return this.literalChildren[index];
+				}
+				index = (index + 1) & mask;
+			}
+			return null;
+		}
+
+		void addTerminal(int patternIndex) {
+			if (this.terminalCount == this.terminals.length) {
+				this.terminals = Arrays.copyOf(this.terminals, this.terminalCount * 2 + 1);
+			}
+			this.terminals[this.terminalCount++] = patternIndex;
+		}
+
+		private static int hash(String str, int start, int end, boolean caseSensitive) {
+			int hash = 0;
+			for (int i = start; i < end; i++) {
+				char c = str.charAt(i);
+				hash = 31 * hash + (caseSensitive ? c : toLowerCaseAscii(c));
+			}
+			return hash ^ (hash >>> 16);
+		}
+	}
+
+
+	/**
+	 * Strategy for matching a single path segment against a pattern segment.
+	 */
+	private interface SegmentMatcher {
+
+		String getSegment();
+
+		boolean matches(String path, int start, int end);
+
+		void extractVariables(String path, int start, int end, Map<String, String> variables);
+	}
+
+
+	/**
+	 * Matches a segment with "*" and "?" wildcards without any allocation.
+	 */
+	private static class GlobSegmentMatcher implements SegmentMatcher {
+
+		private final String segment;
+
+		private final boolean caseSensitive;
+
+		GlobSegmentMatcher(String segment, boolean caseSensitive) {
+			this.segment = segment;
+			this.caseSensitive = caseSensitive;
+		}
+
+		@Override
+		public String getSegment() {
+			return this.segment;
+		}
+
+		@Override
+		public boolean matches(String path, int start, int end) {
+			String glob = this.segment;
+			int globLength = glob.length();
+			int globIndex = 0;
+			int pathIndex = start;
+			int starIndex = -1;
+			int starPathIndex = start;
+			while (pathIndex < end) {
+				if (globIndex < globLength) {
+					char g = glob.charAt(globIndex);
+					if (g == '*') {
+						starIndex = globIndex++;
+						starPathIndex = pathIndex;
+						continue;
+					}
+					char c = path.charAt(pathIndex);
+					if (g == '?' ? !isLineTerminator(c) : charsMatch(g, c, this.caseSensitive)) {
+						globIndex++;
+						pathIndex++;
+						continue;
+					}
+				}
+				// Let the last "*" absorb one more character, unless it is a line terminator
+				// (like "." in the regular expression that AntPathMatcher translates "*" to)
+				if (starIndex == -1 || isLineTerminator(path.charAt(starPathIndex))) {
+					return false;
+				}
+				globIndex = starIndex + 1;
+				pathIndex = ++starPathIndex;
+			}
+			while (globIndex < globLength && glob.charAt(globIndex) == '*') {
+				globIndex++;
+			}
+			return (globIndex == globLength);
+		}
+
+		@Override
+		public void extractVariables(String path, int start, int end, Map<String, String> variables) {
+		}
+	}
+
+
+	/**
+	 * Matches a segment with URI template variables, delegating to the
+	 * regular expression based {@link AntPathMatcher.AntPathStringMatcher}
+	 * for the region of the path that the segment spans.
+	 */
+	private static class TemplateSegmentMatcher implements SegmentMatcher {
+
+		private final String segment;
+
+		private final AntPathMatcher.AntPathStringMatcher stringMatcher;
+
+		TemplateSegmentMatcher(String segment, boolean caseSensitive) {
+			this.segment = segment;
+			this.stringMatcher = new AntPathMatcher.AntPathStringMatcher(segment, caseSensitive);
+		}
+
+		@Override
+		public String getSegment() {
+			return this.segment;
+		}
+
+		@Override
+		public boolean matches(String path, int start, int end) {
+			return this.stringMatcher.matchRegion(path, start, end, null);
+		}
+
+		@Override
+		public void extractVariables(String path, int start, int end, Map<String, String> variables) {
+			this.stringMatcher.matchRegion(path, start, end, variables);
+		}
+	}
+
+
+	/**
+	 * State of a single match operation: the tokenized path, the wildcard
+	 * segments matched on the current trie branch, and the results so far.
+	 */
+	private class MatchContext {
+
+		final String path;
+
+		final boolean extractVariables;
+
+		int segmentCount;
+
+		int[] segmentStarts;
+
+		int[] segmentEnds;
+
+		SegmentMatcher[] captureMatchers;
+
+		int[] captureStarts;
+
+		int[] captureEnds;
+
+		int captureCount;
+
+		boolean[] matched;
+
+		List<Map<String, String>> variables;
+
+		int matchCount;
+
+		MatchContext(String path, boolean extractVariables) {
+			this.path = path;
+			this.extractVariables = extractVariables;
+		}
+
+		void tokenize(String delimiters, boolean trimTokens) {
+			int length = this.path.length();
+			this.segmentStarts = new int[8];
+			this.segmentEnds = new int[8];
+			int index = 0;
+			while (index < length) {
+				while (index < length && delimiters.indexOf(this.path.charAt(index)) != -1) {
+					index++;
+				}
+				int start = index;
+				while (index < length && delimiters.indexOf(this.path.charAt(index)) == -1) {
+					index++;
+				}
+				int end = index;
+				if (trimTokens) {
+					while (start < end && this.path.charAt(start) <= ' ') {
+						start++;
+					}
+					while (end > start && this.path.charAt(end - 1) <= ' ') {
+						end--;
+					}
+				}
+				if (start < end) {
+					if (this.segmentCount == this.segmentStarts.length) {
+						this.segmentStarts = Arrays.copyOf(this.segmentStarts, this.segmentCount * 2);
+						this.segmentEnds = Arrays.copyOf(this.segmentEnds, this.segmentCount * 2);
+					}
+					this.segmentStarts[this.segmentCount] = start;
+					this.segmentEnds[this.segmentCount] = end;
+					this.segmentCount++;
+				}
+			}
+			if (this.extractVariables) {
+				this.captureMatchers = new SegmentMatcher[this.segmentCount];
+				this.captureStarts = new int[this.segmentCount];
+				this.captureEnds = new int[this.segmentCount];
+			}
+		}
+
+		void pushCapture(SegmentMatcher matcher, int start, int end) {
+			if (this.extractVariables) {
+				this.captureMatchers[this.captureCount] = matcher;
+				this.captureStarts[this.captureCount] = start;
+				this.captureEnds[this.captureCount] = end;
+				this.captureCount++;
+			}
+		}
+
+		void popCapture() {
+			if (this.extractVariables) {
+				this.captureCount--;
+			}
+		}
+
+		void addMatch(int patternIndex) {
+			if (this.matched == null) {
+				this.matched = new boolean[patterns.length];
+				if (this.extractVariables) {
+					this.variables = new ArrayList<Map<String, String>>(
+							Collections.<Map<String, String>>nCopies(patterns.length, null));
+				}
+			}
+			if (this.matched[patternIndex]) {
+				return;
+			}
+			this.matched[patternIndex] = true;
+			this.matchCount++;
+			if (this.extractVariables) {
+				Map<String, String> vars = new LinkedHashMap<String, String>();
+				for (int i = 0; i < this.captureCount; i++) {
+					this.captureMatchers[i].extractVariables(this.path, this.captureStarts[i], this.captureEnds[i], vars);
+				}
+				this.variables.set(patternIndex, vars);
+			}
+		}
+	}
+
+
+	private static boolean regionMatches(String key, String path, int start, int length, boolean caseSensitive) {
+		for (int i = 0; i < length; i++) {
+			if (!charsMatch(key.charAt(i), path.charAt(start + i), caseSensitive)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean charsMatch(char patternChar, char pathChar, boolean caseSensitive) {
+		return (patternChar == pathChar ||
+				(!caseSensitive && toLowerCaseAscii(patternChar) == toLowerCaseAscii(pathChar)));
+	}
+
+	private static boolean isLineTerminator(char c) {
+		return (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029');
+	}
+
+	/**
+	 * Lower-case ASCII letters only, in line with the (non-Unicode)
+	 * {@link java.util.regex.Pattern#CASE_INSENSITIVE} matching of {@link AntPathMatcher}.
+	 */
+	private static char toLowerCaseAscii(char c) {
+		return (c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+	}
+
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A size-bounded cache for concurrent use, as an alternative to an access-ordered
+ * {@link java.util.LinkedHashMap} with {@code removeEldestEntry} that has to be
+ * guarded by a global lock.
+ *
+ * <p>Reads never lock: a cache hit is a {@link ConcurrentHashMap} lookup plus
+ * bumping a small usage count on the entry. Eviction follows a generalized CLOCK
+ * algorithm as an approximation of least-recently-used order: entries are kept
+ * in insertion order, and an entry whose usage count is still positive when it
+ * reaches the head of the queue gets its count decremented and moves to the back
+ * of the queue instead of being evicted. Entries that are read repeatedly are
+ * therefore protected from being displaced by a burst of one-off insertions.
+ * Only writers that push the cache beyond its capacity synchronize on the
+ * eviction queue.
+ *
+ * <p>Hit, miss and eviction counts are tracked for monitoring purposes,
+ * with hit and miss counters striped across threads in order to not introduce
+ * a contention point on the read path.
+ *
+ * <p>Neither keys nor values may be {@code null}. Subclasses may override
+ * {@link #onEviction} in order to react to entries being evicted.
+ *
+ * @since 4.3.1
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private static final int MAX_USAGE = 3;
+
+
+	private final ConcurrentMap<K, Node<K, V>> cache;
+
+	private final Queue<Node<K, V>> evictionQueue = new ConcurrentLinkedQueue<Node<K, V>>();
+
+	private final AtomicInteger staleNodeCount = new AtomicInteger();
+
+	private final StripedCounter hitCount = new StripedCounter();
+
+	private final StripedCounter missCount = new StripedCounter();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	private volatile int capacity;
+
+
+	/**
+	 * Create a new {@code ConcurrentLruCache} with the given capacity.
+	 * @param capacity the maximum number of entries to keep
+	 * (0 indicates no caching at all)
+	 */
+	public ConcurrentLruCache(int capacity) {
+		Assert.isTrue(capacity >= 0, "Capacity must not be negative");
+		this.capacity = capacity;
+		this.cache = new ConcurrentHashMap<K, Node<K, V>>(Math.min(capacity, 1024) * 4 / 3 + 1);
+	}
+
+
+	/**
+	 * Change the maximum number of entries to keep, evicting entries
+	 * right away if the cache currently holds more than that.
+	 * @param capacity the maximum number of entries (0 indicates no caching at all)
+	 */
+	public void setCapacity(int capacity) {
+		Assert.isTrue(capacity >= 0, "Capacity must not be negative");
+		this.capacity = capacity;
+		evictIfNecessary();
+	}
+
+	/**
+	 * Return the maximum number of entries to keep.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Return the value cached for the given key, if any.
+	 * @param key the key to look up
+	 * @return the cached value, or {@code null} if none
+	 */
+	public V get(K key) {
+		Node<K, V> node = this.cache.get(key);
+		if (node == null) {
+			this.missCount.increment();
+			return null;
+		}
+		if (node.usage < MAX_USAGE) {
+			node.usage++;
+		}
+		this.hitCount.increment();
+		return node.value;
+	}
+
+	/**
+	 * Return the value cached for the given key, if any,
+	 * without affecting the eviction order or the hit/miss counts.
+	 * <p>Useful for re-checking the cache after a {@link #get} miss,
+	 * e.g. within a lock guarding the creation of the value.
+	 * @param key the key to look up
+	 * @return the cached value, or {@code null} if none
+	 */
+	public V peek(K key) {
+		Node<K, V> node = this.cache.get(key);
+		return (node != null ? node.value : null);
+	}
+
+	/**
+	 * Determine whether a value is cached for the given key,
+	 * without affecting the eviction order or the hit/miss counts.
+	 */
+	public boolean contains(K key) {
+		return this.cache.containsKey(key);
+	}
+
+	/**
+	 * Cache the given value under the given key, replacing any existing value.
+	 * @param key the key
+	 * @param value the value to cache
+	 * @return the previously cached value, or {@code null} if none
+	 */
+	public V put(K key, V value) {
+		Assert.notNull(key, "Key must not be null");
+		Assert.notNull(value, "Value must not be null");
+		Node<K, V> node = new Node<K, V>(key, value);
+		Node<K, V> previous = this.cache.put(key, node);
+		this.evictionQueue.add(node);
+		if (previous != null) {
+			markStale(previous);
+		}
+		evictIfNecessary();
+		return (previous != null ? previous.value : null);
+	}
+
+	/**
+	 * Cache the given value under the given key unless a value
+	 * is cached for that key already.
+	 * @param key the key
+	 * @param value the value to cache
+	 * @return the value cached for that key previously (which remains in
+	 * the cache), or {@code null} if the given value got added
+	 */
+	public V putIfAbsent(K key, V value) {
+		Assert.notNull(key, "Key must not be null");
+		Assert.notNull(value, "Value must not be null");
+		Node<K, V> node = new Node<K, V>(key, value);
+		Node<K, V> existing = this.cache.putIfAbsent(key, node);
+		if (existing != null) {
+			return existing.value;
+		}
+		this.evictionQueue.add(node);
+		evictIfNecessary();
+		return null;
+	}
+
+	/**
+	 * Remove the value cached for the given key, if any.
+	 * @param key the key
+	 * @return the removed value, or {@code null} if none
+	 */
+	public V remove(K key) {
+		Node<K, V> node = this.cache.remove(key);
+		if (node == null) {
+			return null;
+		}
+		markStale(node);
+		return node.value;
+	}
+
+	/**
+	 * Remove all entries from this cache. The hit, miss and eviction
+	 * statistics are retained.
+	 */
+	public void clear() {
+		synchronized (this.evictionQueue) {
+			this.cache.clear();
+			this.evictionQueue.clear();
+			this.staleNodeCount.set(0);
+		}
+	}
+
+	/**
+	 * Return the current number of cached entries.
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the number of {@link #get} calls that found a cached value.
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of {@link #get} calls that did not find a cached value.
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries that have been evicted due to the capacity limit.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
+	/**
+	 * Template method called after an entry has been evicted due to the
+	 * capacity limit, while holding the eviction lock.
+	 * <p>The default implementation is empty.
+	 * @param key the key of the evicted entry
+	 * @param value the value of the evicted entry
+	 */
+	protected void onEviction(K key, V value) {
+	}
+
+
+	private void markStale(Node<K, V> node) {
+		// The node remains in the eviction queue until polled; purge the queue
+		// once stale nodes would otherwise outnumber the live ones.
+		node.live = false;
+		if (this.staleNodeCount.incrementAndGet() > Math.max(this.capacity, 16)) {
+			synchronized (this.evictionQueue) {
+				for (Iterator<Node<K, V>> it = this.evictionQueue.iterator(); it.hasNext();) {
+					if (!it.next().live) {
+						it.remove();
+					}
+				}
+				this.staleNodeCount.set(0);
+			}
+		}
+	}
+
+	private void evictIfNecessary() {
+		if (this.cache.size() <= this.capacity) {
+			return;
+		}
+		synchronized (this.evictionQueue) {
+			// Bound the number of entries spared, so that concurrent
+			// readers cannot keep the eviction loop going
+			int remainingSpares = this.cache.size() * MAX_USAGE;
+			while (this.cache.size() > this.capacity) {
+				Node<K, V> node = this.evictionQueue.poll();
+				if (node == null) {
+					return;
+				}
+				if (!node.live) {
+					this.staleNodeCount.decrementAndGet();
+					continue;
+				}
+				if (node.usage > 0 && remainingSpares-- > 0) {
+					node.usage--;
+					this.evictionQueue.add(node);
+					continue;
+				}
+				if (this.cache.remove(node.key, node)) {
+					node.live = false;
+					this.evictionCount.incrementAndGet();
+					onEviction(node.key, node.value);
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [size=" + size() + ", capacity=" + this.capacity +
+				", hits=" + getHitCount() + ", misses=" + getMissCount() +
+				", evictions=" + getEvictionCount() + "]";
+	}
+
+
+	private static final class Node<K, V> {
+
+		final K key;
+
+		final V value;
+
+		volatile int usage = 1;
+
+		volatile boolean live = true;
+
+		Node(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+
+	/**
+	 * A counter spread across cache-line-padded cells indexed by thread,
+	 * so that concurrent increments do not contend on a single value.
+	 */
+	private static final class StripedCounter {
+
+		private static final int PADDING = 8;
+
+		private static final int STRIPES = stripeCount();
+
+		private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+		public void increment() {
+			int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+			this.cells.incrementAndGet(stripe * PADDING);
+		}
+
+		public long sum() {
+			long sum = 0;
+			for (int i = 0; i < STRIPES; i++) {
+				sum += this.cells.get(i * PADDING);
+			}
+			return sum;
+		}
+
+		private static int stripeCount() {
+			int stripes = 1;
+			while (stripes < Runtime.getRuntime().availableProcessors() && stripes < 64) {
+				stripes <<= 1;
+			}
+			return stripes;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,10 +29,14 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * Simple utility methods for file and stream copying. All copy methods use a block size
- * of 4096 bytes, and close all affected streams when done. A variation of the copy
+ * of 4096 bytes (unless transferring between channels), and close all affected streams
+ * when done. A variation of the copy
  * methods from this class that leave streams open can be found in {@link StreamUtils}.
  *
  * <p>Mainly for use within the framework, but also useful for application code.
@@ -52,6 +56,9 @@ public abstract class FileCopyUtils {
 
 	/**
 	 * Copy the contents of the given input File to the given output File.
+	 * <p>As of 4.3.1, the content is transferred between the corresponding
+	 * {@link java.nio.channels.FileChannel FileChannels}, i.e. without
+	 * copying it through the heap.
 	 * @param in the file to copy from
 	 * @param out the file to copy to
 	 * @return the number of bytes copied
@@ -60,8 +67,40 @@ public abstract class FileCopyUtils {
 	public static int copy(File in, File out) throws IOException {
 		Assert.notNull(in, "No input File specified");
 		Assert.notNull(out, "No output File specified");
-		return copy(new BufferedInputStream(new FileInputStream(in)),
-			new BufferedOutputStream(new FileOutputStream(out)));
+		FileChannel inChannel = new FileInputStream(in).getChannel();
+		FileChannel outChannel;
+		try {
+			outChannel = new FileOutputStream(out).getChannel();
+		}
+		catch (IOException ex) {
+			inChannel.close();
+			throw ex;
+		}
+		return (int) copy(inChannel, outChannel);
+	}
+
+	/**
+	 * Copy the contents of the given input File to the given channel,
+	 * through {@link java.nio.channels.FileChannel#transferTo}.
+	 * Closes the channel when done.
+	 * @param in the file to copy from
+	 * @param out the channel to copy to
+	 * @return the number of bytes copied
+	 * @throws IOException in case of I/O errors
+	 * @since 4.3.1
+	 */
+	public static long copy(File in, WritableByteChannel out) throws IOException {
+		Assert.notNull(in, "No input File specified");
+		Assert.notNull(out, "No WritableByteChannel specified");
+		FileChannel inChannel;
+		try {
+			inChannel = new FileInputStream(in).getChannel();
+		}
+		catch (IOException ex) {
+			out.close();
+			throw ex;
+		}
+		return copy(inChannel, out);
 	}
 
 	/**
@@ -158,6 +197,42 @@ public abstract class FileCopyUtils {
 	}
 
 
+	//---------------------------------------------------------------------
+	// Copy methods for java.nio.channels.ReadableByteChannel / WritableByteChannel
+	//---------------------------------------------------------------------
+
+	/**
+	 * Copy the contents of the given ReadableByteChannel to the given
+	 * WritableByteChannel, through {@link java.nio.channels.FileChannel#transferTo}
+	 * in case of a {@code FileChannel} source. Closes both channels when done.
+	 * @param in the channel to copy from
+	 * @param out the channel to copy to
+	 * @return the number of bytes copied
+	 * @throws IOException in case of I/O errors
+	 * @since 4.3.1
+	 * @see StreamUtils#copy(ReadableByteChannel, WritableByteChannel)
+	 */
+	public static long copy(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+		Assert.notNull(in, "No ReadableByteChannel specified");
+		Assert.notNull(out, "No WritableByteChannel specified");
+		try {
+			return StreamUtils.copy(in, out);
+		}
+		finally {
+			try {
+				in.close();
+			}
+			catch (IOException ex) {
+			}
+			try {
+				out.close();
+			}
+			catch (IOException ex) {
+			}
+		}
+	}
+
+
 	//---------------------------------------------------------------------
 	// Copy methods for java.io.Reader / java.io.Writer
 	//---------------------------------------------------------------------
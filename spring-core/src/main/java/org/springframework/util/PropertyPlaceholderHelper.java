@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,10 @@
 
 package org.springframework.util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -61,6 +63,8 @@ public class PropertyPlaceholderHelper {
 
 	private final boolean ignoreUnresolvablePlaceholders;
 
+	private final Map<String, ParsedValue> parsedValueCache;
+
 
 	/**
 	 * Creates a new {@code PropertyPlaceholderHelper} that uses the supplied prefix and suffix.
@@ -84,6 +88,29 @@ public class PropertyPlaceholderHelper {
 	public PropertyPlaceholderHelper(String placeholderPrefix, String placeholderSuffix,
 			String valueSeparator, boolean ignoreUnresolvablePlaceholders) {
 
+		this(placeholderPrefix, placeholderSuffix, valueSeparator, ignoreUnresolvablePlaceholders, false);
+	}
+
+	/**
+	 * Creates a new {@code PropertyPlaceholderHelper} that uses the supplied prefix and suffix.
+	 * <p>With {@code cacheParsedValues} enabled, the positions of the placeholders
+	 * within each string are determined once and cached, so that repeated resolution
+	 * of the same strings only performs the actual placeholder lookups. The results
+	 * are identical to uncached resolution, since the placeholder structure of a
+	 * string does not depend on the values that get substituted into it.
+	 * @param placeholderPrefix the prefix that denotes the start of a placeholder
+	 * @param placeholderSuffix the suffix that denotes the end of a placeholder
+	 * @param valueSeparator the separating character between the placeholder variable
+	 * and the associated default value, if any
+	 * @param ignoreUnresolvablePlaceholders indicates whether unresolvable placeholders should
+	 * be ignored ({@code true}) or cause an exception ({@code false})
+	 * @param cacheParsedValues whether to cache the parsed placeholder structure
+	 * of resolved strings
+	 * @since 4.3.1
+	 */
+	public PropertyPlaceholderHelper(String placeholderPrefix, String placeholderSuffix,
+			String valueSeparator, boolean ignoreUnresolvablePlaceholders, boolean cacheParsedValues) {
+
 		Assert.notNull(placeholderPrefix, "'placeholderPrefix' must not be null");
 		Assert.notNull(placeholderSuffix, "'placeholderSuffix' must not be null");
 		this.placeholderPrefix = placeholderPrefix;
@@ -97,6 +124,7 @@ public class PropertyPlaceholderHelper {
 		}
 		this.valueSeparator = valueSeparator;
 		this.ignoreUnresolvablePlaceholders = ignoreUnresolvablePlaceholders;
+		this.parsedValueCache = (cacheParsedValues ? new ConcurrentReferenceHashMap<String, ParsedValue>(256) : null);
 	}
 
 
@@ -134,6 +162,10 @@ public class PropertyPlaceholderHelper {
 	protected String parseStringValue(
 			String strVal, PlaceholderResolver placeholderResolver, Set<String> visitedPlaceholders) {
 
+		if (this.parsedValueCache != null) {
+			return parseStringValue(getParsedValue(strVal), strVal, placeholderResolver, visitedPlaceholders);
+		}
+
 		// 创建一个StringBuilder类方便更改。
 		StringBuilder result = new StringBuilder(strVal);
 
@@ -146,56 +178,18 @@ public class PropertyPlaceholderHelper {
 			if (endIndex != -1) {
 				// 取得名称key
 				String placeholder = result.substring(startIndex + this.placeholderPrefix.length(), endIndex);
-				String originalPlaceholder = placeholder;
-				// 将找到的占位符记录下来，防止出现循环，出现循环的时候报错。这里可以查看下面的又对这个方法进行了调用，
-				// 这个时候这个检查才有用 ${${user.name}},你会发现当${user.name}='${user.name}'的时候循环依赖的问题就出现了。
-				if (!visitedPlaceholders.add(originalPlaceholder)) {
-					throw new IllegalArgumentException(
-							"Circular placeholder reference '" + originalPlaceholder + "' in property definitions");
-				}
-				// Recursive invocation, parsing placeholders contained in the placeholder key.
-				// 所以说是支持${${user.name}}的方式的
-				placeholder = parseStringValue(placeholder, placeholderResolver, visitedPlaceholders);
-				// Now obtain the value for the fully resolved key...
-				// 找到value值，有两种模式
-				String propVal = placeholderResolver.resolvePlaceholder(placeholder);
-				if (propVal == null && this.valueSeparator != null) {
-					// 我操，原来在placeholder中可以放置默认的设置。 这个特性很重要啊！
-					int separatorIndex = placeholder.indexOf(this.valueSeparator);
-					if (separatorIndex != -1) {
-						String actualPlaceholder = placeholder.substring(0, separatorIndex);
-						String defaultValue = placeholder.substring(separatorIndex + this.valueSeparator.length());
-						propVal = placeholderResolver.resolvePlaceholder(actualPlaceholder);
-						if (propVal == null) {
-							propVal = defaultValue;
-						}
-					}
-				}
+				String propVal = resolvePlaceholder(placeholder, strVal, placeholderResolver, visitedPlaceholders);
 				if (propVal != null) {
-					// Recursive invocation, parsing placeholders contained in the
-					// previously resolved placeholder value.
-					// 对于值里面的占位符，再进行一次替换
-					propVal = parseStringValue(propVal, placeholderResolver, visitedPlaceholders);
 					// 将占位符的值替换掉
 					result.replace(startIndex, endIndex + this.placeholderSuffix.length(), propVal);
-					if (logger.isTraceEnabled()) {
-						logger.trace("Resolved placeholder '" + placeholder + "'");
-					}
 					// 寻找下一个开始位置
 					startIndex = result.indexOf(this.placeholderPrefix, startIndex + propVal.length());
 				}
-				else if (this.ignoreUnresolvablePlaceholders) {
+				else {
 					// Proceed with unprocessed value.
 					// 没有的话跳过这个占位符，不做任何处理，这就是startIndex的作用吧！
 					startIndex = result.indexOf(this.placeholderPrefix, endIndex + this.placeholderSuffix.length());
 				}
-				else {
-					// 如果没有配置ignoreUnresolvablePlaceholders的话，那么就进行报错处理流程
-					throw new IllegalArgumentException("Could not resolve placeholder '" +
-							placeholder + "'" + " in string value \"" + strVal + "\"");
-				}
-				// 所有的嵌套占位符替换完成后删除这条占位符的记录。循环检查只在嵌套的占位符中进行。
-				visitedPlaceholders.remove(originalPlaceholder);
 			}
 			else {
 				// 没有找到结尾的占位符，退出循环
@@ -206,6 +200,111 @@ public class PropertyPlaceholderHelper {
 		return result.toString();
 	}
 
+	/**
+	 * Resolve the given string against its cached placeholder structure,
+	 * with the same semantics as the uncached variant above.
+	 */
+	private String parseStringValue(ParsedValue parsedValue, String strVal,
+			PlaceholderResolver placeholderResolver, Set<String> visitedPlaceholders) {
+
+		if (parsedValue.placeholders.length == 0) {
+			return strVal;
+		}
+		StringBuilder result = new StringBuilder(strVal.length());
+		result.append(parsedValue.literals[0]);
+		for (int i = 0; i < parsedValue.placeholders.length; i++) {
+			String placeholder = parsedValue.placeholders[i];
+			String propVal = resolvePlaceholder(placeholder, strVal, placeholderResolver, visitedPlaceholders);
+			if (propVal != null) {
+				result.append(propVal);
+			}
+			else {
+				result.append(this.placeholderPrefix).append(placeholder).append(this.placeholderSuffix);
+			}
+			result.append(parsedValue.literals[i + 1]);
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Resolve a single placeholder found in the given string, including any
+	 * placeholders nested in its key and in its resolved value.
+	 * @return the fully resolved value, or {@code null} if unresolvable
+	 * placeholders are to be ignored and this one could not be resolved
+	 */
+	private String resolvePlaceholder(String originalPlaceholder, String strVal,
+			PlaceholderResolver placeholderResolver, Set<String> visitedPlaceholders) {
+
+		// 将找到的占位符记录下来，防止出现循环，出现循环的时候报错。这里可以查看下面的又对这个方法进行了调用，
+		// 这个时候这个检查才有用 ${${user.name}},你会发现当${user.name}='${user.name}'的时候循环依赖的问题就出现了。
+		if (!visitedPlaceholders.add(originalPlaceholder)) {
+			throw new IllegalArgumentException(
+					"Circular placeholder reference '" + originalPlaceholder + "' in property definitions");
+		}
+		// Recursive invocation, parsing placeholders contained in the placeholder key.
+		// 所以说是支持${${user.name}}的方式的
+		String placeholder = parseStringValue(originalPlaceholder, placeholderResolver, visitedPlaceholders);
+		// Now obtain the value for the fully resolved key...
+		// 找到value值，有两种模式
+		String propVal = placeholderResolver.resolvePlaceholder(placeholder);
+		if (propVal == null && this.valueSeparator != null) {
+			// 我操，原来在placeholder中可以放置默认的设置。 这个特性很重要啊！
+			int separatorIndex = placeholder.indexOf(this.valueSeparator);
+			if (separatorIndex != -1) {
+				String actualPlaceholder = placeholder.substring(0, separatorIndex);
+				String defaultValue = placeholder.substring(separatorIndex + this.valueSeparator.length());
+				propVal = placeholderResolver.resolvePlaceholder(actualPlaceholder);
+				if (propVal == null) {
+					propVal = defaultValue;
+				}
+			}
+		}
+		if (propVal != null) {
+			// Recursive invocation, parsing placeholders contained in the
+			// previously resolved placeholder value.
+			// 对于值里面的占位符，再进行一次替换
+			propVal = parseStringValue(propVal, placeholderResolver, visitedPlaceholders);
+			if (logger.isTraceEnabled()) {
+				logger.trace("Resolved placeholder '" + placeholder + "'");
+			}
+		}
+		else if (!this.ignoreUnresolvablePlaceholders) {
+			// 如果没有配置ignoreUnresolvablePlaceholders的话，那么就进行报错处理流程
+			throw new IllegalArgumentException("Could not resolve placeholder '" +
+					placeholder + "'" + " in string value \"" + strVal + "\"");
+		}
+		// 所有的嵌套占位符替换完成后删除这条占位符的记录。循环检查只在嵌套的占位符中进行。
+		visitedPlaceholders.remove(originalPlaceholder);
+		return propVal;
+	}
+
+	/**
+	 * Determine the placeholder structure of the given string, from the cache if possible.
+	 */
+	private ParsedValue getParsedValue(String strVal) {
+		ParsedValue parsedValue = this.parsedValueCache.get(strVal);
+		if (parsedValue == null) {
+			List<String> literals = new ArrayList<String>();
+			List<String> placeholders = new ArrayList<String>();
+			int literalStart = 0;
+			int startIndex = strVal.indexOf(this.placeholderPrefix);
+			while (startIndex != -1) {
+				int endIndex = findPlaceholderEndIndex(strVal, startIndex);
+				if (endIndex == -1) {
+					break;
+				}
+				literals.add(strVal.substring(literalStart, startIndex));
+				placeholders.add(strVal.substring(startIndex + this.placeholderPrefix.length(), endIndex));
+				literalStart = endIndex + this.placeholderSuffix.length();
+				startIndex = strVal.indexOf(this.placeholderPrefix, literalStart);
+			}
+			literals.add(strVal.substring(literalStart));
+			parsedValue = new ParsedValue(StringUtils.toStringArray(literals), StringUtils.toStringArray(placeholders));
+			this.parsedValueCache.put(strVal, parsedValue);
+		}
+		return parsedValue;
+	}
+
 	private int findPlaceholderEndIndex(CharSequence buf, int startIndex) {
 		int index = startIndex + this.placeholderPrefix.length();
 		int withinNestedPlaceholder = 0;
@@ -231,6 +330,23 @@ public class PropertyPlaceholderHelper {
 	}
 
 
+	/**
+	 * The placeholder structure of a string: the literal segments, interleaved
+	 * with the (still unresolved) placeholder keys between them.
+	 */
+	private static class ParsedValue {
+
+		final String[] literals;
+
+		final String[] placeholders;
+
+		public ParsedValue(String[] literals, String[] placeholders) {
+			this.literals = literals;
+			this.placeholders = placeholders;
+		}
+	}
+
+
 	/**
 	 * Strategy interface used to resolve replacement values for placeholders contained in Strings.
 	 * 策略接口，用于解决字符串中占位符的替换。
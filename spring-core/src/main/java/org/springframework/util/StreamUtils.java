@@ -26,12 +26,17 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 
 /**
  * Simple utility methods for dealing with streams. The copy methods of this class are
  * similar to those defined in {@link FileCopyUtils} except that all affected streams are
- * left open when done. All copy methods use a block size of 4096 bytes.
+ * left open when done. All copy methods use a block size of 4096 bytes, unless
+ * transferring from a {@link java.nio.channels.FileChannel}.
  *
  * <p>Mainly for use within the framework, but also useful for application code.
  *
@@ -169,6 +174,94 @@ public abstract class StreamUtils {
 		return end - start + 1 - bytesToCopy;
 	}
 
+	/**
+	 * Copy the remaining content of the given ReadableByteChannel to the given
+	 * WritableByteChannel, through {@link FileChannel#transferTo} in case of a
+	 * {@code FileChannel} source, i.e. without copying through the heap.
+	 * <p>Leaves both channels open when done.
+	 * @param in the channel to copy from
+	 * @param out the channel to copy to
+	 * @return the number of bytes copied
+	 * @throws IOException in case of I/O errors
+	 * @since 4.3.1
+	 */
+	public static long copy(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+		Assert.notNull(in, "No ReadableByteChannel specified");
+		Assert.notNull(out, "No WritableByteChannel specified");
+		if (in instanceof FileChannel) {
+			FileChannel fileChannel = (FileChannel) in;
+			long start = fileChannel.position();
+			long byteCount = transferTo(fileChannel, out, start, fileChannel.size() - start);
+			fileChannel.position(start + byteCount);
+			return byteCount;
+		}
+		long byteCount = 0;
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		int bytesRead = -1;
+		while ((bytesRead = in.read(buffer)) != -1) {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				out.write(buffer);
+			}
+			buffer.clear();
+			byteCount += bytesRead;
+		}
+		return byteCount;
+	}
+
+	/**
+	 * Copy a range of content of the given ReadableByteChannel to the given
+	 * WritableByteChannel. In case of a {@link FileChannel} source, the range
+	 * is transferred through {@link FileChannel#transferTo}, independent from
+	 * the current position of the channel; any other channel is read from
+	 * its current position on.
+	 * <p>If the specified range exceeds the length of the content, this copies
+	 * up to the end of the content and returns the actual number of copied bytes.
+	 * <p>Leaves both channels open when done.
+	 * @param in the channel to copy from
+	 * @param out the channel to copy to
+	 * @param start the position to start copying from
+	 * @param end the position to end copying
+	 * @return the number of bytes copied
+	 * @throws IOException in case of I/O errors
+	 * @since 4.3.1
+	 */
+	public static long copyRange(ReadableByteChannel in, WritableByteChannel out, long start, long end)
+			throws IOException {
+
+		Assert.notNull(in, "No ReadableByteChannel specified");
+		Assert.notNull(out, "No WritableByteChannel specified");
+		if (in instanceof FileChannel) {
+			return transferTo((FileChannel) in, out, start, end - start + 1);
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		long skipped = 0;
+		while (skipped < start) {
+			buffer.clear();
+			buffer.limit((int) Math.min(BUFFER_SIZE, start - skipped));
+			int bytesRead = in.read(buffer);
+			if (bytesRead == -1) {
+				throw new IOException("Skipped only " + skipped + " bytes out of " + start + " required.");
+			}
+			skipped += bytesRead;
+		}
+		long bytesToCopy = end - start + 1;
+		while (bytesToCopy > 0) {
+			buffer.clear();
+			buffer.limit((int) Math.min(BUFFER_SIZE, bytesToCopy));
+			int bytesRead = in.read(buffer);
+			if (bytesRead == -1) {
+				break;
+			}
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				out.write(buffer);
+			}
+			bytesToCopy -= bytesRead;
+		}
+		return end - start + 1 - bytesToCopy;
+	}
+
 	/**
 	 * Drain the remaining content of the given InputStream.
 	 * Leaves the InputStream open when done.
@@ -220,6 +313,22 @@ public abstract class StreamUtils {
 	}
 
 
+	private static long transferTo(FileChannel in, WritableByteChannel out, long position, long count)
+			throws IOException {
+
+		long bytesToCopy = Math.min(count, in.size() - position);
+		long byteCount = 0;
+		while (byteCount < bytesToCopy) {
+			long transferred = in.transferTo(position + byteCount, bytesToCopy - byteCount, out);
+			if (transferred <= 0) {
+				break;
+			}
+			byteCount += transferred;
+		}
+		return byteCount;
+	}
+
+
 	private static class NonClosingInputStream extends FilterInputStream {
 
 		public NonClosingInputStream(InputStream in) {
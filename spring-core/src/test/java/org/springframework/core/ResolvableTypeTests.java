@@ -1148,6 +1148,31 @@ public class ResolvableTypeTests {
 		assertAssignable(complex4, complex3).equalTo(false);
 	}
 
+	@Test
+	public void isAssignableFromRepeatedly() throws Exception {
+		ResolvableType charSequenceList = ResolvableType.forField(Fields.class.getField("charSequenceList"));
+		ResolvableType stringList = ResolvableType.forField(Fields.class.getField("stringList"));
+
+		for (int i = 0; i < 2; i++) {
+			assertTrue(charSequenceList.isAssignableFrom(charSequenceList));
+			assertFalse(charSequenceList.isAssignableFrom(stringList));
+			assertTrue(ResolvableType.forClass(List.class).isAssignableFrom(stringList));
+			assertTrue(ResolvableType.forClass(Collection.class).isAssignableFrom(ArrayList.class));
+			assertFalse(ResolvableType.forClass(ArrayList.class).isAssignableFrom(Collection.class));
+		}
+		ResolvableType.clearCache();
+		assertFalse(charSequenceList.isAssignableFrom(stringList));
+	}
+
+	@Test
+	public void canonicalInstances() throws Exception {
+		assertThat(ResolvableType.forClass(List.class), sameInstance(ResolvableType.forClass(List.class)));
+		assertThat(ResolvableType.forType(List.class), sameInstance(ResolvableType.forClass(List.class)));
+		assertThat(ResolvableType.forClass(null), sameInstance(ResolvableType.forClass(Object.class)));
+		assertThat(ResolvableType.forField(Fields.class.getField("stringList")),
+				sameInstance(ResolvableType.forField(Fields.class.getField("stringList"))));
+	}
+
 	@Test
 	public void hashCodeAndEquals() throws Exception {
 		ResolvableType forClass = ResolvableType.forClass(List.class);
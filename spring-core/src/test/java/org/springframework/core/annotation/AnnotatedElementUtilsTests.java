@@ -25,6 +25,7 @@ import java.lang.annotation.Target;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -715,6 +716,42 @@ public class AnnotatedElementUtilsTests {
 		assertEquals(SpringAppConfigClass.class.getAnnotation(Resource.class), findMergedAnnotation(SpringAppConfigClass.class, Resource.class));
 	}
 
+	@Test
+	public void mergedAnnotationAttributesAreCachedAsCopies() {
+		AnnotationAttributes attributes = findMergedAnnotationAttributes(MetaAndLocalTxConfigClass.class, Transactional.class);
+		attributes.put("qualifier", "modified");
+		AnnotationAttributes cached = findMergedAnnotationAttributes(MetaAndLocalTxConfigClass.class, Transactional.class);
+		assertNotSame(attributes, cached);
+		assertEquals("localTxMgr", cached.getString("qualifier"));
+		assertEquals(Transactional.class, cached.annotationType());
+
+		attributes = findMergedAnnotationAttributes(TestComponentScanClass.class, ComponentScan.class);
+		attributes.getStringArray("basePackages")[0] = "modified";
+		assertComponentScanAttributes(TestComponentScanClass.class, "com.example.app.test");
+	}
+
+	@Test
+	public void mergedAnnotationsAreCached() {
+		Transactional tx = findMergedAnnotation(MetaAndLocalTxConfigClass.class, Transactional.class);
+		assertSame(tx, findMergedAnnotation(MetaAndLocalTxConfigClass.class, Transactional.class));
+		assertNull(findMergedAnnotation(NonAnnotatedClass.class, Transactional.class));
+		assertNull(findMergedAnnotation(NonAnnotatedClass.class, Transactional.class));
+
+		AnnotatedElementUtils.clearCache();
+		Transactional recomputed = findMergedAnnotation(MetaAndLocalTxConfigClass.class, Transactional.class);
+		assertNotSame(tx, recomputed);
+		assertEquals("localTxMgr", recomputed.qualifier());
+	}
+
+	@Test
+	public void precomputeMergedAnnotations() throws Exception {
+		AnnotatedElementUtils.precomputeMergedAnnotations(TxConfig.class,
+				Collections.<Class<? extends Annotation>>singleton(Transactional.class));
+		assertEquals("TxConfig", getMergedAnnotation(TxConfig.class, Transactional.class).value());
+		assertEquals("TxConfig", findMergedAnnotationAttributes(TxConfig.class, Transactional.class).getString("value"));
+		assertNull(findMergedAnnotation(TxConfig.class.getMethod("toString"), Transactional.class));
+	}
+
 	private Set<String> names(Class<?>... classes) {
 		return stream(classes).map(Class::getName).collect(toSet());
 	}
@@ -1543,6 +1543,49 @@ public class AnnotationUtilsTests {
 		assertArrayEquals(new char[] { 'x', 'y', 'z' }, chars);
 	}
 
+	@Test
+	public void synthesizeAnnotationWithGeneratedImplementationClass() throws Exception {
+		PublicMapping mapping = PublicMappedClass.class.getAnnotation(PublicMapping.class);
+		PublicMapping synthesizedMapping = synthesizeAnnotation(mapping);
+		assertThat(synthesizedMapping, instanceOf(SynthesizedAnnotation.class));
+		assertThat(synthesizedMapping, instanceOf(AbstractSynthesizedAnnotation.class));
+		assertSame(PublicMapping.class, synthesizedMapping.annotationType());
+
+		assertArrayEquals(asArray("/test"), synthesizedMapping.value());
+		assertArrayEquals(asArray("/test"), synthesizedMapping.path());
+		assertEquals(42, synthesizedMapping.order());
+		assertFalse(synthesizedMapping.enabled());
+		assertSame(String.class, synthesizedMapping.type());
+		assertEquals(0, synthesizedMapping.flags().length);
+		assertThat(synthesizedMapping.toString(), containsString("path=[/test]"));
+
+		// Alter array returned from synthesized annotation
+		synthesizedMapping.value()[0] = "/altered";
+		assertArrayEquals(asArray("/test"), synthesizedMapping.value());
+
+		PublicMapping synthesizedFromMap = synthesizeAnnotation(
+				getAnnotationAttributes(synthesizedMapping), PublicMapping.class, null);
+		assertThat(synthesizedFromMap, instanceOf(AbstractSynthesizedAnnotation.class));
+		assertEquals(synthesizedMapping, synthesizedFromMap);
+		assertEquals(synthesizedMapping.hashCode(), synthesizedFromMap.hashCode());
+
+		PublicMapping equivalentMapping = PublicMappedWithValueAndPathClass.class.getAnnotation(PublicMapping.class);
+		assertEquals(synthesizedMapping, equivalentMapping);
+		assertEquals(equivalentMapping, synthesizedMapping);
+		assertEquals(equivalentMapping.hashCode(), synthesizedMapping.hashCode());
+		assertNotEquals(mapping, synthesizedMapping);
+	}
+
+	@Test
+	public void synthesizeAnnotationWithGeneratedImplementationClassAndConflictingAliases() throws Exception {
+		PublicMapping mapping = PublicMappedWithConflictingValueAndPathClass.class.getAnnotation(PublicMapping.class);
+		PublicMapping synthesizedMapping = synthesizeAnnotation(mapping);
+		assertThat(synthesizedMapping, instanceOf(SynthesizedAnnotation.class));
+		exception.expect(AnnotationConfigurationException.class);
+		exception.expectMessage(containsString("attribute 'value' and its alias 'path' are present"));
+		synthesizedMapping.value();
+	}
+
 	@SafeVarargs
 	// The following "varargs" suppression is necessary for javac from OpenJDK
 	// (1.8.0_60-b27); however, Eclipse warns that it's unnecessary. See the following
@@ -1896,6 +1939,36 @@ public class AnnotationUtilsTests {
 		String path() default "";
 	}
 
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface PublicMapping {
+
+		@AliasFor("path")
+		String[] value() default "";
+
+		@AliasFor("value")
+		String[] path() default "";
+
+		int order() default 0;
+
+		boolean enabled() default true;
+
+		Class<?> type() default Object.class;
+
+		long[] flags() default {};
+	}
+
+	@PublicMapping(path = "/test", order = 42, enabled = false, type = String.class)
+	static class PublicMappedClass {
+	}
+
+	@PublicMapping(value = "/test", path = "/test", order = 42, enabled = false, type = String.class)
+	static class PublicMappedWithValueAndPathClass {
+	}
+
+	@PublicMapping(value = "/enigma", path = "/test")
+	static class PublicMappedWithConflictingValueAndPathClass {
+	}
+
 	@Component("webController")
 	static class WebController {
 
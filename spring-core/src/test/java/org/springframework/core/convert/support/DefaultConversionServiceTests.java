@@ -107,6 +107,59 @@ public class DefaultConversionServiceTests {
 		assertEquals(true, conversionService.convert("YES", Boolean.class));
 	}
 
+	@Test
+	public void testConvertToPrimitive() {
+		assertEquals(42, conversionService.convertToInt("42"));
+		assertEquals(-42, conversionService.convertToInt("-42"));
+		assertEquals(16, conversionService.convertToInt("0x10"));
+		assertEquals(42, conversionService.convertToInt(" 4 2 "));
+		assertEquals(42, conversionService.convertToInt(42L));
+		assertEquals(3, conversionService.convertToInt(3.7d));
+		assertEquals(42, conversionService.convertToInt(new BigInteger("42")));
+		assertEquals(Long.MAX_VALUE, conversionService.convertToLong(String.valueOf(Long.MAX_VALUE)));
+		assertEquals(42L, conversionService.convertToLong(42));
+		assertEquals(1.5d, conversionService.convertToDouble("1.5"), 0d);
+		assertEquals(1.5d, conversionService.convertToDouble(" 1.5"), 0d);
+		assertEquals(-0.0d, conversionService.convertToDouble("-0"), 0d);
+		assertEquals(42d, conversionService.convertToDouble(42), 0d);
+		assertTrue(conversionService.convertToBoolean("true"));
+		assertTrue(conversionService.convertToBoolean(" YES "));
+		assertFalse(conversionService.convertToBoolean("off"));
+		assertFalse(conversionService.convertToBoolean(Boolean.FALSE));
+	}
+
+	@Test
+	public void testConvertToPrimitiveWithCustomConverter() {
+		conversionService.addConverter(String.class, Integer.class, new Converter<String, Integer>() {
+			@Override
+			public Integer convert(String source) {
+				return source.length();
+			}
+		});
+		assertEquals(3, conversionService.convertToInt("100"));
+		assertEquals(100L, conversionService.convertToLong("100"));
+	}
+
+	@Test(expected = ConversionFailedException.class)
+	public void testConvertToPrimitiveWithOverflow() {
+		conversionService.convertToInt(String.valueOf(Long.MAX_VALUE));
+	}
+
+	@Test(expected = ConversionFailedException.class)
+	public void testConvertToPrimitiveWithEmptyString() {
+		conversionService.convertToInt("");
+	}
+
+	@Test(expected = ConversionFailedException.class)
+	public void testConvertToPrimitiveWithNull() {
+		conversionService.convertToLong(null);
+	}
+
+	@Test(expected = ConversionFailedException.class)
+	public void testConvertToPrimitiveWithInvalidBoolean() {
+		conversionService.convertToBoolean("maybe");
+	}
+
 	@Test
 	public void testStringToBooleanFalse() {
 		assertEquals(false, conversionService.convert("false", Boolean.class));
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -643,6 +643,67 @@ public class GenericConversionServiceTests {
 				conversionService.convert("test", TypeDescriptor.valueOf(String.class), new TypeDescriptor(getClass().getField("integerCollection"))));
 	}
 
+	@Test
+	public void cacheStatistics() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		conversionService.setStatisticsEnabled(true);
+		assertEquals(Integer.valueOf(3), conversionService.convert("3", Integer.class));
+		assertEquals(Integer.valueOf(4), conversionService.convert("4", Integer.class));
+		assertEquals(1, conversionService.getCacheMissCount());
+		assertEquals(1, conversionService.getCacheHitCount());
+
+		conversionService.addConverter(new ColorConverter());
+		assertEquals(Integer.valueOf(5), conversionService.convert("5", Integer.class));
+		assertEquals(2, conversionService.getCacheMissCount());
+
+		conversionService.resetStatistics();
+		assertEquals(0, conversionService.getCacheMissCount());
+		assertEquals(0, conversionService.getCacheHitCount());
+	}
+
+	@Test
+	public void cacheDistinguishesAnnotatedTypes() throws Exception {
+		conversionService.addConverter(new MyConditionalColorConverter());
+		TypeDescriptor sourceType = TypeDescriptor.valueOf(String.class);
+		assertTrue(conversionService.canConvert(sourceType, new TypeDescriptor(getClass().getField("activeColor"))));
+		assertFalse(conversionService.canConvert(sourceType, new TypeDescriptor(getClass().getField("inactiveColor"))));
+		assertFalse(conversionService.canConvert(sourceType, TypeDescriptor.valueOf(Color.class)));
+		assertTrue(conversionService.canConvert(sourceType, new TypeDescriptor(getClass().getField("activeColor"))));
+	}
+
+	@Test
+	public void freeze() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		conversionService.addConverter(new ColorConverter());
+		conversionService.freeze();
+		assertTrue(conversionService.isFrozen());
+
+		conversionService.setStatisticsEnabled(true);
+		assertEquals(Color.BLACK, conversionService.convert("#000000", Color.class));
+		assertEquals(Long.valueOf(5), conversionService.convert("5", Long.class));
+		assertEquals(Integer.valueOf(5), conversionService.convert("5", Integer.class));
+		assertEquals(Integer.valueOf(6), conversionService.convert("6", Integer.class));
+		assertEquals(2, conversionService.getCacheHitCount());
+		assertEquals(2, conversionService.getCacheMissCount());
+		assertFalse(conversionService.canConvert(Color.class, Integer.class));
+		assertFalse(conversionService.canConvert(Color.class, Integer.class));
+		assertEquals(3, conversionService.getCacheHitCount());
+		assertEquals(3, conversionService.getCacheMissCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void addConverterToFrozenService() {
+		conversionService.freeze();
+		conversionService.addConverter(new ColorConverter());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void removeConvertibleFromFrozenService() {
+		conversionService.addConverter(new ColorConverter());
+		conversionService.freeze();
+		conversionService.removeConvertible(String.class, Color.class);
+	}
+
 
 	@ExampleAnnotation(active = true)
 	public String annotatedString;
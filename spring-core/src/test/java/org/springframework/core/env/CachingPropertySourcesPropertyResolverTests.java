@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.env;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.mock.env.MockPropertySource;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CachingPropertySourcesPropertyResolver}.
+ *
+ * @since 4.3.1
+ */
+public class CachingPropertySourcesPropertyResolverTests {
+
+	private MutablePropertySources propertySources;
+
+	private CachingPropertySourcesPropertyResolver propertyResolver;
+
+
+	@Before
+	public void setUp() {
+		propertySources = new MutablePropertySources();
+		propertyResolver = new CachingPropertySourcesPropertyResolver(propertySources);
+	}
+
+
+	@Test
+	public void propertySourceSearchOrder() {
+		propertySources.addLast(new MockPropertySource("ps1").withProperty("pName", "ps1Value"));
+		propertySources.addLast(new MockPropertySource("ps2").withProperty("pName", "ps2Value").withProperty("other", "x"));
+		assertThat(propertyResolver.getProperty("pName"), equalTo("ps1Value"));
+		assertThat(propertyResolver.getProperty("other"), equalTo("x"));
+		assertThat(propertyResolver.getProperty("missing"), nullValue());
+		assertThat(propertyResolver.containsProperty("other"), is(true));
+		assertThat(propertyResolver.containsProperty("missing"), is(false));
+	}
+
+	@Test
+	public void indexIsRebuiltOnPropertySourceChanges() {
+		propertySources.addLast(new MockPropertySource("ps1").withProperty("pName", "ps1Value"));
+		assertThat(propertyResolver.getProperty("pName"), equalTo("ps1Value"));
+
+		propertySources.addFirst(new MockPropertySource("ps0").withProperty("pName", "ps0Value"));
+		assertThat(propertyResolver.getProperty("pName"), equalTo("ps0Value"));
+
+		propertySources.replace("ps0", new MockPropertySource("ps0").withProperty("pName", "replacedValue"));
+		assertThat(propertyResolver.getProperty("pName"), equalTo("replacedValue"));
+
+		propertySources.remove("ps0");
+		assertThat(propertyResolver.getProperty("pName"), equalTo("ps1Value"));
+
+		propertySources.addBefore("ps1", new MockPropertySource("ps2").withProperty("newKey", "newValue"));
+		assertThat(propertyResolver.getProperty("newKey"), equalTo("newValue"));
+	}
+
+	@Test
+	public void indexedContentChangesRequireClearCache() {
+		MockPropertySource propertySource = new MockPropertySource("ps1");
+		propertySources.addLast(propertySource);
+		assertThat(propertyResolver.getProperty("pName"), nullValue());
+
+		propertySource.setProperty("pName", "ps1Value");
+		assertThat(propertyResolver.getProperty("pName"), nullValue());
+		propertyResolver.clearCache();
+		assertThat(propertyResolver.getProperty("pName"), equalTo("ps1Value"));
+	}
+
+	@Test
+	public void nonIndexedPropertySourcesAreAlwaysSearched() {
+		final Map<String, Object> dynamic = new HashMap<String, Object>();
+		propertySources.addLast(new MockPropertySource("ps1").withProperty("pName", "ps1Value"));
+		propertySources.addFirst(new PropertySource<Map<String, Object>>("dynamic", dynamic) {
+			@Override
+			public Object getProperty(String name) {
+				return getSource().get(name);
+			}
+		});
+		propertySources.addLast(new PropertySource<Map<String, Object>>("fallback", dynamic) {
+			@Override
+			public Object getProperty(String name) {
+				return (name.startsWith("fallback.") ? "fallbackValue" : null);
+			}
+		});
+
+		assertThat(propertyResolver.getProperty("pName"), equalTo("ps1Value"));
+		dynamic.put("pName", "dynamicValue");
+		assertThat(propertyResolver.getProperty("pName"), equalTo("dynamicValue"));
+		assertThat(propertyResolver.getProperty("fallback.key"), equalTo("fallbackValue"));
+	}
+
+	@Test
+	public void systemPropertiesAreNotIndexed() {
+		StandardEnvironment environment = new StandardEnvironment();
+		CachingPropertySourcesPropertyResolver resolver =
+				new CachingPropertySourcesPropertyResolver(environment.getPropertySources());
+		String key = getClass().getName() + ".key";
+		assertThat(resolver.getProperty(key), nullValue());
+		System.setProperty(key, "value");
+		try {
+			assertThat(resolver.getProperty(key), equalTo("value"));
+		}
+		finally {
+			System.clearProperty(key);
+		}
+	}
+
+	@Test
+	public void nullValueInIndexedSource() {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("pName", null);
+		propertySources.addLast(new MapPropertySource("ps1", map));
+		propertySources.addLast(new MockPropertySource("ps2").withProperty("pName", "ps2Value"));
+		assertThat(propertyResolver.getProperty("pName"), equalTo("ps2Value"));
+	}
+
+	@Test
+	public void resolveNestedPlaceholders() {
+		propertySources.addLast(new MockPropertySource("ps1")
+				.withProperty("p1", "v1")
+				.withProperty("p2", "v2")
+				.withProperty("p3", "${p1}:${p2}:${bogus:def}")
+				.withProperty("p4", "${p${n}}")
+				.withProperty("n", "1"));
+		for (int i = 0; i < 2; i++) {
+			assertThat(propertyResolver.getProperty("p3"), equalTo("v1:v2:def"));
+			assertThat(propertyResolver.getProperty("p4"), equalTo("v1"));
+			assertThat(propertyResolver.resolvePlaceholders("${p1} ${unresolved} ${p2"), equalTo("v1 ${unresolved} ${p2"));
+		}
+		try {
+			propertyResolver.resolveRequiredPlaceholders("${unresolved}");
+			fail("Should have thrown IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {
+			// expected
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void circularPlaceholderReference() {
+		propertySources.addLast(new MockPropertySource("ps1").withProperty("p1", "${p2}").withProperty("p2", "${p1}"));
+		propertyResolver.getProperty("p1");
+	}
+
+}
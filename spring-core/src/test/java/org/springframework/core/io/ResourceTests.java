@@ -17,10 +17,16 @@
 package org.springframework.core.io;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
 import java.util.HashSet;
 
 import org.junit.Ignore;
@@ -135,6 +141,49 @@ public class ResourceTests {
 		assertEquals(resource2, new UrlResource("file:core/../core/io/./Resource.class"));
 	}
 
+	@Test
+	public void testChannelAccess() throws IOException {
+		byte[] content = FileCopyUtils.copyToByteArray(getClass().getResourceAsStream("Resource.class"));
+		doTestChannelResource(new ByteArrayResource(content), content, false);
+		doTestChannelResource(new InputStreamResource(new ByteArrayInputStream(content)), content, false);
+		doTestChannelResource(new ClassPathResource("org/springframework/core/io/Resource.class"), content, true);
+		doTestChannelResource(new FileSystemResource(getClass().getResource("Resource.class").getFile()), content, true);
+		doTestChannelResource(new UrlResource(getClass().getResource("Resource.class")), content, true);
+
+		// jar entry
+		ClassPathResource jarEntry = new ClassPathResource("org/junit/Test.class");
+		content = FileCopyUtils.copyToByteArray(jarEntry.getInputStream());
+		doTestChannelResource(jarEntry, content, false);
+	}
+
+	private void doTestChannelResource(ChannelResource resource, byte[] content, boolean fileBased) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(100, resource.transferTo(10, 100, Channels.newChannel(out)));
+		assertArrayEquals(Arrays.copyOfRange(content, 10, 110), out.toByteArray());
+		if (resource.isOpen()) {
+			return;
+		}
+
+		ReadableByteChannel channel = resource.readableChannel();
+		try {
+			assertEquals(fileBased, channel instanceof FileChannel);
+		}
+		finally {
+			channel.close();
+		}
+
+		out.reset();
+		assertEquals(10, resource.transferTo(content.length - 10, 100, Channels.newChannel(out)));
+		assertArrayEquals(Arrays.copyOfRange(content, content.length - 10, content.length), out.toByteArray());
+
+		ByteBuffer buffer = resource.getByteBuffer();
+		assertTrue(buffer.isReadOnly());
+		assertEquals(fileBased, buffer.isDirect());
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		assertArrayEquals(content, bytes);
+	}
+
 	private void doTestResource(Resource resource) throws IOException {
 		assertEquals("Resource.class", resource.getFilename());
 		assertTrue(resource.getURL().getFile().endsWith("Resource.class"));
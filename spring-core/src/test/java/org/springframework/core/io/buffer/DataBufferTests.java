@@ -0,0 +1,276 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link DataBuffer} implementations, run against heap-based,
+ * direct and pooled buffer factories.
+ *
+ * @since 4.3.1
+ */
+public class DataBufferTests {
+
+	private final DataBufferFactory[] factories = new DataBufferFactory[] {
+			new DefaultDataBufferFactory(false),
+			new DefaultDataBufferFactory(true),
+			new PooledDataBufferFactory(false),
+			new PooledDataBufferFactory(true)
+	};
+
+
+	@Test
+	public void writeAndRead() {
+		for (DataBufferFactory factory : this.factories) {
+			DataBuffer buffer = factory.allocateBuffer(5);
+			buffer.write(new byte[] {'a', 'b', 'c'});
+
+			assertEquals(3, buffer.readableByteCount());
+			assertEquals('a', buffer.read());
+			byte[] result = new byte[2];
+			buffer.read(result);
+			assertArrayEquals(new byte[] {'b', 'c'}, result);
+			assertEquals(0, buffer.readableByteCount());
+
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	@Test
+	public void readAndWritePositions() {
+		for (DataBufferFactory factory : this.factories) {
+			DataBuffer buffer = factory.allocateBuffer(2);
+			assertEquals(0, buffer.readPosition());
+			assertEquals(0, buffer.writePosition());
+
+			buffer.write((byte) 'a');
+			assertEquals(0, buffer.readPosition());
+			assertEquals(1, buffer.writePosition());
+
+			buffer.read();
+			assertEquals(1, buffer.readPosition());
+			assertEquals(1, buffer.writePosition());
+
+			buffer.readPosition(0);
+			assertEquals('a', buffer.getByte(0));
+			assertEquals('a', buffer.read());
+
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	@Test
+	public void invalidPositions() {
+		for (DataBufferFactory factory : this.factories) {
+			DataBuffer buffer = factory.allocateBuffer(2);
+			buffer.write((byte) 'a');
+			try {
+				buffer.readPosition(2);
+				fail("IndexOutOfBoundsException expected");
+			}
+			catch (IndexOutOfBoundsException ex) {
+				// expected
+			}
+			try {
+				buffer.writePosition(buffer.capacity() + 1);
+				fail("IndexOutOfBoundsException expected");
+			}
+			catch (IndexOutOfBoundsException ex) {
+				// expected
+			}
+			buffer.read();
+			try {
+				buffer.read();
+				fail("IndexOutOfBoundsException expected");
+			}
+			catch (IndexOutOfBoundsException ex) {
+				// expected
+			}
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	@Test
+	public void expand() {
+		for (DataBufferFactory factory : this.factories) {
+			DataBuffer buffer = factory.allocateBuffer(1);
+			byte[] bytes = new byte[1000];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = (byte) i;
+			}
+			buffer.write((byte) 'a');
+			buffer.read();
+			buffer.write(bytes);
+
+			assertTrue(buffer.capacity() >= 1001);
+			assertEquals(1, buffer.readPosition());
+			byte[] result = new byte[1000];
+			buffer.read(result);
+			assertArrayEquals(bytes, result);
+
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	@Test
+	public void writeDataBuffersAndByteBuffers() {
+		for (DataBufferFactory factory : this.factories) {
+			DataBuffer buffer1 = factory.wrap(new byte[] {'a'});
+			DataBuffer buffer2 = factory.wrap(new byte[] {'b'});
+			ByteBuffer byteBuffer = ByteBuffer.wrap(new byte[] {'c'});
+
+			DataBuffer buffer = factory.allocateBuffer(1);
+			buffer.write(buffer1, buffer2);
+			buffer.write(byteBuffer);
+
+			byte[] result = new byte[3];
+			buffer.read(result);
+			assertArrayEquals(new byte[] {'a', 'b', 'c'}, result);
+			assertEquals(1, buffer1.readableByteCount());
+			assertEquals(1, byteBuffer.remaining());
+
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	@Test
+	public void inputStream() throws Exception {
+		for (DataBufferFactory factory : this.factories) {
+			DataBuffer buffer = factory.allocateBuffer(4);
+			buffer.write(new byte[] {'a', 'b', 'c', 'd', 'e'});
+			buffer.readPosition(1);
+
+			InputStream inputStream = buffer.asInputStream();
+			assertEquals(4, inputStream.available());
+			assertEquals('b', inputStream.read());
+			assertEquals(3, inputStream.available());
+
+			byte[] result = new byte[3];
+			assertEquals(3, inputStream.read(result));
+			assertArrayEquals(new byte[] {'c', 'd', 'e'}, result);
+			assertEquals(-1, inputStream.read());
+			assertEquals(-1, inputStream.read(result));
+
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	@Test
+	public void outputStream() throws Exception {
+		for (DataBufferFactory factory : this.factories) {
+			DataBuffer buffer = factory.allocateBuffer(4);
+			buffer.write((byte) 'a');
+
+			OutputStream outputStream = buffer.asOutputStream();
+			outputStream.write('b');
+			outputStream.write(new byte[] {'c', 'd', 'e'});
+
+			byte[] result = new byte[5];
+			buffer.read(result);
+			assertArrayEquals(new byte[] {'a', 'b', 'c', 'd', 'e'}, result);
+
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	@Test
+	public void asByteBuffer() {
+		for (DataBufferFactory factory : this.factories) {
+			DataBuffer buffer = factory.allocateBuffer(4);
+			buffer.write(new byte[] {'a', 'b', 'c'});
+			buffer.read();
+
+			ByteBuffer result = buffer.asByteBuffer();
+			assertEquals(2, result.remaining());
+			assertEquals('b', result.get());
+			assertEquals(1, buffer.readPosition());
+
+			result = buffer.asByteBuffer(0, 1);
+			assertEquals(1, result.remaining());
+			assertEquals('a', result.get());
+
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	@Test
+	public void slice() {
+		for (DataBufferFactory factory : this.factories) {
+			DataBuffer buffer = factory.allocateBuffer(3);
+			buffer.write(new byte[] {'a', 'b'});
+
+			DataBuffer slice = buffer.slice(1, 1);
+			assertEquals(1, slice.readableByteCount());
+			assertEquals('b', slice.read());
+			assertEquals(0, buffer.readPosition());
+
+			slice.readPosition(0).writePosition(0);
+			slice.write((byte) 'c');
+			assertEquals('c', buffer.getByte(1));
+			try {
+				slice.write((byte) 'd');
+				fail("IllegalStateException expected");
+			}
+			catch (IllegalStateException ex) {
+				// expected
+			}
+
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	@Test
+	public void join() {
+		for (DataBufferFactory factory : this.factories) {
+			DataBuffer buffer1 = factory.allocateBuffer(1).write((byte) 'a');
+			DataBuffer buffer2 = factory.allocateBuffer(1).write((byte) 'b');
+			DataBuffer buffer3 = factory.wrap(new byte[] {'c'});
+
+			DataBuffer result = factory.join(Arrays.asList(buffer1, buffer2, buffer3));
+			byte[] bytes = new byte[3];
+			result.read(bytes);
+			assertArrayEquals(new byte[] {'a', 'b', 'c'}, bytes);
+
+			DataBufferUtils.release(result);
+		}
+	}
+
+	@Test
+	public void equalsAndHashCode() {
+		for (DataBufferFactory factory : this.factories) {
+			DataBuffer buffer1 = factory.allocateBuffer(2).write(new byte[] {'a', 'b'});
+			DataBuffer buffer2 = factory.wrap(new byte[] {'x', 'a', 'b'});
+			buffer2.read();
+
+			assertEquals(buffer1, buffer2);
+			assertEquals(buffer1.hashCode(), buffer2.hashCode());
+			buffer2.read();
+			assertNotEquals(buffer1, buffer2);
+
+			DataBufferUtils.release(buffer1);
+		}
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link DataBufferUtils}.
+ *
+ * @since 4.3.1
+ */
+public class DataBufferUtilsTests {
+
+	private final PooledDataBufferFactory factory = new PooledDataBufferFactory(true);
+
+
+	@Test
+	public void readInputStream() throws Exception {
+		byte[] bytes = "foo bar baz".getBytes("UTF-8");
+		List<DataBuffer> buffers = DataBufferUtils.read(new ByteArrayInputStream(bytes), this.factory, 4);
+
+		assertEquals(3, buffers.size());
+		assertEquals(4, buffers.get(0).readableByteCount());
+		assertEquals(4, buffers.get(1).readableByteCount());
+		assertEquals(3, buffers.get(2).readableByteCount());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (DataBuffer buffer : buffers) {
+			DataBufferUtils.write(buffer, out);
+			assertTrue(DataBufferUtils.release(buffer));
+		}
+		assertArrayEquals(bytes, out.toByteArray());
+	}
+
+	@Test
+	public void readEmptyInputStream() throws Exception {
+		List<DataBuffer> buffers = DataBufferUtils.read(new ByteArrayInputStream(new byte[0]), this.factory, 4);
+		assertTrue(buffers.isEmpty());
+		assertEquals(1, this.factory.getPooledBufferCount());
+	}
+
+	@Test
+	public void readExactMultipleOfBufferSize() throws Exception {
+		List<DataBuffer> buffers = DataBufferUtils.read(
+				Channels.newChannel(new ByteArrayInputStream(new byte[8])), this.factory, 4);
+		assertEquals(2, buffers.size());
+	}
+
+	@Test
+	public void writeLeavesReadPositionUnchanged() throws Exception {
+		DataBuffer heapBuffer = new DefaultDataBufferFactory().wrap("abc".getBytes("UTF-8"));
+		DataBuffer directBuffer = this.factory.allocateBuffer().write("abc".getBytes("UTF-8"));
+		heapBuffer.read();
+		directBuffer.read();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataBufferUtils.write(heapBuffer, out);
+		DataBufferUtils.write(directBuffer, Channels.newChannel(out));
+		assertEquals("bcbc", out.toString("UTF-8"));
+		assertEquals(1, heapBuffer.readPosition());
+		assertEquals(1, directBuffer.readPosition());
+	}
+
+	@Test
+	public void retainAndRelease() {
+		DataBuffer buffer = this.factory.allocateBuffer();
+		assertSame(buffer, DataBufferUtils.retain(buffer));
+		assertFalse(DataBufferUtils.release(buffer));
+		assertTrue(DataBufferUtils.release(buffer));
+
+		DataBuffer defaultBuffer = new DefaultDataBufferFactory().allocateBuffer();
+		assertSame(defaultBuffer, DataBufferUtils.retain(defaultBuffer));
+		assertFalse(DataBufferUtils.release(defaultBuffer));
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PooledDataBufferFactory}.
+ *
+ * @since 4.3.1
+ */
+public class PooledDataBufferFactoryTests {
+
+	private final PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 1024, 2);
+
+
+	@Test
+	public void allocateRoundsUpToPooledSize() {
+		PooledDataBuffer buffer = this.factory.allocateBuffer(300);
+		assertEquals(512, buffer.capacity());
+		assertTrue(buffer.isAllocated());
+
+		assertEquals(256, this.factory.allocateBuffer().capacity());
+		assertEquals(256, this.factory.allocateBuffer(0).capacity());
+	}
+
+	@Test
+	public void releaseReturnsMemoryToPool() {
+		PooledDataBuffer buffer = this.factory.allocateBuffer(256);
+		ByteBuffer nativeBuffer = ((DefaultDataBuffer) buffer).getNativeBuffer();
+		buffer.write((byte) 'a');
+
+		assertTrue(buffer.release());
+		assertFalse(buffer.isAllocated());
+		assertEquals(1, this.factory.getPooledBufferCount());
+
+		PooledDataBuffer reused = this.factory.allocateBuffer(200);
+		assertSame(nativeBuffer.array(), ((DefaultDataBuffer) reused).getNativeBuffer().array());
+		assertEquals(0, reused.readableByteCount());
+		assertEquals(0, this.factory.getPooledBufferCount());
+	}
+
+	@Test
+	public void referenceCounting() {
+		PooledDataBuffer buffer = this.factory.allocateBuffer();
+		assertSame(buffer, buffer.retain());
+
+		assertFalse(buffer.release());
+		assertTrue(buffer.isAllocated());
+		assertEquals(0, this.factory.getPooledBufferCount());
+
+		assertTrue(buffer.release());
+		assertFalse(buffer.isAllocated());
+		assertEquals(1, this.factory.getPooledBufferCount());
+
+		try {
+			buffer.release();
+			fail("IllegalStateException expected");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+		try {
+			buffer.retain();
+			fail("IllegalStateException expected");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void expansionRecyclesReplacedMemory() {
+		PooledDataBuffer buffer = this.factory.allocateBuffer(256);
+		buffer.write(new byte[300]);
+		assertEquals(512, buffer.capacity());
+		assertEquals(1, this.factory.getPooledBufferCount());
+
+		buffer.release();
+		assertEquals(2, this.factory.getPooledBufferCount());
+	}
+
+	@Test
+	public void oversizedBuffersAreNotPooled() {
+		PooledDataBuffer buffer = this.factory.allocateBuffer(2000);
+		assertEquals(2000, buffer.capacity());
+		assertTrue(buffer.release());
+		assertEquals(0, this.factory.getPooledBufferCount());
+	}
+
+	@Test
+	public void poolSizeIsBounded() {
+		PooledDataBuffer buffer1 = this.factory.allocateBuffer();
+		PooledDataBuffer buffer2 = this.factory.allocateBuffer();
+		PooledDataBuffer buffer3 = this.factory.allocateBuffer();
+		buffer1.release();
+		buffer2.release();
+		buffer3.release();
+		assertEquals(2, this.factory.getPooledBufferCount());
+
+		this.factory.clear();
+		assertEquals(0, this.factory.getPooledBufferCount());
+	}
+
+	@Test
+	public void wrappedBuffersAreNotPooled() {
+		DataBuffer buffer = this.factory.wrap(new byte[256]);
+		assertFalse(buffer instanceof PooledDataBuffer);
+		assertFalse(DataBufferUtils.release(buffer));
+		assertEquals(0, this.factory.getPooledBufferCount());
+	}
+
+	@Test
+	public void directBuffers() {
+		PooledDataBufferFactory directFactory = new PooledDataBufferFactory(true);
+		PooledDataBuffer buffer = directFactory.allocateBuffer();
+		assertTrue(((DefaultDataBuffer) buffer).getNativeBuffer().isDirect());
+		buffer.release();
+		assertEquals(1, directFactory.getPooledBufferCount());
+	}
+
+}
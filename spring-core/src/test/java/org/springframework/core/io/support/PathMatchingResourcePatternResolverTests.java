@@ -20,7 +20,10 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Ignore;
 import org.junit.Test;
@@ -120,6 +123,47 @@ public class PathMatchingResourcePatternResolverTests {
 		assertTrue("Could not find aspectj_1_5_0.dtd in the root of the aspectjweaver jar", found);
 	}
 
+	@Test
+	public void classpathStarWithPatternInJarUsingCachedEntries() throws IOException {
+		assertTrue(resolver.isCacheJarEntries());
+		Resource[] resources = resolver.getResources("classpath*:org/apache/commons/logging/*.class");
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_COMMONSLOGGING);
+		resources = resolver.getResources("classpath*:org/apache/commons/logging/Log*.class");
+		assertProtocolAndFilenames(resources, "jar", "Log.class", "LogConfigurationException.class",
+				"LogFactory.class", "LogFactory$1.class", "LogFactory$2.class", "LogFactory$3.class",
+				"LogFactory$4.class", "LogFactory$5.class", "LogFactory$6.class", "LogSource.class");
+
+		resolver.clearCache();
+		resources = resolver.getResources("classpath*:org/apache/commons/logging/*.class");
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_COMMONSLOGGING);
+	}
+
+	@Test
+	public void nestedPatternInJarWithAndWithoutCache() throws IOException {
+		Resource[] cached = resolver.getResources("classpath*:org/apache/commons/**/impl/Log*.class");
+		assertTrue(cached.length > 0);
+		PathMatchingResourcePatternResolver nonCachingResolver = new PathMatchingResourcePatternResolver();
+		nonCachingResolver.setCacheJarEntries(false);
+		Resource[] uncached = nonCachingResolver.getResources("classpath*:org/apache/commons/**/impl/Log*.class");
+		assertEquals(new HashSet<Resource>(Arrays.asList(cached)), new HashSet<Resource>(Arrays.asList(uncached)));
+	}
+
+	@Test
+	public void classpathStarWithPatternOnFileSystemInParallel() throws IOException {
+		String pattern = "classpath*:org/springframework/core/io/**/*Tests.class";
+		Resource[] sequential = resolver.getResources(pattern);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			resolver.setDirectoryTraversalExecutor(executor);
+			Resource[] parallel = resolver.getResources(pattern);
+			assertTrue(parallel.length > 1);
+			assertArrayEquals(sequential, parallel);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
 
 	private void assertProtocolAndFilenames(Resource[] resources, String protocol, String... filenames)
 			throws IOException {
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.TestAutowired;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PersistentCachingMetadataReaderFactory}.
+ *
+ * @since 4.3.1
+ */
+public class PersistentCachingMetadataReaderFactoryTests {
+
+	private static final String[] CLASS_NAMES = new String[] {
+			"org.springframework.core.type.AnnotationMetadataTests$AnnotatedComponent",
+			"org.springframework.core.type.AnnotationMetadataTests$ComposedConfigurationWithAttributeOverridesClass",
+			"org.springframework.core.type.AnnotationMetadataTests$TestConfiguration",
+			"org.springframework.core.type.AnnotationMetadataTests$SomeEnum",
+			"org.springframework.core.annotation.AnnotationAttributes",
+			"java.lang.Thread$State"};
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@Test
+	public void restoredMetadataMatchesParsedMetadata() throws Exception {
+		File cacheFile = new File(this.temporaryFolder.getRoot(), "metadata/cache.bin");
+		PersistentCachingMetadataReaderFactory factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		for (String className : CLASS_NAMES) {
+			factory.getMetadataReader(className);
+		}
+		assertEquals(0, factory.getPersistentCacheHitCount());
+		assertEquals(CLASS_NAMES.length, factory.getPersistentCacheMissCount());
+		factory.writeCache();
+		assertTrue(cacheFile.isFile());
+
+		PersistentCachingMetadataReaderFactory restored = new PersistentCachingMetadataReaderFactory(cacheFile);
+		SimpleMetadataReaderFactory simple = new SimpleMetadataReaderFactory();
+		for (String className : CLASS_NAMES) {
+			assertEquivalent(simple.getMetadataReader(className).getAnnotationMetadata(),
+					restored.getMetadataReader(className).getAnnotationMetadata());
+		}
+		assertEquals(CLASS_NAMES.length, restored.getPersistentCacheHitCount());
+		assertEquals(0, restored.getPersistentCacheMissCount());
+
+		Set<MethodMetadata> methods = restored.getMetadataReader(CLASS_NAMES[0]).getAnnotationMetadata()
+				.getAnnotatedMethods(TestAutowired.class.getName());
+		assertEquals(1, methods.size());
+		assertEquals("doWork", methods.iterator().next().getMethodName());
+	}
+
+	@Test
+	public void modifiedClassFileIsParsedAgain() throws Exception {
+		File classFile = new File(this.temporaryFolder.getRoot(), "Sample.class");
+		FileCopyUtils.copy(getClass().getResourceAsStream(getClass().getSimpleName() + ".class"),
+				new FileOutputStream(classFile));
+		Resource resource = new FileSystemResource(classFile);
+		File cacheFile = new File(this.temporaryFolder.getRoot(), "cache.bin");
+		PersistentCachingMetadataReaderFactory factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		factory.getMetadataReader(resource);
+		factory.writeCache();
+
+		factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		factory.getMetadataReader(resource);
+		assertEquals(1, factory.getPersistentCacheHitCount());
+
+		assertTrue(classFile.setLastModified(classFile.lastModified() - 10000));
+		factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		AnnotationMetadata metadata = factory.getMetadataReader(resource).getAnnotationMetadata();
+		assertEquals(getClass().getName(), metadata.getClassName());
+		assertEquals(0, factory.getPersistentCacheHitCount());
+		assertEquals(1, factory.getPersistentCacheMissCount());
+	}
+
+	@Test
+	public void corruptCacheFileIsIgnored() throws Exception {
+		File cacheFile = this.temporaryFolder.newFile("cache.bin");
+		OutputStream out = new FileOutputStream(cacheFile);
+		out.write(new byte[] {1, 2, 3, 4, 5});
+		out.close();
+
+		PersistentCachingMetadataReaderFactory factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		factory.getMetadataReader(CLASS_NAMES[0]);
+		assertEquals(1, factory.getPersistentCacheMissCount());
+		factory.writeCache();
+
+		factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		factory.getMetadataReader(CLASS_NAMES[0]);
+		assertEquals(1, factory.getPersistentCacheHitCount());
+	}
+
+	@Test
+	public void corruptCacheEntryIsParsedAgain() throws Exception {
+		Resource resource = new DefaultResourceLoader().getResource(ResourceLoader.CLASSPATH_URL_PREFIX +
+				ClassUtils.convertClassNameToResourcePath(CLASS_NAMES[0]) + ClassUtils.CLASS_FILE_SUFFIX);
+		ByteArrayOutputStream events = new ByteArrayOutputStream();
+		DataOutputStream eventsOut = new DataOutputStream(events);
+		eventsOut.writeByte(1);
+		eventsOut.writeInt(0);
+		eventsOut.writeInt(0);
+		eventsOut.writeUTF("Corrupt");
+		eventsOut.writeBoolean(false);
+		eventsOut.writeInt(Integer.MAX_VALUE);
+		eventsOut.close();
+
+		File cacheFile = this.temporaryFolder.newFile("cache.bin");
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(cacheFile));
+		out.writeInt(0x534d4443);
+		out.writeInt(1);
+		out.writeInt(1);
+		out.writeUTF(resource.getURL().toExternalForm());
+		out.writeLong(resource.lastModified());
+		out.writeInt(events.size());
+		out.write(events.toByteArray());
+		out.close();
+
+		PersistentCachingMetadataReaderFactory factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		AnnotationMetadata metadata = factory.getMetadataReader(resource).getAnnotationMetadata();
+		assertEquals(CLASS_NAMES[0], metadata.getClassName());
+		assertEquals(0, factory.getPersistentCacheHitCount());
+		assertEquals(1, factory.getPersistentCacheMissCount());
+	}
+
+	@Test
+	public void cacheFileIsReplacedAfterLoading() throws Exception {
+		File cacheFile = new File(this.temporaryFolder.getRoot(), "cache.bin");
+		PersistentCachingMetadataReaderFactory factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		factory.getMetadataReader(CLASS_NAMES[0]);
+		factory.writeCache();
+
+		factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		factory.getMetadataReader(CLASS_NAMES[0]);
+		factory.getMetadataReader(CLASS_NAMES[1]);
+		factory.writeCache();
+
+		factory = new PersistentCachingMetadataReaderFactory(cacheFile);
+		factory.getMetadataReader(CLASS_NAMES[0]);
+		factory.getMetadataReader(CLASS_NAMES[1]);
+		assertEquals(2, factory.getPersistentCacheHitCount());
+	}
+
+
+	private static void assertEquivalent(AnnotationMetadata expected, AnnotationMetadata actual) {
+		assertEquals(expected.getClassName(), actual.getClassName());
+		assertEquals(expected.isInterface(), actual.isInterface());
+		assertEquals(expected.isAnnotation(), actual.isAnnotation());
+		assertEquals(expected.isAbstract(), actual.isAbstract());
+		assertEquals(expected.isFinal(), actual.isFinal());
+		assertEquals(expected.isIndependent(), actual.isIndependent());
+		assertEquals(expected.getEnclosingClassName(), actual.getEnclosingClassName());
+		assertEquals(expected.getSuperClassName(), actual.getSuperClassName());
+		assertArrayEquals(expected.getInterfaceNames(), actual.getInterfaceNames());
+		assertArrayEquals(expected.getMemberClassNames(), actual.getMemberClassNames());
+		assertEquals(expected.getAnnotationTypes(), actual.getAnnotationTypes());
+		for (String annotationType : expected.getAnnotationTypes()) {
+			assertEquals(expected.getMetaAnnotationTypes(annotationType), actual.getMetaAnnotationTypes(annotationType));
+			assertEquals(String.valueOf(expected.getAnnotationAttributes(annotationType)),
+					String.valueOf(actual.getAnnotationAttributes(annotationType)));
+			assertEquals(String.valueOf(expected.getAnnotationAttributes(annotationType, true)),
+					String.valueOf(actual.getAnnotationAttributes(annotationType, true)));
+			assertEquals(toString(expected.getAnnotatedMethods(annotationType).toArray(new MethodMetadata[0])),
+					toString(actual.getAnnotatedMethods(annotationType).toArray(new MethodMetadata[0])));
+		}
+	}
+
+	private static String toString(MethodMetadata[] methods) {
+		String[] descriptions = new String[methods.length];
+		for (int i = 0; i < methods.length; i++) {
+			descriptions[i] = methods[i].getMethodName() + ":" + methods[i].getReturnTypeName() + ":" +
+					methods[i].isStatic();
+		}
+		return Arrays.toString(descriptions);
+	}
+
+}
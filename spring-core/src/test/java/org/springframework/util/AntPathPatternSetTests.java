@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link AntPathPatternSet}, verifying that it matches exactly
+ * like {@link AntPathMatcher} for the patterns and paths used in
+ * {@link AntPathMatcherTests}.
+ */
+public class AntPathPatternSetTests {
+
+	private static final List<String> PATTERNS = Arrays.asList(
+			"test", "/test", "http://example.org", "/test.jpg", "t?st", "??st", "tes?", "te??", "?es?", "*", "test*",
+			"test/*", "*test*", "*test", "*.*", "test*aaa", "/?", "/?/a", "/a/?", "/??/a", "/a/??", "/**", "/*/**",
+			"/**/*", "/bla/**/bla", "/**/test", "/bla/**/**/bla", "/bla*bla/test", "/*bla/test", "/????", "/**/*bla",
+			"/*bla*/**/bla/**", "/*bla*/**/bla/*", "*bla*/**/bla/**", "*bla*/**/bla/*", "/x/x/**/bla", "/foo/bar/**",
+			"", "/{bla}.*", "/hotels/{hotel}", "/h?tels/{hotel}", "/hotels/{hotel}/bookings/{booking}",
+			"/**/hotels/**/{hotel}", "/{page}.html", "/{page}.*", "/A-{B}-C", "/{name}.{extension}",
+			"{symbolicName:[\\w\\.]+}-{version:[\\w\\.]+}.jar",
+			"{symbolicName:[\\w\\.]+}-sources-{version:[\\w\\.]+}.jar", "/test/", "/a/*", "/**/a/*", "/", "/a/**/",
+			"/hotels/*/", "/**/*.html");
+
+	private static final List<String> PATHS = Arrays.asList(
+			"test", "/test", "http://example.org", "test.jpg", "tes", "testt", "tsst", "testTest", "test/Test",
+			"test/t", "test/", "AnothertestTest", "Anothertest", "test.", "test.test", "test.test.test", "testblaaaa",
+			"tst", "tsttest", "tsttst", "testblaaab", "/a", "/a/a", "/a/b", "/aa/a", "/a/bb", "/testing/testing",
+			"/bla/testing/testing/bla", "/bla/testing/testing/bla/bla", "/bla/bla/test", "/bla/bla/bla/bla/bla/bla",
+			"/blaXXXbla/test", "/XXXbla/test", "/blaXXXbl/test", "XXXblab/test", "XXXbl/test", "/bala/bla",
+			"/bla/bla/bla/bbb", "/XXXblaXXXX/testing/testing/bla/testing/testing/",
+			"/XXXblaXXXX/testing/testing/bla/testing", "/XXXblaXXXX/testing/testing/bla/testing/testing",
+			"/XXXblaXXXX/testing/testing/bla/testing/testing.jpg", "XXXblaXXXX/testing/testing/bla/testing/testing/",
+			"XXXblaXXXX/testing/testing/bla/testing", "XXXblaXXXX/testing/testing/bla/testing/testing", "/x/x/x/",
+			"/foo/bar", "", "/testing.html", "/hotels/1", "/hotels/1/bookings/2", "/foo/hotels/bar/1", "/42.html",
+			"/A-b-C", "/test.html", "com.example-1.0.0.jar", "com.example-sources-1.0.0.jar", "/test/", "/a/", "/",
+			"//a//b", "/hotels/", "/HOTELS/1", "/Test", "/a/b/c.html");
+
+
+	@Test
+	public void matchesLikeAntPathMatcher() {
+		assertSameMatches(new AntPathMatcher(), PATTERNS, PATHS);
+	}
+
+	@Test
+	public void matchesLikeAntPathMatcherCaseInsensitive() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		pathMatcher.setCaseSensitive(false);
+		assertSameMatches(pathMatcher, PATTERNS, PATHS);
+	}
+
+	@Test
+	public void matchesLikeAntPathMatcherWithTrimTokens() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		pathMatcher.setTrimTokens(true);
+		List<String> paths = new ArrayList<String>(PATHS);
+		paths.addAll(Arrays.asList("/ test", " /test ", "/a/ b", "/ hotels /1"));
+		assertSameMatches(pathMatcher, PATTERNS, paths);
+	}
+
+	@Test
+	public void matchesLikeAntPathMatcherWithDotSeparator() {
+		AntPathMatcher pathMatcher = new AntPathMatcher(".");
+		List<String> patterns = Arrays.asList("com.example.*", "com.**.Foo", "**.{name}", "com.?x*.**", ".leading.*");
+		List<String> paths = Arrays.asList("com.example.Foo", "com.example.sub.Foo", "org.Foo", "com.exa.Bar", ".leading.x");
+		assertSameMatches(pathMatcher, patterns, paths);
+	}
+
+	@Test
+	public void matchingPatternsInRegistrationOrder() {
+		AntPathPatternSet patternSet = new AntPathMatcher().compilePatterns(
+				Arrays.asList("/**", "/hotels/{hotel}", "/hotels/*", "/hotels/new", "/bookings/*"));
+		assertEquals(Arrays.asList("/**", "/hotels/{hotel}", "/hotels/*", "/hotels/new"),
+				patternSet.getMatchingPatterns("/hotels/new"));
+		assertEquals(Collections.singletonList("/**"), patternSet.getMatchingPatterns("/flights"));
+		assertTrue(patternSet.matchesAny("/bookings/1"));
+	}
+
+	@Test
+	public void matchWithUriTemplateVariables() {
+		AntPathPatternSet patternSet = new AntPathMatcher().compilePatterns(
+				Arrays.asList("/hotels/{hotel}/bookings/{booking}", "/hotels/*/bookings/*", "/{root}/**"));
+		List<AntPathPatternSet.PatternMatch> matches = patternSet.match("/hotels/1/bookings/2");
+		assertEquals(3, matches.size());
+		assertEquals("/hotels/{hotel}/bookings/{booking}", matches.get(0).getPattern());
+		assertEquals("1", matches.get(0).getUriTemplateVariables().get("hotel"));
+		assertEquals("2", matches.get(0).getUriTemplateVariables().get("booking"));
+		assertTrue(matches.get(1).getUriTemplateVariables().isEmpty());
+		assertEquals(Collections.singletonMap("root", "hotels"), matches.get(2).getUriTemplateVariables());
+	}
+
+	@Test
+	public void compiledWithCurrentSettings() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		AntPathPatternSet patternSet = pathMatcher.compilePatterns(Collections.singletonList("/hotels/*"));
+		assertTrue(pathMatcher.isCompiledWithCurrentSettings(patternSet));
+		pathMatcher.setCaseSensitive(false);
+		assertFalse(pathMatcher.isCompiledWithCurrentSettings(patternSet));
+		pathMatcher.setCaseSensitive(true);
+		pathMatcher.setTrimTokens(true);
+		assertFalse(pathMatcher.isCompiledWithCurrentSettings(patternSet));
+		pathMatcher.setTrimTokens(false);
+		pathMatcher.setPathSeparator(".");
+		assertFalse(pathMatcher.isCompiledWithCurrentSettings(patternSet));
+		pathMatcher.setPathSeparator(null);
+		assertTrue(pathMatcher.isCompiledWithCurrentSettings(patternSet));
+	}
+
+	@Test
+	public void emptyPatternSet() {
+		AntPathPatternSet patternSet = new AntPathMatcher().compilePatterns(Collections.<String>emptyList());
+		assertTrue(patternSet.isEmpty());
+		assertTrue(patternSet.getMatchingPatterns("/test").isEmpty());
+		assertTrue(patternSet.match("/test").isEmpty());
+	}
+
+
+	private static void assertSameMatches(AntPathMatcher pathMatcher, List<String> patterns, List<String> paths) {
+		AntPathPatternSet patternSet = pathMatcher.compilePatterns(patterns);
+		for (String path : paths) {
+			List<String> expected = new ArrayList<String>();
+			for (String pattern : patterns) {
+				if (pathMatcher.match(pattern, path)) {
+					expected.add(pattern);
+				}
+			}
+			assertEquals("Matching patterns for path \"" + path + "\"", expected, patternSet.getMatchingPatterns(path));
+
+			List<AntPathPatternSet.PatternMatch> matches = patternSet.match(path);
+			assertEquals(expected.size(), matches.size());
+			for (AntPathPatternSet.PatternMatch match : matches) {
+				Map<String, String> expectedVariables =
+						pathMatcher.extractUriTemplateVariables(match.getPattern(), path);
+				assertEquals("URI template variables for \"" + match.getPattern() + "\" and \"" + path + "\"",
+						expectedVariables, match.getUriTemplateVariables());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConcurrentLruCache}.
+ */
+public class ConcurrentLruCacheTests {
+
+	private final ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(2);
+
+
+	@Test
+	public void getAndPut() {
+		assertNull(this.cache.get("k1"));
+		assertNull(this.cache.put("k1", "v1"));
+		assertEquals("v1", this.cache.get("k1"));
+		assertEquals("v1", this.cache.put("k1", "v1b"));
+		assertEquals("v1b", this.cache.get("k1"));
+		assertEquals(1, this.cache.size());
+		assertEquals(2, this.cache.getHitCount());
+		assertEquals(1, this.cache.getMissCount());
+	}
+
+	@Test
+	public void peek() {
+		assertNull(this.cache.peek("k1"));
+		this.cache.put("k1", "v1");
+		assertEquals("v1", this.cache.peek("k1"));
+		assertEquals(0, this.cache.getHitCount());
+		assertEquals(0, this.cache.getMissCount());
+	}
+
+	@Test
+	public void putIfAbsent() {
+		assertNull(this.cache.putIfAbsent("k1", "v1"));
+		assertEquals("v1", this.cache.putIfAbsent("k1", "v2"));
+		assertEquals("v1", this.cache.get("k1"));
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsed() {
+		this.cache.put("k1", "v1");
+		this.cache.put("k2", "v2");
+		this.cache.get("k1");
+		this.cache.put("k3", "v3");
+		assertEquals(2, this.cache.size());
+		assertTrue(this.cache.contains("k1"));
+		assertFalse(this.cache.contains("k2"));
+		assertTrue(this.cache.contains("k3"));
+		assertEquals(1, this.cache.getEvictionCount());
+	}
+
+	@Test
+	public void evictsInInsertionOrderWithoutAccess() {
+		this.cache.put("k1", "v1");
+		this.cache.put("k2", "v2");
+		this.cache.put("k3", "v3");
+		this.cache.put("k4", "v4");
+		assertFalse(this.cache.contains("k1"));
+		assertFalse(this.cache.contains("k2"));
+		assertTrue(this.cache.contains("k3"));
+		assertTrue(this.cache.contains("k4"));
+	}
+
+	@Test
+	public void protectsFrequentlyReadEntries() {
+		this.cache.put("k1", "v1");
+		this.cache.put("k2", "v2");
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.put("k3", "v3");
+		assertEquals(2, this.cache.size());
+		assertTrue(this.cache.contains("k1"));
+		assertTrue(this.cache.contains("k2"));
+	}
+
+	@Test
+	public void onEviction() {
+		final List<String> evicted = new ArrayList<String>();
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(1) {
+			@Override
+			protected void onEviction(String key, String value) {
+				evicted.add(key + "=" + value);
+			}
+		};
+		cache.put("k1", "v1");
+		cache.put("k2", "v2");
+		cache.remove("k2");
+		assertEquals(1, evicted.size());
+		assertEquals("k1=v1", evicted.get(0));
+	}
+
+	@Test
+	public void removeAndClear() {
+		this.cache.put("k1", "v1");
+		this.cache.put("k2", "v2");
+		assertEquals("v1", this.cache.remove("k1"));
+		assertNull(this.cache.remove("k1"));
+		assertEquals(1, this.cache.size());
+		this.cache.clear();
+		assertEquals(0, this.cache.size());
+		assertNull(this.cache.get("k2"));
+	}
+
+	@Test
+	public void removedEntriesDoNotCountTowardsCapacity() {
+		for (int i = 0; i < 100; i++) {
+			this.cache.put("k" + i, "v" + i);
+			this.cache.remove("k" + i);
+		}
+		this.cache.put("a", "a");
+		this.cache.put("b", "b");
+		assertTrue(this.cache.contains("a"));
+		assertTrue(this.cache.contains("b"));
+		assertEquals(0, this.cache.getEvictionCount());
+	}
+
+	@Test
+	public void reduceCapacity() {
+		this.cache.put("k1", "v1");
+		this.cache.put("k2", "v2");
+		this.cache.setCapacity(1);
+		assertEquals(1, this.cache.size());
+		assertTrue(this.cache.contains("k2"));
+	}
+
+	@Test
+	public void zeroCapacity() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(0);
+		cache.put("k1", "v1");
+		assertEquals(0, cache.size());
+		assertNull(cache.get("k1"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeCapacity() {
+		new ConcurrentLruCache<String, String>(-1);
+	}
+
+	@Test
+	public void concurrentAccessStaysBounded() throws Exception {
+		final ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<Integer, Integer>(64);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		final CountDownLatch latch = new CountDownLatch(8);
+		for (int t = 0; t < 8; t++) {
+			final int offset = t;
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < 10000; i++) {
+						Integer key = (i * 31 + offset) % 256;
+						if (cache.get(key) == null) {
+							cache.put(key, key);
+						}
+					}
+					latch.countDown();
+				}
+			});
+		}
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		executor.shutdown();
+		assertTrue(cache.size() <= 64);
+		assertEquals(80000, cache.getHitCount() + cache.getMissCount());
+	}
+
+}
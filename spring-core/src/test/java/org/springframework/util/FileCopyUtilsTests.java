@@ -18,9 +18,12 @@ package org.springframework.util;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 
 import org.junit.Test;
@@ -61,6 +64,41 @@ public class FileCopyUtilsTests {
 		assertTrue(Arrays.equals(content, result));
 	}
 
+	@Test
+	public void copyFromFile() throws IOException {
+		byte[] content = "content".getBytes();
+		File in = File.createTempFile("FileCopyUtilsTests", ".in");
+		File out = File.createTempFile("FileCopyUtilsTests", ".out");
+		try {
+			FileCopyUtils.copy(content, in);
+			int count = FileCopyUtils.copy(in, out);
+			assertEquals(content.length, count);
+			assertTrue(Arrays.equals(content, FileCopyUtils.copyToByteArray(out)));
+		}
+		finally {
+			in.delete();
+			out.delete();
+		}
+	}
+
+	@Test
+	public void copyFromFileToChannel() throws IOException {
+		byte[] content = "content".getBytes();
+		File in = File.createTempFile("FileCopyUtilsTests", ".in");
+		try {
+			FileCopyUtils.copy(content, in);
+			ByteArrayOutputStream out = new ByteArrayOutputStream(content.length);
+			WritableByteChannel channel = Channels.newChannel(out);
+			long count = FileCopyUtils.copy(in, channel);
+			assertEquals(content.length, count);
+			assertTrue(Arrays.equals(content, out.toByteArray()));
+			assertFalse(channel.isOpen());
+		}
+		finally {
+			in.delete();
+		}
+	}
+
 	@Test
 	public void copyFromReader() throws IOException {
 		String content = "content";
@@ -114,4 +114,23 @@ public class PropertyPlaceholderHelperTests {
 		assertEquals("foo=bar,bar=${bar}", helper.replacePlaceholders(text, props));
 	}
 
+	@Test
+	public void testCachedParsingMatchesUncachedParsing() {
+		Properties props = new Properties();
+		props.setProperty("foo", "bar");
+		props.setProperty("inner", "oo");
+		props.setProperty("nested", "${f${inner}}");
+		props.setProperty("empty", "");
+
+		PropertyPlaceholderHelper cachingHelper = new PropertyPlaceholderHelper("${", "}", ":", true, true);
+		PropertyPlaceholderHelper plainHelper = new PropertyPlaceholderHelper("${", "}", ":", true);
+		String[] texts = new String[] {"plain", "${foo}", "a${foo}b${bar}c${baz:def}d", "${nested}-${f${inner}}",
+				"$${empty}{foo}", "${foo", "${unclosed${foo}", "{${foo}}", "${${inner}}"};
+		for (int i = 0; i < 2; i++) {
+			for (String text : texts) {
+				assertEquals(plainHelper.replacePlaceholders(text, props), cachingHelper.replacePlaceholders(text, props));
+			}
+		}
+	}
+
 }
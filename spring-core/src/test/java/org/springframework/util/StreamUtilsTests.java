@@ -18,8 +18,14 @@ package org.springframework.util;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Random;
@@ -103,6 +109,55 @@ public class StreamUtilsTests {
 		verify(out, never()).close();
 	}
 
+	@Test
+	public void copyChannel() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(bytes));
+		assertEquals(bytes.length, StreamUtils.copy(in, Channels.newChannel(out)));
+		assertThat(out.toByteArray(), equalTo(bytes));
+		assertTrue(in.isOpen());
+	}
+
+	@Test
+	public void copyFileChannel() throws Exception {
+		File file = createTempFile();
+		FileChannel in = new FileInputStream(file).getChannel();
+		try {
+			in.position(10);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			assertEquals(bytes.length - 10, StreamUtils.copy(in, Channels.newChannel(out)));
+			assertThat(out.toByteArray(), equalTo(Arrays.copyOfRange(bytes, 10, bytes.length)));
+			assertEquals(bytes.length, in.position());
+			assertTrue(in.isOpen());
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	@Test
+	public void copyRangeChannel() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(bytes));
+		assertEquals(101, StreamUtils.copyRange(in, Channels.newChannel(out), 4000, 4100));
+		assertThat(out.toByteArray(), equalTo(Arrays.copyOfRange(bytes, 4000, 4101)));
+	}
+
+	@Test
+	public void copyRangeFileChannel() throws Exception {
+		File file = createTempFile();
+		FileChannel in = new FileInputStream(file).getChannel();
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			assertEquals(10, StreamUtils.copyRange(in, Channels.newChannel(out), bytes.length - 10, bytes.length + 100));
+			assertThat(out.toByteArray(), equalTo(Arrays.copyOfRange(bytes, bytes.length - 10, bytes.length)));
+			assertEquals(0, in.position());
+		}
+		finally {
+			in.close();
+		}
+	}
+
 	@Test
 	public void nonClosingInputStream() throws Exception {
 		InputStream source = mock(InputStream.class);
@@ -132,4 +187,11 @@ public class StreamUtilsTests {
 		ordered.verify(source).write(bytes, 1, 2);
 		ordered.verify(source, never()).close();
 	}
+
+	private File createTempFile() throws IOException {
+		File file = File.createTempFile("StreamUtilsTests", ".bin");
+		file.deleteOnExit();
+		FileCopyUtils.copy(bytes, file);
+		return file;
+	}
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Benchmarks for SpEL parsing and evaluation, in interpreted as well as
+ * compiled mode.
+ *
+ * @since 4.3.1
+ */
+@State(Scope.Benchmark)
+public class SpelExpressionBenchmark {
+
+	@Param({"OFF", "IMMEDIATE"})
+	public SpelCompilerMode compilerMode;
+
+	private SpelExpressionParser parser;
+
+	private Expression propertyExpression;
+
+	private Expression methodExpression;
+
+	private Expression arithmeticExpression;
+
+	private Expression mapIndexExpression;
+
+	private Expression selectionExpression;
+
+	private StandardEvaluationContext context;
+
+	private Root root;
+
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.parser = new SpelExpressionParser(new SpelParserConfiguration(this.compilerMode, getClass().getClassLoader()));
+		this.propertyExpression = this.parser.parseExpression("name");
+		this.methodExpression = this.parser.parseExpression("name.substring(1, 3).toUpperCase()");
+		this.arithmeticExpression = this.parser.parseExpression("(count * 2 + 7) / 3 > 5 and active");
+		this.mapIndexExpression = this.parser.parseExpression("attributes['region']");
+		this.selectionExpression = this.parser.parseExpression("items.?[#this > 5]");
+		this.root = new Root();
+		this.context = new StandardEvaluationContext(this.root);
+		// Warm up the compiler where enabled, so that the benchmarks measure steady state
+		this.propertyExpression.getValue(this.context);
+		this.methodExpression.getValue(this.context);
+		this.arithmeticExpression.getValue(this.context);
+		this.mapIndexExpression.getValue(this.context);
+		this.selectionExpression.getValue(this.context);
+	}
+
+
+	@Benchmark
+	public Object parse() {
+		return this.parser.parseExpression("name.substring(1, 3).toUpperCase() + attributes['region']");
+	}
+
+	@Benchmark
+	public Object property() {
+		return this.propertyExpression.getValue(this.context);
+	}
+
+	@Benchmark
+	public Object methodInvocation() {
+		return this.methodExpression.getValue(this.context);
+	}
+
+	@Benchmark
+	public Object arithmetic() {
+		return this.arithmeticExpression.getValue(this.context);
+	}
+
+	@Benchmark
+	public Object mapIndex() {
+		return this.mapIndexExpression.getValue(this.context);
+	}
+
+	@Benchmark
+	public Object selection() {
+		return this.selectionExpression.getValue(this.context);
+	}
+
+	@Benchmark
+	public Object propertyWithNewContext() {
+		return this.propertyExpression.getValue(new StandardEvaluationContext(this.root));
+	}
+
+
+	public static class Root {
+
+		private final Map<String, String> attributes = new HashMap<String, String>();
+
+		private final List<Integer> items = new ArrayList<Integer>();
+
+		public Root() {
+			this.attributes.put("region", "emea");
+			for (int i = 0; i < 10; i++) {
+				this.items.add(i);
+			}
+		}
+
+		public String getName() {
+			return "benchmark";
+		}
+
+		public int getCount() {
+			return 42;
+		}
+
+		public boolean isActive() {
+			return true;
+		}
+
+		public Map<String, String> getAttributes() {
+			return this.attributes;
+		}
+
+		public List<Integer> getItems() {
+			return this.items;
+		}
+	}
+
+}
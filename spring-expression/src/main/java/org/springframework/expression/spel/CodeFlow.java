@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -79,9 +79,16 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * variables 1 and 2 are the target and the evaluation context).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
+
+	/**
+	 * Local variables holding the active context objects of nested evaluations,
+	 * e.g. the current element of a projection or selection.
+	 */
+	private final Stack<Integer> activeContextObjects = new Stack<Integer>();
 
 	public CodeFlow(String clazzName, ClassWriter cw) {
 		this.compilationScopes = new Stack<ArrayList<String>>();
@@ -92,11 +99,35 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * Push the byte code to load the target (i.e. what was passed as the first argument
-	 * to CompiledExpression.getValue(target, context))
+	 * to CompiledExpression.getValue(target, context)), or the active context object
+	 * of a nested evaluation if any.
 	 * @param mv the visitor into which the load instruction should be inserted
+	 * @see #pushActiveContextObject(int)
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, (this.activeContextObjects.isEmpty() ? 1 : this.activeContextObjects.peek()));
+	}
+
+	/**
+	 * Make the object in the given local variable the target for subsequently generated
+	 * code, until {@link #popActiveContextObject()} is called. Used for the evaluation of
+	 * nested expressions against a different context object, like the elements of a
+	 * collection in a projection.
+	 * @param variableId the local variable holding the context object, as obtained
+	 * from {@link #nextFreeVariableId()}; 1 refers to the original target
+	 * @since 4.3.1
+	 */
+	public void pushActiveContextObject(int variableId) {
+		this.activeContextObjects.push(variableId);
+	}
+
+	/**
+	 * Restore the previous target after a nested evaluation.
+	 * @since 4.3.1
+	 * @see #pushActiveContextObject(int)
+	 */
+	public void popActiveContextObject() {
+		this.activeContextObjects.pop();
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
 import org.springframework.asm.MethodVisitor;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.expression.AccessException;
@@ -51,7 +52,7 @@ import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
 // TODO support correct syntax for multidimensional [][][] and not [,,,]
 public class Indexer extends SpelNodeImpl {
 
-	private static enum IndexedType {ARRAY, LIST, MAP, STRING, OBJECT}
+	private static enum IndexedType {ARRAY, LIST, COLLECTION, MAP, STRING, OBJECT}
 
 
 	// These fields are used when the indexer is being used as a property read accessor.
@@ -154,6 +155,9 @@ public class Indexer extends SpelNodeImpl {
 				if (targetObject instanceof List) {
 					this.indexedType = IndexedType.LIST;
 				}
+				else {
+					this.indexedType = IndexedType.COLLECTION;
+				}
 				return new CollectionIndexingValueRef((Collection<?>) targetObject, idx, targetDescriptor,
 						state.getTypeConverter(), state.getConfiguration().isAutoGrowCollections(),
 						state.getConfiguration().getMaximumAutoGrowSize());
@@ -184,6 +188,11 @@ public class Indexer extends SpelNodeImpl {
 		else if (this.indexedType == IndexedType.LIST) {
 			return this.children[0].isCompilable();
 		}
+		else if (this.indexedType == IndexedType.COLLECTION) {
+			String indexDescriptor = this.children[0].exitTypeDescriptor;
+			return (this.exitTypeDescriptor != null && this.children[0].isCompilable() &&
+					("I".equals(indexDescriptor) || "Ljava/lang/Integer".equals(indexDescriptor)));
+		}
 		else if (this.indexedType == IndexedType.MAP) {
 			return (this.children[0] instanceof PropertyOrFieldReference || this.children[0].isCompilable());
 		}
@@ -242,21 +251,49 @@ public class Indexer extends SpelNodeImpl {
 						//depthPlusOne(exitTypeDescriptor)+"Ljava/lang/Object;");
 				insn = AALOAD;
 			}
-			SpelNodeImpl index = this.children[0];
-			cf.enterCompilationScope();
-			index.generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf);
 			mv.visitInsn(insn);
 		}
 
 		else if (this.indexedType == IndexedType.LIST) {
 			mv.visitTypeInsn(CHECKCAST, "java/util/List");
-			cf.enterCompilationScope();
-			this.children[0].generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf);
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "get", "(I)Ljava/lang/Object;", true);
 		}
 
+		else if (this.indexedType == IndexedType.COLLECTION) {
+			// Skip the elements before the index, then return the next element
+			int iteratorVar = cf.nextFreeVariableId();
+			int indexVar = cf.nextFreeVariableId();
+			mv.visitTypeInsn(CHECKCAST, "java/util/Collection");
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Collection", "iterator", "()Ljava/util/Iterator;", true);
+			mv.visitVarInsn(ASTORE, iteratorVar);
+			generateIndexCode(mv, cf);
+			mv.visitVarInsn(ISTORE, indexVar);
+			// Reject a negative index rather than returning the first element
+			Label indexValid = new Label();
+			mv.visitVarInsn(ILOAD, indexVar);
+			mv.visitJumpInsn(IFGE, indexValid);
+			mv.visitTypeInsn(NEW, "java/lang/IndexOutOfBoundsException");
+			mv.visitInsn(DUP);
+			mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IndexOutOfBoundsException", "<init>", "()V", false);
+			mv.visitInsn(ATHROW);
+			mv.visitLabel(indexValid);
+			Label loop = new Label();
+			Label found = new Label();
+			mv.visitLabel(loop);
+			mv.visitVarInsn(ILOAD, indexVar);
+			mv.visitJumpInsn(IFLE, found);
+			mv.visitVarInsn(ALOAD, iteratorVar);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+			mv.visitInsn(POP);
+			mv.visitIincInsn(indexVar, -1);
+			mv.visitJumpInsn(GOTO, loop);
+			mv.visitLabel(found);
+			mv.visitVarInsn(ALOAD, iteratorVar);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		}
+
 		else if (this.indexedType == IndexedType.MAP) {
 			mv.visitTypeInsn(CHECKCAST, "java/util/Map");
 			// Special case when the key is an unquoted string literal that will be parsed as
@@ -267,8 +304,11 @@ public class Indexer extends SpelNodeImpl {
 				mv.visitLdcInsn(mapKeyName);
 			}
 			else {
+				// Like for interpretation, the key is evaluated against the root object
 				cf.enterCompilationScope();
+				cf.pushActiveContextObject(1);
 				this.children[0].generateCode(mv, cf);
+				cf.popActiveContextObject();
 				cf.exitCompilationScope();
 			}
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
@@ -303,6 +343,21 @@ public class Indexer extends SpelNodeImpl {
 		cf.pushDescriptor(this.exitTypeDescriptor);
 	}
 
+	/**
+	 * Generate the code for the index, evaluated against the root object like
+	 * for interpretation, leaving an {@code int} on the stack.
+	 */
+	private void generateIndexCode(MethodVisitor mv, CodeFlow cf) {
+		cf.enterCompilationScope();
+		cf.pushActiveContextObject(1);
+		this.children[0].generateCode(mv, cf);
+		if ("Ljava/lang/Integer".equals(cf.lastDescriptor())) {
+			CodeFlow.insertUnboxInsns(mv, 'I', cf.lastDescriptor());
+		}
+		cf.popActiveContextObject();
+		cf.exitCompilationScope();
+	}
+
 	@Override
 	public String toStringAST() {
 		StringBuilder sb = new StringBuilder("[");
@@ -650,6 +705,7 @@ public class Indexer extends SpelNodeImpl {
 			int pos = 0;
 			for (Object o : this.collection) {
 				if (pos == this.index) {
+					exitTypeDescriptor = CodeFlow.toDescriptor(Object.class);
 					return new TypedValue(o, this.collectionEntryDescriptor.elementTypeDescriptor(o));
 				}
 				pos++;
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.ast;
+
+/**
+ * A small thread-safe cache held by an AST node, mapping the type of the target
+ * object that the node has been evaluated against to whatever the node resolved
+ * for that type (a property accessor or a method executor, for example).
+ *
+ * <p>The cache holds the resolutions for up to {@link #MAX_ENTRIES} different target
+ * types, which covers both the common monomorphic case and nodes evaluated against
+ * a few different types. Beyond that, the least recently added resolution is evicted.
+ * The cache is not tied to a particular evaluation context, so resolutions are reused
+ * across contexts, just like the single cached resolution they replace.
+ *
+ * <p>Lookups are lock-free and do not allocate: entries are held in an array which
+ * is replaced on every modification.
+ *
+ * @since 4.3.1
+ * @param <T> the type of the cached resolutions
+ */
+final class InlineCache<T> {
+
+	/** The maximum number of target types to keep resolutions for */
+	static final int MAX_ENTRIES = 4;
+
+	private static final Entry<?>[] EMPTY_ENTRIES = new Entry<?>[0];
+
+
+	private volatile Entry<?>[] entries = EMPTY_ENTRIES;
+
+
+	/**
+	 * Return the resolution cached for the given target type.
+	 * @param targetType the target type (may be {@code null} for a {@code null} target)
+	 * @return the cached resolution, or {@code null} if none
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(Class<?> targetType) {
+		Entry<?>[] entries = this.entries;
+		for (Entry<?> entry : entries) {
+			if (entry.targetType == targetType) {
+				return (T) entry.value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Cache the given resolution for the given target type,
+	 * replacing any resolution previously cached for that type.
+	 */
+	public synchronized void put(Class<?> targetType, T value) {
+		Entry<?>[] entries = this.entries;
+		int index = indexOf(entries, targetType);
+		Entry<?>[] newEntries;
+		if (index != -1) {
+			newEntries = entries.clone();
+			newEntries[index] = new Entry<T>(targetType, value);
+		}
+		else if (entries.length < MAX_ENTRIES) {
+			newEntries = new Entry<?>[entries.length + 1];
+			System.arraycopy(entries, 0, newEntries, 0, entries.length);
+			newEntries[entries.length] = new Entry<T>(targetType, value);
+		}
+		else {
+			newEntries = new Entry<?>[MAX_ENTRIES];
+			System.arraycopy(entries, 1, newEntries, 0, MAX_ENTRIES - 1);
+			newEntries[MAX_ENTRIES - 1] = new Entry<T>(targetType, value);
+		}
+		this.entries = newEntries;
+	}
+
+	/**
+	 * Remove the resolution cached for the given target type, typically because it went stale.
+	 */
+	public synchronized void remove(Class<?> targetType) {
+		Entry<?>[] entries = this.entries;
+		int index = indexOf(entries, targetType);
+		if (index != -1) {
+			Entry<?>[] newEntries = new Entry<?>[entries.length - 1];
+			System.arraycopy(entries, 0, newEntries, 0, index);
+			System.arraycopy(entries, index + 1, newEntries, index, entries.length - index - 1);
+			this.entries = newEntries;
+		}
+	}
+
+	/**
+	 * Return the number of target types that resolutions are cached for.
+	 */
+	public int size() {
+		return this.entries.length;
+	}
+
+	private static int indexOf(Entry<?>[] entries, Class<?> targetType) {
+		for (int i = 0; i < entries.length; i++) {
+			if (entries[i].targetType == targetType) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+
+	private static final class Entry<T> {
+
+		final Class<?> targetType;
+
+		final T value;
+
+		Entry(Class<?> targetType, T value) {
+			this.targetType = targetType;
+			this.value = value;
+		}
+	}
+
+}
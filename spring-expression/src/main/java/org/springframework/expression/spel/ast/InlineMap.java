@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,8 +20,11 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelNode;
 
@@ -159,4 +162,91 @@ public class InlineMap extends SpelNodeImpl {
 		return (Map<Object,Object>) this.constant.getValue();
 	}
 
+	@Override
+	public boolean isCompilable() {
+		if (isConstant()) {
+			return true;
+		}
+		for (int c = 0; c < this.children.length; c++) {
+			SpelNodeImpl child = this.children[c];
+			if (!((c % 2) == 0 && child instanceof PropertyOrFieldReference) && !child.isCompilable()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow codeflow) {
+		if (!isConstant()) {
+			generateMapCode(mv, codeflow);
+			codeflow.pushDescriptor("Ljava/util/Map");
+			return;
+		}
+
+		final String constantFieldName = "inlineMap$" + codeflow.nextFieldId();
+		final String clazzname = codeflow.getClassname();
+
+		codeflow.registerNewField(new CodeFlow.FieldAdder() {
+			public void generateField(ClassWriter cw, CodeFlow codeflow) {
+				cw.visitField(ACC_PRIVATE|ACC_STATIC|ACC_FINAL, constantFieldName, "Ljava/util/Map;", null, null);
+			}
+		});
+
+		codeflow.registerNewClinit(new CodeFlow.ClinitAdder() {
+			public void generateCode(MethodVisitor mv, CodeFlow codeflow) {
+				generateMapCode(mv, codeflow);
+				mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableMap",
+						"(Ljava/util/Map;)Ljava/util/Map;", false);
+				mv.visitFieldInsn(PUTSTATIC, clazzname, constantFieldName, "Ljava/util/Map;");
+			}
+		});
+
+		mv.visitFieldInsn(GETSTATIC, clazzname, constantFieldName, "Ljava/util/Map;");
+		codeflow.pushDescriptor("Ljava/util/Map");
+	}
+
+	/**
+	 * Generate the code for building the map, leaving it on the stack. Used at evaluation
+	 * time for a non-constant map, and in the static initializer for a constant map.
+	 */
+	private void generateMapCode(MethodVisitor mv, CodeFlow codeflow) {
+		mv.visitTypeInsn(NEW, "java/util/LinkedHashMap");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/LinkedHashMap", "<init>", "()V", false);
+		for (int c = 0; c < this.children.length; c++) {
+			mv.visitInsn(DUP);
+			SpelNodeImpl keyChild = this.children[c++];
+			if (keyChild instanceof PropertyOrFieldReference) {
+				mv.visitLdcInsn(((PropertyOrFieldReference) keyChild).getName());
+			}
+			else {
+				generateCodeForElement(mv, codeflow, keyChild);
+			}
+			generateCodeForElement(mv, codeflow, this.children[c]);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+					"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+			mv.visitInsn(POP);
+		}
+	}
+
+	private void generateCodeForElement(MethodVisitor mv, CodeFlow codeflow, SpelNodeImpl child) {
+		// Nested constant lists and maps are built inline rather than through their own
+		// generateCode() method which would register another static field
+		if (child instanceof InlineList && ((InlineList) child).isConstant()) {
+			((InlineList) child).generateClinitCode(codeflow.getClassname(), null, mv, codeflow, true);
+		}
+		else if (child instanceof InlineMap && ((InlineMap) child).isConstant()) {
+			((InlineMap) child).generateMapCode(mv, codeflow);
+			mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableMap",
+					"(Ljava/util/Map;)Ljava/util/Map;", false);
+		}
+		else {
+			codeflow.enterCompilationScope();
+			child.generateCode(mv, codeflow);
+			CodeFlow.insertBoxIfNecessary(mv, codeflow.lastDescriptor());
+			codeflow.exitCompilationScope();
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -52,6 +52,9 @@ public class MethodReference extends SpelNodeImpl {
 
 	private final boolean nullSafe;
 
+	private final InlineCache<CachedMethodExecutor> executorCache = new InlineCache<CachedMethodExecutor>();
+
+	// The executor used last, driving compilation
 	private volatile CachedMethodExecutor cachedExecutor;
 
 
@@ -117,14 +120,17 @@ public class MethodReference extends SpelNodeImpl {
 
 				// At this point we know it wasn't a user problem so worth a retry if a
 				// better candidate can be found.
+				this.executorCache.remove(getTargetType(value));
 				this.cachedExecutor = null;
 			}
 		}
 
 		// either there was no accessor or it no longer existed
 		executorToUse = findAccessorForMethod(this.name, argumentTypes, value, evaluationContext);
-		this.cachedExecutor = new CachedMethodExecutor(
+		CachedMethodExecutor executorToCache = new CachedMethodExecutor(
 				executorToUse, (value instanceof Class ? (Class<?>) value : null), targetType, argumentTypes);
+		this.executorCache.put(getTargetType(value), executorToCache);
+		this.cachedExecutor = executorToCache;
 		try {
 			return executorToUse.execute(evaluationContext, value, arguments);
 		}
@@ -178,14 +184,25 @@ public class MethodReference extends SpelNodeImpl {
 			return null;
 		}
 
-		CachedMethodExecutor executorToCheck = this.cachedExecutor;
+		CachedMethodExecutor executorToCheck = this.executorCache.get(getTargetType(value));
 		if (executorToCheck != null && executorToCheck.isSuitable(value, target, argumentTypes)) {
+			if (this.cachedExecutor != executorToCheck) {
+				this.cachedExecutor = executorToCheck;
+			}
 			return executorToCheck.get();
 		}
 		this.cachedExecutor = null;
 		return null;
 	}
 
+	/**
+	 * Determine the type that executors are cached for: the target class itself
+	 * for static invocations, the class of the target object otherwise.
+	 */
+	private static Class<?> getTargetType(Object value) {
+		return (value instanceof Class ? (Class<?>) value : value.getClass());
+	}
+
 	private MethodExecutor findAccessorForMethod(String name, List<TypeDescriptor> argumentTypes,
 			Object targetObject, EvaluationContext evaluationContext) throws SpelEvaluationException {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,11 @@ package org.springframework.expression.spel.ast;
 
 import java.util.List;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypeComparator;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -58,6 +61,7 @@ public class OperatorBetween extends Operator {
 					SpelMessage.BETWEEN_RIGHT_OPERAND_MUST_BE_TWO_ELEMENT_LIST);
 		}
 
+		this.exitTypeDescriptor = "Z";
 		List<?> list = (List<?>) right;
 		Object low = list.get(0);
 		Object high = list.get(1);
@@ -71,4 +75,74 @@ public class OperatorBetween extends Operator {
 		}
 	}
 
+	/**
+	 * Compilable for a constant two-element list of bounds. The compiled form
+	 * compares through the {@link TypeComparator} of the evaluation context,
+	 * just like the interpreted form.
+	 */
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl right = getRightOperand();
+		return (this.exitTypeDescriptor != null && getLeftOperand().isCompilable() &&
+				right instanceof InlineList && ((InlineList) right).isConstant() &&
+				right.getChildCount() == 2);
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		int leftVar = cf.nextFreeVariableId();
+		int comparatorVar = cf.nextFreeVariableId();
+		int boundsVar = cf.nextFreeVariableId();
+
+		cf.enterCompilationScope();
+		getLeftOperand().generateCode(mv, cf);
+		CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
+		cf.exitCompilationScope();
+		mv.visitVarInsn(ASTORE, leftVar);
+		cf.enterCompilationScope();
+		getRightOperand().generateCode(mv, cf);
+		cf.exitCompilationScope();
+		mv.visitVarInsn(ASTORE, boundsVar);
+		// Without an evaluation context, compare like a StandardEvaluationContext would
+		Label noContext = new Label();
+		Label comparatorLoaded = new Label();
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitJumpInsn(IFNULL, noContext);
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitMethodInsn(INVOKEINTERFACE, "org/springframework/expression/EvaluationContext",
+				"getTypeComparator", "()Lorg/springframework/expression/TypeComparator;", true);
+		mv.visitJumpInsn(GOTO, comparatorLoaded);
+		mv.visitLabel(noContext);
+		mv.visitTypeInsn(NEW, "org/springframework/expression/spel/support/StandardTypeComparator");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "org/springframework/expression/spel/support/StandardTypeComparator",
+				"<init>", "()V", false);
+		mv.visitLabel(comparatorLoaded);
+		mv.visitTypeInsn(CHECKCAST, "org/springframework/expression/TypeComparator");
+		mv.visitVarInsn(ASTORE, comparatorVar);
+
+		Label outOfRange = new Label();
+		Label end = new Label();
+		generateComparisonCode(mv, comparatorVar, leftVar, boundsVar, 0);
+		mv.visitJumpInsn(IFLT, outOfRange);
+		generateComparisonCode(mv, comparatorVar, leftVar, boundsVar, 1);
+		mv.visitJumpInsn(IFGT, outOfRange);
+		mv.visitInsn(ICONST_1);
+		mv.visitJumpInsn(GOTO, end);
+		mv.visitLabel(outOfRange);
+		mv.visitInsn(ICONST_0);
+		mv.visitLabel(end);
+		cf.pushDescriptor("Z");
+	}
+
+	private void generateComparisonCode(MethodVisitor mv, int comparatorVar, int leftVar, int boundsVar, int index) {
+		mv.visitVarInsn(ALOAD, comparatorVar);
+		mv.visitVarInsn(ALOAD, leftVar);
+		mv.visitVarInsn(ALOAD, boundsVar);
+		CodeFlow.insertOptimalLoad(mv, index);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "get", "(I)Ljava/lang/Object;", true);
+		mv.visitMethodInsn(INVOKEINTERFACE, "org/springframework/expression/TypeComparator",
+				"compare", "(Ljava/lang/Object;Ljava/lang/Object;)I", true);
+	}
+
 }
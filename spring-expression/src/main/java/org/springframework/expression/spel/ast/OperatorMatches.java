@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,7 +22,10 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -81,6 +84,7 @@ public class OperatorMatches extends Operator {
 				this.patternCache.putIfAbsent(rightString, pattern);
 			}
 			Matcher matcher = pattern.matcher(leftString);
+			this.exitTypeDescriptor = "Z";
 			return BooleanTypedValue.forValue(matcher.matches());
 		}
 		catch (PatternSyntaxException ex) {
@@ -88,4 +92,45 @@ public class OperatorMatches extends Operator {
 		}
 	}
 
+	/**
+	 * Compilable for a String operand and a literal regex, which is compiled into a
+	 * {@link Pattern} once in the static initializer of the generated class.
+	 */
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl left = getLeftOperand();
+		return (this.exitTypeDescriptor != null && getRightOperand() instanceof StringLiteral &&
+				left.isCompilable() && "Ljava/lang/String".equals(left.exitTypeDescriptor));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		final String patternFieldName = "pattern$" + cf.nextFieldId();
+		final String clazzname = cf.getClassname();
+		final String regex = (String) ((StringLiteral) getRightOperand()).getLiteralValue().getValue();
+
+		cf.registerNewField(new CodeFlow.FieldAdder() {
+			public void generateField(ClassWriter cw, CodeFlow codeflow) {
+				cw.visitField(ACC_PRIVATE|ACC_STATIC|ACC_FINAL, patternFieldName, "Ljava/util/regex/Pattern;", null, null);
+			}
+		});
+		cf.registerNewClinit(new CodeFlow.ClinitAdder() {
+			public void generateCode(MethodVisitor mv, CodeFlow codeflow) {
+				mv.visitLdcInsn(regex);
+				mv.visitMethodInsn(INVOKESTATIC, "java/util/regex/Pattern", "compile",
+						"(Ljava/lang/String;)Ljava/util/regex/Pattern;", false);
+				mv.visitFieldInsn(PUTSTATIC, clazzname, patternFieldName, "Ljava/util/regex/Pattern;");
+			}
+		});
+
+		mv.visitFieldInsn(GETSTATIC, clazzname, patternFieldName, "Ljava/util/regex/Pattern;");
+		cf.enterCompilationScope();
+		getLeftOperand().generateCode(mv, cf);
+		cf.exitCompilationScope();
+		mv.visitMethodInsn(INVOKEVIRTUAL, "java/util/regex/Pattern", "matcher",
+				"(Ljava/lang/CharSequence;)Ljava/util/regex/Matcher;", false);
+		mv.visitMethodInsn(INVOKEVIRTUAL, "java/util/regex/Matcher", "matches", "()Z", false);
+		cf.pushDescriptor("Z");
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,8 +22,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -44,6 +47,9 @@ public class Projection extends SpelNodeImpl {
 
 	private final boolean nullSafe;
 
+	// The type of operand that the projection has been applied to so far (for compilation)
+	private volatile String operandDescriptor;
+
 
 	public Projection(boolean nullSafe, int pos, SpelNodeImpl expression) {
 		super(pos, expression);
@@ -70,6 +76,9 @@ public class Projection extends SpelNodeImpl {
 		// and value, and they can be referenced in the operation
 		// eg. {'a':'y','b':'n'}.![value=='y'?key:null]" == ['a', null]
 		if (operand instanceof Map) {
+			this.operandDescriptor = SelectionAndProjectionCodeGenerator.recordOperandType(
+					this.operandDescriptor, SelectionAndProjectionCodeGenerator.MAP);
+			this.exitTypeDescriptor = "Ljava/util/List";
 			Map<?, ?> mapData = (Map<?, ?>) operand;
 			List<Object> result = new ArrayList<Object>();
 			for (Map.Entry<?, ?> entry : mapData.entrySet()) {
@@ -87,6 +96,9 @@ public class Projection extends SpelNodeImpl {
 		}
 
 		if (operand instanceof Iterable || operandIsArray) {
+			this.operandDescriptor = SelectionAndProjectionCodeGenerator.recordOperandType(this.operandDescriptor,
+					(operandIsArray ? SelectionAndProjectionCodeGenerator.ARRAY : SelectionAndProjectionCodeGenerator.ITERABLE));
+			this.exitTypeDescriptor = "Ljava/util/List";
 			Iterable<?> data = (operand instanceof Iterable ?
 					(Iterable<?>) operand : Arrays.asList(ObjectUtils.toObjectArray(operand)));
 
@@ -138,6 +150,48 @@ public class Projection extends SpelNodeImpl {
 		return "![" + getChild(0).toStringAST() + "]";
 	}
 
+	@Override
+	public boolean isCompilable() {
+		String operandDescriptor = this.operandDescriptor;
+		return ((SelectionAndProjectionCodeGenerator.ITERABLE.equals(operandDescriptor) ||
+				SelectionAndProjectionCodeGenerator.MAP.equals(operandDescriptor)) &&
+				this.children[0].isCompilable());
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		SelectionAndProjectionCodeGenerator generator =
+				new SelectionAndProjectionCodeGenerator(mv, cf, this.operandDescriptor, this.nullSafe);
+		int resultVar = cf.nextFreeVariableId();
+		Label end = new Label();
+
+		generator.loadIterator(end);
+		mv.visitTypeInsn(NEW, "java/util/ArrayList");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+		mv.visitVarInsn(ASTORE, resultVar);
+
+		Label loop = generator.loopOverElements();
+		mv.visitVarInsn(ALOAD, resultVar);
+		generator.generateCodeForElement(this.children[0]);
+		String elementDescriptor = cf.lastDescriptor();
+		if ("V".equals(elementDescriptor)) {
+			mv.visitInsn(ACONST_NULL);
+		}
+		else {
+			CodeFlow.insertBoxIfNecessary(mv, elementDescriptor);
+		}
+		generator.exitElement();
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+		mv.visitInsn(POP);
+		mv.visitJumpInsn(GOTO, loop);
+
+		generator.endOfElements();
+		mv.visitVarInsn(ALOAD, resultVar);
+		mv.visitLabel(end);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 	private Class<?> determineCommonType(Class<?> oldType, Class<?> newType) {
 		if (oldType == null) {
 			return newType;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -49,9 +49,12 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 
 	private final String name;
 
-	private volatile PropertyAccessor cachedReadAccessor;
+	private final InlineCache<PropertyAccessor> readAccessorCache = new InlineCache<PropertyAccessor>();
+
+	private final InlineCache<PropertyAccessor> writeAccessorCache = new InlineCache<PropertyAccessor>();
 
-	private volatile PropertyAccessor cachedWriteAccessor;
+	// The read accessor used last, driving compilation
+	private volatile PropertyAccessor cachedReadAccessor;
 
 
 	public PropertyOrFieldReference(boolean nullSafe, String propertyOrFieldName, int pos) {
@@ -182,14 +185,20 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 			return TypedValue.NULL;
 		}
 
-		PropertyAccessor accessorToUse = this.cachedReadAccessor;
+		Class<?> targetType = getTargetType(targetObject);
+		PropertyAccessor accessorToUse = this.readAccessorCache.get(targetType);
 		if (accessorToUse != null) {
 			try {
-				return accessorToUse.read(evalContext, contextObject.getValue(), name);
+				TypedValue result = accessorToUse.read(evalContext, targetObject, name);
+				if (this.cachedReadAccessor != accessorToUse) {
+					this.cachedReadAccessor = accessorToUse;
+				}
+				return result;
 			}
 			catch (Exception ex) {
 				// This is OK - it may have gone stale due to a class change,
 				// let's try to get a new one and call it before giving up...
+				this.readAccessorCache.remove(targetType);
 				this.cachedReadAccessor = null;
 			}
 		}
@@ -207,6 +216,7 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 							accessor = ((ReflectivePropertyAccessor) accessor).createOptimalAccessor(
 									evalContext, contextObject.getValue(), name);
 						}
+						this.readAccessorCache.put(targetType, accessor);
 						this.cachedReadAccessor = accessor;
 						return accessor.read(evalContext, contextObject.getValue(), name);
 					}
@@ -232,7 +242,8 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 			return;
 		}
 
-		PropertyAccessor accessorToUse = this.cachedWriteAccessor;
+		Class<?> targetType = getTargetType(contextObject.getValue());
+		PropertyAccessor accessorToUse = this.writeAccessorCache.get(targetType);
 		if (accessorToUse != null) {
 			try {
 				accessorToUse.write(evalContext, contextObject.getValue(), name, newValue);
@@ -241,7 +252,7 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 			catch (Exception ex) {
 				// This is OK - it may have gone stale due to a class change,
 				// let's try to get a new one and call it before giving up...
-				this.cachedWriteAccessor = null;
+				this.writeAccessorCache.remove(targetType);
 			}
 		}
 
@@ -251,7 +262,7 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 			try {
 				for (PropertyAccessor accessor : accessorsToTry) {
 					if (accessor.canWrite(evalContext, contextObject.getValue(), name)) {
-						this.cachedWriteAccessor = accessor;
+						this.writeAccessorCache.put(targetType, accessor);
 						accessor.write(evalContext, contextObject.getValue(), name, newValue);
 						return;
 					}
@@ -291,6 +302,17 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 		return false;
 	}
 
+	/**
+	 * Determine the type that accessors are cached for: the target class itself
+	 * for static access, the class of the target object otherwise.
+	 */
+	private static Class<?> getTargetType(Object targetObject) {
+		if (targetObject instanceof Class) {
+			return (Class<?>) targetObject;
+		}
+		return (targetObject != null ? targetObject.getClass() : null);
+	}
+
 	/**
 	 * Determines the set of property resolvers that should be used to try and access a property
 	 * on the specified target type. The resolvers are considered to be in an ordered list,
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,8 +23,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -57,6 +60,9 @@ public class Selection extends SpelNodeImpl {
 
 	private final boolean nullSafe;
 
+	// The type of operand that the selection has been applied to so far (for compilation)
+	private volatile String operandDescriptor;
+
 
 	public Selection(boolean nullSafe, int variant, int pos, SpelNodeImpl expression) {
 		super(pos, expression);
@@ -78,6 +84,9 @@ public class Selection extends SpelNodeImpl {
 		SpelNodeImpl selectionCriteria = this.children[0];
 
 		if (operand instanceof Map) {
+			this.operandDescriptor = SelectionAndProjectionCodeGenerator.recordOperandType(
+					this.operandDescriptor, SelectionAndProjectionCodeGenerator.MAP);
+			this.exitTypeDescriptor = "Ljava/util/Map";
 			Map<?, ?> mapdata = (Map<?, ?>) operand;
 			// TODO don't lose generic info for the new map
 			Map<Object, Object> result = new HashMap<Object, Object>();
@@ -125,6 +134,10 @@ public class Selection extends SpelNodeImpl {
 		}
 
 		if (operand instanceof Iterable || ObjectUtils.isArray(operand)) {
+			this.operandDescriptor = SelectionAndProjectionCodeGenerator.recordOperandType(this.operandDescriptor,
+					(operand instanceof Iterable ? SelectionAndProjectionCodeGenerator.ITERABLE :
+							SelectionAndProjectionCodeGenerator.ARRAY));
+			this.exitTypeDescriptor = (this.variant == ALL ? "Ljava/util/List" : "Ljava/lang/Object");
 			Iterable<?> data = (operand instanceof Iterable ?
 					(Iterable<?>) operand : Arrays.asList(ObjectUtils.toObjectArray(operand)));
 
@@ -200,4 +213,114 @@ public class Selection extends SpelNodeImpl {
 		return sb.append(getChild(0).toStringAST()).append("]").toString();
 	}
 
+	@Override
+	public boolean isCompilable() {
+		String operandDescriptor = this.operandDescriptor;
+		if (!SelectionAndProjectionCodeGenerator.ITERABLE.equals(operandDescriptor) &&
+				!SelectionAndProjectionCodeGenerator.MAP.equals(operandDescriptor)) {
+			return false;
+		}
+		SpelNodeImpl selectionCriteria = this.children[0];
+		return (selectionCriteria.isCompilable() &&
+				CodeFlow.isBooleanCompatible(selectionCriteria.exitTypeDescriptor));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		boolean map = SelectionAndProjectionCodeGenerator.MAP.equals(this.operandDescriptor);
+		SelectionAndProjectionCodeGenerator generator =
+				new SelectionAndProjectionCodeGenerator(mv, cf, this.operandDescriptor, this.nullSafe);
+		int resultVar = cf.nextFreeVariableId();
+		Label end = new Label();
+
+		generator.loadIterator(end);
+		if (this.variant == ALL) {
+			String resultType = (map ? "java/util/HashMap" : "java/util/ArrayList");
+			mv.visitTypeInsn(NEW, resultType);
+			mv.visitInsn(DUP);
+			mv.visitMethodInsn(INVOKESPECIAL, resultType, "<init>", "()V", false);
+			mv.visitVarInsn(ASTORE, resultVar);
+		}
+		else if (this.variant == LAST) {
+			mv.visitInsn(ACONST_NULL);
+			mv.visitVarInsn(ASTORE, resultVar);
+		}
+
+		Label loop = generator.loopOverElements();
+		generator.generateCodeForElement(this.children[0]);
+		cf.unboxBooleanIfNecessary(mv);
+		generator.exitElement();
+		mv.visitJumpInsn(IFEQ, loop);
+		if (this.variant == ALL) {
+			mv.visitVarInsn(ALOAD, resultVar);
+			if (map) {
+				generateCodeForEntryKeyAndValue(mv, generator.getElementVariable());
+				mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+						"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+			}
+			else {
+				generator.loadElement();
+				mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+			}
+			mv.visitInsn(POP);
+			mv.visitJumpInsn(GOTO, loop);
+		}
+		else if (this.variant == FIRST) {
+			if (map) {
+				generateCodeForSingleEntryMap(mv, generator.getElementVariable());
+			}
+			else {
+				generator.loadElement();
+			}
+			mv.visitJumpInsn(GOTO, end);
+		}
+		else {
+			generator.loadElement();
+			mv.visitVarInsn(ASTORE, resultVar);
+			mv.visitJumpInsn(GOTO, loop);
+		}
+
+		generator.endOfElements();
+		if (this.variant == ALL || (this.variant == LAST && !map)) {
+			mv.visitVarInsn(ALOAD, resultVar);
+		}
+		else if (this.variant == LAST) {
+			Label noMatch = new Label();
+			mv.visitVarInsn(ALOAD, resultVar);
+			mv.visitJumpInsn(IFNULL, noMatch);
+			generateCodeForSingleEntryMap(mv, resultVar);
+			mv.visitJumpInsn(GOTO, end);
+			mv.visitLabel(noMatch);
+			mv.visitInsn(ACONST_NULL);
+		}
+		else {
+			mv.visitInsn(ACONST_NULL);
+		}
+		mv.visitLabel(end);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
+	/**
+	 * Create a new map holding the key and value of the entry in the given local variable.
+	 */
+	private void generateCodeForSingleEntryMap(MethodVisitor mv, int entryVar) {
+		mv.visitTypeInsn(NEW, "java/util/HashMap");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/HashMap", "<init>", "()V", false);
+		mv.visitInsn(DUP);
+		generateCodeForEntryKeyAndValue(mv, entryVar);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+				"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+		mv.visitInsn(POP);
+	}
+
+	private void generateCodeForEntryKeyAndValue(MethodVisitor mv, int entryVar) {
+		mv.visitVarInsn(ALOAD, entryVar);
+		mv.visitTypeInsn(CHECKCAST, "java/util/Map$Entry");
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map$Entry", "getKey", "()Ljava/lang/Object;", true);
+		mv.visitVarInsn(ALOAD, entryVar);
+		mv.visitTypeInsn(CHECKCAST, "java/util/Map$Entry");
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map$Entry", "getValue", "()Ljava/lang/Object;", true);
+	}
+
 }
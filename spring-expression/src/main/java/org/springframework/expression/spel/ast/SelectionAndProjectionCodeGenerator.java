@@ -0,0 +1,170 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.ast;
+
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.expression.spel.CodeFlow;
+
+/**
+ * Generates the loop over the elements of a collection or the entries of a map
+ * which is shared by the compiled forms of {@link Projection} and {@link Selection}.
+ *
+ * <p>The operand type is the one observed during interpretation. The generated
+ * code casts the operand to that type, so an operand of a different type causes
+ * a {@code ClassCastException} which makes the expression revert to interpretation
+ * (in {@link org.springframework.expression.spel.SpelCompilerMode#MIXED MIXED} mode).
+ *
+ * @since 4.3.1
+ */
+final class SelectionAndProjectionCodeGenerator implements Opcodes {
+
+	/** Operand descriptor for any {@code Iterable} (other than a map) */
+	static final String ITERABLE = "Ljava/lang/Iterable";
+
+	/** Operand descriptor for a {@code Map} */
+	static final String MAP = "Ljava/util/Map";
+
+	/** Operand descriptor for an array (not supported for compilation) */
+	static final String ARRAY = "[";
+
+	/** Operand descriptor indicating that different types of operands have been seen */
+	static final String MIXED = "";
+
+
+	/**
+	 * Combine the operand type observed so far with the operand type of the current evaluation.
+	 */
+	static String recordOperandType(String previousDescriptor, String descriptor) {
+		return (previousDescriptor == null || previousDescriptor.equals(descriptor) ? descriptor : MIXED);
+	}
+
+
+	private final MethodVisitor mv;
+
+	private final CodeFlow cf;
+
+	private final boolean map;
+
+	private final boolean nullSafe;
+
+	private final int iteratorVar;
+
+	private final int elementVar;
+
+	private final Label done = new Label();
+
+
+	public SelectionAndProjectionCodeGenerator(MethodVisitor mv, CodeFlow cf, String operandDescriptor, boolean nullSafe) {
+		this.mv = mv;
+		this.cf = cf;
+		this.map = MAP.equals(operandDescriptor);
+		this.nullSafe = nullSafe;
+		this.iteratorVar = cf.nextFreeVariableId();
+		this.elementVar = cf.nextFreeVariableId();
+	}
+
+
+	/**
+	 * Load the operand and obtain an iterator over its elements, or its entries in case
+	 * of a map. For a null-safe operation, a {@code null} operand jumps to the given label
+	 * with {@code null} on the stack.
+	 */
+	public void loadIterator(Label end) {
+		if (this.cf.lastDescriptor() == null) {
+			this.cf.loadTarget(this.mv);
+		}
+		if (this.nullSafe) {
+			Label nonNull = new Label();
+			this.mv.visitInsn(DUP);
+			this.mv.visitJumpInsn(IFNONNULL, nonNull);
+			this.mv.visitInsn(POP);
+			this.mv.visitInsn(ACONST_NULL);
+			this.mv.visitJumpInsn(GOTO, end);
+			this.mv.visitLabel(nonNull);
+		}
+		if (this.map) {
+			this.mv.visitTypeInsn(CHECKCAST, "java/util/Map");
+			this.mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "entrySet", "()Ljava/util/Set;", true);
+			this.mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Set", "iterator", "()Ljava/util/Iterator;", true);
+		}
+		else {
+			this.mv.visitTypeInsn(CHECKCAST, "java/lang/Iterable");
+			this.mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+		}
+		this.mv.visitVarInsn(ASTORE, this.iteratorVar);
+	}
+
+	/**
+	 * Start the loop: advance to the next element, leaving the loop once there are no more elements.
+	 * @return the label to jump to for continuing with the next element
+	 * @see #endOfElements()
+	 */
+	public Label loopOverElements() {
+		Label loop = new Label();
+		this.mv.visitLabel(loop);
+		this.mv.visitVarInsn(ALOAD, this.iteratorVar);
+		this.mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		this.mv.visitJumpInsn(IFEQ, this.done);
+		this.mv.visitVarInsn(ALOAD, this.iteratorVar);
+		this.mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		if (this.map) {
+			this.mv.visitTypeInsn(CHECKCAST, "java/util/Map$Entry");
+		}
+		this.mv.visitVarInsn(ASTORE, this.elementVar);
+		return loop;
+	}
+
+	/**
+	 * Generate the code for the given expression, evaluated against the current element.
+	 * Must be followed by a call to {@link #exitElement()} once the result descriptor
+	 * has been processed.
+	 */
+	public void generateCodeForElement(SpelNodeImpl expression) {
+		this.cf.enterCompilationScope();
+		this.cf.pushActiveContextObject(this.elementVar);
+		expression.generateCode(this.mv, this.cf);
+	}
+
+	public void exitElement() {
+		this.cf.popActiveContextObject();
+		this.cf.exitCompilationScope();
+	}
+
+	/**
+	 * Load the current element, or the current {@code Map.Entry} in case of a map.
+	 */
+	public void loadElement() {
+		this.mv.visitVarInsn(ALOAD, this.elementVar);
+	}
+
+	/**
+	 * Return the local variable holding the current element.
+	 */
+	public int getElementVariable() {
+		return this.elementVar;
+	}
+
+	/**
+	 * Mark the position that the loop exits to once there are no more elements.
+	 */
+	public void endOfElements() {
+		this.mv.visitLabel(this.done);
+	}
+
+}
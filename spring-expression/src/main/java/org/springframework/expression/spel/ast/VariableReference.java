@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -65,7 +65,16 @@ public class VariableReference extends SpelNodeImpl {
 	@Override
 	public TypedValue getValueInternal(ExpressionState state) throws SpelEvaluationException {
 		if (this.name.equals(THIS)) {
-			return state.getActiveContextObject();
+			TypedValue result = state.getActiveContextObject();
+			Object value = result.getValue();
+			String descriptor = (value == null || !Modifier.isPublic(value.getClass().getModifiers()) ?
+					"Ljava/lang/Object" : CodeFlow.toDescriptorFromObject(value));
+			// The active context object typically varies, e.g. across the elements
+			// of a projection: fall back to Object if different types are seen
+			String previousDescriptor = this.exitTypeDescriptor;
+			this.exitTypeDescriptor = (previousDescriptor == null || previousDescriptor.equals(descriptor) ?
+					descriptor : "Ljava/lang/Object");
+			return result;
 		}
 		if (this.name.equals(ROOT)) {
 			TypedValue result = state.getRootContextObject();
@@ -147,6 +156,9 @@ public class VariableReference extends SpelNodeImpl {
 		if (this.name.equals(ROOT)) {
 			mv.visitVarInsn(ALOAD,1);
 		}
+		else if (this.name.equals(THIS)) {
+			cf.loadTarget(mv);
+		}
 		else {
 			mv.visitVarInsn(ALOAD, 2);
 			mv.visitLdcInsn(name);
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.CompiledExpression;
+import org.springframework.expression.spel.ast.SpelNodeImpl;
+import org.springframework.util.Assert;
+
+/**
+ * Compiles a set of SpEL expressions in one go, typically all expressions declared
+ * by an application once it has been started, instead of compiling each expression
+ * only after a number of interpreted evaluations.
+ *
+ * <p>Since the compiler relies on the types observed during an interpreted evaluation,
+ * an expression needs to have been evaluated at least once before it can be compiled.
+ * Expressions may therefore be registered along with a sample {@link EvaluationContext}
+ * which they get evaluated against right before compilation.
+ *
+ * <p>Compiled classes are shared: expressions that result in identical bytecode, such as
+ * the same expression string evaluated against the same types, use a single generated
+ * class, also across batches and across expressions parsed by different parsers for the
+ * same compiler ClassLoader. Expressions that cannot be compiled are reported along with
+ * the reason in the returned {@link CompilationResult}, and remain interpreted.
+ *
+ * <p>A compiled expression behaves according to the {@link org.springframework.expression.spel.SpelCompilerMode}
+ * of its parser configuration: in {@code MIXED} mode it silently reverts to interpretation
+ * if it encounters types different from the ones it has been compiled for.
+ *
+ * <p>Not thread-safe: expressions are meant to be registered and compiled by a single thread.
+ *
+ * @since 4.3.1
+ * @see SpelCompiler
+ */
+public class SpelBatchCompiler {
+
+	private static final Log logger = LogFactory.getLog(SpelBatchCompiler.class);
+
+
+	private final Map<SpelExpression, EvaluationContext> expressions = new LinkedHashMap<SpelExpression, EvaluationContext>();
+
+
+	/**
+	 * Register the given expression for compilation. The expression is expected to have been
+	 * evaluated at least once already, or it will be reported as not compilable.
+	 * @param expression the expression to compile (must be a {@link SpelExpression})
+	 */
+	public void addExpression(Expression expression) {
+		addExpression(expression, null);
+	}
+
+	/**
+	 * Register the given expression for compilation, evaluating it against the given
+	 * sample context first in order to determine the types involved.
+	 * @param expression the expression to compile (must be a {@link SpelExpression})
+	 * @param sampleContext the context to evaluate the expression against before
+	 * compiling it, or {@code null} if the expression has been evaluated already
+	 */
+	public void addExpression(Expression expression, EvaluationContext sampleContext) {
+		Assert.isInstanceOf(SpelExpression.class, expression, "Only SpelExpressions can be compiled");
+		this.expressions.put((SpelExpression) expression, sampleContext);
+	}
+
+	/**
+	 * Return the number of expressions registered for compilation.
+	 */
+	public int getExpressionCount() {
+		return this.expressions.size();
+	}
+
+	/**
+	 * Compile all registered expressions which have not been compiled yet,
+	 * and clear the registrations.
+	 * @return the outcome of the compilation
+	 */
+	public CompilationResult compile() {
+		CompilationResult result = new CompilationResult();
+		for (Map.Entry<SpelExpression, EvaluationContext> entry : this.expressions.entrySet()) {
+			SpelExpression expression = entry.getKey();
+			if (expression.isCompiled()) {
+				result.compiledCount++;
+				continue;
+			}
+			String failure = compile(expression, entry.getValue(), result);
+			if (failure != null) {
+				result.addFailure(expression.getExpressionString(), failure);
+			}
+		}
+		this.expressions.clear();
+		if (logger.isDebugEnabled()) {
+			logger.debug("SpEL: batch compilation resulted in " + result);
+		}
+		return result;
+	}
+
+	/**
+	 * Compile the given expression.
+	 * @return the reason why the expression could not be compiled, or {@code null} if it has been compiled
+	 */
+	private String compile(SpelExpression expression, EvaluationContext sampleContext, CompilationResult result) {
+		if (sampleContext != null) {
+			try {
+				expression.getValue(sampleContext);
+			}
+			catch (Throwable ex) {
+				return "Evaluation against sample context failed: " + ex;
+			}
+		}
+		SpelNodeImpl ast = (SpelNodeImpl) expression.getAST();
+		if (!ast.isCompilable()) {
+			SpelNodeImpl node = findNonCompilableNode(ast);
+			return "Not compilable at " + node.getClass().getSimpleName() + " '" + node.toStringAST() +
+					"': types not determined yet or not supported by the compiler";
+		}
+		CompiledExpression compiledAst;
+		try {
+			SpelCompiler compiler = SpelCompiler.getCompiler(expression.getConfiguration().getCompilerClassLoader());
+			compiledAst = compiler.compileShared(ast);
+		}
+		catch (IllegalStateException ex) {
+			return "Code generation failed: " + ex.getMessage();
+		}
+		catch (Throwable ex) {
+			return "Code generation failed: " + ex;
+		}
+		expression.installCompiledExpression(compiledAst);
+		result.compiledCount++;
+		result.classes.add(compiledAst.getClass());
+		return null;
+	}
+
+	/**
+	 * Find the innermost node which prevents the given non-compilable node from being compiled.
+	 */
+	private static SpelNodeImpl findNonCompilableNode(SpelNodeImpl node) {
+		for (int i = 0; i < node.getChildCount(); i++) {
+			SpelNodeImpl child = (SpelNodeImpl) node.getChild(i);
+			if (!child.isCompilable()) {
+				return findNonCompilableNode(child);
+			}
+		}
+		return node;
+	}
+
+
+	/**
+	 * The outcome of a {@link SpelBatchCompiler#compile()} call.
+	 */
+	public static class CompilationResult {
+
+		private int compiledCount;
+
+		private final Set<Class<?>> classes = new HashSet<Class<?>>();
+
+		private final Map<String, String> failures = new LinkedHashMap<String, String>();
+
+		private CompilationResult() {
+		}
+
+		private void addFailure(String expressionString, String reason) {
+			if (!this.failures.containsKey(expressionString)) {
+				this.failures.put(expressionString, reason);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("SpEL: unable to compile '" + expressionString + "': " + reason);
+			}
+		}
+
+		/**
+		 * Return the number of expressions which are compiled now,
+		 * including expressions which had been compiled already.
+		 */
+		public int getCompiledCount() {
+			return this.compiledCount;
+		}
+
+		/**
+		 * Return the number of distinct classes that the expressions compiled
+		 * in this batch are backed by.
+		 */
+		public int getClassCount() {
+			return this.classes.size();
+		}
+
+		/**
+		 * Return the expressions which could not be compiled, as a map from expression
+		 * string to the reason. Each distinct expression string is reported once.
+		 */
+		public Map<String, String> getFailures() {
+			return Collections.unmodifiableMap(this.failures);
+		}
+
+		@Override
+		public String toString() {
+			return this.compiledCount + " compiled expressions backed by " + this.classes.size() +
+					" classes, " + this.failures.size() + " failed expressions";
+		}
+	}
+
+}
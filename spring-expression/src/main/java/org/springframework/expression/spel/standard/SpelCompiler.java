@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,7 +21,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
@@ -61,6 +63,7 @@ import org.springframework.util.ConcurrentReferenceHashMap;
  * object), it is not on by default.
  *
  * <p>Individual expressions can be compiled by calling {@code SpelCompiler.compile(expression)}.
+ * A set of expressions can be compiled in one go through a {@link SpelBatchCompiler}.
  *
  * @author Andy Clement
  * @since 4.1
@@ -69,6 +72,9 @@ public class SpelCompiler implements Opcodes {
 
 	private static final Log logger = LogFactory.getLog(SpelCompiler.class);
 
+	// Class name used for generating the bytecode that identifies a shared class
+	private static final String SHARED_CLASS_PLACEHOLDER = "spel/ExShared";
+
 	// A compiler is created for each classloader, it manages a child class loader of that
 	// classloader and the child is used to load the compiled expressions.
 	private static final Map<ClassLoader, SpelCompiler> compilers =
@@ -81,6 +87,10 @@ public class SpelCompiler implements Opcodes {
 	// Counter suffix for generated classes within this SpelCompiler instance
 	private final AtomicInteger suffixId = new AtomicInteger(1);
 
+	// Classes generated for shared use, keyed by their bytecode (with a placeholder class name)
+	private final Map<ByteBuffer, Class<? extends CompiledExpression>> sharedClasses =
+			new ConcurrentHashMap<ByteBuffer, Class<? extends CompiledExpression>>(64);
+
 
 	private SpelCompiler(ClassLoader classloader) {
 		this.ccl = new ChildClassLoader(classloader);
@@ -119,6 +129,36 @@ public class SpelCompiler implements Opcodes {
 		return null;
 	}
 
+	/**
+	 * Compile the supplied expression into a class which may be shared with other
+	 * expressions: expressions resulting in identical bytecode, e.g. the same expression
+	 * string evaluated against the same types, share a single generated class.
+	 * @param expression the expression to compile (must be {@link SpelNodeImpl#isCompilable() compilable})
+	 * @return an instance of the class implementing the compiled expression
+	 * @throws IllegalStateException if code generation opted out of compilation
+	 * @since 4.3.1
+	 * @see SpelBatchCompiler
+	 */
+	CompiledExpression compileShared(SpelNodeImpl expression) {
+		ByteBuffer key = ByteBuffer.wrap(generateExpressionClass(expression, SHARED_CLASS_PLACEHOLDER));
+		Class<? extends CompiledExpression> clazz = this.sharedClasses.get(key);
+		if (clazz == null) {
+			synchronized (this.sharedClasses) {
+				clazz = this.sharedClasses.get(key);
+				if (clazz == null) {
+					clazz = defineExpressionClass(expression);
+					this.sharedClasses.put(key, clazz);
+				}
+			}
+		}
+		try {
+			return clazz.newInstance();
+		}
+		catch (Throwable ex) {
+			throw new IllegalStateException("Failed to instantiate CompiledExpression", ex);
+		}
+	}
+
 	private int getNextSuffix() {
 		return this.suffixId.incrementAndGet();
 	}
@@ -130,10 +170,34 @@ public class SpelCompiler implements Opcodes {
 	 * @return the expression call, or {@code null} if the decision was to opt out of
 	 * compilation during code generation
 	 */
-	@SuppressWarnings("unchecked")
 	private Class<? extends CompiledExpression> createExpressionClass(SpelNodeImpl expressionToCompile) {
+		try {
+			return defineExpressionClass(expressionToCompile);
+		}
+		catch (IllegalStateException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug(expressionToCompile.getClass().getSimpleName() +
+						".generateCode opted out of compilation: " + ex.getMessage());
+			}
+			return null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Class<? extends CompiledExpression> defineExpressionClass(SpelNodeImpl expressionToCompile) {
 		// Create class outline 'spel/ExNNN extends org.springframework.expression.spel.CompiledExpression'
 		String clazzName = "spel/Ex" + getNextSuffix();
+		byte[] data = generateExpressionClass(expressionToCompile, clazzName);
+		// TODO need to make this conditionally occur based on a debug flag
+		// dump(expressionToCompile.toStringAST(), clazzName, data);
+		return (Class<? extends CompiledExpression>) this.ccl.defineClass(clazzName.replaceAll("/", "."), data);
+	}
+
+	/**
+	 * Generate the bytecode for a class with the given name that encapsulates the compiled expression.
+	 * @throws IllegalStateException if the decision was to opt out of compilation during code generation
+	 */
+	private byte[] generateExpressionClass(SpelNodeImpl expressionToCompile, String clazzName) {
 		ClassWriter cw = new ExpressionClassWriter();
 		cw.visit(V1_5, ACC_PUBLIC, clazzName, null, "org/springframework/expression/spel/CompiledExpression", null);
 
@@ -156,16 +220,7 @@ public class SpelCompiler implements Opcodes {
 		CodeFlow cf = new CodeFlow(clazzName, cw);
 
 		// Ask the expression AST to generate the body of the method
-		try {
-			expressionToCompile.generateCode(mv, cf);
-		}
-		catch (IllegalStateException ex) {
-			if (logger.isDebugEnabled()) {
-				logger.debug(expressionToCompile.getClass().getSimpleName() +
-						".generateCode opted out of compilation: " + ex.getMessage());
-			}
-			return null;
-		}
+		expressionToCompile.generateCode(mv, cf);
 
 		CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
 		if ("V".equals(cf.lastDescriptor())) {
@@ -179,10 +234,7 @@ public class SpelCompiler implements Opcodes {
 
 		cf.finish();
 
-		byte[] data = cw.toByteArray();
-		// TODO need to make this conditionally occur based on a debug flag
-		// dump(expressionToCompile.toStringAST(), clazzName, data);
-		return (Class<? extends CompiledExpression>) this.ccl.defineClass(clazzName.replaceAll("/", "."), data);
+		return cw.toByteArray();
 	}
 
 
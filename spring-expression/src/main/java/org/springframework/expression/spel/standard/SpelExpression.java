@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -473,6 +473,34 @@ public class SpelExpression implements Expression {
 		return (this.compiledAst != null);
 	}
 
+	/**
+	 * Install the given compiled form of the expression, e.g. as obtained by a
+	 * {@link SpelBatchCompiler}, replacing any compiled form the expression has so far.
+	 * @param compiledAst the compiled form of this expression
+	 * @since 4.3.1
+	 */
+	void installCompiledExpression(CompiledExpression compiledAst) {
+		synchronized (this.expression) {
+			this.compiledAst = compiledAst;
+		}
+	}
+
+	/**
+	 * Return whether the expression has currently been compiled.
+	 * @since 4.3.1
+	 */
+	boolean isCompiled() {
+		return (this.compiledAst != null);
+	}
+
+	/**
+	 * Return the configuration that the expression has been parsed with.
+	 * @since 4.3.1
+	 */
+	SpelParserConfiguration getConfiguration() {
+		return this.configuration;
+	}
+
 	/**
 	 * Cause an expression to revert to being interpreted if it has been using a compiled
 	 * form. It also resets the compilation attempt failure count (an expression is normally no
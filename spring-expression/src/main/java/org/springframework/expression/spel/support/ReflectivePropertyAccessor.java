@@ -28,6 +28,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.asm.MethodVisitor;
 import org.springframework.core.MethodParameter;
@@ -40,6 +41,7 @@ import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
 import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.CompilablePropertyAccessor;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
@@ -69,18 +71,22 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 	}
 
 
-	private final Map<PropertyCacheKey, InvokerPair> readerCache =
-			new ConcurrentHashMap<PropertyCacheKey, InvokerPair>(64);
+	/** Member cache shared by all plain ReflectivePropertyAccessor instances */
+	private static final MemberCache sharedMemberCache = new MemberCache(true);
 
-	private final Map<PropertyCacheKey, Member> writerCache =
-			new ConcurrentHashMap<PropertyCacheKey, Member>(64);
 
-	private final Map<PropertyCacheKey, TypeDescriptor> typeDescriptorCache =
-			new ConcurrentHashMap<PropertyCacheKey, TypeDescriptor>(64);
+	private final MemberCache memberCache;
 
 	private InvokerPair lastReadInvokerPair;
 
 
+	public ReflectivePropertyAccessor() {
+		// Subclasses may customize the lookup of members, so they get a cache of their own
+		this.memberCache = (getClass() == ReflectivePropertyAccessor.class ?
+				sharedMemberCache : new MemberCache(false));
+	}
+
+
 	/**
 	 * Returns {@code null} which means this is a general purpose accessor.
 	 */
@@ -98,8 +104,8 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 		if (type.isArray() && name.equals("length")) {
 			return true;
 		}
-		PropertyCacheKey cacheKey = new PropertyCacheKey(type, name, target instanceof Class);
-		if (this.readerCache.containsKey(cacheKey)) {
+		PropertyMembers members = this.memberCache.getMembers(type, target);
+		if (members.readers.containsKey(name)) {
 			return true;
 		}
 		Method method = findGetterForProperty(name, type, target);
@@ -108,16 +114,16 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 			// The readerCache will only contain gettable properties (let's not worry about setters for now).
 			Property property = new Property(type, method, null);
 			TypeDescriptor typeDescriptor = new TypeDescriptor(property);
-			this.readerCache.put(cacheKey, new InvokerPair(method, typeDescriptor));
-			this.typeDescriptorCache.put(cacheKey, typeDescriptor);
+			members.readers.put(name, new InvokerPair(method, typeDescriptor));
+			members.typeDescriptors.put(name, typeDescriptor);
 			return true;
 		}
 		else {
 			Field field = findField(name, type, target);
 			if (field != null) {
 				TypeDescriptor typeDescriptor = new TypeDescriptor(field);
-				this.readerCache.put(cacheKey, new InvokerPair(field, typeDescriptor));
-				this.typeDescriptorCache.put(cacheKey, typeDescriptor);
+				members.readers.put(name, new InvokerPair(field, typeDescriptor));
+				members.typeDescriptors.put(name, typeDescriptor);
 				return true;
 			}
 		}
@@ -142,8 +148,8 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 			return new TypedValue(Array.getLength(target));
 		}
 
-		PropertyCacheKey cacheKey = new PropertyCacheKey(type, name, target instanceof Class);
-		InvokerPair invoker = this.readerCache.get(cacheKey);
+		PropertyMembers members = this.memberCache.getMembers(type, target);
+		InvokerPair invoker = members.readers.get(name);
 		lastReadInvokerPair = invoker;
 
 		if (invoker == null || invoker.member instanceof Method) {
@@ -158,7 +164,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 					TypeDescriptor typeDescriptor = new TypeDescriptor(property);
 					invoker = new InvokerPair(method, typeDescriptor);
 					lastReadInvokerPair = invoker;
-					this.readerCache.put(cacheKey, invoker);
+					members.readers.put(name, invoker);
 				}
 			}
 			if (method != null) {
@@ -180,7 +186,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 				if (field != null) {
 					invoker = new InvokerPair(field, new TypeDescriptor(field));
 					lastReadInvokerPair = invoker;
-					this.readerCache.put(cacheKey, invoker);
+					members.readers.put(name, invoker);
 				}
 			}
 			if (field != null) {
@@ -204,8 +210,8 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 			return false;
 		}
 		Class<?> type = (target instanceof Class ? (Class<?>) target : target.getClass());
-		PropertyCacheKey cacheKey = new PropertyCacheKey(type, name, target instanceof Class);
-		if (this.writerCache.containsKey(cacheKey)) {
+		PropertyMembers members = this.memberCache.getMembers(type, target);
+		if (members.writers.containsKey(name)) {
 			return true;
 		}
 		Method method = findSetterForProperty(name, type, target);
@@ -213,15 +219,15 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 			// Treat it like a property
 			Property property = new Property(type, null, method);
 			TypeDescriptor typeDescriptor = new TypeDescriptor(property);
-			this.writerCache.put(cacheKey, method);
-			this.typeDescriptorCache.put(cacheKey, typeDescriptor);
+			members.writers.put(name, method);
+			members.typeDescriptors.put(name, typeDescriptor);
 			return true;
 		}
 		else {
 			Field field = findField(name, type, target);
 			if (field != null) {
-				this.writerCache.put(cacheKey, field);
-				this.typeDescriptorCache.put(cacheKey, new TypeDescriptor(field));
+				members.writers.put(name, field);
+				members.typeDescriptors.put(name, new TypeDescriptor(field));
 				return true;
 			}
 		}
@@ -246,8 +252,8 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 				throw new AccessException("Type conversion failure", evaluationException);
 			}
 		}
-		PropertyCacheKey cacheKey = new PropertyCacheKey(type, name, target instanceof Class);
-		Member cachedMember = this.writerCache.get(cacheKey);
+		PropertyMembers members = this.memberCache.getMembers(type, target);
+		Member cachedMember = members.writers.get(name);
 
 		if (cachedMember == null || cachedMember instanceof Method) {
 			Method method = (Method) cachedMember;
@@ -255,7 +261,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 				method = findSetterForProperty(name, type, target);
 				if (method != null) {
 					cachedMember = method;
-					this.writerCache.put(cacheKey, cachedMember);
+					members.writers.put(name, cachedMember);
 				}
 			}
 			if (method != null) {
@@ -276,7 +282,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 				field = findField(name, type, target);
 				if (field != null) {
 					cachedMember = field;
-					this.writerCache.put(cacheKey, cachedMember);
+					members.writers.put(name, cachedMember);
 				}
 			}
 			if (field != null) {
@@ -303,16 +309,16 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 		if (type.isArray() && name.equals("length")) {
 			return TypeDescriptor.valueOf(Integer.TYPE);
 		}
-		PropertyCacheKey cacheKey = new PropertyCacheKey(type, name, target instanceof Class);
-		TypeDescriptor typeDescriptor = this.typeDescriptorCache.get(cacheKey);
+		PropertyMembers members = this.memberCache.getMembers(type, target);
+		TypeDescriptor typeDescriptor = members.typeDescriptors.get(name);
 		if (typeDescriptor == null) {
 			// attempt to populate the cache entry
 			try {
 				if (canRead(context, target, name)) {
-					typeDescriptor = this.typeDescriptorCache.get(cacheKey);
+					typeDescriptor = members.typeDescriptors.get(name);
 				}
 				else if (canWrite(context, target, name)) {
-					typeDescriptor = this.typeDescriptorCache.get(cacheKey);
+					typeDescriptor = members.typeDescriptors.get(name);
 				}
 			}
 			catch (AccessException ex) {
@@ -468,8 +474,8 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 			return this;
 		}
 
-		PropertyCacheKey cacheKey = new PropertyCacheKey(type, name, target instanceof Class);
-		InvokerPair invocationTarget = this.readerCache.get(cacheKey);
+		PropertyMembers members = this.memberCache.getMembers(type, target);
+		InvokerPair invocationTarget = members.readers.get(name);
 
 		if (invocationTarget == null || invocationTarget.member instanceof Method) {
 			Method method = (Method) (invocationTarget != null ? invocationTarget.member : null);
@@ -478,7 +484,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 				if (method != null) {
 					invocationTarget = new InvokerPair(method, new TypeDescriptor(new MethodParameter(method, -1)));
 					ReflectionUtils.makeAccessible(method);
-					this.readerCache.put(cacheKey, invocationTarget);
+					members.readers.put(name, invocationTarget);
 				}
 			}
 			if (method != null) {
@@ -493,7 +499,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 				if (field != null) {
 					invocationTarget = new InvokerPair(field, new TypeDescriptor(field));
 					ReflectionUtils.makeAccessible(field);
-					this.readerCache.put(cacheKey, invocationTarget);
+					members.readers.put(name, invocationTarget);
 				}
 			}
 			if (field != null) {
@@ -522,52 +528,57 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 	}
 
 
-	private static final class PropertyCacheKey implements Comparable<PropertyCacheKey> {
-
-		private final Class<?> clazz;
+	/**
+	 * Caches the members found for properties, per target type. A cache shared
+	 * by several accessor instances does not prevent classes from being unloaded.
+	 */
+	private static final class MemberCache {
 
-		private final String property;
+		private final ConcurrentMap<Class<?>, PropertyMembers> instanceMembers;
 
-		private boolean targetIsClass;
+		private final ConcurrentMap<Class<?>, PropertyMembers> staticMembers;
 
-		public PropertyCacheKey(Class<?> clazz, String name, boolean targetIsClass) {
-			this.clazz = clazz;
-			this.property = name;
-			this.targetIsClass = targetIsClass;
-		}
-
-		@Override
-		public boolean equals(Object other) {
-			if (this == other) {
-				return true;
+		public MemberCache(boolean shared) {
+			if (shared) {
+				this.instanceMembers = new ConcurrentReferenceHashMap<Class<?>, PropertyMembers>(64);
+				this.staticMembers = new ConcurrentReferenceHashMap<Class<?>, PropertyMembers>(16);
 			}
-			if (!(other instanceof PropertyCacheKey)) {
-				return false;
+			else {
+				this.instanceMembers = new ConcurrentHashMap<Class<?>, PropertyMembers>(64);
+				this.staticMembers = new ConcurrentHashMap<Class<?>, PropertyMembers>(16);
+			}
+		}
+
+		/**
+		 * Return the members of the given type, for access on the given target
+		 * which may be an instance of the type or the type itself.
+		 */
+		public PropertyMembers getMembers(Class<?> type, Object target) {
+			ConcurrentMap<Class<?>, PropertyMembers> cache =
+					(target instanceof Class ? this.staticMembers : this.instanceMembers);
+			PropertyMembers members = cache.get(type);
+			if (members == null) {
+				members = new PropertyMembers();
+				PropertyMembers existing = cache.putIfAbsent(type, members);
+				if (existing != null) {
+					members = existing;
+				}
 			}
-			PropertyCacheKey otherKey = (PropertyCacheKey) other;
-			return (this.clazz == otherKey.clazz && this.property.equals(otherKey.property) &&
-					this.targetIsClass == otherKey.targetIsClass);
+			return members;
 		}
+	}
 
-		@Override
-		public int hashCode() {
-			return (this.clazz.hashCode() * 29 + this.property.hashCode());
-		}
 
-		@Override
-		public String toString() {
-			return "CacheKey [clazz=" + this.clazz.getName() + ", property=" + this.property + ", " +
-					this.property + ", targetIsClass=" + this.targetIsClass + "]";
-		}
+	/**
+	 * The members found for the properties of a particular target type, by property name.
+	 */
+	private static final class PropertyMembers {
 
-		@Override
-		public int compareTo(PropertyCacheKey other) {
-			int result = this.clazz.getName().compareTo(other.clazz.getName());
-			if (result == 0) {
-				result = this.property.compareTo(other.property);
-			}
-			return result;
-		}
+		final Map<String, InvokerPair> readers = new ConcurrentHashMap<String, InvokerPair>(16);
+
+		final Map<String, Member> writers = new ConcurrentHashMap<String, Member>(16);
+
+		final Map<String, TypeDescriptor> typeDescriptors = new ConcurrentHashMap<String, TypeDescriptor>(16);
 	}
 
 
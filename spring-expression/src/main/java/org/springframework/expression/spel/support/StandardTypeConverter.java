@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,17 +18,23 @@ package org.springframework.expression.spel.support;
 
 import org.springframework.core.convert.ConversionException;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.PrimitiveConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.expression.TypeConverter;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * Default implementation of the {@link TypeConverter} interface,
  * delegating to a core Spring {@link ConversionService}.
  *
+ * <p>Conversions to {@code int}, {@code long}, {@code double} and {@code boolean}
+ * go through the direct operations of a {@link PrimitiveConversionService}
+ * if the given ConversionService implements that interface.
+ *
  * @author Juergen Hoeller
  * @author Andy Clement
  * @since 3.0
@@ -71,6 +77,11 @@ public class StandardTypeConverter implements TypeConverter {
 	@Override
 	public Object convertValue(Object value, TypeDescriptor sourceType, TypeDescriptor targetType) {
 		try {
+			if (this.conversionService instanceof PrimitiveConversionService &&
+					isDirectPrimitiveConversion(value, sourceType, targetType)) {
+				return convertToPrimitive((PrimitiveConversionService) this.conversionService,
+						value, targetType.getType());
+			}
 			return this.conversionService.convert(value, sourceType, targetType);
 		}
 		catch (ConversionException ex) {
@@ -79,4 +90,36 @@ public class StandardTypeConverter implements TypeConverter {
 		}
 	}
 
+
+	/**
+	 * Determine whether the given conversion is covered by the direct operations on
+	 * {@link PrimitiveConversionService}, which imply the source descriptor for the
+	 * value's class and a plain primitive target descriptor. Values of the target's
+	 * wrapper type go through regular conversion, retaining the given instance.
+	 */
+	private static boolean isDirectPrimitiveConversion(Object value, TypeDescriptor sourceType, TypeDescriptor targetType) {
+		if (value == null || sourceType == null || targetType == null || sourceType.getType() != value.getClass() ||
+				sourceType.getAnnotations().length > 0 || targetType.getAnnotations().length > 0) {
+			return false;
+		}
+		Class<?> type = targetType.getType();
+		return ((int.class == type || long.class == type || double.class == type || boolean.class == type) &&
+				!ClassUtils.isAssignableValue(type, value));
+	}
+
+	private static Object convertToPrimitive(PrimitiveConversionService conversionService, Object value, Class<?> type) {
+		if (int.class == type) {
+			return conversionService.convertToInt(value);
+		}
+		else if (long.class == type) {
+			return conversionService.convertToLong(value);
+		}
+		else if (double.class == type) {
+			return conversionService.convertToDouble(value);
+		}
+		else {
+			return conversionService.convertToBoolean(value);
+		}
+	}
+
 }
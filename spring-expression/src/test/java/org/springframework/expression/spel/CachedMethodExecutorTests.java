@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,22 @@
 
 package org.springframework.expression.spel;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.expression.AccessException;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.MethodExecutor;
+import org.springframework.expression.MethodResolver;
 import org.springframework.expression.spel.ast.MethodReference;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import static org.junit.Assert.*;
@@ -65,6 +74,20 @@ public class CachedMethodExecutorTests {
 		assertMethodExecution(expression, new RootObject(), "int: 42");
 	}
 
+	@Test
+	public void testCachedExecutionForDifferentTargetTypes() throws Exception {
+		Expression expression = this.parser.parseExpression("#var.echo(42)");
+		CountingMethodResolver resolver = new CountingMethodResolver();
+		for (int i = 0; i < 3; i++) {
+			// Different contexts for each evaluation, sharing the resolver
+			this.context = new StandardEvaluationContext();
+			this.context.setMethodResolvers(Collections.<MethodResolver>singletonList(resolver));
+			assertMethodExecution(expression, new RootObject(), "int: 42");
+			assertMethodExecution(expression, new OtherObject(), "other: 42");
+		}
+		assertEquals(2, resolver.resolutions);
+	}
+
 	private void assertMethodExecution(Expression expression, Object var, String expected) {
 		this.context.setVariable("var", var);
 		assertEquals(expected, expression.getValue(this.context));
@@ -87,4 +110,26 @@ public class CachedMethodExecutorTests {
 
 	}
 
+	public static class OtherObject {
+
+		public String echo(int value) {
+			return "other: " + value;
+		}
+
+	}
+
+	private static class CountingMethodResolver extends ReflectiveMethodResolver {
+
+		int resolutions;
+
+		@Override
+		public MethodExecutor resolve(EvaluationContext context, Object targetObject, String name,
+				List<TypeDescriptor> argumentTypes) throws AccessException {
+
+			this.resolutions++;
+			return super.resolve(context, targetObject, name, argumentTypes);
+		}
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.expression.spel;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
@@ -30,7 +31,9 @@ import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
 import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.testresources.Inventor;
 
 import static org.junit.Assert.*;
 
@@ -167,6 +170,51 @@ public class PropertyAccessTests extends AbstractExpressionTests {
 		assertEquals(value, "java.lang.String");
 	}
 
+	@Test
+	public void cachedAccessorsForDifferentTargetTypes() {
+		Expression expression = parser.parseExpression("name");
+		CountingReflectivePropertyAccessor accessor = new CountingReflectivePropertyAccessor();
+		for (int i = 0; i < 3; i++) {
+			// Different contexts for each evaluation, sharing the accessor
+			assertEquals("Nikola Tesla", expression.getValue(createContext(new Inventor("Nikola Tesla", null, "Serbian"), accessor)));
+			assertEquals("sample", expression.getValue(createContext(new Sample("sample"), accessor)));
+		}
+		assertEquals(2, accessor.resolutions);
+	}
+
+	private static StandardEvaluationContext createContext(Object root, PropertyAccessor accessor) {
+		StandardEvaluationContext context = new StandardEvaluationContext(root);
+		context.setPropertyAccessors(Collections.singletonList(accessor));
+		return context;
+	}
+
+
+	public static class Sample {
+
+		private final String name;
+
+		public Sample(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+	}
+
+
+	private static class CountingReflectivePropertyAccessor extends ReflectivePropertyAccessor {
+
+		int resolutions;
+
+		@Override
+		public boolean canRead(EvaluationContext context, Object target, String name) throws AccessException {
+			this.resolutions++;
+			return super.canRead(context, target, name);
+		}
+	}
+
+
 
 	// This can resolve the property 'flibbles' on any String (very useful...)
 	private static class StringyPropertyAccessor implements PropertyAccessor {
@@ -19,9 +19,14 @@ package org.springframework.expression.spel;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringTokenizer;
 
 import org.junit.Test;
@@ -102,20 +107,21 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	 * ConstructorReference
 	 * FunctionReference
 	 * InlineList
+	 * InlineMap
 	 * OpModulus
+	 * OpBetween
+	 * OpMatches
+	 * Projection
+	 * Selection
 	 *
 	 * Not yet compiled (some may never need to be):
 	 * Assign
 	 * BeanReference
 	 * Identifier
 	 * OpDec
-	 * OpBetween
-	 * OpMatches
 	 * OpPower
 	 * OpInc
-	 * Projection
 	 * QualifiedId
-	 * Selection
 	 */
 
 	@Test
@@ -4554,6 +4560,196 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertEquals(3,expression.getValue(root));
 	}
 
+	@Test
+	public void projection() throws Exception {
+		expression = parse("{1,2,3}.![#this * 2]");
+		assertEquals("[2, 4, 6]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[2, 4, 6]", expression.getValue().toString());
+
+		expression = parse("{'abc','de'}.![length()]");
+		assertEquals("[3, 2]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[3, 2]", expression.getValue().toString());
+
+		// Elements of a set, and the root object within the projection
+		Set<String> set = new LinkedHashSet<String>(Arrays.asList("a", "bc"));
+		expression = parse("#root.![#this.length() + #root.size()]");
+		assertEquals("[3, 4]", expression.getValue(set).toString());
+		assertCanCompile(expression);
+		assertEquals("[3, 4]", expression.getValue(set).toString());
+
+		// Null-safe projection
+		expression = parse("#root?.![#this]");
+		assertEquals("[a, bc]", expression.getValue(set).toString());
+		assertCanCompile(expression);
+		assertEquals("[a, bc]", expression.getValue(set).toString());
+		assertNull(expression.getValue((Object) null));
+
+		// Arrays are not supported
+		expression = parse("#root.![#this]");
+		expression.getValue(new String[] {"a"});
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void selection() throws Exception {
+		expression = parse("{1,2,3,4}.?[#this > 2]");
+		assertEquals("[3, 4]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[3, 4]", expression.getValue().toString());
+
+		expression = parse("{1,2,3,4}.^[#this > 2]");
+		assertEquals(3, expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(3, expression.getValue());
+
+		expression = parse("{1,2,3,4}.$[#this > 2]");
+		assertEquals(4, expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(4, expression.getValue());
+
+		expression = parse("{1,2,3,4}.^[#this > 5]");
+		assertNull(expression.getValue());
+		assertCanCompile(expression);
+		assertNull(expression.getValue());
+
+		expression = parse("{'abc','de','fgh'}.?[length() == 3].![toUpperCase()]");
+		assertEquals("[ABC, FGH]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[ABC, FGH]", expression.getValue().toString());
+
+		// Selection on a map (entries are evaluated as the active context object)
+		Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+		map.put("a", 1);
+		map.put("b", 2);
+		expression = parse("#root.?[#this != null]");
+		assertEquals("{a=1, b=2}", expression.getValue(map).toString());
+		assertCanCompile(expression);
+		assertEquals("{a=1, b=2}", expression.getValue(map).toString());
+
+		expression = parse("#root.$[#this != null]");
+		assertEquals("{b=2}", expression.getValue(map).toString());
+		assertCanCompile(expression);
+		assertEquals("{b=2}", expression.getValue(map).toString());
+
+		// The selection criteria must be boolean
+		expression = parse("{1,2}.?[#this]");
+		try {
+			expression.getValue();
+			fail("Should have failed with a non-boolean selection criteria");
+		}
+		catch (SpelEvaluationException ex) {
+			assertEquals(SpelMessage.RESULT_OF_SELECTION_CRITERIA_IS_NOT_BOOLEAN, ex.getMessageCode());
+		}
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void selectionRevertsToInterpretedForDifferentOperandType() throws Exception {
+		SpelParserConfiguration configuration =
+				new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader());
+		expression = new SpelExpressionParser(configuration).parseExpression("#root.?[true]");
+		List<String> list = Arrays.asList("a", "b");
+		assertEquals("[a, b]", expression.getValue(list).toString());
+		assertCanCompile(expression);
+		assertEquals("[a, b]", expression.getValue(list).toString());
+
+		Map<String, String> map = Collections.singletonMap("a", "b");
+		assertEquals("{a=b}", expression.getValue(map).toString());
+		assertEquals("[a, b]", expression.getValue(list).toString());
+	}
+
+	@Test
+	public void inlineMap() throws Exception {
+		expression = parse("{a:1,b:'two'}");
+		assertEquals("{a=1, b=two}", expression.getValue().toString());
+		assertCanCompile(expression);
+		Object constant = expression.getValue();
+		assertEquals("{a=1, b=two}", constant.toString());
+		assertSame(constant, expression.getValue());
+
+		expression = parse("{a:{1,2},b:{c:3}}['b']['c']");
+		assertEquals(3, expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(3, expression.getValue());
+
+		expression = parse("{a:#root.length(),'b':#root}");
+		assertEquals("{a=3, b=abc}", expression.getValue("abc").toString());
+		assertCanCompile(expression);
+		assertEquals("{a=3, b=abc}", expression.getValue("abc").toString());
+		assertEquals("{a=2, b=de}", expression.getValue("de").toString());
+	}
+
+	@Test
+	public void opBetween() throws Exception {
+		expression = parse("#root between {1,5}");
+		assertTrue(expression.getValue(3, Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue(1, Boolean.class));
+		assertTrue(expression.getValue(5, Boolean.class));
+		assertFalse(expression.getValue(0, Boolean.class));
+		assertFalse(expression.getValue(6, Boolean.class));
+
+		expression = parse("'b' between {'a','c'}");
+		assertTrue(expression.getValue(Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue(Boolean.class));
+
+		// Bounds must be a constant inline list
+		expression = parse("#root between {1,#root}");
+		assertTrue(expression.getValue(3, Boolean.class));
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void opMatches() throws Exception {
+		expression = parse("#root matches '[a-c]+'");
+		assertTrue(expression.getValue("abc", Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue("cab", Boolean.class));
+		assertFalse(expression.getValue("abd", Boolean.class));
+
+		expression = parse("'abc'.toUpperCase() matches 'A.C'");
+		assertTrue(expression.getValue(Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue(Boolean.class));
+
+		// Patterns that are not literals are not compiled
+		expression = parse("'abc' matches #root");
+		assertTrue(expression.getValue("a.c", Boolean.class));
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void indexerOnCollection() throws Exception {
+		Set<String> set = new LinkedHashSet<String>(Arrays.asList("a", "b", "c"));
+		expression = parse("#root[2]");
+		assertEquals("c", expression.getValue(set));
+		assertCanCompile(expression);
+		assertEquals("c", expression.getValue(set));
+
+		expression = parse("#root[#root.size() - 3].toUpperCase()");
+		assertEquals("A", expression.getValue(set));
+		assertCanCompile(expression);
+		assertEquals("A", expression.getValue(set));
+
+		StandardEvaluationContext ctx = new StandardEvaluationContext(set);
+		ctx.setVariable("i", 1);
+		expression = parse("#root[#i]");
+		assertEquals("b", expression.getValue(ctx));
+		assertCanCompile(expression);
+		assertEquals("b", expression.getValue(ctx));
+		ctx.setVariable("i", -1);
+		try {
+			expression.getValue(ctx);
+			fail();
+		}
+		catch (SpelEvaluationException see) {
+			assertTrue(see.getCause() instanceof IndexOutOfBoundsException);
+		}
+	}
+
 
 	// helper methods
 
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelBatchCompiler.CompilationResult;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.util.ReflectionUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link SpelBatchCompiler}.
+ *
+ * @since 4.3.1
+ */
+public class SpelBatchCompilerTests {
+
+	private final SpelExpressionParser parser = new SpelExpressionParser(
+			new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader()));
+
+
+	@Test
+	public void identicalExpressionsShareCompiledClass() {
+		SpelBatchCompiler batch = new SpelBatchCompiler();
+		Expression first = this.parser.parseExpression("name.length() + 1");
+		Expression second = this.parser.parseExpression("name.length() + 1");
+		Expression other = this.parser.parseExpression("name.length() + 2");
+		batch.addExpression(first, new StandardEvaluationContext(new Person("Juergen")));
+		batch.addExpression(second, new StandardEvaluationContext(new Person("Andy")));
+		batch.addExpression(other, new StandardEvaluationContext(new Person("Andy")));
+		assertEquals(3, batch.getExpressionCount());
+
+		CompilationResult result = batch.compile();
+		assertEquals(3, result.getCompiledCount());
+		assertEquals(2, result.getClassCount());
+		assertTrue(result.getFailures().isEmpty());
+		assertEquals(0, batch.getExpressionCount());
+		assertTrue(((SpelExpression) first).isCompiled());
+		assertTrue(((SpelExpression) second).isCompiled());
+		assertEquals(5, first.getValue(new Person("Mark")));
+		assertEquals(6, other.getValue(new Person("Mark")));
+	}
+
+	@Test
+	public void sharedClassAcrossBatches() {
+		SpelBatchCompiler batch = new SpelBatchCompiler();
+		Expression first = this.parser.parseExpression("name + '!'");
+		batch.addExpression(first, new StandardEvaluationContext(new Person("Juergen")));
+		batch.compile();
+
+		batch = new SpelBatchCompiler();
+		Expression second = this.parser.parseExpression("name + '!'");
+		batch.addExpression(second, new StandardEvaluationContext(new Person("Juergen")));
+		batch.compile();
+
+		assertTrue(((SpelExpression) second).isCompiled());
+		assertSame(getCompiledClass(first), getCompiledClass(second));
+		assertEquals("Mark!", second.getValue(new Person("Mark")));
+	}
+
+	@Test
+	public void failuresReportedOncePerExpressionString() {
+		SpelBatchCompiler batch = new SpelBatchCompiler();
+		batch.addExpression(this.parser.parseExpression("name"));
+		batch.addExpression(this.parser.parseExpression("name"));
+		batch.addExpression(this.parser.parseExpression("unknown"),
+				new StandardEvaluationContext(new Person("Juergen")));
+
+		CompilationResult result = batch.compile();
+		assertEquals(0, result.getCompiledCount());
+		Map<String, String> failures = result.getFailures();
+		assertEquals(2, failures.size());
+		assertTrue(failures.get("name"), failures.get("name").startsWith("Not compilable at PropertyOrFieldReference"));
+		assertTrue(failures.get("unknown"), failures.get("unknown").startsWith("Evaluation against sample context failed"));
+	}
+
+	@Test
+	public void mixedModeRevertsToInterpretedForDifferentTypes() {
+		SpelBatchCompiler batch = new SpelBatchCompiler();
+		Expression expression = this.parser.parseExpression("name");
+		batch.addExpression(expression, new StandardEvaluationContext(new Person("Juergen")));
+		batch.compile();
+		assertTrue(((SpelExpression) expression).isCompiled());
+
+		assertEquals("Rex", expression.getValue(new Dog("Rex")));
+		assertFalse(((SpelExpression) expression).isCompiled());
+	}
+
+
+	private static Class<?> getCompiledClass(Expression expression) {
+		Field field = ReflectionUtils.findField(SpelExpression.class, "compiledAst");
+		ReflectionUtils.makeAccessible(field);
+		return ReflectionUtils.getField(field, expression).getClass();
+	}
+
+
+	public static class Person {
+
+		private final String name;
+
+		public Person(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+	}
+
+
+	public static class Dog {
+
+		private final String name;
+
+		public Dog(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.simp.broker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Benchmarks for {@link DefaultSubscriptionRegistry#findSubscriptions}, with
+ * destinations hitting the resolved-destination cache as well as destinations
+ * that exceed the cache limit.
+ *
+ * @since 4.3.1
+ */
+@State(Scope.Benchmark)
+public class DefaultSubscriptionRegistryBenchmark {
+
+	@Param({"100", "5000"})
+	public int sessionCount;
+
+	@Param({"10", "2000"})
+	public int destinationCount;
+
+	private DefaultSubscriptionRegistry registry;
+
+	private Message<?>[] messages;
+
+	private int index;
+
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.registry = new DefaultSubscriptionRegistry();
+		for (int i = 0; i < this.sessionCount; i++) {
+			String sessionId = "sess" + i;
+			this.registry.registerSubscription(subscribeMessage(sessionId, "sub1", "/topic/news" + (i % this.destinationCount)));
+			this.registry.registerSubscription(subscribeMessage(sessionId, "sub2", "/topic/prices/**"));
+			this.registry.registerSubscription(subscribeMessage(sessionId, "sub3", "/user/queue/" + i));
+		}
+		this.messages = new Message<?>[this.destinationCount];
+		for (int i = 0; i < this.destinationCount; i++) {
+			this.messages[i] = createMessage(i % 2 == 0 ? "/topic/news" + i : "/topic/prices/stock" + i);
+		}
+	}
+
+
+	@Benchmark
+	public void findSubscriptions(Blackhole bh) {
+		bh.consume(this.registry.findSubscriptions(this.messages[this.index]));
+		this.index = (this.index + 1) % this.messages.length;
+	}
+
+
+	private static Message<?> createMessage(String destination) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+		accessor.setDestination(destination);
+		return MessageBuilder.createMessage("", accessor.getMessageHeaders());
+	}
+
+	private static Message<?> subscribeMessage(String sessionId, String subscriptionId, String destination) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+		accessor.setSessionId(sessionId);
+		accessor.setSubscriptionId(subscriptionId);
+		accessor.setDestination(destination);
+		return MessageBuilder.createMessage("", accessor.getMessageHeaders());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,9 @@
 
 package org.springframework.messaging.simp.broker;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,6 +41,7 @@ import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.PathMatcher;
@@ -87,6 +88,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	 */
 	public void setCacheLimit(int cacheLimit) {
 		this.cacheLimit = cacheLimit;
+		this.destinationCache.setCacheLimit(Math.max(cacheLimit, 0));
 	}
 
 	/**
@@ -242,26 +244,29 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	 */
 	private class DestinationCache {
 
-		/** Map from destination -> <sessionId, subscriptionId> for fast look-ups */
-		private final Map<String, LinkedMultiValueMap<String, String>> accessCache =
-				new ConcurrentHashMap<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT);
-
-		/** Map from destination -> <sessionId, subscriptionId> with locking */
-		@SuppressWarnings("serial")
-		private final Map<String, LinkedMultiValueMap<String, String>> updateCache =
-				new LinkedHashMap<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
+		/**
+		 * Map from destination -> <sessionId, subscriptionId> for fast look-ups,
+		 * bounded in size. Evictions only ever happen while holding the lock on
+		 * the {@link #updateCache}, since every write to this cache does.
+		 */
+		private final ConcurrentLruCache<String, LinkedMultiValueMap<String, String>> accessCache =
+				new ConcurrentLruCache<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT) {
 					@Override
-					protected boolean removeEldestEntry(Map.Entry<String, LinkedMultiValueMap<String, String>> eldest) {
-						if (size() > getCacheLimit()) {
-							accessCache.remove(eldest.getKey());
-							return true;
-						}
-						else {
-							return false;
-						}
+					protected void onEviction(String destination, LinkedMultiValueMap<String, String> subscriptions) {
+						updateCache.remove(destination);
 					}
 				};
 
+		/** Map from destination -> <sessionId, subscriptionId> with locking */
+		private final Map<String, LinkedMultiValueMap<String, String>> updateCache =
+				new HashMap<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT);
+
+
+		public void setCacheLimit(int cacheLimit) {
+			synchronized (this.updateCache) {
+				this.accessCache.setCapacity(cacheLimit);
+			}
+		}
 
 		public LinkedMultiValueMap<String, String> getSubscriptions(String destination, Message<?> message) {
 			LinkedMultiValueMap<String, String> result = this.accessCache.get(destination);
@@ -288,10 +293,16 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 		public void updateAfterNewSubscription(String destination, String sessionId, String subsId) {
 			synchronized (this.updateCache) {
-				for (Map.Entry<String, LinkedMultiValueMap<String, String>> entry : this.updateCache.entrySet()) {
-					String cachedDestination = entry.getKey();
+				// Snapshot of the matching destinations, see getDestinationsFor
+				List<String> cachedDestinations = new ArrayList<String>();
+				for (String cachedDestination : this.updateCache.keySet()) {
 					if (getPathMatcher().match(destination, cachedDestination)) {
-						LinkedMultiValueMap<String, String> subs = entry.getValue();
+						cachedDestinations.add(cachedDestination);
+					}
+				}
+				for (String cachedDestination : cachedDestinations) {
+					LinkedMultiValueMap<String, String> subs = this.updateCache.get(cachedDestination);
+					if (subs != null) {  // not evicted meanwhile
 						subs.add(sessionId, subsId);
 						this.accessCache.put(cachedDestination, subs.deepCopy());
 					}
@@ -301,56 +312,62 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 		public void updateAfterRemovedSubscription(String sessionId, String subsId) {
 			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<String>();
-				for (Map.Entry<String, LinkedMultiValueMap<String, String>> entry : this.updateCache.entrySet()) {
-					String destination = entry.getKey();
-					LinkedMultiValueMap<String, String> sessionMap = entry.getValue();
-					List<String> subscriptions = sessionMap.get(sessionId);
+				for (String destination : getDestinationsFor(sessionId)) {
+					LinkedMultiValueMap<String, String> sessionMap = this.updateCache.get(destination);
+					List<String> subscriptions = (sessionMap != null ? sessionMap.get(sessionId) : null);
 					if (subscriptions != null) {
 						subscriptions.remove(subsId);
 						if (subscriptions.isEmpty()) {
 							sessionMap.remove(sessionId);
 						}
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
-						}
+						updateAccessCache(destination, sessionMap);
 					}
 				}
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
-				}
 			}
 		}
 
 		public void updateAfterRemovedSession(SessionSubscriptionInfo info) {
 			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<String>();
-				for (Map.Entry<String, LinkedMultiValueMap<String, String>> entry : this.updateCache.entrySet()) {
-					String destination = entry.getKey();
-					LinkedMultiValueMap<String, String> sessionMap = entry.getValue();
-					if (sessionMap.remove(info.getSessionId()) != null) {
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
-						}
+				for (String destination : getDestinationsFor(info.getSessionId())) {
+					LinkedMultiValueMap<String, String> sessionMap = this.updateCache.get(destination);
+					if (sessionMap != null && sessionMap.remove(info.getSessionId()) != null) {
+						updateAccessCache(destination, sessionMap);
 					}
 				}
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
+			}
+		}
+
+		/**
+		 * Take a snapshot of the cached destinations with subscriptions of the given
+		 * session: updating the {@link #accessCache} may evict entries and thereby
+		 * remove them from the {@link #updateCache}, so the latter must not be
+		 * iterated over while updating, and destinations of the snapshot may be
+		 * gone from it by the time they are processed.
+		 */
+		private List<String> getDestinationsFor(String sessionId) {
+			List<String> destinations = new ArrayList<String>();
+			for (Map.Entry<String, LinkedMultiValueMap<String, String>> entry : this.updateCache.entrySet()) {
+				if (entry.getValue().containsKey(sessionId)) {
+					destinations.add(entry.getKey());
 				}
 			}
+			return destinations;
+		}
+
+		private void updateAccessCache(String destination, LinkedMultiValueMap<String, String> sessionMap) {
+			if (sessionMap.isEmpty()) {
+				this.updateCache.remove(destination);
+				this.accessCache.remove(destination);
+			}
+			else {
+				this.accessCache.put(destination, sessionMap.deepCopy());
+			}
 		}
 
 		@Override
 		public String toString() {
-			return "cache[" + this.accessCache.size() + " destination(s)]";
+			return "cache[" + this.accessCache.size() + " destination(s), " +
+					this.accessCache.getHitCount() + " hit(s), " + this.accessCache.getMissCount() + " miss(es)]";
 		}
 	}
 
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.HandlerExecutionChain;
+
+/**
+ * Benchmarks for the {@link RequestMappingHandlerMapping} lookup of a
+ * handler method for an incoming request.
+ *
+ * @since 4.3.1
+ */
+@State(Scope.Benchmark)
+public class RequestMappingHandlerMappingBenchmark {
+
+	private RequestMappingHandlerMapping handlerMapping;
+
+	private MockHttpServletRequest directMatchRequest;
+
+	private MockHttpServletRequest patternMatchRequest;
+
+	private MockHttpServletRequest noMatchRequest;
+
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		StaticWebApplicationContext wac = new StaticWebApplicationContext();
+		MockServletContext servletContext = new MockServletContext();
+		wac.setServletContext(servletContext);
+		wac.registerSingleton("userController", UserController.class);
+		wac.registerSingleton("productController", ProductController.class);
+		wac.refresh();
+
+		this.handlerMapping = new RequestMappingHandlerMapping();
+		this.handlerMapping.setApplicationContext(wac);
+		this.handlerMapping.afterPropertiesSet();
+
+		this.directMatchRequest = new MockHttpServletRequest(servletContext, "GET", "/users");
+		this.patternMatchRequest = new MockHttpServletRequest(servletContext, "GET", "/products/books/123/reviews");
+		this.noMatchRequest = new MockHttpServletRequest(servletContext, "GET", "/unknown/path");
+	}
+
+
+	@Benchmark
+	public HandlerExecutionChain directMatch() throws Exception {
+		return this.handlerMapping.getHandler(this.directMatchRequest);
+	}
+
+	@Benchmark
+	public HandlerExecutionChain patternMatch() throws Exception {
+		return this.handlerMapping.getHandler(this.patternMatchRequest);
+	}
+
+	@Benchmark
+	public HandlerExecutionChain noMatch() throws Exception {
+		return this.handlerMapping.getHandler(this.noMatchRequest);
+	}
+
+
+	@Controller
+	@RequestMapping("/users")
+	static class UserController {
+
+		@GetMapping
+		public void list() {
+		}
+
+		@PostMapping
+		public void create() {
+		}
+
+		@GetMapping("/{id}")
+		public void show(@PathVariable String id) {
+		}
+
+		@PostMapping("/{id}")
+		public void update(@PathVariable String id) {
+		}
+
+		@GetMapping("/{id}/orders")
+		public void orders(@PathVariable String id) {
+		}
+
+		@GetMapping("/{id}/orders/{orderId}")
+		public void order(@PathVariable String id, @PathVariable String orderId) {
+		}
+	}
+
+
+	@Controller
+	@RequestMapping("/products")
+	static class ProductController {
+
+		@GetMapping
+		public void list() {
+		}
+
+		@GetMapping("/{category}")
+		public void category(@PathVariable String category) {
+		}
+
+		@GetMapping("/{category}/{id}")
+		public void show(@PathVariable String category, @PathVariable String id) {
+		}
+
+		@GetMapping("/{category}/{id}/reviews")
+		public void reviews(@PathVariable String category, @PathVariable String id) {
+		}
+
+		@GetMapping("/search/**")
+		public void search() {
+		}
+	}
+
+}
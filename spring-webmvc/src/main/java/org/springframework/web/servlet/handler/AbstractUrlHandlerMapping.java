@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,8 +17,10 @@
 package org.springframework.web.servlet.handler;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,8 +28,11 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.BeansException;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.AntPathPatternSet;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.PathMatcher;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerMapping;
 
@@ -60,6 +65,9 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 
 	private final Map<String, Object> handlerMap = new LinkedHashMap<String, Object>();
 
+	/** Registered URL patterns compiled for the default AntPathMatcher, lazily built on first lookup */
+	private volatile CompiledHandlerPatterns compiledPatterns;
+
 
 	/**
 	 * Set the root handler for this handler mapping, that is,
@@ -172,17 +180,7 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 			return buildPathExposingHandler(handler, urlPath, urlPath, null);
 		}
 		// Pattern match?
-		List<String> matchingPatterns = new ArrayList<String>();
-		for (String registeredPattern : this.handlerMap.keySet()) {
-			if (getPathMatcher().match(registeredPattern, urlPath)) {
-				matchingPatterns.add(registeredPattern);
-			}
-			else if (useTrailingSlashMatch()) {
-				if (!registeredPattern.endsWith("/") && getPathMatcher().match(registeredPattern + "/", urlPath)) {
-					matchingPatterns.add(registeredPattern +"/");
-				}
-			}
-		}
+		List<String> matchingPatterns = getMatchingPatterns(urlPath);
 		String bestPatternMatch = null;
 		Comparator<String> patternComparator = getPathMatcher().getPatternComparator(urlPath);
 		if (!matchingPatterns.isEmpty()) {
@@ -225,6 +223,43 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 		return null;
 	}
 
+	/**
+	 * Determine the registered patterns that match the given URL path, in
+	 * registration order, including trailing slash variants of registered
+	 * patterns if {@link #useTrailingSlashMatch()} is on.
+	 * <p>For the default {@link AntPathMatcher}, all registered patterns are
+	 * matched in a single pass through an {@link AntPathPatternSet}; any other
+	 * {@link PathMatcher} is invoked for each registered pattern.
+	 * @param urlPath the URL path to match
+	 * @return the matching patterns (never {@code null})
+	 * @since 4.3.1
+	 */
+	protected List<String> getMatchingPatterns(String urlPath) {
+		PathMatcher pathMatcher = getPathMatcher();
+		if (pathMatcher.getClass() == AntPathMatcher.class) {
+			CompiledHandlerPatterns compiled = this.compiledPatterns;
+			if (compiled == null || !compiled.isCompiledFor(pathMatcher, useTrailingSlashMatch())) {
+				compiled = new CompiledHandlerPatterns(
+						(AntPathMatcher) pathMatcher, useTrailingSlashMatch(), this.handlerMap.keySet());
+				this.compiledPatterns = compiled;
+			}
+			return compiled.getMatchingPatterns(urlPath);
+		}
+
+		List<String> matchingPatterns = new ArrayList<String>();
+		for (String registeredPattern : this.handlerMap.keySet()) {
+			if (pathMatcher.match(registeredPattern, urlPath)) {
+				matchingPatterns.add(registeredPattern);
+			}
+			else if (useTrailingSlashMatch()) {
+				if (!registeredPattern.endsWith("/") && pathMatcher.match(registeredPattern + "/", urlPath)) {
+					matchingPatterns.add(registeredPattern +"/");
+				}
+			}
+		}
+		return matchingPatterns;
+	}
+
 	/**
 	 * Validate the given handler against the current request.
 	 * <p>The default implementation is empty. Can be overridden in subclasses,
@@ -337,6 +372,7 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 			}
 			else {
 				this.handlerMap.put(urlPath, resolvedHandler);
+				this.compiledPatterns = null;
 				if (logger.isInfoEnabled()) {
 					logger.info("Mapped URL path [" + urlPath + "] onto " + getHandlerDescription(handler));
 				}
@@ -367,6 +403,78 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 	}
 
 
+	/**
+	 * The registered URL patterns, compiled for a specific {@link AntPathMatcher}.
+	 * Trailing slash variants are kept in a separate set since they only apply
+	 * if the original pattern does not match.
+	 */
+	private static class CompiledHandlerPatterns {
+
+		private final PathMatcher pathMatcher;
+
+		private final boolean useTrailingSlashMatch;
+
+		private final AntPathPatternSet patterns;
+
+		private final AntPathPatternSet trailingSlashPatterns;
+
+		private final Map<String, Integer> registrationOrder;
+
+		public CompiledHandlerPatterns(AntPathMatcher pathMatcher, boolean useTrailingSlashMatch,
+				Collection<String> registeredPatterns) {
+
+			this.pathMatcher = pathMatcher;
+			this.useTrailingSlashMatch = useTrailingSlashMatch;
+			this.patterns = pathMatcher.compilePatterns(registeredPatterns);
+			this.registrationOrder = new HashMap<String, Integer>(registeredPatterns.size() * 2);
+			List<String> trailingSlashPatterns = new ArrayList<String>();
+			for (String registeredPattern : registeredPatterns) {
+				this.registrationOrder.put(registeredPattern, this.registrationOrder.size());
+				if (useTrailingSlashMatch && !registeredPattern.endsWith("/")) {
+					trailingSlashPatterns.add(registeredPattern + "/");
+				}
+			}
+			this.trailingSlashPatterns = (useTrailingSlashMatch ? pathMatcher.compilePatterns(trailingSlashPatterns) : null);
+		}
+
+		public boolean isCompiledFor(PathMatcher pathMatcher, boolean useTrailingSlashMatch) {
+			// The settings of the matcher may have been changed after compilation
+			return (this.pathMatcher == pathMatcher && this.useTrailingSlashMatch == useTrailingSlashMatch &&
+					((AntPathMatcher) pathMatcher).isCompiledWithCurrentSettings(this.patterns));
+		}
+
+		public List<String> getMatchingPatterns(String urlPath) {
+			List<String> matches = this.patterns.getMatchingPatterns(urlPath);
+			if (this.trailingSlashPatterns == null) {
+				return new ArrayList<String>(matches);
+			}
+			List<String> trailingSlashMatches = this.trailingSlashPatterns.getMatchingPatterns(urlPath);
+			if (trailingSlashMatches.isEmpty()) {
+				return new ArrayList<String>(matches);
+			}
+			// Merge in registration order, with a trailing slash variant
+			// only applying if its original pattern did not match
+			List<String> result = new ArrayList<String>(matches.size() + trailingSlashMatches.size());
+			int i = 0;
+			for (String trailingSlashMatch : trailingSlashMatches) {
+				String registeredPattern = trailingSlashMatch.substring(0, trailingSlashMatch.length() - 1);
+				int order = this.registrationOrder.get(registeredPattern);
+				while (i < matches.size() && this.registrationOrder.get(matches.get(i)) < order) {
+					result.add(matches.get(i++));
+				}
+				if (i < matches.size() && matches.get(i).equals(registeredPattern)) {
+					continue;
+				}
+				result.add(trailingSlashMatch);
+			}
+			while (i < matches.size()) {
+				result.add(matches.get(i++));
+			}
+			return result;
+		}
+	}
+
+
 	/**
 	 * Special interceptor for exposing the
 	 * {@link AbstractUrlHandlerMapping#PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE} attribute.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.context.support.StaticApplicationContext;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockServletContext;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.context.support.XmlWebApplicationContext;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -89,6 +90,22 @@ public class SimpleUrlHandlerMappingTests {
 		assertSame(controller, hec.getHandler());
 	}
 
+	@Test
+	public void pathMatcherSettingsChangedAfterLookup() throws Exception {
+		SimpleUrlHandlerMapping handlerMapping = new SimpleUrlHandlerMapping();
+		Object controller = new Object();
+		Map<String, Object> urlMap = new LinkedHashMap<String, Object>();
+		urlMap.put("/*/baz", controller);
+		handlerMapping.setUrlMap(urlMap);
+		handlerMapping.setApplicationContext(new StaticApplicationContext());
+
+		assertNull(handlerMapping.getHandler(new MockHttpServletRequest("GET", "/foo/BAZ")));
+		((AntPathMatcher) handlerMapping.getPathMatcher()).setCaseSensitive(false);
+		HandlerExecutionChain hec = handlerMapping.getHandler(new MockHttpServletRequest("GET", "/foo/BAZ"));
+		assertNotNull(hec);
+		assertSame(controller, hec.getHandler());
+	}
+
 	private void checkMappings(String beanName) throws Exception {
 		MockServletContext sc = new MockServletContext("");
 		XmlWebApplicationContext wac = new XmlWebApplicationContext();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -535,6 +535,25 @@ public class ViewResolverTests {
 		assertEquals(3, count.intValue());
 	}
 
+	@Test
+	public void testCacheStatistics() throws Exception {
+		AbstractCachingViewResolver viewResolver = new AbstractCachingViewResolver() {
+			@Override
+			protected View loadView(String viewName, Locale locale) throws Exception {
+				return new InternalResourceView(viewName);
+			}
+		};
+
+		viewResolver.resolveViewName("view", Locale.getDefault());
+		assertEquals(0, viewResolver.getCacheHitCount());
+		assertEquals(1, viewResolver.getCacheMissCount());
+
+		viewResolver.resolveViewName("view", Locale.getDefault());
+		viewResolver.resolveViewName("otherView", Locale.getDefault());
+		assertEquals(1, viewResolver.getCacheHitCount());
+		assertEquals(2, viewResolver.getCacheMissCount());
+	}
+
 
 	public static class TestView extends InternalResourceView {
 